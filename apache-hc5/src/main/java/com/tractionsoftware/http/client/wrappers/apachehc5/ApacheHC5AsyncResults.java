@@ -0,0 +1,541 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.apachehc5;
+
+import com.tractionsoftware.http.client.wrappers.DrainPolicy;
+import com.tractionsoftware.http.client.wrappers.HttpHeaderCollection;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Provides {@link HttpOperationResult}s for {@link HttpRequest}s and {@link HttpResponse}s from the asynchronous API of
+ * version 5.x of Apache's HttpComponents HttpClient, i.e., {@link CloseableHttpAsyncClient}. Unlike
+ * {@link ApacheHC5Results}, the response does not enclose an entity: the result object is whatever was produced by
+ * the {@link AsyncResponseConsumer}, e.g., a {@link SimpleHttpResponse} for a {@link SimpleHttpRequest}, or the body of
+ * the {@link org.apache.hc.core5.http.Message} produced by a streaming consumer. The status mapping is the same as for
+ * the classic API, via the same set of factory methods.
+ *
+ * <p>
+ * The {@code execute} methods send a request via the I/O reactor and return a {@link CompletableFuture} that is
+ * completed with an {@link HttpOperationResult} from the reactor's callback, so that no thread is blocked while
+ * waiting for the response.
+ *
+ * @author Dave Shepperton
+ */
+public final class ApacheHC5AsyncResults {
+
+    // Not instantiable.
+    private ApacheHC5AsyncResults() {
+    }
+
+    static {
+        ApacheHC5Results.registerRequestDescriber();
+    }
+
+    private static final class ApacheHC5AsyncResponseAdapter<T>
+        extends HttpOperationResult.AbstractResponseAdapter<HttpResponse,T> {
+
+        private ApacheHC5AsyncResponseAdapter(HttpResponse response, T body) {
+            super(response, body);
+        }
+
+        /**
+         * This implementation consumes only the result object. By the time an asynchronous response is available, its
+         * content has already been passed to the response consumer, and the connection has been released or discarded
+         * by the I/O reactor, so there is nothing further to drain.
+         */
+        @Override
+        public boolean close(DrainPolicy policy) {
+            return HttpOperationResult.consumeAndClose(result, policy);
+        }
+
+        @Override
+        public int statusCode() {
+            return response.getCode();
+        }
+
+        /**
+         * @implNote Since Apache HC5 HTTP client API supports retrieving response headers in the order in which
+         *     they were encountered, the {@link HttpHeaderCollection} returned by this implementation will correctly
+         *     reflect that order. The returned collection reads directly from the response until it is modified.
+         */
+        @Override
+        public HttpHeaderCollection headers() {
+            return HttpHeaderCollection.createLazyInstance(new ApacheHC5Results.ApacheHC5HeaderSource(response));
+        }
+
+    }
+
+    /**
+     * Executes the given {@link SimpleHttpRequest} via the given client, and returns a {@link CompletableFuture} that
+     * will be completed with an {@link HttpOperationResult} created by the given factory from the buffered
+     * {@link SimpleHttpResponse}, e.g., by examining its status code and passing it with its body to
+     * {@link #createResultForSuccessfulOperation(HttpRequest, HttpResponse, Object)} or
+     * {@link #createResultForServerError(HttpRequest, HttpResponse, Object)}. Errors are represented as described for
+     * {@link #createResultAsync(HttpRequest, CompletionStage, BiFunction, Function)}.
+     *
+     * @param client
+     *     the client via which to execute the request.
+     * @param request
+     *     the request object.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for a received response.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult}; cancelling it
+     *     cancels the request.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static <T, X extends Exception> CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse,T,X>> execute(
+        CloseableHttpAsyncClient client,
+        SimpleHttpRequest request,
+        BiFunction<? super HttpRequest,? super SimpleHttpResponse,HttpOperationResult<HttpRequest,HttpResponse,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        Objects.requireNonNull(client, "client");
+        Objects.requireNonNull(request, "request");
+        CompletableFuture<SimpleHttpResponse> response = new CompletableFuture<>();
+        try {
+            bind(response, client.execute(request, new CompletingCallback<>(response)));
+        }
+        catch (RuntimeException e) {
+            response.completeExceptionally(e);
+        }
+        return createResultAsync(request, response, resultFactory, otherErrorFactory);
+    }
+
+    /**
+     * Executes a request via the given client using the given {@link AsyncRequestProducer} and
+     * {@link AsyncResponseConsumer}, and returns a {@link CompletableFuture} that will be completed with an
+     * {@link HttpOperationResult} created by the given factory from whatever the consumer produces, e.g., a
+     * {@link org.apache.hc.core5.http.Message} whose head is the {@link HttpResponse} and whose body is the result
+     * object. This supports streaming consumers, which process the content as it arrives rather than buffering it.
+     * Errors are represented as described for {@link #createResultAsync(HttpRequest, CompletionStage, BiFunction,
+     * Function)}.
+     *
+     * @param client
+     *     the client via which to execute the request.
+     * @param request
+     *     the request object, which should be the request produced by the given producer; it is used only to
+     *     represent the request in the result.
+     * @param requestProducer
+     *     the producer of the request.
+     * @param responseConsumer
+     *     the consumer of the response.
+     * @param context
+     *     the context in which to execute the request, or null to use a new default context.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for the object produced by the response consumer.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <V>
+     *     the type of object produced by the response consumer.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult}; cancelling it
+     *     cancels the request.
+     * @throws NullPointerException
+     *     if any argument other than the context is null.
+     */
+    public static <V, T, X extends Exception> CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse,T,X>> execute(
+        CloseableHttpAsyncClient client,
+        HttpRequest request,
+        AsyncRequestProducer requestProducer,
+        AsyncResponseConsumer<V> responseConsumer,
+        HttpContext context,
+        BiFunction<? super HttpRequest,? super V,HttpOperationResult<HttpRequest,HttpResponse,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        Objects.requireNonNull(client, "client");
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(requestProducer, "requestProducer");
+        Objects.requireNonNull(responseConsumer, "responseConsumer");
+        CompletableFuture<V> response = new CompletableFuture<>();
+        try {
+            bind(
+                response,
+                client.execute(requestProducer, responseConsumer, context, new CompletingCallback<>(response))
+            );
+        }
+        catch (RuntimeException e) {
+            response.completeExceptionally(e);
+        }
+        return createResultAsync(request, response, resultFactory, otherErrorFactory);
+    }
+
+    /**
+     * Returns a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult} when the given
+     * {@link CompletionStage} for a response is completed, without blocking any thread in the meantime. Errors are
+     * represented as described for {@link HttpOperationResult#createInstanceForAsyncError(Object, Throwable,
+     * Function)}; in particular, {@link org.apache.hc.core5.http.ConnectionClosedException} and other
+     * {@link IOException}s are represented by {@link HttpOperationResult.RequestStatus#ERROR_IO}, and cancellation by
+     * {@link HttpOperationResult.RequestStatus#ERROR_INTERRUPTED}.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the {@link CompletionStage} that will be completed with the object produced by the response consumer.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for the object produced by the response consumer.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <V>
+     *     the type of object produced by the response consumer.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult}; cancelling it
+     *     cancels the response stage.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static <V, T, X extends Exception> CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse,T,X>> createResultAsync(
+        HttpRequest request,
+        CompletionStage<V> response,
+        BiFunction<? super HttpRequest,? super V,HttpOperationResult<HttpRequest,HttpResponse,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        return HttpOperationResult.createResultAsync(request, response, resultFactory, otherErrorFactory);
+    }
+
+    /**
+     * A {@link FutureCallback} that completes a {@link CompletableFuture}.
+     */
+    private static final class CompletingCallback<V> implements FutureCallback<V> {
+
+        private final CompletableFuture<V> future;
+
+        private CompletingCallback(CompletableFuture<V> future) {
+            this.future = future;
+        }
+
+        @Override
+        public void completed(V result) {
+            if (!future.complete(result)) {
+                HttpOperationResult.consumeAndClose(result);
+            }
+        }
+
+        @Override
+        public void failed(Exception e) {
+            future.completeExceptionally(e);
+        }
+
+        @Override
+        public void cancelled() {
+            future.cancel(false);
+        }
+
+    }
+
+    /*
+     * Cancels the given request if the given CompletableFuture is cancelled.
+     */
+    private static void bind(CompletableFuture<?> future, Future<?> request) {
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                request.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} representing an error that was encountered while attempting to set up the
+     * request.
+     *
+     * @param error
+     *     the Exception of type X representing the error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult} representing the given error.
+     * @throws NullPointerException
+     *     if the error is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createInstanceForRequestSetupError(X error) {
+        return HttpOperationResult.createInstanceForRequestSetupError(error);
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} representing an I/O failure that occurred while sending the request or
+     * receiving the response.
+     *
+     * @param request
+     *     the request object.
+     * @param error
+     *     the IOException representing the failure.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult} representing the given error.
+     * @throws NullPointerException
+     *     if the request or error is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createInstanceForRequestIOFailure(HttpRequest request, IOException error) {
+        return HttpOperationResult.createInstanceForIOFailure(request, error);
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} representing an interruption of the initiation or sending of the request,
+     * or the reception or processing of the response. This may be due to a timeout, or due to something inside the JVM
+     * signaling the thread that was performing the operation.
+     *
+     * @param request
+     *     the request object.
+     * @param error
+     *     the InterruptedException representing the interruption.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult} representing the given error.
+     * @throws NullPointerException
+     *     if the request or error is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createInstanceForRequestInterrupted(HttpRequest request, InterruptedException error) {
+        return HttpOperationResult.createInstanceForRequestInterrupted(request, error);
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} representing some other unexpected failure encountered while attempting to
+     * initiate or send the request, or to receive or process the response.
+     *
+     * @param request
+     *     the request object.
+     * @param error
+     *     the Exception of type X representing the error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult} representing the given error.
+     * @throws NullPointerException
+     *     if the request or error is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createInstanceForOtherError(HttpRequest request, X error) {
+        return HttpOperationResult.createInstanceForOtherError(request, error);
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} representing an operation that completed successfully, and for which it is
+     * already known that a result object was successfully produced.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the response object.
+     * @param body
+     *     the result object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult} representing the successful operation.
+     * @throws NullPointerException
+     *     if the request or response is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createResultForSuccessfulOperation(HttpRequest request, HttpResponse response, T body) {
+        return HttpOperationResult.createResultForSuccessfulOperation(
+            request,
+            new ApacheHC5AsyncResponseAdapter<>(response, body)
+        );
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} representing a failure to perform the operation which should be treated as
+     * a warning rather than as an error. It should generally be the case that a result object was still produced from
+     * or for the response, so the {@link HttpOperationResult#getResultSafe()} method of the returned instance should
+     * return a result, but since an Exception was still raised, {@link HttpOperationResult#getResponse()} and
+     * {@link HttpOperationResult#getResult()} will both throw that Exception.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the response object.
+     * @param error
+     *     the Exception of type X representing the error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult} representing the failure to be treated as a warning.
+     * @throws NullPointerException
+     *     if the request, response or error is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createResultForOperationFailureWarning(HttpRequest request, HttpResponse response, T body, X error) {
+        return HttpOperationResult.createResultForOperationFailureWarning(
+            request,
+            new ApacheHC5AsyncResponseAdapter<>(response, body),
+            error
+        );
+    }
+
+    /**
+     * Creates an HttpOperationResult representing a problem with the response that prevented the creation of a result
+     * object.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the response object.
+     * @param error
+     *     the Exception of type X representing the error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new HttpOperationResult representing the given error.
+     * @throws NullPointerException
+     *     if the request, response or error is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createInstanceForResponseProcessingError(HttpRequest request, HttpResponse response, T body, X error) {
+        Objects.requireNonNull(response, "response");
+        return HttpOperationResult.createInstanceForResponseProcessingError(
+            request,
+            new ApacheHC5AsyncResponseAdapter<>(response, body),
+            error
+        );
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} representing a failure to perform the operation which should be treated as
+     * an error.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the response object.
+     * @param error
+     *     the Exception of type X representing the error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult} representing the failure.
+     * @throws NullPointerException
+     *     if the request, response or error is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createResultForOperationFailure(HttpRequest request, HttpResponse response, T body, X error) {
+        return HttpOperationResult.createResultForOperationFailure(
+            request,
+            new ApacheHC5AsyncResponseAdapter<>(response, body),
+            error
+        );
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} representing the case of the server encountering an internal error while
+     * attempting to perform the operation. An {@link IOException} will be created based on the response status code and
+     * any available message.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the response object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult} representing the error.
+     * @throws NullPointerException
+     *     if the request or response is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createResultForServerError(HttpRequest request, HttpResponse response, T body) {
+        return HttpOperationResult.createResultForServerError(request, new ApacheHC5AsyncResponseAdapter<>(response, body));
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} representing the case of the server encountering an internal error while
+     * attempting to perform the operation.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the response object.
+     * @param error
+     *     the IOException representing the server error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult} representing the error.
+     * @throws NullPointerException
+     *     if the request, response or error is null.
+     */
+    public static <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse,T,X> createResultForServerError(HttpRequest request, HttpResponse response, T body, IOException error) {
+        return HttpOperationResult.createResultForServerError(
+            request,
+            new ApacheHC5AsyncResponseAdapter<>(response, body),
+            error
+        );
+    }
+
+}
@@ -0,0 +1,289 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.apachehc5;
+
+import com.tractionsoftware.http.client.wrappers.HttpClientSettings;
+import com.tractionsoftware.http.client.wrappers.HttpOperationClient;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import org.apache.hc.client5.http.ClientProtocolException;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * An {@link HttpOperationClient} backed by a classic (blocking) Apache HC5 {@link CloseableHttpClient} with a pooling
+ * connection manager sized according to the {@link HttpClientSettings}.
+ *
+ * <p>
+ * The connect timeout and read timeout are applied as the connection's connect and socket timeouts, and the read
+ * timeout is also applied as the response timeout. The keep-alive is used as the default keep-alive for responses
+ * that do not specify one, and idle connections are evicted after it. The classic client only supports HTTP/1.1, so
+ * the HTTP/2 preference is ignored; use {@link ApacheHC5AsyncResults} with an async client for HTTP/2. The executor,
+ * if any, runs the blocking requests made via
+ * {@link #executeAsync(ClassicHttpRequest, ResultFactory, Function)}; if there is none, each such request runs on a
+ * new virtual thread.
+ *
+ * @author Dave Shepperton
+ */
+public final class ApacheHC5OperationClient implements HttpOperationClient {
+
+    /**
+     * Creates an {@link HttpOperationResult} for a response to a classic request. The response has not yet been
+     * consumed, so implementations may read its entity, e.g., to create the result object.
+     *
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     */
+    @FunctionalInterface
+    public interface ResultFactory<T, X extends Exception> {
+
+        /**
+         * Creates an {@link HttpOperationResult} for the given response, e.g., by examining its status code and
+         * passing it to {@link ApacheHC5Results#createResultForSuccessfulOperation(HttpRequest, ClassicHttpResponse,
+         * Object)} or {@link ApacheHC5Results#createResultForServerError(HttpRequest, ClassicHttpResponse, Object)}.
+         *
+         * @param request
+         *     the request object.
+         * @param response
+         *     the response object.
+         * @return a new {@link HttpOperationResult}, which takes ownership of the response.
+         * @throws IOException
+         *     if an I/O error occurs while reading the response.
+         */
+        HttpOperationResult<HttpRequest,ClassicHttpResponse,T,X> createResult(HttpRequest request, ClassicHttpResponse response) throws IOException;
+
+    }
+
+    private final HttpClientSettings settings;
+
+    private final CloseableHttpClient client;
+
+    private final Executor executor;
+
+    /*
+     * The executor created by this client if none was configured, which is shut down when this client is closed.
+     */
+    private final ExecutorService ownedExecutor;
+
+    private ApacheHC5OperationClient(HttpClientSettings settings, CloseableHttpClient client) {
+        this.settings = settings;
+        this.client = client;
+        if (settings.getExecutor() == null) {
+            this.ownedExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            this.executor = ownedExecutor;
+        }
+        else {
+            this.ownedExecutor = null;
+            this.executor = settings.getExecutor();
+        }
+    }
+
+    /**
+     * Creates a client with the given settings.
+     *
+     * @param settings
+     *     the settings for the client.
+     * @return a new client.
+     * @throws NullPointerException
+     *     if the settings are null.
+     */
+    public static ApacheHC5OperationClient createInstance(HttpClientSettings settings) {
+        Objects.requireNonNull(settings, "settings");
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(settings.getConnectTimeout()))
+            .setSocketTimeout(Timeout.of(settings.getReadTimeout()))
+            .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectionKeepAlive(TimeValue.of(settings.getKeepAlive()))
+            .setResponseTimeout(Timeout.of(settings.getReadTimeout()))
+            .build();
+        CloseableHttpClient client = HttpClients.custom()
+            .setConnectionManager(
+                PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnPerRoute(settings.getMaxConnectionsPerRoute())
+                    .setMaxConnTotal(settings.getMaxConnectionsTotal())
+                    .setDefaultConnectionConfig(connectionConfig)
+                    .build()
+            )
+            .setDefaultRequestConfig(requestConfig)
+            .evictIdleConnections(TimeValue.of(settings.getKeepAlive()))
+            .build();
+        return new ApacheHC5OperationClient(settings, client);
+    }
+
+    @Override
+    public HttpClientSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Returns the underlying {@link CloseableHttpClient}.
+     *
+     * @return the underlying {@link CloseableHttpClient}.
+     */
+    public CloseableHttpClient getHttpClient() {
+        return client;
+    }
+
+    /**
+     * Executes the given request, blocking until the response is received, and returns an {@link HttpOperationResult}
+     * created by the given factory. An {@link IOException}, whether thrown while executing the request or by the result
+     * factory, is represented by {@link HttpOperationResult.RequestStatus#ERROR_IO}, and anything else by
+     * {@link HttpOperationResult.RequestStatus#ERROR_OTHER}. If no result is created for the response, the response is
+     * closed without being consumed.
+     *
+     * @param request
+     *     the request object.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for a received response.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult}.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public <T, X extends Exception> HttpOperationResult<HttpRequest,ClassicHttpResponse,T,X> execute(
+        ClassicHttpRequest request,
+        ResultFactory<T,X> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(resultFactory, "resultFactory");
+        Objects.requireNonNull(otherErrorFactory, "otherErrorFactory");
+        ClassicHttpResponse response;
+        try {
+            response = client.executeOpen(RoutingSupport.determineHost(request), request, null);
+        }
+        catch (HttpException e) {
+            return ApacheHC5Results.createInstanceForRequestIOFailure(request, new ClientProtocolException(e));
+        }
+        catch (IOException e) {
+            return ApacheHC5Results.createInstanceForRequestIOFailure(request, e);
+        }
+        catch (RuntimeException e) {
+            return ApacheHC5Results.createInstanceForOtherError(request, otherErrorFactory.apply(e));
+        }
+        try {
+            return Objects.requireNonNull(resultFactory.createResult(request, response), "result");
+        }
+        catch (IOException e) {
+            HttpOperationResult.close(response);
+            return ApacheHC5Results.createInstanceForRequestIOFailure(request, e);
+        }
+        catch (RuntimeException e) {
+            HttpOperationResult.close(response);
+            return ApacheHC5Results.createInstanceForOtherError(request, otherErrorFactory.apply(e));
+        }
+    }
+
+    /**
+     * Executes the given request on this client's executor, and returns a {@link CompletableFuture} that will be
+     * completed with an {@link HttpOperationResult} as described for
+     * {@link #execute(ClassicHttpRequest, ResultFactory, Function)}. If the returned future is cancelled and the
+     * request is {@link Cancellable}, as the standard request classes are, the request is cancelled.
+     *
+     * @param request
+     *     the request object.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for a received response.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult}.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public <T, X extends Exception> CompletableFuture<HttpOperationResult<HttpRequest,ClassicHttpResponse,T,X>> executeAsync(
+        ClassicHttpRequest request,
+        ResultFactory<T,X> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(resultFactory, "resultFactory");
+        Objects.requireNonNull(otherErrorFactory, "otherErrorFactory");
+        CompletableFuture<HttpOperationResult<HttpRequest,ClassicHttpResponse,T,X>> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> execute(request, resultFactory, otherErrorFactory), executor);
+        }
+        catch (RejectedExecutionException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<HttpOperationResult<HttpRequest,ClassicHttpResponse,T,X>> ret =
+            HttpOperationResult.createResultAsync(request, result, (r, v) -> v, otherErrorFactory);
+        if (request instanceof Cancellable cancellable) {
+            ret.whenComplete((r, e) -> {
+                if (ret.isCancelled()) {
+                    cancellable.cancel();
+                }
+            });
+        }
+        return ret;
+    }
+
+    /**
+     * Closes the underlying {@link CloseableHttpClient} and its connection pool, and shuts down the executor created
+     * by this client, if any.
+     */
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ApacheHC5OperationClient[" + settings + "]";
+    }
+
+}
@@ -18,17 +18,48 @@
 
 package com.tractionsoftware.http.client.wrappers.apachehc5;
 
+import com.tractionsoftware.http.client.wrappers.DownloadedFile;
+import com.tractionsoftware.http.client.wrappers.DrainPolicy;
 import com.tractionsoftware.http.client.wrappers.HttpHeaderCollection;
 import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import com.tractionsoftware.http.client.wrappers.HttpOperationTiming;
+import com.tractionsoftware.http.client.wrappers.HttpResponseCache;
+import com.tractionsoftware.http.client.wrappers.RateLimitedLog;
+import com.tractionsoftware.http.client.wrappers.StreamingBodies;
+import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpMessage;
 import org.apache.hc.core5.http.HttpRequest;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.EofSensorInputStream;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.support.BasicRequestBuilder;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Provides {@link HttpOperationResult}s for {@link HttpRequest}s and {@link ClassicHttpResponse}s from version 5.x of
@@ -43,6 +74,37 @@ public final class ApacheHC5Results {
     private ApacheHC5Results() {
     }
 
+    private static final Logger LOG = Logger.getLogger(ApacheHC5Results.class.getName());
+
+    private static final RateLimitedLog CONSUME_ENTITY_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.FINE);
+
+    private static final RateLimitedLog CONSUME_STREAM_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.FINE);
+
+    private static final RateLimitedLog ABORT_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.FINE);
+
+    /*
+     * Whether the describer for HC5 requests has been registered for metrics.
+     */
+    private static final AtomicBoolean REQUEST_DESCRIBER_REGISTERED = new AtomicBoolean();
+
+    static {
+        registerRequestDescriber();
+    }
+
+    /*
+     * Registers the describer that determines the host and method of HC5 requests for HttpOperationMetrics, if it has
+     * not already been registered.
+     */
+    static void registerRequestDescriber() {
+        if (REQUEST_DESCRIBER_REGISTERED.compareAndSet(false, true)) {
+            HttpOperationResult.registerRequestDescriber(
+                HttpRequest.class,
+                request -> request.getAuthority() == null ? null : request.getAuthority().getHostName(),
+                HttpRequest::getMethod
+            );
+        }
+    }
+
     private static final class ApacheHC5ResponseAdapter<T>
         extends HttpOperationResult.AbstractResponseAdapter<ClassicHttpResponse,T> {
 
@@ -50,11 +112,44 @@ public final class ApacheHC5Results {
             super(response, body);
         }
 
+        /**
+         * This implementation consumes the result object and the response entity as far as the given
+         * {@link DrainPolicy} allows. If either is abandoned, the entity's content stream is aborted so that the
+         * connection is discarded rather than drained when the response is closed. A streaming result object created
+         * by {@link StreamingBodies} is consumed via its underlying stream, unless that belongs to a subscriber.
+         */
         @Override
-        public void close() {
-            HttpOperationResult.consumeAndClose(result);
-            EntityUtils.consumeQuietly(response.getEntity());
-            HttpOperationResult.consumeAndClose(response);
+        public boolean close(DrainPolicy policy) {
+            boolean drained;
+            InputStream source = result instanceof InputStream input ? input : StreamingBodies.claimSourceStream(result);
+            if (source != null) {
+                drained = drainOrAbort(source, policy);
+                if (source != result && result instanceof AutoCloseable closeable) {
+                    HttpOperationResult.close(closeable);
+                }
+            }
+            else {
+                drained = HttpOperationResult.consumeAndClose(result, policy);
+            }
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.isStreaming()) {
+                try {
+                    InputStream content = entity.getContent();
+                    if (drained) {
+                        drained = drainOrAbort(content, policy);
+                    }
+                    else {
+                        abort(content);
+                        HttpOperationResult.close(content);
+                    }
+                }
+                catch (IOException | RuntimeException e) {
+                    CONSUME_ENTITY_FAILURE_LOG.log(e, () -> "Failed to consume entity of " + response);
+                    drained = false;
+                }
+            }
+            HttpOperationResult.close(response);
+            return drained;
         }
 
         @Override
@@ -65,16 +160,295 @@ public final class ApacheHC5Results {
         /**
          * @implNote Since Apache HC5 HTTP client API supports retrieving response headers in the order in which
          *     they were encountered, the {@link HttpHeaderCollection} returned by this implementation will correctly
-         *     reflect that order.
+         *     reflect that order. The returned collection reads directly from the response until it is modified.
          */
         @Override
         public HttpHeaderCollection headers() {
-            return HttpHeaderCollection.createInstance(headerStream().collect(Collectors.toList()));
+            return HttpHeaderCollection.createLazyInstance(new ApacheHC5HeaderSource(response));
+        }
+
+    }
+
+    /**
+     * A {@link HttpHeaderCollection.HeaderSource} that reads from the headers of an Apache HC5 {@link HttpMessage},
+     * which already handles names in a case-insensitive manner.
+     */
+    static final class ApacheHC5HeaderSource implements HttpHeaderCollection.HeaderSource {
+
+        private final HttpMessage message;
+
+        ApacheHC5HeaderSource(HttpMessage message) {
+            this.message = message;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !message.headerIterator().hasNext();
+        }
+
+        @Override
+        public List<String> values(String name) {
+            Header[] headers = message.getHeaders(name);
+            List<String> ret = new ArrayList<>(headers.length);
+            for (Header header : headers) {
+                ret.add(header.getValue());
+            }
+            return ret;
+        }
+
+        @Override
+        public String firstValue(String name) {
+            Header header = message.getFirstHeader(name);
+            return header == null ? null : header.getValue();
+        }
+
+        @Override
+        public void forEach(BiConsumer<String,String> action) {
+            Iterator<Header> it = message.headerIterator();
+            while (it.hasNext()) {
+                Header header = it.next();
+                action.accept(header.getName(), header.getValue());
+            }
         }
 
-        private Stream<HttpHeaderCollection.Header> headerStream() {
-            return Arrays.stream(response.getHeaders())
-                .map(h -> HttpHeaderCollection.Header.createInstance(h.getName(), h.getValue()));
+    }
+
+    /*
+     * Consumes the given stream as far as the given policy allows, aborting it if it is not fully consumed so that
+     * closing it does not consume the remainder, and then closes it.
+     */
+    private static boolean drainOrAbort(InputStream input, DrainPolicy policy) {
+        boolean drained;
+        try {
+            drained = policy.drain(input);
+        }
+        catch (IOException e) {
+            CONSUME_STREAM_FAILURE_LOG.log(e, () -> "Failed to consume " + input);
+            drained = false;
+        }
+        if (!drained) {
+            abort(input);
+        }
+        HttpOperationResult.close(input);
+        return drained;
+    }
+
+    /*
+     * Aborts the given stream if it is one of HC5's connection-backed streams, which would otherwise consume the
+     * remainder of the entity when closed in order to reuse the connection.
+     */
+    private static void abort(InputStream input) {
+        if (input instanceof TimedInputStream timedInput) {
+            abort(timedInput.getDelegate());
+        }
+        else if (input instanceof EofSensorInputStream eofSensorInput) {
+            try {
+                eofSensorInput.abort();
+            }
+            catch (IOException e) {
+                ABORT_FAILURE_LOG.log(e, () -> "Failed to abort " + input);
+            }
+        }
+    }
+
+    /**
+     * Returns the content of the given response's entity as an {@link InputStream}, for use as a streaming result
+     * object. If the response has no entity, an empty stream is returned.
+     *
+     * @param response
+     *     the response object.
+     * @return the content of the response's entity.
+     * @throws IOException
+     *     if the content cannot be retrieved.
+     */
+    public static InputStream getContentStream(ClassicHttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        InputStream content = entity == null ? null : entity.getContent();
+        return content == null ? InputStream.nullInputStream() : content;
+    }
+
+    /**
+     * Returns the content of the given response's entity as a {@link ReadableByteChannel}, for use as a streaming
+     * result object.
+     *
+     * @param response
+     *     the response object.
+     * @return the content of the response's entity.
+     * @throws IOException
+     *     if the content cannot be retrieved.
+     * @see StreamingBodies#createChannel(InputStream)
+     */
+    public static ReadableByteChannel getContentChannel(ClassicHttpResponse response) throws IOException {
+        return StreamingBodies.createChannel(getContentStream(response));
+    }
+
+    /**
+     * Returns the content of the given response's entity as a {@link Flow.Publisher} of {@link ByteBuffer}s, for use
+     * as a streaming result object. The content is read on a new virtual thread as demand arrives.
+     *
+     * @param response
+     *     the response object.
+     * @return the content of the response's entity.
+     * @throws IOException
+     *     if the content cannot be retrieved.
+     * @see StreamingBodies#createPublisher(InputStream)
+     */
+    public static Flow.Publisher<List<ByteBuffer>> getContentPublisher(ClassicHttpResponse response) throws IOException {
+        return StreamingBodies.createPublisher(getContentStream(response));
+    }
+
+    /**
+     * Streams the content of a successful (2xx) response's entity to the given target path, and creates an
+     * {@link HttpOperationResult} whose result object is the {@link DownloadedFile}. The content is transferred via
+     * {@link java.nio.channels.FileChannel#transferFrom} into a temporary file, which is atomically renamed to the
+     * target once the content is complete. A complete download is a successful operation; an incomplete one is a
+     * {@link HttpOperationResult.OperationStatus#FAILURE_RESPONSE_PROCESS} error, whose Exception is created from the
+     * {@link DownloadedFile#getError() error} by the given factory, and whose unread content is consumed according to
+     * the applicable {@link DrainPolicy} when the result is closed. For any other response, the content is not
+     * written; server errors (5xx) are reported as such, and any other status is an operation failure.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the response object.
+     * @param target
+     *     the path of the file, whose parent directory must exist.
+     * @param errorFactory
+     *     a function that creates an Exception of type X from the IOException that prevented the download from
+     *     completing, or from one describing an unsuccessful status.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     * @return a new {@link HttpOperationResult} for the download.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static <X extends Exception> HttpOperationResult<HttpRequest,ClassicHttpResponse,DownloadedFile,X> createResultForDownload(
+        HttpRequest request,
+        ClassicHttpResponse response,
+        Path target,
+        Function<? super IOException, ? extends X> errorFactory
+    ) {
+        Objects.requireNonNull(response, "response");
+        Objects.requireNonNull(target, "target");
+        Objects.requireNonNull(errorFactory, "errorFactory");
+        int statusCode = response.getCode();
+        if (statusCode < 200 || statusCode >= 300) {
+            if (statusCode >= 500) {
+                return createResultForServerError(request, response, null);
+            }
+            return createResultForOperationFailure(
+                request,
+                response,
+                null,
+                errorFactory.apply(new IOException("Download failed with status " + statusCode + ": " + target))
+            );
+        }
+        DownloadedFile file;
+        try (DownloadedFile.Writer writer = DownloadedFile.createWriter(target)) {
+            try {
+                writer.transferFrom(Channels.newChannel(getContentStream(response)));
+                file = writer.commit();
+            }
+            catch (IOException e) {
+                file = writer.fail(e);
+            }
+        }
+        catch (IOException e) {
+            file = DownloadedFile.createIncompleteInstance(target, e);
+        }
+        if (!file.isComplete()) {
+            return createInstanceForResponseProcessingError(request, response, file, errorFactory.apply(file.getError()));
+        }
+        return createResultForSuccessfulOperation(request, response, file);
+    }
+
+    /**
+     * Records the timing of the given response in the given {@link HttpOperationTiming}, which should have been created
+     * immediately before the request was executed. This method should be invoked as soon as the response is returned
+     * by the client, i.e., when its headers have been received; the classic client does not expose the first byte
+     * separately from the headers, so both are marked then. The response entity is wrapped so that the body is marked
+     * complete when its content has been read to the end (or written out in full). The timing should then be
+     * {@link HttpOperationResult#setTiming(HttpOperationTiming) attached} to the result created for the response.
+     *
+     * @param response
+     *     the response whose timing to record.
+     * @param timing
+     *     the {@link HttpOperationTiming} in which to record the timing of the response.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public static void recordTiming(ClassicHttpResponse response, HttpOperationTiming timing) {
+        Objects.requireNonNull(timing, "timing");
+        timing.markHeadersReceived();
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            timing.markBodyComplete();
+        }
+        else {
+            response.setEntity(new TimedEntity(entity, timing));
+        }
+    }
+
+    /**
+     * An {@link HttpEntity} that marks the body complete in an {@link HttpOperationTiming} when its content has been
+     * read to the end or written out in full.
+     */
+    private static final class TimedEntity extends HttpEntityWrapper {
+
+        private final HttpOperationTiming timing;
+
+        private TimedEntity(HttpEntity entity, HttpOperationTiming timing) {
+            super(entity);
+            this.timing = timing;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            InputStream content = super.getContent();
+            return content == null ? null : new TimedInputStream(content, timing);
+        }
+
+        @Override
+        public void writeTo(OutputStream output) throws IOException {
+            super.writeTo(output);
+            timing.markBodyComplete();
+        }
+
+    }
+
+    /**
+     * An {@link InputStream} that marks the body complete in an {@link HttpOperationTiming} when the end of the stream
+     * it delegates to is reached.
+     */
+    private static final class TimedInputStream extends FilterInputStream {
+
+        private final HttpOperationTiming timing;
+
+        private TimedInputStream(InputStream input, HttpOperationTiming timing) {
+            super(input);
+            this.timing = timing;
+        }
+
+        private InputStream getDelegate() {
+            return in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                timing.markBodyComplete();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n < 0) {
+                timing.markBodyComplete();
+            }
+            return n;
         }
 
     }
@@ -332,4 +706,78 @@ public final class ApacheHC5Results {
         );
     }
 
+    /**
+     * Creates an {@link HttpResponseCache.Binding} for {@link HttpRequest}s whose responses are read into a byte[].
+     * Conditional requests are created by setting the conditional headers on a copy of the original request (a
+     * {@link ClassicHttpRequest}, if the original is one), so that the original may be reused. Responses served from
+     * the cache are represented by {@link ClassicHttpResponse}s whose entity contains the cached body.
+     *
+     * @return an {@link HttpResponseCache.Binding} for {@link HttpRequest}s.
+     */
+    public static HttpResponseCache.Binding<HttpRequest,ClassicHttpResponse> createCacheBinding() {
+        return CACHE_BINDING;
+    }
+
+    private static final HttpResponseCache.Binding<HttpRequest,ClassicHttpResponse> CACHE_BINDING =
+        new HttpResponseCache.Binding<>() {
+
+            @Override
+            public String getMethod(HttpRequest request) {
+                return request.getMethod();
+            }
+
+            @Override
+            public URI getURI(HttpRequest request) {
+                try {
+                    return request.getUri();
+                }
+                catch (URISyntaxException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+
+            @Override
+            public List<String> getHeaderValues(HttpRequest request, String name) {
+                Header[] headers = request.getHeaders(name);
+                List<String> ret = new ArrayList<>(headers.length);
+                for (Header header : headers) {
+                    ret.add(header.getValue());
+                }
+                return ret;
+            }
+
+            @Override
+            public HttpRequest createConditionalRequest(HttpRequest request, HttpHeaderCollection headers) {
+                HttpRequest ret = request instanceof ClassicHttpRequest classic
+                    ? ClassicRequestBuilder.copy(classic).build()
+                    : BasicRequestBuilder.copy(request).build();
+                for (HttpHeaderCollection.Header header : headers.all()) {
+                    ret.setHeader(header.getName(), header.getValue());
+                }
+                return ret;
+            }
+
+            @Override
+            public ClassicHttpResponse createResponse(HttpRequest request, HttpResponseCache.CachedResponse response) {
+                BasicClassicHttpResponse ret = new BasicClassicHttpResponse(response.getStatusCode());
+                HttpHeaderCollection headers = response.getHeaders();
+                for (HttpHeaderCollection.Header header : headers.all()) {
+                    ret.addHeader(header.getName(), header.getValue());
+                }
+                ContentType contentType = null;
+                String value = headers.getFirstValue(com.google.common.net.HttpHeaders.CONTENT_TYPE);
+                if (value != null) {
+                    try {
+                        contentType = ContentType.parse(value);
+                    }
+                    catch (RuntimeException e) {
+                        // The entity is still usable without a content type.
+                    }
+                }
+                ret.setEntity(new ByteArrayEntity(response.getBody(), contentType));
+                return ret;
+            }
+
+        };
+
 }
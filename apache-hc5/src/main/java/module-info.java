@@ -19,6 +19,7 @@
 module httpclientwrappers.apachehc5 {
     requires httpclientwrappers.api;
     requires com.google.common;
+    requires java.logging;
     requires org.apache.httpcomponents.core5.httpcore5;
     requires org.apache.httpcomponents.client5.httpclient5;
     exports com.tractionsoftware.http.client.wrappers.apachehc5;
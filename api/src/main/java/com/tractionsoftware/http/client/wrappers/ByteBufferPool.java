@@ -0,0 +1,259 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free pool of direct {@link ByteBuffer}s in power-of-two size classes, used to collect response bodies without
+ * allocating a new array for each response. Requests for buffers larger than the largest size class are served by
+ * unpooled direct buffers. The total capacity of the idle buffers retained by the pool is bounded; buffers released
+ * beyond that bound are left to the garbage collector.
+ *
+ * <p>
+ * The pool keeps counts of hits (requests served by an idle buffer) and misses (requests that required a new buffer),
+ * and of its occupancy, so that its bounds can be tuned.
+ *
+ * @author Dave Shepperton
+ */
+public final class ByteBufferPool {
+
+    /**
+     * The default size of the smallest size class.
+     */
+    public static final int DEFAULT_MIN_BUFFER_SIZE = 4 * 1024;
+
+    /**
+     * The default size of the largest size class.
+     */
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * The default bound on the total capacity of the idle buffers retained by the pool.
+     */
+    public static final long DEFAULT_MAX_POOLED_BYTES = 64L * 1024 * 1024;
+
+    private static final ByteBufferPool DEFAULT = createInstance(
+        DEFAULT_MIN_BUFFER_SIZE,
+        DEFAULT_MAX_BUFFER_SIZE,
+        DEFAULT_MAX_POOLED_BYTES
+    );
+
+    private final int minShift;
+
+    private final Queue<ByteBuffer>[] classes;
+
+    private final long maxPooledBytes;
+
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    private final LongAdder pooledCount = new LongAdder();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder outstanding = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ByteBufferPool(int minBufferSize, int maxBufferSize, long maxPooledBytes) {
+        this.minShift = Integer.numberOfTrailingZeros(minBufferSize);
+        this.classes = new Queue[Integer.numberOfTrailingZeros(maxBufferSize) - minShift + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /**
+     * Returns the default, shared instance, which has the default size classes and bound.
+     *
+     * @return the default instance.
+     */
+    public static ByteBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a new, empty instance.
+     *
+     * @param minBufferSize
+     *     the size of the smallest size class, which must be a power of two.
+     * @param maxBufferSize
+     *     the size of the largest size class, which must be a power of two no smaller than the smallest.
+     * @param maxPooledBytes
+     *     the bound on the total capacity of the idle buffers retained by the pool, which may be zero.
+     * @return a new instance.
+     * @throws IllegalArgumentException
+     *     if any argument is invalid.
+     */
+    public static ByteBufferPool createInstance(int minBufferSize, int maxBufferSize, long maxPooledBytes) {
+        if (minBufferSize <= 0 || Integer.bitCount(minBufferSize) != 1) {
+            throw new IllegalArgumentException("minBufferSize must be a positive power of two: " + minBufferSize);
+        }
+        if (maxBufferSize < minBufferSize || Integer.bitCount(maxBufferSize) != 1) {
+            throw new IllegalArgumentException("maxBufferSize must be a power of two >= minBufferSize: " + maxBufferSize);
+        }
+        if (maxPooledBytes < 0) {
+            throw new IllegalArgumentException("maxPooledBytes must not be negative: " + maxPooledBytes);
+        }
+        return new ByteBufferPool(minBufferSize, maxBufferSize, maxPooledBytes);
+    }
+
+    /**
+     * Returns the size of the largest size class. Callers that collect content of unknown length should acquire
+     * buffers no larger than this.
+     *
+     * @return the size of the largest size class.
+     */
+    public int getMaxBufferSize() {
+        return 1 << (minShift + classes.length - 1);
+    }
+
+    /**
+     * Acquires a cleared direct buffer whose capacity is at least the given size, which should be
+     * {@link #release(ByteBuffer) released} when it is no longer in use.
+     *
+     * @param size
+     *     the minimum capacity of the buffer.
+     * @return a cleared direct buffer whose capacity is at least the given size.
+     * @throws IllegalArgumentException
+     *     if the size is negative.
+     */
+    public ByteBuffer acquire(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + size);
+        }
+        outstanding.increment();
+        int index = getClassIndex(size);
+        if (index >= classes.length) {
+            misses.increment();
+            return ByteBuffer.allocateDirect(size);
+        }
+        ByteBuffer buffer = classes[index].poll();
+        if (buffer == null) {
+            misses.increment();
+            return ByteBuffer.allocateDirect(1 << (minShift + index));
+        }
+        hits.increment();
+        pooledCount.decrement();
+        pooledBytes.addAndGet(-buffer.capacity());
+        return buffer.clear();
+    }
+
+    /**
+     * Releases a buffer that was {@link #acquire(int) acquired} from this pool. The buffer must not be used after it
+     * has been released, including via any views of it.
+     *
+     * @param buffer
+     *     the buffer to release.
+     */
+    public void release(ByteBuffer buffer) {
+        outstanding.decrement();
+        int capacity = buffer.capacity();
+        int index = getClassIndex(capacity);
+        if (!buffer.isDirect() || index >= classes.length || capacity != 1 << (minShift + index)) {
+            return;
+        }
+        long pooled;
+        do {
+            pooled = pooledBytes.get();
+            if (pooled + capacity > maxPooledBytes) {
+                return;
+            }
+        } while (!pooledBytes.compareAndSet(pooled, pooled + capacity));
+        pooledCount.increment();
+        classes[index].offer(buffer);
+    }
+
+    /**
+     * Returns the number of {@link #acquire(int) requests} that were served by an idle buffer.
+     *
+     * @return the number of hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of {@link #acquire(int) requests} that required a new buffer.
+     *
+     * @return the number of misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of {@link #acquire(int) requests} that were served by an idle buffer.
+     *
+     * @return the hit rate, between 0 and 1, or 0 if there have been no requests.
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the number of idle buffers retained by the pool.
+     *
+     * @return the number of idle buffers.
+     */
+    public long getPooledBufferCount() {
+        return pooledCount.sum();
+    }
+
+    /**
+     * Returns the total capacity of the idle buffers retained by the pool.
+     *
+     * @return the total capacity of the idle buffers, in bytes.
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Returns the number of buffers that have been acquired but not yet released.
+     *
+     * @return the number of buffers in use.
+     */
+    public long getOutstandingBufferCount() {
+        return outstanding.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferPool[hits=" + getHitCount() + ", misses=" + getMissCount()
+            + ", pooled=" + getPooledBufferCount() + " (" + getPooledBytes() + " bytes)"
+            + ", outstanding=" + getOutstandingBufferCount() + "]";
+    }
+
+    private int getClassIndex(int size) {
+        if (size <= 1 << minShift) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - minShift;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * An {@link IOException} indicating that a request was not sent because the
+ * {@link CircuitBreakerRegistry.CircuitBreaker} for its host is open. Since requests are rejected at a high rate
+ * while a breaker is open, instances do not capture a stack trace.
+ *
+ * @author Dave Shepperton
+ */
+public class CircuitBreakerOpenException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String host;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param host
+     *     the host whose circuit breaker is open.
+     */
+    public CircuitBreakerOpenException(String host) {
+        super("Circuit breaker open for " + host);
+        this.host = host;
+    }
+
+    /**
+     * Returns the host whose circuit breaker is open.
+     *
+     * @return the host whose circuit breaker is open.
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * This implementation does not fill in the stack trace.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
@@ -0,0 +1,611 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import com.google.common.collect.ImmutableMap;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult.OperationStatus;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult.RequestStatus;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A lock-free registry of circuit breakers, one per upstream host. The registry is an {@link HttpOperationMetrics}, so
+ * once it is {@link HttpOperationResult#setMetrics(HttpOperationMetrics) installed} (possibly
+ * {@link HttpOperationMetrics#combine(HttpOperationMetrics...) combined} with other metrics), every
+ * {@link HttpOperationResult} that is created feeds the breaker for its host. Results with
+ * {@link RequestStatus#ERROR_IO} or {@link OperationStatus#FAILURE_SERVER_ERROR} count as failures; other completed
+ * requests count as successes; errors that are not attributable to the host (e.g., request setup errors, or
+ * rejections by an open breaker) are ignored.
+ *
+ * <p>
+ * A breaker opens when, within a window, at least the minimum number of calls have been made and the fraction that
+ * failed reaches the threshold. While it is open, {@link #execute(Object, Function, Function)} returns an error result
+ * for new calls without invoking them. After the open duration, a single probe call is allowed through (the breaker is
+ * then half-open): if it succeeds, the breaker closes; if it fails, the breaker opens again. Only the probe's outcome
+ * changes the state of a half-open breaker; the outcomes of calls made before it opened are still counted, but are
+ * otherwise ignored. If the probe's outcome is not recorded within the open duration, another probe is allowed.
+ *
+ * <p>
+ * Each breaker counts its calls in a single atomic word per window, so the failure rate near the boundary of a window
+ * is approximate.
+ *
+ * @author Dave Shepperton
+ */
+public final class CircuitBreakerRegistry implements HttpOperationMetrics {
+
+    /**
+     * The default fraction of calls that must fail for a breaker to open.
+     */
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+    /**
+     * The default minimum number of calls in a window before a breaker can open.
+     */
+    public static final int DEFAULT_MINIMUM_CALLS = 20;
+
+    /**
+     * The default length of the window over which the failure rate is measured.
+     */
+    public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(10);
+
+    /**
+     * The default amount of time for which a breaker stays open before allowing a probe.
+     */
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * The state of a circuit breaker.
+     */
+    public enum State {
+
+        /**
+         * Calls are allowed, and their outcomes are counted.
+         */
+        CLOSED,
+
+        /**
+         * Calls are rejected, until the open duration has elapsed.
+         */
+        OPEN,
+
+        /**
+         * A single probe call has been allowed, and the others are rejected until its outcome is recorded.
+         */
+        HALF_OPEN
+
+    }
+
+    /**
+     * The outcome of a request for permission to make a call.
+     */
+    public enum Permission {
+
+        /**
+         * The call may be made, and its outcome is counted.
+         */
+        PERMITTED,
+
+        /**
+         * The call may be made as the probe of a half-open breaker, and its outcome must be recorded with
+         * {@link CircuitBreaker#recordProbeOutcome(boolean)}.
+         */
+        PROBE,
+
+        /**
+         * The call must not be made, because the breaker is open.
+         */
+        REJECTED
+
+    }
+
+    private final Map<String,CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final double failureRateThreshold;
+
+    private final int minimumCalls;
+
+    private final long windowNanos;
+
+    private final long openDurationNanos;
+
+    private CircuitBreakerRegistry(Builder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.minimumCalls = builder.minimumCalls;
+        this.windowNanos = builder.window.toNanos();
+        this.openDurationNanos = builder.openDuration.toNanos();
+    }
+
+    /**
+     * Creates a new {@link Builder}, initialized with the defaults.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder createBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the breaker for the given host, creating it if necessary.
+     *
+     * @param host
+     *     the host.
+     * @return the breaker for the given host.
+     * @throws NullPointerException
+     *     if the host is null.
+     */
+    public CircuitBreaker getBreaker(String host) {
+        CircuitBreaker ret = breakers.get(host);
+        return ret != null ? ret : breakers.computeIfAbsent(host, CircuitBreaker::new);
+    }
+
+    /**
+     * Returns a snapshot of the breakers created so far, keyed by host.
+     *
+     * @return an immutable map of hosts to breakers.
+     */
+    public Map<String,CircuitBreaker> getBreakers() {
+        return ImmutableMap.copyOf(breakers);
+    }
+
+    /**
+     * Performs the given call, unless the breaker for the request's host is open, in which case an error result is
+     * returned without invoking it. The host is determined by the describer
+     * {@link HttpOperationResult#registerRequestDescriber registered} for the request's type; calls whose host cannot
+     * be determined are always performed.
+     *
+     * @param request
+     *     the request object, which is passed to the call.
+     * @param call
+     *     performs the call, e.g., by sending the request via an {@link HttpOperationClient}.
+     * @param errorFactory
+     *     creates the Exception for a rejected call.
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     * @return the result of the call, or a result created by
+     *     {@link HttpOperationResult#createInstanceForOtherError(Object, Exception)} if the call was rejected.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public <R, S, T, X extends Exception> HttpOperationResult<R,S,T,X> execute(
+        R request,
+        Function<? super R, ? extends HttpOperationResult<R,S,T,X>> call,
+        Function<? super CircuitBreakerOpenException, ? extends X> errorFactory
+    ) {
+        Objects.requireNonNull(call, "call");
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(errorFactory, "errorFactory");
+        CircuitBreaker breaker = getBreaker(request);
+        Permission permission = breaker != null ? breaker.tryAcquirePermission() : Permission.PERMITTED;
+        if (permission == Permission.REJECTED) {
+            return createRejection(request, breaker, errorFactory);
+        }
+        HttpOperationResult<R,S,T,X> ret = call.apply(request);
+        if (permission == Permission.PROBE) {
+            breaker.recordProbeOutcome(ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Starts the given asynchronous call, unless the breaker for the request's host is open, in which case an error
+     * result is returned without invoking it.
+     *
+     * @param request
+     *     the request object, which is passed to the call.
+     * @param call
+     *     starts the call, e.g., by sending the request asynchronously via an {@link HttpOperationClient}.
+     * @param errorFactory
+     *     creates the Exception for a rejected call.
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     * @return the stage returned by the call, or a completed stage holding an error result if the call was rejected.
+     * @throws NullPointerException
+     *     if any argument is null.
+     * @see #execute(Object, Function, Function)
+     */
+    public <R, S, T, X extends Exception> CompletionStage<HttpOperationResult<R,S,T,X>> executeAsync(
+        R request,
+        Function<? super R, ? extends CompletionStage<HttpOperationResult<R,S,T,X>>> call,
+        Function<? super CircuitBreakerOpenException, ? extends X> errorFactory
+    ) {
+        Objects.requireNonNull(call, "call");
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(errorFactory, "errorFactory");
+        CircuitBreaker breaker = getBreaker(request);
+        Permission permission = breaker != null ? breaker.tryAcquirePermission() : Permission.PERMITTED;
+        if (permission == Permission.REJECTED) {
+            return CompletableFuture.completedFuture(createRejection(request, breaker, errorFactory));
+        }
+        CompletionStage<HttpOperationResult<R,S,T,X>> ret = call.apply(request);
+        if (permission == Permission.PROBE) {
+            ret.thenAccept(breaker::recordProbeOutcome);
+        }
+        return ret;
+    }
+
+    /*
+     * Returns the breaker for the request's host, or null if the host cannot be determined.
+     */
+    private CircuitBreaker getBreaker(Object request) {
+        String host = HttpOperationResult.getRequestHost(request);
+        return HttpOperationMetrics.UNKNOWN.equals(host) ? null : getBreaker(host);
+    }
+
+    private static <R, S, T, X extends Exception> HttpOperationResult<R,S,T,X> createRejection(
+        R request,
+        CircuitBreaker breaker,
+        Function<? super CircuitBreakerOpenException, ? extends X> errorFactory
+    ) {
+        return HttpOperationResult.createInstanceForOtherError(
+            request,
+            errorFactory.apply(new CircuitBreakerOpenException(breaker.getHost()))
+        );
+    }
+
+    /**
+     * This implementation records the outcome of the result with the breaker for its host.
+     */
+    @Override
+    public void resultCreated(Key key) {
+        if (HttpOperationMetrics.UNKNOWN.equals(key.host())) {
+            return;
+        }
+        if (isFailure(key.requestStatus(), key.operationStatus())) {
+            getBreaker(key.host()).recordFailure();
+        }
+        else if (key.requestStatus() == RequestStatus.SUCCESS) {
+            getBreaker(key.host()).recordSuccess();
+        }
+    }
+
+    private static boolean isFailure(RequestStatus requestStatus, OperationStatus operationStatus) {
+        return requestStatus == RequestStatus.ERROR_IO || operationStatus == OperationStatus.FAILURE_SERVER_ERROR;
+    }
+
+    /**
+     * This implementation does nothing.
+     */
+    @Override
+    public void resultClosed(Key key, long latencyNanos) {
+    }
+
+    /**
+     * The circuit breaker for a single host.
+     */
+    public final class CircuitBreaker {
+
+        private final String host;
+
+        private final AtomicInteger state = new AtomicInteger(State.CLOSED.ordinal());
+
+        /*
+         * When the breaker last opened, or when the last probe was allowed. This is always written before the state it
+         * applies to is published.
+         */
+        private final AtomicLong openedNanos = new AtomicLong();
+
+        private final AtomicLong windowStartNanos = new AtomicLong(System.nanoTime());
+
+        /*
+         * The calls (high 32 bits) and failures (low 32 bits) in the current window.
+         */
+        private final AtomicLong windowCounts = new AtomicLong();
+
+        private final LongAdder successes = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder rejections = new LongAdder();
+
+        private final LongAdder openings = new LongAdder();
+
+        private CircuitBreaker(String host) {
+            this.host = host;
+        }
+
+        /**
+         * Returns the host.
+         *
+         * @return the host.
+         */
+        public String getHost() {
+            return host;
+        }
+
+        /**
+         * Returns the current state.
+         *
+         * @return the current state.
+         */
+        public State getState() {
+            return State.values()[state.get()];
+        }
+
+        /**
+         * Returns the number of successful calls recorded.
+         *
+         * @return the number of successful calls recorded.
+         */
+        public long getSuccessCount() {
+            return successes.sum();
+        }
+
+        /**
+         * Returns the number of failed calls recorded.
+         *
+         * @return the number of failed calls recorded.
+         */
+        public long getFailureCount() {
+            return failures.sum();
+        }
+
+        /**
+         * Returns the number of calls rejected because the breaker was open.
+         *
+         * @return the number of calls rejected.
+         */
+        public long getRejectionCount() {
+            return rejections.sum();
+        }
+
+        /**
+         * Returns the number of times the breaker has opened.
+         *
+         * @return the number of times the breaker has opened.
+         */
+        public long getOpenCount() {
+            return openings.sum();
+        }
+
+        /**
+         * Determines whether a call may be made now. While the breaker is closed, this returns
+         * {@link Permission#PERMITTED}. Otherwise, it returns {@link Permission#PROBE} at most once per open duration,
+         * making the breaker half-open, and {@link Permission#REJECTED} otherwise; rejections are counted.
+         *
+         * @return whether a call may be made now.
+         */
+        public Permission tryAcquirePermission() {
+            while (true) {
+                int current = state.get();
+                if (current == State.CLOSED.ordinal()) {
+                    return Permission.PERMITTED;
+                }
+                long now = System.nanoTime();
+                long opened = openedNanos.get();
+                if (now - opened < openDurationNanos || !openedNanos.compareAndSet(opened, now)) {
+                    rejections.increment();
+                    return Permission.REJECTED;
+                }
+                if (state.compareAndSet(current, State.HALF_OPEN.ordinal())) {
+                    return Permission.PROBE;
+                }
+                // The state changed since it was read (e.g., a probe's outcome was recorded), so check it again.
+            }
+        }
+
+        /**
+         * Records a successful call. This is counted in the current window only while the breaker is closed; in
+         * particular, it does not close a half-open breaker, since only the probe's outcome may do that.
+         */
+        public void recordSuccess() {
+            successes.increment();
+            if (state.get() == State.CLOSED.ordinal()) {
+                count(0);
+            }
+        }
+
+        /**
+         * Records a failed call. If the breaker is closed and the failure rate reaches the threshold, it opens. This
+         * does not reopen a half-open breaker, since only the probe's outcome may do that.
+         */
+        public void recordFailure() {
+            failures.increment();
+            int current = state.get();
+            if (current == State.CLOSED.ordinal()) {
+                long counts = count(1);
+                long calls = counts >>> 32;
+                long failed = counts & 0xFFFFFFFFL;
+                if (calls >= minimumCalls && failed >= failureRateThreshold * calls) {
+                    open(current);
+                }
+            }
+        }
+
+        /**
+         * Records the outcome of a call made with {@link Permission#PROBE}. If the breaker is still half-open, it
+         * closes if the probe succeeded, and opens again otherwise. This does not count the call itself, which is
+         * counted by {@link #recordSuccess()} or {@link #recordFailure()} like any other.
+         *
+         * @param succeeded
+         *     whether the probe succeeded.
+         */
+        public void recordProbeOutcome(boolean succeeded) {
+            if (!succeeded) {
+                open(State.HALF_OPEN.ordinal());
+            }
+            else if (state.get() == State.HALF_OPEN.ordinal()) {
+                windowStartNanos.set(System.nanoTime());
+                windowCounts.set(0);
+                state.compareAndSet(State.HALF_OPEN.ordinal(), State.CLOSED.ordinal());
+            }
+        }
+
+        /*
+         * Records the outcome of a probe from its result, if it is attributable to the host.
+         */
+        private void recordProbeOutcome(HttpOperationResult<?,?,?,?> result) {
+            if (isFailure(result.getRequestStatus(), result.getOperationStatus())) {
+                recordProbeOutcome(false);
+            }
+            else if (result.getRequestStatus() == RequestStatus.SUCCESS) {
+                recordProbeOutcome(true);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "CircuitBreaker[" + host + ", " + getState() + ", successes=" + getSuccessCount()
+                + ", failures=" + getFailureCount() + ", rejections=" + getRejectionCount() + "]";
+        }
+
+        /*
+         * Counts a call in the current window, starting a new window if the current one has expired, and returns the
+         * updated counts.
+         */
+        private long count(int failed) {
+            long now = System.nanoTime();
+            long start = windowStartNanos.get();
+            if (now - start >= windowNanos && windowStartNanos.compareAndSet(start, now)) {
+                windowCounts.set(0);
+            }
+            return windowCounts.addAndGet((1L << 32) | failed);
+        }
+
+        private void open(int expected) {
+            if (state.get() != expected) {
+                return;
+            }
+            // The time must be visible before the state, or a concurrent tryAcquirePermission() could compare the
+            // previous time and admit a probe immediately.
+            openedNanos.set(System.nanoTime());
+            if (state.compareAndSet(expected, State.OPEN.ordinal())) {
+                openings.increment();
+            }
+        }
+
+    }
+
+    /**
+     * Builds {@link CircuitBreakerRegistry} instances.
+     */
+    public static final class Builder {
+
+        private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+
+        private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+
+        private Duration window = DEFAULT_WINDOW;
+
+        private Duration openDuration = DEFAULT_OPEN_DURATION;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the fraction of calls that must fail within a window for a breaker to open.
+         *
+         * @param failureRateThreshold
+         *     the fraction of calls, greater than 0 and at most 1.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is out of range.
+         */
+        public Builder setFailureRateThreshold(double failureRateThreshold) {
+            if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+                throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]: " + failureRateThreshold);
+            }
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of calls within a window before a breaker can open.
+         *
+         * @param minimumCalls
+         *     the minimum number of calls, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setMinimumCalls(int minimumCalls) {
+            if (minimumCalls <= 0) {
+                throw new IllegalArgumentException("minimumCalls must be positive: " + minimumCalls);
+            }
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets the length of the window over which the failure rate is measured.
+         *
+         * @param window
+         *     the length of the window, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setWindow(Duration window) {
+            this.window = requirePositive(window, "window");
+            return this;
+        }
+
+        /**
+         * Sets the amount of time for which a breaker stays open before allowing a probe.
+         *
+         * @param openDuration
+         *     the amount of time, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setOpenDuration(Duration openDuration) {
+            this.openDuration = requirePositive(openDuration, "openDuration");
+            return this;
+        }
+
+        /**
+         * Creates a new {@link CircuitBreakerRegistry} from the current state of this builder.
+         *
+         * @return a new {@link CircuitBreakerRegistry}.
+         */
+        public CircuitBreakerRegistry build() {
+            return new CircuitBreakerRegistry(this);
+        }
+
+        private static Duration requirePositive(Duration value, String name) {
+            if (value.isNegative() || value.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+
+    }
+
+}
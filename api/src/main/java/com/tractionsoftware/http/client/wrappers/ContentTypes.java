@@ -0,0 +1,252 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.net.MediaType;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.Charset;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Parses Content-Type header values into {@link MediaType}s, caching the results (including failures) in an LRU-bounded
+ * cache keyed on the raw header value, since a client typically sees only a handful of distinct values. The charset of
+ * each value is resolved once, when it is parsed, so {@link #getCharset(String, Charset)} does not allocate when the
+ * value is cached.
+ *
+ * <p>
+ * On a cache miss, the value is scanned by a specialised parser for the grammar in RFC 9110 section 8.3, which avoids
+ * the exceptions thrown by {@link MediaType#parse(String)} for invalid values. An invalid value is logged once, without
+ * a stack trace, each time it enters the cache.
+ *
+ * @author Dave Shepperton
+ */
+public final class ContentTypes {
+
+    private static final Logger LOG = Logger.getLogger(ContentTypes.class.getName());
+
+    // Not instantiable.
+    private ContentTypes() {
+    }
+
+    /*
+     * The maximum number of distinct header values to cache.
+     */
+    private static final int MAX_CACHE_SIZE = 256;
+
+    private static final Cache<String,Parsed> CACHE = CacheBuilder.newBuilder().maximumSize(MAX_CACHE_SIZE).build();
+
+    /*
+     * The parse result cached for invalid values.
+     */
+    private static final Parsed INVALID = new Parsed(null, null);
+
+    /*
+     * A bitmap of the ASCII characters that are valid in a token (RFC 9110 section 5.6.2).
+     */
+    private static final long[] TOKEN_CHARS = new long[2];
+
+    static {
+        String chars = "!#$%&'*+-.^_`|~0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            TOKEN_CHARS[c >>> 6] |= 1L << c;
+        }
+    }
+
+    /**
+     * Returns the {@link MediaType} represented by the given Content-Type header value.
+     *
+     * @param value
+     *     the header value to parse.
+     * @return the {@link MediaType} represented by the given header value, or null if it is null, blank or invalid.
+     */
+    public static MediaType parse(String value) {
+        return lookup(value).mediaType;
+    }
+
+    /**
+     * Returns the {@link Charset} named by the charset= parameter of the given Content-Type header value.
+     *
+     * @param value
+     *     the header value to parse.
+     * @param defaultCharset
+     *     the {@link Charset} to return if the value is null, blank or invalid, if it has no charset= parameter, or if
+     *     the named charset is not supported.
+     * @return the {@link Charset} named by the charset= parameter of the given header value, if there is one; the given
+     *     default Charset otherwise.
+     */
+    public static Charset getCharset(String value, Charset defaultCharset) {
+        Charset charset = lookup(value).charset;
+        return charset == null ? defaultCharset : charset;
+    }
+
+    private static Parsed lookup(String value) {
+        if (value == null) {
+            return INVALID;
+        }
+        Parsed ret = CACHE.getIfPresent(value);
+        if (ret == null) {
+            ret = parseUncached(value);
+            CACHE.put(value, ret);
+        }
+        return ret;
+    }
+
+    private static Parsed parseUncached(String value) {
+        if (StringUtils.isBlank(value)) {
+            return INVALID;
+        }
+        MediaType mediaType = scan(value);
+        if (mediaType == null) {
+            LOG.log(Level.WARNING, "Failed to parse content-type ''{0}''", value);
+            return INVALID;
+        }
+        Charset charset;
+        try {
+            charset = mediaType.charset().orNull();
+        }
+        catch (IllegalArgumentException | IllegalStateException e) {
+            // An unsupported or illegal charset name, or multiple charset= parameters.
+            LOG.log(Level.FINE, "Ignoring charset of content-type ''{0}'': {1}", new Object[] {value, e});
+            charset = null;
+        }
+        return new Parsed(mediaType, charset);
+    }
+
+    /*
+     * Scans a media-type: type "/" subtype *( OWS ";" OWS [ parameter ] ), where each parameter is token "=" ( token /
+     * quoted-string ). Returns null if the value does not match.
+     */
+    private static MediaType scan(String value) {
+        int n = value.length();
+        int i = skipWhitespace(value, 0);
+        int typeStart = i;
+        i = skipToken(value, i);
+        if (i == typeStart || i == n || value.charAt(i) != '/') {
+            return null;
+        }
+        String type = value.substring(typeStart, i);
+        int subtypeStart = ++i;
+        i = skipToken(value, i);
+        if (i == subtypeStart) {
+            return null;
+        }
+        String subtype = value.substring(subtypeStart, i);
+        ImmutableListMultimap.Builder<String,String> parameters = null;
+        while ((i = skipWhitespace(value, i)) < n) {
+            if (value.charAt(i) != ';') {
+                return null;
+            }
+            i = skipWhitespace(value, i + 1);
+            if (i == n || value.charAt(i) == ';') {
+                continue;
+            }
+            int nameStart = i;
+            i = skipToken(value, i);
+            if (i == nameStart || i == n || value.charAt(i) != '=') {
+                return null;
+            }
+            String name = value.substring(nameStart, i);
+            int valueStart = ++i;
+            String parameterValue;
+            if (i < n && value.charAt(i) == '"') {
+                StringBuilder sb = null;
+                int segmentStart = ++i;
+                while (true) {
+                    if (i == n) {
+                        return null;
+                    }
+                    char c = value.charAt(i);
+                    if (c == '"') {
+                        break;
+                    }
+                    if (c == '\\') {
+                        if (i + 1 == n) {
+                            return null;
+                        }
+                        if (sb == null) {
+                            sb = new StringBuilder();
+                        }
+                        sb.append(value, segmentStart, i);
+                        segmentStart = i + 1;
+                        i += 2;
+                    }
+                    else {
+                        i++;
+                    }
+                }
+                parameterValue = sb == null
+                    ? value.substring(segmentStart, i)
+                    : sb.append(value, segmentStart, i).toString();
+                i++;
+            }
+            else {
+                i = skipToken(value, i);
+                if (i == valueStart) {
+                    return null;
+                }
+                parameterValue = value.substring(valueStart, i);
+            }
+            if (parameters == null) {
+                parameters = ImmutableListMultimap.builder();
+            }
+            parameters.put(name, parameterValue);
+        }
+        try {
+            MediaType ret = MediaType.create(type, subtype);
+            return parameters == null ? ret : ret.withParameters(parameters.build());
+        }
+        catch (IllegalArgumentException e) {
+            // e.g., a wildcard type with a concrete subtype, or a non-ASCII charset parameter value
+            return null;
+        }
+    }
+
+    private static int skipToken(String value, int i) {
+        int n = value.length();
+        while (i < n && isTokenChar(value.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWhitespace(String value, int i) {
+        int n = value.length();
+        while (i < n && (value.charAt(i) == ' ' || value.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return c < 128 && (TOKEN_CHARS[c >>> 6] & (1L << c)) != 0;
+    }
+
+    /**
+     * A cached parse result. For invalid values, both fields are null.
+     */
+    private record Parsed(MediaType mediaType, Charset charset) {
+    }
+
+}
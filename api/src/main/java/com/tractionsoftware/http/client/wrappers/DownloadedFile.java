@@ -0,0 +1,279 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A result object representing a response body that was streamed to a file. The body is written to a temporary file
+ * in the same directory as the target, which is atomically renamed to the target only once the body is complete, so
+ * the target is never left partially written. If the body could not be completely written, the temporary file is
+ * deleted, and the instance records the number of bytes that had been written and the error.
+ *
+ * <p>
+ * The client-specific adapters create instances via a {@link Writer}, and map incomplete downloads to
+ * {@link HttpOperationResult.OperationStatus#FAILURE_RESPONSE_PROCESS}.
+ *
+ * @author Dave Shepperton
+ */
+public final class DownloadedFile {
+
+    private static final Logger LOG = Logger.getLogger(DownloadedFile.class.getName());
+
+    /*
+     * Failures to delete temporary files tend to come in bursts (e.g., when a disk fills up or is unmounted), so they
+     * are rate limited.
+     */
+    private static final RateLimitedLog DELETE_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.FINE);
+
+    private final Path path;
+
+    private final long byteCount;
+
+    private final IOException error;
+
+    private DownloadedFile(Path path, long byteCount, IOException error) {
+        this.path = path;
+        this.byteCount = byteCount;
+        this.error = error;
+    }
+
+    /**
+     * Creates a {@link Writer} for a file that will be downloaded to the given target path.
+     *
+     * @param target
+     *     the path of the file, whose parent directory must exist.
+     * @return a new {@link Writer}.
+     * @throws IOException
+     *     if the temporary file cannot be created.
+     */
+    public static Writer createWriter(Path target) throws IOException {
+        return new Writer(Objects.requireNonNull(target, "target"));
+    }
+
+    /**
+     * Creates an incomplete instance for a download that failed before anything was written, e.g., because the
+     * temporary file could not be created.
+     *
+     * @param target
+     *     the path of the file.
+     * @param error
+     *     the error that prevented the download.
+     * @return a new, incomplete instance.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public static DownloadedFile createIncompleteInstance(Path target, IOException error) {
+        return new DownloadedFile(Objects.requireNonNull(target, "target"), 0, Objects.requireNonNull(error, "error"));
+    }
+
+    /**
+     * Returns the path of the file. If the download is not {@link #isComplete() complete}, the file was not written.
+     *
+     * @return the path of the file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the number of bytes written, which for an incomplete download is the number written before the error.
+     *
+     * @return the number of bytes written.
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Returns true if the entire body was written to the file.
+     *
+     * @return true if the entire body was written to the file; false otherwise.
+     */
+    public boolean isComplete() {
+        return error == null;
+    }
+
+    /**
+     * Returns the error that prevented the entire body from being written to the file.
+     *
+     * @return the error, or null if the download is {@link #isComplete() complete}.
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "DownloadedFile[" + path + ", " + byteCount + " bytes" + (error == null ? "" : ", incomplete: " + error) + "]";
+    }
+
+    /**
+     * Writes a download to a temporary file, and then either {@link #commit() commits} it by renaming it to the
+     * target, or {@link #fail(Throwable) fails} it by deleting it. Closing a writer that was not committed deletes the
+     * temporary file. Writers are not thread-safe.
+     */
+    public static final class Writer implements Closeable {
+
+        private static final long TRANSFER_SIZE = 1 << 20;
+
+        private final Path target;
+
+        private final Path temp;
+
+        private final FileChannel channel;
+
+        private long byteCount;
+
+        private boolean finished;
+
+        private Writer(Path target) throws IOException {
+            this.target = target;
+            Path dir = target.toAbsolutePath().getParent();
+            this.temp = Files.createTempFile(dir, "." + target.getFileName() + ".", ".part");
+            try {
+                this.channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+
+        /**
+         * Writes the given buffers to the file.
+         *
+         * @param buffers
+         *     the buffers to write, whose remaining bytes are all written.
+         * @throws IOException
+         *     if one is raised while writing.
+         */
+        public void write(ByteBuffer... buffers) throws IOException {
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                long n = channel.write(buffers);
+                byteCount += n;
+                remaining -= n;
+            }
+        }
+
+        /**
+         * Transfers the remaining content of the given channel to the file, via {@link FileChannel#transferFrom}.
+         *
+         * @param source
+         *     the channel to read from, which should be in blocking mode.
+         * @throws IOException
+         *     if one is raised while reading or writing.
+         */
+        public void transferFrom(ReadableByteChannel source) throws IOException {
+            long n;
+            while ((n = channel.transferFrom(source, byteCount, TRANSFER_SIZE)) > 0) {
+                byteCount += n;
+            }
+        }
+
+        /**
+         * Returns the number of bytes written so far.
+         *
+         * @return the number of bytes written so far.
+         */
+        public long getByteCount() {
+            return byteCount;
+        }
+
+        /**
+         * Closes the temporary file, and atomically renames it to the target, replacing any existing file. If an atomic
+         * rename is not supported, the file is renamed non-atomically.
+         *
+         * @return a complete {@link DownloadedFile}, or an incomplete one if the file could not be renamed.
+         */
+        public DownloadedFile commit() {
+            if (finished) {
+                throw new IllegalStateException("Already finished: " + target);
+            }
+            finished = true;
+            try {
+                channel.close();
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+                catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return new DownloadedFile(target, byteCount, null);
+            }
+            catch (IOException e) {
+                deleteTemp();
+                return new DownloadedFile(target, byteCount, e);
+            }
+        }
+
+        /**
+         * Deletes the temporary file, and returns an incomplete {@link DownloadedFile} recording the given cause.
+         *
+         * @param cause
+         *     the reason the download could not be completed.
+         * @return an incomplete {@link DownloadedFile}.
+         */
+        public DownloadedFile fail(Throwable cause) {
+            finished = true;
+            deleteTemp();
+            IOException error = cause instanceof IOException e ? e : new IOException("Download failed: " + target, cause);
+            return new DownloadedFile(target, byteCount, error);
+        }
+
+        /**
+         * Deletes the temporary file if this writer was not committed.
+         */
+        @Override
+        public void close() {
+            if (!finished) {
+                finished = true;
+                deleteTemp();
+            }
+        }
+
+        private void deleteTemp() {
+            HttpOperationResult.close(channel);
+            try {
+                Files.deleteIfExists(temp);
+            }
+            catch (IOException e) {
+                DELETE_FAILURE_LOG.log(e, () -> "Failed to delete " + temp);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,439 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Determines how much of an unread response body is consumed when a response is closed. Reading the remainder of a
+ * body generally allows the underlying connection to be reused, but when the remainder is large or slow to arrive, it
+ * can be cheaper to abandon the body, which generally causes the connection to be closed rather than reused.
+ *
+ * <p>
+ * A policy reads until the end of the body is reached, or until it has read more than {@link #getMaxBytes()} bytes
+ * (or chars) or spent more than {@link #getMaxTime()}, whichever comes first. In the latter cases, the body is
+ * abandoned. Note that the time limit is only checked between reads, so a single blocking read can exceed it.
+ *
+ * <p>
+ * The {@link #getDefault() default policy} applies to every {@link HttpOperationResult} unless
+ * {@link HttpOperationResult#setDrainPolicy(DrainPolicy) overridden} for a particular instance.
+ *
+ * @author Dave Shepperton
+ */
+public final class DrainPolicy {
+
+    /**
+     * Always reads the entire body. This is the initial default policy.
+     */
+    public static final DrainPolicy DRAIN_FULLY = new DrainPolicy(Long.MAX_VALUE, null);
+
+    /**
+     * Never reads any of the body, and always abandons it instead.
+     */
+    public static final DrainPolicy ABORT = new DrainPolicy(0, Duration.ZERO);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static volatile DrainPolicy defaultPolicy = DRAIN_FULLY;
+
+    /*
+     * The number of responses that were fully consumed, and so whose connections may be reused, and the number whose
+     * bodies were abandoned.
+     */
+    private static final LongAdder REUSED = new LongAdder();
+
+    private static final LongAdder ABORTED = new LongAdder();
+
+    /**
+     * Creates a policy that reads no more than the given number of bytes (or chars), and spends no more than the given
+     * amount of time, before abandoning the body.
+     *
+     * @param maxBytes
+     *     the maximum number of bytes (or chars) to read, which must not be negative.
+     * @param maxTime
+     *     the maximum amount of time to spend reading, or null if there is no limit.
+     * @return a new policy with the given limits.
+     * @throws IllegalArgumentException
+     *     if maxBytes or maxTime is negative.
+     */
+    public static DrainPolicy createBoundedInstance(long maxBytes, Duration maxTime) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+        }
+        if (maxTime != null && maxTime.isNegative()) {
+            throw new IllegalArgumentException("maxTime must not be negative: " + maxTime);
+        }
+        return new DrainPolicy(maxBytes, maxTime);
+    }
+
+    /**
+     * Returns the policy that applies to every {@link HttpOperationResult} for which no other policy has been set.
+     *
+     * @return the default policy.
+     */
+    public static DrainPolicy getDefault() {
+        return defaultPolicy;
+    }
+
+    /**
+     * Sets the policy that applies to every {@link HttpOperationResult} for which no other policy has been set.
+     *
+     * @param policy
+     *     the new default policy, which must not be null.
+     * @throws NullPointerException
+     *     if the policy is null.
+     */
+    public static void setDefault(DrainPolicy policy) {
+        defaultPolicy = Objects.requireNonNull(policy, "policy");
+    }
+
+    /**
+     * Returns the number of responses that were closed after their bodies were fully consumed, so that their
+     * connections could be reused.
+     *
+     * @return the number of responses that were closed after their bodies were fully consumed.
+     */
+    public static long getReusedCount() {
+        return REUSED.sum();
+    }
+
+    /**
+     * Returns the number of responses that were closed after their bodies were abandoned, so that their connections
+     * could not be reused.
+     *
+     * @return the number of responses that were closed after their bodies were abandoned.
+     */
+    public static long getAbortedCount() {
+        return ABORTED.sum();
+    }
+
+    /*
+     * Set while close(BooleanSupplier) is closing a response on this thread. A drain of a Flow.Publisher started
+     * meanwhile sets it to true, and records the outcome itself when the drain finishes.
+     */
+    private static final ThreadLocal<Boolean> DEFERRED = new ThreadLocal<>();
+
+    /*
+     * Closes a response via the given action, which returns whether its body was fully consumed, and records the
+     * outcome, unless it is deferred to an asynchronous drain.
+     */
+    static void close(BooleanSupplier close) {
+        Boolean previous = DEFERRED.get();
+        DEFERRED.set(Boolean.FALSE);
+        try {
+            boolean reused = close.getAsBoolean();
+            if (!DEFERRED.get()) {
+                recordOutcome(reused);
+            }
+        }
+        finally {
+            if (previous == null) {
+                DEFERRED.remove();
+            }
+            else {
+                DEFERRED.set(previous);
+            }
+        }
+    }
+
+    private static void recordOutcome(boolean reused) {
+        if (reused) {
+            REUSED.increment();
+        }
+        else {
+            ABORTED.increment();
+        }
+    }
+
+    private final long maxBytes;
+
+    private final Duration maxTime;
+
+    /*
+     * The maxTime in nanoseconds, or Long.MAX_VALUE if there is no limit.
+     */
+    private final long maxNanos;
+
+    private DrainPolicy(long maxBytes, Duration maxTime) {
+        this.maxBytes = maxBytes;
+        this.maxTime = maxTime;
+        if (maxTime == null || maxTime.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0) {
+            this.maxNanos = Long.MAX_VALUE;
+        }
+        else {
+            this.maxNanos = maxTime.toNanos();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DrainPolicy[maxBytes=" + (maxBytes == Long.MAX_VALUE ? "unlimited" : maxBytes) +
+               ", maxTime=" + (maxTime == null ? "unlimited" : maxTime) + "]";
+    }
+
+    /**
+     * Returns the maximum number of bytes (or chars) to read before abandoning the body.
+     *
+     * @return the maximum number of bytes (or chars) to read before abandoning the body, or {@link Long#MAX_VALUE} if
+     *     there is no limit.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the maximum amount of time to spend reading before abandoning the body.
+     *
+     * @return the maximum amount of time to spend reading before abandoning the body, or null if there is no limit.
+     */
+    public Duration getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * Returns true if this policy never reads any of the body.
+     *
+     * @return true if this policy never reads any of the body; false otherwise.
+     */
+    public boolean isAbort() {
+        return maxBytes == 0 || maxNanos == 0;
+    }
+
+    /**
+     * Reads from the given {@link InputStream} until its end is reached, or until this policy's limits are exceeded.
+     * The stream is not closed.
+     *
+     * @param input
+     *     the {@link InputStream} to drain.
+     * @return true if the end of the stream was reached; false if the limits were exceeded first.
+     * @throws IOException
+     *     if one is raised while reading.
+     */
+    public boolean drain(InputStream input) throws IOException {
+        if (isAbort()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, maxBytes) + 1];
+        long remaining = maxBytes;
+        int n;
+        while ((n = input.read(buffer)) >= 0) {
+            remaining -= n;
+            if (remaining < 0 || expired(start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads from the given {@link Reader} until its end is reached, or until this policy's limits are exceeded. The
+     * reader is not closed.
+     *
+     * @param reader
+     *     the {@link Reader} to drain.
+     * @return true if the end of the reader was reached; false if the limits were exceeded first.
+     * @throws IOException
+     *     if one is raised while reading.
+     */
+    public boolean drain(Reader reader) throws IOException {
+        if (isAbort()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        char[] buffer = new char[(int) Math.min(BUFFER_SIZE, maxBytes) + 1];
+        long remaining = maxBytes;
+        int n;
+        while ((n = reader.read(buffer)) >= 0) {
+            remaining -= n;
+            if (remaining < 0 || expired(start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads from the given {@link ReadableByteChannel} until its end is reached, or until this policy's limits are
+     * exceeded. The channel is not closed.
+     *
+     * @param channel
+     *     the {@link ReadableByteChannel} to drain.
+     * @return true if the end of the channel was reached; false if the limits were exceeded first.
+     * @throws IOException
+     *     if one is raised while reading.
+     */
+    public boolean drain(ReadableByteChannel channel) throws IOException {
+        if (isAbort()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, maxBytes) + 1);
+        long remaining = maxBytes;
+        int n;
+        while ((n = channel.read(buffer)) >= 0) {
+            buffer.clear();
+            remaining -= n;
+            if (remaining < 0 || expired(start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Subscribes to the given {@link Flow.Publisher} of response body buffers, and consumes them until it completes,
+     * or until this policy's limits are exceeded, in which case the subscription is cancelled. Unlike the other drain
+     * methods, this one is asynchronous, so the outcome is not known when it returns. If the publisher has already
+     * been subscribed to, the new subscription will generally fail without affecting the existing one. When this is
+     * invoked while an {@link HttpOperationResult} is being closed, the outcome is counted by
+     * {@link #getReusedCount()} or {@link #getAbortedCount()} when the drain completes, fails or is cancelled, rather
+     * than when the result is closed. A drain that the publisher rejects, by signalling an
+     * {@link IllegalStateException} before any buffers, as publishers that already have a subscriber do, is not
+     * counted at all, since it never started.
+     *
+     * @param publisher
+     *     the {@link Flow.Publisher} to drain.
+     * @return false if this policy is {@link #isAbort() the abort policy}, so the subscription is cancelled
+     *     immediately; true otherwise, although the body may yet turn out not to be fully consumed.
+     */
+    public boolean drain(Flow.Publisher<? extends List<ByteBuffer>> publisher) {
+        boolean recordOutcome = DEFERRED.get() != null;
+        if (recordOutcome) {
+            DEFERRED.set(Boolean.TRUE);
+        }
+        DrainingSubscriber subscriber = new DrainingSubscriber(this, recordOutcome);
+        publisher.subscribe(subscriber);
+        subscriber.subscribeReturned();
+        return !isAbort();
+    }
+
+    /**
+     * Consumes and discards the buffers published for a response body, within the limits of a {@link DrainPolicy}.
+     */
+    private static final class DrainingSubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private final DrainPolicy policy;
+
+        /*
+         * Whether the outcome is to be recorded; cleared once it has been, since onError may follow a cancellation.
+         */
+        private final AtomicBoolean recordOutcome;
+
+        private volatile Flow.Subscription subscription;
+
+        /*
+         * Whether publisher.subscribe() has returned, and whether the abort policy cancelled the subscription before
+         * then. A publisher rejects a subscriber by calling onSubscribe and then onError, usually before subscribe()
+         * returns, so the outcome of such a cancellation is only recorded once subscribe() has returned.
+         */
+        private volatile boolean returned;
+
+        private volatile boolean cancelledEarly;
+
+        private boolean received;
+
+        private long start;
+
+        private long remaining;
+
+        private DrainingSubscriber(DrainPolicy policy, boolean recordOutcome) {
+            this.policy = policy;
+            this.recordOutcome = new AtomicBoolean(recordOutcome);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (policy.isAbort()) {
+                subscription.cancel();
+                cancelledEarly = true;
+                if (returned) {
+                    finished(false);
+                }
+            }
+            else {
+                start = System.nanoTime();
+                remaining = policy.maxBytes;
+                subscription.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            received = true;
+            for (ByteBuffer buffer : item) {
+                remaining -= buffer.remaining();
+            }
+            if (remaining < 0 || policy.expired(start)) {
+                cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (subscription == null || (!received && throwable instanceof IllegalStateException)) {
+                // The publisher rejected this subscriber, so the drain never started.
+                recordOutcome.set(false);
+                return;
+            }
+            finished(false);
+        }
+
+        @Override
+        public void onComplete() {
+            finished(true);
+        }
+
+        private void subscribeReturned() {
+            returned = true;
+            if (cancelledEarly) {
+                finished(false);
+            }
+        }
+
+        private void cancel() {
+            finished(false);
+            subscription.cancel();
+        }
+
+        private void finished(boolean reused) {
+            if (recordOutcome.compareAndSet(true, false)) {
+                recordOutcome(reused);
+            }
+        }
+
+    }
+
+    private boolean expired(long start) {
+        return maxNanos != Long.MAX_VALUE && System.nanoTime() - start > maxNanos;
+    }
+
+}
@@ -0,0 +1,477 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Sends hedged requests to reduce tail latency: if the first attempt at an asynchronous call has not completed within
+ * the hedge delay, a second attempt is started, and the first result to arrive for a completed request is returned.
+ * The other attempt is cancelled, and its result, if it arrives anyway, is closed with the configured
+ * {@link DrainPolicy} (by default, {@link DrainPolicy#ABORT}), so that it does not hold on to a pooled connection.
+ * If an attempt fails without a response while the other is still in progress, the other is awaited.
+ *
+ * <p>
+ * The hedge delay is the given percentile (by default, the 95th) of the latencies of the first attempts of the most
+ * recent calls, measured from the start of each call, so that roughly that fraction of calls are never hedged. When the
+ * hedge wins, the time elapsed until then is recorded for the first attempt, since its latency is at least that long,
+ * and recording nothing would bias the delay towards calls that were not hedged. Until enough latencies have been
+ * recorded, the initial delay is used. Only requests accepted by the hedging rule are hedged; by default, those whose
+ * method is GET or HEAD, as determined by the describers registered via
+ * {@link HttpOperationResult#registerRequestDescriber}.
+ *
+ * <p>
+ * Any asynchronous call that returns an {@link HttpOperationResult} can be hedged, e.g., {@code JavaResults.sendAsync}
+ * or the {@code executeAsync} methods of the Apache HC5 clients, all of which abandon the request when their future is
+ * cancelled:
+ *
+ * <pre>{@code
+ * HedgedExecutor hedging = HedgedExecutor.createBuilder().build();
+ * hedging.executeAsync(request, r -> client.sendAsync(r, bodyHandler, resultFactory, errorFactory))
+ *     .thenAccept(result -> { try (result) { ... } });
+ * }</pre>
+ *
+ * @author Dave Shepperton
+ */
+public final class HedgedExecutor {
+
+    /**
+     * The methods that are hedged by default.
+     */
+    public static final Set<String> DEFAULT_HEDGED_METHODS = ImmutableSet.of("GET", "HEAD");
+
+    /**
+     * The default latency percentile used as the hedge delay.
+     */
+    public static final double DEFAULT_PERCENTILE = 0.95;
+
+    /**
+     * The default hedge delay used until enough latencies have been recorded.
+     */
+    public static final Duration DEFAULT_INITIAL_DELAY = Duration.ofMillis(100);
+
+    /**
+     * The default minimum hedge delay.
+     */
+    public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(1);
+
+    private static final Predicate<Object> DEFAULT_HEDGING_RULE =
+        request -> DEFAULT_HEDGED_METHODS.contains(HttpOperationResult.getRequestMethod(request));
+
+    /*
+     * The number of recent latencies from which the hedge delay is computed; the delay is recomputed after every
+     * RECOMPUTE_INTERVAL latencies are recorded.
+     */
+    private static final int SAMPLE_COUNT = 1024;
+
+    private static final int RECOMPUTE_INTERVAL = 64;
+
+    private final double percentile;
+
+    private final long minDelayNanos;
+
+    private final Predicate<Object> hedgingRule;
+
+    private final DrainPolicy loserDrainPolicy;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_COUNT);
+
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    private volatile long delayNanos;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder hedges = new LongAdder();
+
+    private final LongAdder hedgeWins = new LongAdder();
+
+    private HedgedExecutor(Builder builder) {
+        this.percentile = builder.percentile;
+        this.minDelayNanos = builder.minDelay.toNanos();
+        this.hedgingRule = builder.hedgingRule;
+        this.loserDrainPolicy = builder.loserDrainPolicy;
+        this.delayNanos = Math.max(builder.initialDelay.toNanos(), minDelayNanos);
+    }
+
+    /**
+     * Creates a new {@link Builder}, initialized with the defaults.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder createBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the current hedge delay.
+     *
+     * @return the current hedge delay.
+     */
+    public Duration getDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    /**
+     * Returns the number of calls made via {@link #executeAsync(Object, Function)}, including those not eligible for
+     * hedging.
+     *
+     * @return the number of calls.
+     */
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    /**
+     * Returns the number of calls for which a second attempt was started.
+     *
+     * @return the number of hedges fired.
+     */
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * Returns the number of calls for which the result of the second attempt was returned.
+     *
+     * @return the number of hedges that won.
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * Performs the given asynchronous call, hedging it as described {@link HedgedExecutor above} if the request is
+     * eligible. If the returned future is cancelled, both attempts are cancelled.
+     *
+     * @param request
+     *     the request object, which is passed to each attempt.
+     * @param call
+     *     starts an attempt, e.g., by sending the request asynchronously.
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     * @return a {@link CompletableFuture} that will be completed with the result returned, which the caller must close.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public <R, S, T, X extends Exception> CompletableFuture<HttpOperationResult<R,S,T,X>> executeAsync(
+        R request,
+        Function<? super R, ? extends CompletionStage<HttpOperationResult<R,S,T,X>>> call
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(call, "call");
+        calls.increment();
+        if (!hedgingRule.test(request)) {
+            return call.apply(request).toCompletableFuture();
+        }
+        Hedge<R,S,T,X> hedge = new Hedge<>(request, call);
+        hedge.start(false);
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (hedge.hedgeSlot.compareAndSet(true, false)) {
+                if (hedge.ret.isDone()) {
+                    hedge.pending.decrementAndGet();
+                }
+                else {
+                    hedges.increment();
+                    hedge.start(true);
+                }
+            }
+        });
+        return hedge.ret;
+    }
+
+    /*
+     * Records the latency of the first attempt of a call, and periodically recomputes the hedge delay.
+     */
+    private void recordLatency(long nanos) {
+        long index = sampleCount.getAndIncrement();
+        samples.set((int) (index % SAMPLE_COUNT), nanos);
+        if (index % RECOMPUTE_INTERVAL == RECOMPUTE_INTERVAL - 1) {
+            int n = (int) Math.min(index + 1, SAMPLE_COUNT);
+            long[] sorted = new long[n];
+            for (int i = 0; i < n; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            delayNanos = Math.max(sorted[(int) Math.min(n - 1, Math.ceil(percentile * n) - 1)], minDelayNanos);
+        }
+    }
+
+    /**
+     * The state of a single hedged call.
+     */
+    private final class Hedge<R, S, T, X extends Exception> {
+
+        private final R request;
+
+        private final Function<? super R, ? extends CompletionStage<HttpOperationResult<R,S,T,X>>> call;
+
+        private final CompletableFuture<HttpOperationResult<R,S,T,X>> ret = new CompletableFuture<>();
+
+        private final long startNanos = System.nanoTime();
+
+        /*
+         * Whether the latency of the first attempt has been recorded, either when it completed or, if the hedge won,
+         * as a lower bound.
+         */
+        private final AtomicBoolean latencyRecorded = new AtomicBoolean();
+
+        /*
+         * True until the hedge is either started or ruled out; while it is, the hedge is counted as pending.
+         */
+        private final AtomicBoolean hedgeSlot = new AtomicBoolean(true);
+
+        /*
+         * The number of attempts in progress or yet to start.
+         */
+        private final AtomicLong pending = new AtomicLong(2);
+
+        /*
+         * The futures of the attempts, for cancellation.
+         */
+        private final AtomicReference<CompletableFuture<?>> first = new AtomicReference<>();
+
+        private final AtomicReference<CompletableFuture<?>> second = new AtomicReference<>();
+
+        /*
+         * A result for a request that did not complete, held while the other attempt is in progress.
+         */
+        private final AtomicReference<HttpOperationResult<R,S,T,X>> fallback = new AtomicReference<>();
+
+        private Hedge(R request, Function<? super R, ? extends CompletionStage<HttpOperationResult<R,S,T,X>>> call) {
+            this.request = request;
+            this.call = call;
+            ret.whenComplete((result, error) -> {
+                if (ret.isCancelled()) {
+                    cancel(first.get());
+                    cancel(second.get());
+                }
+            });
+        }
+
+        private void start(boolean isHedge) {
+            CompletableFuture<HttpOperationResult<R,S,T,X>> future;
+            try {
+                future = call.apply(request).toCompletableFuture();
+            }
+            catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            (isHedge ? second : first).set(future);
+            if (ret.isDone()) {
+                cancel(future);
+            }
+            future.whenComplete((result, error) -> completed(isHedge, result, error));
+        }
+
+        private void completed(boolean isHedge, HttpOperationResult<R,S,T,X> result, Throwable error) {
+            if (!isHedge && result != null) {
+                recordFirstLatency();
+            }
+            long remaining = pending.decrementAndGet();
+            if (remaining == 1 && !isHedge && hedgeSlot.compareAndSet(true, false)) {
+                // The first attempt finished before the hedge delay, so no hedge will be started.
+                remaining = pending.decrementAndGet();
+            }
+            boolean last = remaining == 0;
+            if (result != null && (result.requestCompleted() || last)) {
+                if (ret.complete(result)) {
+                    if (isHedge) {
+                        hedgeWins.increment();
+                        // The first attempt is about to be cancelled, so this is a lower bound on its latency.
+                        recordFirstLatency();
+                    }
+                    cancel(isHedge ? first.get() : second.get());
+                    discard(fallback.getAndSet(null));
+                }
+                else {
+                    discard(result);
+                }
+            }
+            else if (result != null) {
+                // Wait for the other attempt, unless it has already produced the result.
+                discard(fallback.getAndSet(result));
+                if (ret.isDone()) {
+                    discard(fallback.getAndSet(null));
+                }
+            }
+            else if (last) {
+                HttpOperationResult<R,S,T,X> held = fallback.getAndSet(null);
+                if (held == null) {
+                    ret.completeExceptionally(error);
+                }
+                else if (!ret.complete(held)) {
+                    discard(held);
+                }
+            }
+        }
+
+        private void recordFirstLatency() {
+            if (latencyRecorded.compareAndSet(false, true)) {
+                recordLatency(System.nanoTime() - startNanos);
+            }
+        }
+
+        private void discard(HttpOperationResult<R,S,T,X> result) {
+            if (result != null) {
+                if (loserDrainPolicy != null) {
+                    result.setDrainPolicy(loserDrainPolicy);
+                }
+                result.close();
+            }
+        }
+
+        private void cancel(CompletableFuture<?> future) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+    }
+
+    /**
+     * Builds {@link HedgedExecutor} instances.
+     */
+    public static final class Builder {
+
+        private double percentile = DEFAULT_PERCENTILE;
+
+        private Duration initialDelay = DEFAULT_INITIAL_DELAY;
+
+        private Duration minDelay = DEFAULT_MIN_DELAY;
+
+        private Predicate<Object> hedgingRule = DEFAULT_HEDGING_RULE;
+
+        private DrainPolicy loserDrainPolicy = DrainPolicy.ABORT;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the latency percentile used as the hedge delay.
+         *
+         * @param percentile
+         *     the percentile, greater than 0 and less than 1.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is out of range.
+         */
+        public Builder setPercentile(double percentile) {
+            if (!(percentile > 0 && percentile < 1)) {
+                throw new IllegalArgumentException("percentile must be in (0, 1): " + percentile);
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets the hedge delay used until enough latencies have been recorded.
+         *
+         * @param initialDelay
+         *     the initial delay, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is negative.
+         */
+        public Builder setInitialDelay(Duration initialDelay) {
+            this.initialDelay = requireNonNegative(initialDelay, "initialDelay");
+            return this;
+        }
+
+        /**
+         * Sets the minimum hedge delay, which prevents hedging almost every call when latencies are very low.
+         *
+         * @param minDelay
+         *     the minimum delay, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is negative.
+         */
+        public Builder setMinDelay(Duration minDelay) {
+            this.minDelay = requireNonNegative(minDelay, "minDelay");
+            return this;
+        }
+
+        /**
+         * Sets the rule that determines whether a request object may be hedged, which should accept only idempotent
+         * requests.
+         *
+         * @param hedgingRule
+         *     returns true if the given request object may be hedged.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the rule is null.
+         */
+        public Builder setHedgingRule(Predicate<Object> hedgingRule) {
+            this.hedgingRule = Objects.requireNonNull(hedgingRule, "hedgingRule");
+            return this;
+        }
+
+        /**
+         * Sets the {@link DrainPolicy} with which the results of losing attempts are closed.
+         *
+         * @param loserDrainPolicy
+         *     the {@link DrainPolicy}, or null to use each result's own policy.
+         * @return this builder.
+         */
+        public Builder setLoserDrainPolicy(DrainPolicy loserDrainPolicy) {
+            this.loserDrainPolicy = loserDrainPolicy;
+            return this;
+        }
+
+        /**
+         * Creates a new {@link HedgedExecutor} from the current state of this builder.
+         *
+         * @return a new {@link HedgedExecutor}.
+         */
+        public HedgedExecutor build() {
+            return new HedgedExecutor(this);
+        }
+
+        private static Duration requireNonNegative(Duration value, String name) {
+            if (value.isNegative()) {
+                throw new IllegalArgumentException(name + " must not be negative: " + value);
+            }
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,383 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Backend-neutral settings for creating an {@link HttpOperationClient}, i.e., connection pool sizes, keep-alive,
+ * timeouts, HTTP/2 preference and executor. Instances are immutable, and are created via a {@link Builder}:
+ *
+ * <pre>{@code
+ * JavaHttpOperationClient client = HttpClientSettings.createBuilder()
+ *     .setMaxConnectionsPerRoute(50)
+ *     .setReadTimeout(Duration.ofSeconds(10))
+ *     .build(JavaHttpOperationClient::createInstance);
+ * }</pre>
+ *
+ * <p>
+ * The defaults are deliberately larger than those of most HTTP clients, whose pools (e.g., 5 connections per route for
+ * Apache HttpClient) are a common cause of poor throughput in services that make many concurrent requests to the same
+ * host. Not every backend can honour every setting; each implementation documents the settings that it ignores.
+ *
+ * @author Dave Shepperton
+ */
+public final class HttpClientSettings {
+
+    /**
+     * The default maximum number of pooled connections per route.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+    /**
+     * The default maximum number of pooled connections in total.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 200;
+
+    /**
+     * The default maximum amount of time for which an idle connection is kept alive.
+     */
+    public static final Duration DEFAULT_KEEP_ALIVE = Duration.ofSeconds(30);
+
+    /**
+     * The default maximum amount of time to wait to establish a connection.
+     */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The default maximum amount of time to wait for a response.
+     */
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final HttpClientSettings DEFAULT = createBuilder().build();
+
+    private final int maxConnectionsPerRoute;
+
+    private final int maxConnectionsTotal;
+
+    private final Duration keepAlive;
+
+    private final Duration connectTimeout;
+
+    private final Duration readTimeout;
+
+    private final boolean preferHttp2;
+
+    private final Executor executor;
+
+    private HttpClientSettings(Builder builder) {
+        this.maxConnectionsPerRoute = builder.maxConnectionsPerRoute;
+        this.maxConnectionsTotal = builder.maxConnectionsTotal;
+        this.keepAlive = builder.keepAlive;
+        this.connectTimeout = builder.connectTimeout;
+        this.readTimeout = builder.readTimeout;
+        this.preferHttp2 = builder.preferHttp2;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Returns an instance with all the default settings.
+     *
+     * @return an instance with all the default settings.
+     */
+    public static HttpClientSettings getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a new {@link Builder} initialized with the default settings.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder createBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a new {@link Builder} initialized with the settings of this instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public Builder toBuilder() {
+        return new Builder()
+            .setMaxConnectionsPerRoute(maxConnectionsPerRoute)
+            .setMaxConnectionsTotal(maxConnectionsTotal)
+            .setKeepAlive(keepAlive)
+            .setConnectTimeout(connectTimeout)
+            .setReadTimeout(readTimeout)
+            .setPreferHttp2(preferHttp2)
+            .setExecutor(executor);
+    }
+
+    /**
+     * Returns the maximum number of pooled connections per route, i.e., per target host and port.
+     *
+     * @return the maximum number of pooled connections per route.
+     */
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * Returns the maximum number of pooled connections in total.
+     *
+     * @return the maximum number of pooled connections in total.
+     */
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    /**
+     * Returns the maximum amount of time for which an idle connection is kept alive, unless the server indicates a
+     * shorter time.
+     *
+     * @return the maximum amount of time for which an idle connection is kept alive.
+     */
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Returns the maximum amount of time to wait to establish a connection.
+     *
+     * @return the maximum amount of time to wait to establish a connection.
+     */
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Returns the maximum amount of time to wait for a response, or for data from a response.
+     *
+     * @return the maximum amount of time to wait for a response.
+     */
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Returns true if HTTP/2 should be preferred where the server supports it, and false if HTTP/1.1 should always be
+     * used.
+     *
+     * @return true if HTTP/2 should be preferred.
+     */
+    public boolean isPreferHttp2() {
+        return preferHttp2;
+    }
+
+    /**
+     * Returns the {@link Executor} to be used for asynchronous work, or null if the backend should use its default.
+     *
+     * @return the {@link Executor} to be used for asynchronous work, or null.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpClientSettings[maxConnectionsPerRoute=" + maxConnectionsPerRoute +
+               ", maxConnectionsTotal=" + maxConnectionsTotal +
+               ", keepAlive=" + keepAlive +
+               ", connectTimeout=" + connectTimeout +
+               ", readTimeout=" + readTimeout +
+               ", preferHttp2=" + preferHttp2 +
+               ", executor=" + (executor == null ? "default" : executor) + "]";
+    }
+
+    /**
+     * Builds {@link HttpClientSettings}, or an {@link HttpOperationClient} directly from them. Builders are not
+     * thread-safe.
+     */
+    public static final class Builder {
+
+        private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+        private int maxConnectionsTotal = DEFAULT_MAX_CONNECTIONS_TOTAL;
+
+        private Duration keepAlive = DEFAULT_KEEP_ALIVE;
+
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+
+        private Duration readTimeout = DEFAULT_READ_TIMEOUT;
+
+        private boolean preferHttp2 = true;
+
+        private Executor executor;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of pooled connections per route, i.e., per target host and port.
+         *
+         * @param maxConnectionsPerRoute
+         *     the maximum number of pooled connections per route, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = requirePositive(maxConnectionsPerRoute, "maxConnectionsPerRoute");
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of pooled connections in total.
+         *
+         * @param maxConnectionsTotal
+         *     the maximum number of pooled connections in total, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setMaxConnectionsTotal(int maxConnectionsTotal) {
+            this.maxConnectionsTotal = requirePositive(maxConnectionsTotal, "maxConnectionsTotal");
+            return this;
+        }
+
+        /**
+         * Sets the maximum amount of time for which an idle connection is kept alive, unless the server indicates a
+         * shorter time.
+         *
+         * @param keepAlive
+         *     the maximum amount of time for which an idle connection is kept alive, which must be positive.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the value is null.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setKeepAlive(Duration keepAlive) {
+            this.keepAlive = requirePositive(keepAlive, "keepAlive");
+            return this;
+        }
+
+        /**
+         * Sets the maximum amount of time to wait to establish a connection.
+         *
+         * @param connectTimeout
+         *     the maximum amount of time to wait to establish a connection, which must be positive.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the value is null.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = requirePositive(connectTimeout, "connectTimeout");
+            return this;
+        }
+
+        /**
+         * Sets the maximum amount of time to wait for a response, or for data from a response.
+         *
+         * @param readTimeout
+         *     the maximum amount of time to wait for a response, which must be positive.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the value is null.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setReadTimeout(Duration readTimeout) {
+            this.readTimeout = requirePositive(readTimeout, "readTimeout");
+            return this;
+        }
+
+        /**
+         * Sets whether HTTP/2 should be preferred where the server supports it. If false, HTTP/1.1 will always be
+         * used.
+         *
+         * @param preferHttp2
+         *     true if HTTP/2 should be preferred.
+         * @return this builder.
+         */
+        public Builder setPreferHttp2(boolean preferHttp2) {
+            this.preferHttp2 = preferHttp2;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Executor} to be used for asynchronous work. The executor is not shut down when a client
+         * created with it is closed.
+         *
+         * @param executor
+         *     the {@link Executor} to be used for asynchronous work, or null to use the backend's default.
+         * @return this builder.
+         */
+        public Builder setExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Creates {@link HttpClientSettings} from the current state of this builder.
+         *
+         * @return new {@link HttpClientSettings}.
+         * @throws IllegalStateException
+         *     if the maximum number of connections per route is greater than the maximum total.
+         */
+        public HttpClientSettings build() {
+            if (maxConnectionsPerRoute > maxConnectionsTotal) {
+                throw new IllegalStateException(
+                    "maxConnectionsPerRoute (" + maxConnectionsPerRoute + ") is greater than maxConnectionsTotal (" +
+                    maxConnectionsTotal + ")"
+                );
+            }
+            return new HttpClientSettings(this);
+        }
+
+        /**
+         * Creates an {@link HttpOperationClient} from the current state of this builder, via the given
+         * backend-specific factory, e.g., {@code JavaHttpOperationClient::createInstance}.
+         *
+         * @param clientFactory
+         *     creates a client from {@link HttpClientSettings}.
+         * @param <C>
+         *     the type of client.
+         * @return a new client.
+         * @throws IllegalStateException
+         *     if the maximum number of connections per route is greater than the maximum total.
+         */
+        public <C extends HttpOperationClient> C build(Function<? super HttpClientSettings,C> clientFactory) {
+            return Objects.requireNonNull(clientFactory, "clientFactory").apply(build());
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+
+        private static Duration requirePositive(Duration value, String name) {
+            Objects.requireNonNull(value, name);
+            if (value.isNegative() || value.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+
+    }
+
+}
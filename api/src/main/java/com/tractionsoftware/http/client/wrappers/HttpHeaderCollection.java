@@ -24,7 +24,7 @@ import org.apache.commons.lang3.Strings;
 
 import java.io.PrintWriter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 /**
  * Encapsulates a mutable collection of HTTP request or response headers, which preserves insertion order of the headers
@@ -37,7 +37,8 @@ public final class HttpHeaderCollection {
 
     /**
      * A simple encapsulation of an HTTP header. The header's name is generally handled in a case-insensitive manner,
-     * but must not be null.
+     * but must not be null. Well-known names are {@link HttpHeaderNames#canonicalize(String) resolved} to their
+     * canonical instances.
      */
     public static final class Header {
 
@@ -54,32 +55,41 @@ public final class HttpHeaderCollection {
          */
         public static Header createInstance(String name, String value) {
             Objects.requireNonNull(name, "name");
-            return new Header(name, StringUtils.defaultString(value));
+            int hash = HttpHeaderNames.caseFoldedHash(name);
+            return new Header(HttpHeaderNames.canonicalize(name, hash), hash, StringUtils.defaultString(value));
         }
 
         public static List<Header> createMultiple(String name, List<String> values) {
             Objects.requireNonNull(name, "name");
             Objects.requireNonNull(values, "values");
+            int hash = HttpHeaderNames.caseFoldedHash(name);
+            String useName = HttpHeaderNames.canonicalize(name, hash);
             List<Header> headers = new ArrayList<>(values.size());
             for (String value : values) {
-                headers.add(new Header(name, value));
+                headers.add(new Header(useName, hash, value));
             }
             return headers;
         }
 
         private final String name;
 
+        /*
+         * The case-folded hash of the name.
+         */
+        private final int hash;
+
         private final String value;
 
-        private Header(String name, String value) {
+        private Header(String name, int hash, String value) {
             this.name = name;
+            this.hash = hash;
             this.value = value;
         }
 
         @Override
         public String toString() {
             String useValue;
-            if (com.google.common.net.HttpHeaders.AUTHORIZATION.equalsIgnoreCase(name)) {
+            if (hasName(com.google.common.net.HttpHeaders.AUTHORIZATION)) {
                 useValue = "[-hidden-]";
             }
             else {
@@ -91,7 +101,7 @@ public final class HttpHeaderCollection {
         @Override
         public boolean equals(Object other) {
             if (other instanceof Header otherHeader) {
-                return Strings.CI.equals(name, otherHeader.name) &&
+                return HttpHeaderNames.namesEqual(name, hash, otherHeader.name, otherHeader.hash) &&
                        Objects.equals(value, otherHeader.value);
             }
             return false;
@@ -99,7 +109,7 @@ public final class HttpHeaderCollection {
 
         @Override
         public int hashCode() {
-            return Objects.hash(StringUtils.lowerCase(name), value);
+            return 31 * hash + Objects.hashCode(value);
         }
 
         public String getName() {
@@ -115,11 +125,56 @@ public final class HttpHeaderCollection {
         }
 
         public boolean hasName(String name) {
-            return Strings.CI.equals(this.name, name);
+            return this.name == name || Strings.CI.equals(this.name, name);
         }
 
     }
 
+    /**
+     * A read-only source of headers that can back an HttpHeaderCollection until it is first modified, allowing header
+     * lookups to read directly from an HTTP client API-specific response object rather than copying every header up
+     * front. Name comparisons must be case-insensitive.
+     */
+    public interface HeaderSource {
+
+        /**
+         * Returns true if there are no headers.
+         *
+         * @return true if there are no headers; false otherwise.
+         */
+        boolean isEmpty();
+
+        /**
+         * Returns the values of the headers with the given name (case-insensitive), in the order in which they were
+         * encountered.
+         *
+         * @param name
+         *     the name of the headers, which will not be null.
+         * @return the values of the headers with the given name, or an empty list if there are none. The returned list
+         *     may be unmodifiable.
+         */
+        List<String> values(String name);
+
+        /**
+         * Returns the value of the first header with the given name (case-insensitive), if any.
+         *
+         * @param name
+         *     the name of the header, which will not be null.
+         * @return the value of the first header with the given name, if any; null otherwise.
+         */
+        String firstValue(String name);
+
+        /**
+         * Supplies the name and value of every header to the given action, in the order in which they were encountered,
+         * or as close to that order as the underlying API allows.
+         *
+         * @param action
+         *     to be invoked with the name and value of every header.
+         */
+        void forEach(BiConsumer<String,String> action);
+
+    }
+
     /**
      * Creates an initially empty instance.
      *
@@ -150,30 +205,127 @@ public final class HttpHeaderCollection {
      * @return an instance initially populated by the given set of {@link Header}s.
      */
     public static HttpHeaderCollection createInstance(Map<String,List<String>> name2values) {
-        HttpHeaderCollection ret = new HttpHeaderCollection();
-        ret.addAll(
-            name2values.entrySet().stream()
-                .map(e -> Header.createMultiple(e.getKey(), e.getValue()))
-                .flatMap(List::stream)
-                .iterator()
-        );
+        HttpHeaderCollection ret = new HttpHeaderCollection(name2values.size() + (name2values.size() >> 1));
+        for (Map.Entry<String,List<String>> e : name2values.entrySet()) {
+            int hash = HttpHeaderNames.caseFoldedHash(Objects.requireNonNull(e.getKey(), "name"));
+            String name = HttpHeaderNames.canonicalize(e.getKey(), hash);
+            for (String value : e.getValue()) {
+                ret.append(name, hash, value, null);
+            }
+        }
         return ret;
     }
 
+    /**
+     * Creates an instance that reads from the given {@link HeaderSource} until it is first modified, or until all of
+     * its headers are requested via {@link #all()}, {@link #asMultimap()} and the like, at which point the headers are
+     * copied from the source. {@link #isEmpty()}, {@link #getValues(String)} and {@link #getFirstValue(String)} read
+     * directly from the source until then. The headers are copied at most once, so an instance that is not otherwise
+     * modified may be read by several threads.
+     *
+     * @param source
+     *     the {@link HeaderSource} to read from, which must not be null.
+     * @return an instance backed by the given {@link HeaderSource}.
+     * @throws NullPointerException
+     *     if the source is null.
+     */
+    public static HttpHeaderCollection createLazyInstance(HeaderSource source) {
+        Objects.requireNonNull(source, "source");
+        return new HttpHeaderCollection(source);
+    }
+
+    /*
+     * The initial capacity of the entry arrays, which comfortably covers a typical response without growing.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Marks the end of a chain of entries with the same name, and an empty index slot.
+     */
+    private static final int NONE = -1;
+
+    /*
+     * The source of headers for an instance that has not yet been materialized, or null. The entry arrays are not
+     * allocated until the instance is materialized, which clears this field only after they have been filled, so a
+     * thread that reads null here also sees the filled arrays.
+     */
+    private volatile HeaderSource source;
+
+    /*
+     * Whether this instance rejects modifications; see unmodifiable().
+     */
+    private boolean unmodifiable;
+
+    /*
+     * Parallel arrays holding the name, value and case-folded name hash of each entry, in the order in which they were
+     * inserted, which is presumably the same as the order in which they appeared in an HTTP request or response.
+     */
+    private String[] names;
+
+    private String[] values;
+
+    private int[] hashes;
+
+    /*
+     * The Header objects for each entry, which are only created when they are actually needed, i.e., when they are
+     * exposed via all() or asMultimap(). A Header given to add(Header) is retained as-is.
+     */
+    private Header[] headers;
+
+    /*
+     * For each entry, the index of the next entry with the same (case-insensitive) name, or NONE.
+     */
+    private int[] nextSameName;
+
     /*
-     * A list that maintains the order in which the headers were initially inserted, which is presumably the same as the
-     * order in which they appeared in an HTTP request or response.
+     * An open-addressed hash index on case-folded names. Each slot holds the index of the first entry having a given
+     * name, or NONE, and the parallel slotTails array holds the index of the last entry having that name.
      */
-    private final LinkedList<Header> list;
+    private int[] slots;
+
+    private int[] slotTails;
+
+    /*
+     * The number of entries, and the number of distinct names in the index.
+     */
+    private int size;
+
+    private int distinctNames;
 
     /*
-     * A Multimap that supports quick retrieval of one or more headers by name. The keys are always lower-case.
+     * Incremented on every change, and used to invalidate the snapshot behind the Multimap view.
      */
-    private final ListMultimap<String,Header> name2headers;
+    private int modCount;
+
+    private ListMultimap<String,Header> multimap;
+
+    private int multimapModCount;
+
+    private List<Header> allView;
+
+    private Multimap<String,Header> multimapView;
 
     private HttpHeaderCollection() {
-        this.list = new LinkedList<>();
-        this.name2headers = LinkedListMultimap.create();
+        this(INITIAL_CAPACITY);
+    }
+
+    private HttpHeaderCollection(int capacity) {
+        initStorage(capacity);
+    }
+
+    private HttpHeaderCollection(HeaderSource source) {
+        this.source = source;
+    }
+
+    private void initStorage(int capacity) {
+        int useCapacity = Math.max(capacity, 4);
+        this.names = new String[useCapacity];
+        this.values = new String[useCapacity];
+        this.hashes = new int[useCapacity];
+        this.headers = new Header[useCapacity];
+        this.nextSameName = new int[useCapacity];
+        this.slots = newSlots(tableSizeFor(useCapacity));
+        this.slotTails = new int[slots.length];
     }
 
     /**
@@ -182,7 +334,11 @@ public final class HttpHeaderCollection {
      * @return true if this instance does not contain any headers; false otherwise.
      */
     public boolean isEmpty() {
-        return list.isEmpty();
+        HeaderSource useSource = source;
+        if (useSource != null) {
+            return useSource.isEmpty();
+        }
+        return size == 0;
     }
 
     /**
@@ -191,18 +347,46 @@ public final class HttpHeaderCollection {
      * @return a {@link List} view of all {@link Header}s in the order in which they are currently tracked.
      */
     public List<Header> all() {
-        return Collections.unmodifiableList(list);
+        if (allView == null) {
+            allView = new AbstractList<>() {
+
+                @Override
+                public Header get(int index) {
+                    materialize();
+                    Objects.checkIndex(index, size);
+                    return header(index);
+                }
+
+                @Override
+                public int size() {
+                    materialize();
+                    return size;
+                }
+
+            };
+        }
+        return allView;
     }
 
     /**
-     * Returns a {@link Multimap} view of the headers by name (case-insensitive). No guarantees are made about the order
-     * in which the headers appear in any iteration other than that the headers for each name should appear in the order
-     * in which they were inserted overall.
+     * Returns an unmodifiable {@link Multimap} view of the headers by name (case-insensitive). No guarantees are made
+     * about the order in which the headers appear in any iteration other than that the headers for each name should
+     * appear in the order in which they were inserted overall. The keys are always lower-case.
      *
-     * @return a {@link Multimap} view of the headers by name (case-insensitive).
+     * @return an unmodifiable {@link Multimap} view of the headers by name (case-insensitive).
      */
     public Multimap<String,Header> asMultimap() {
-        return Multimaps.unmodifiableMultimap(name2headers);
+        if (multimapView == null) {
+            multimapView = new ForwardingListMultimap<>() {
+
+                @Override
+                protected ListMultimap<String,Header> delegate() {
+                    return multimapSnapshot();
+                }
+
+            };
+        }
+        return multimapView;
     }
 
     @Override
@@ -235,7 +419,20 @@ public final class HttpHeaderCollection {
         if (name == null) {
             return ImmutableList.of();
         }
-        return name2headers.get(name.toLowerCase()).stream().map(Header::getValue).collect(Collectors.toList());
+        HeaderSource useSource = source;
+        if (useSource != null) {
+            // The source's list may be unmodifiable, while the caller may expect to own the returned list.
+            return new ArrayList<>(useSource.values(name));
+        }
+        int first = firstIndexOf(name);
+        if (first == NONE) {
+            return new ArrayList<>(0);
+        }
+        List<String> ret = new ArrayList<>(nextSameName[first] == NONE ? 1 : 4);
+        for (int i = first; i != NONE; i = nextSameName[i]) {
+            ret.add(values[i]);
+        }
+        return ret;
     }
 
     /**
@@ -246,7 +443,15 @@ public final class HttpHeaderCollection {
      * @return the list of headers with the given name, if any.
      */
     public String getFirstValue(String name) {
-        return Iterables.getFirst(getValues(name), null);
+        if (name == null) {
+            return null;
+        }
+        HeaderSource useSource = source;
+        if (useSource != null) {
+            return useSource.firstValue(name);
+        }
+        int first = firstIndexOf(name);
+        return first == NONE ? null : values[first];
     }
 
     /**
@@ -262,6 +467,7 @@ public final class HttpHeaderCollection {
      *     if the name is null.
      */
     public void set(String name, String value) {
+        checkModifiable();
         if (value == null) {
             clear(name);
         }
@@ -278,6 +484,7 @@ public final class HttpHeaderCollection {
      *     the Header to set, which must not be null.
      */
     public void set(Header header) {
+        checkModifiable();
         Objects.requireNonNull(header, "header");
         clear(header.getName());
         add(header);
@@ -291,9 +498,32 @@ public final class HttpHeaderCollection {
      *     manner.
      */
     public void clear(String name) {
+        checkModifiable();
         Objects.requireNonNull(name, "name");
-        list.removeIf(h -> h.hasName(name));
-        name2headers.removeAll(StringUtils.lowerCase(name));
+        materialize();
+        if (firstIndexOf(name) == NONE) {
+            return;
+        }
+        int hash = HttpHeaderNames.caseFoldedHash(name);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (HttpHeaderNames.namesEqual(names[i], hashes[i], name, hash)) {
+                continue;
+            }
+            if (kept != i) {
+                names[kept] = names[i];
+                values[kept] = values[i];
+                hashes[kept] = hashes[i];
+                headers[kept] = headers[i];
+            }
+            kept++;
+        }
+        Arrays.fill(names, kept, size, null);
+        Arrays.fill(values, kept, size, null);
+        Arrays.fill(headers, kept, size, null);
+        size = kept;
+        modCount++;
+        rebuildIndex(slots.length);
     }
 
     /**
@@ -307,7 +537,10 @@ public final class HttpHeaderCollection {
      *     if the name is null.
      */
     public void add(String name, String value) {
-        add(Header.createInstance(name, value));
+        checkModifiable();
+        Objects.requireNonNull(name, "name");
+        int hash = HttpHeaderNames.caseFoldedHash(name);
+        append(HttpHeaderNames.canonicalize(name, hash), hash, StringUtils.defaultString(value), null);
     }
 
     /**
@@ -317,9 +550,9 @@ public final class HttpHeaderCollection {
      *     the {@link Header} to be added, which must not be null.
      */
     public void add(Header header) {
+        checkModifiable();
         Objects.requireNonNull(header, "header");
-        list.add(header);
-        name2headers.put(StringUtils.lowerCase(header.getName()), header);
+        append(header.name, header.hash, header.value, header);
     }
 
     /**
@@ -331,10 +564,14 @@ public final class HttpHeaderCollection {
      *     if the headers object is null.
      */
     public void addAll(Iterable<Header> headers) {
+        checkModifiable();
         Objects.requireNonNull(headers, "headers");
-        Iterables.addAll(list, headers);
+        materialize();
+        if (headers instanceof Collection<Header> collection) {
+            ensureCapacity(size + collection.size());
+        }
         for (Header header : headers) {
-            name2headers.put(StringUtils.lowerCase(header.getName()), header);
+            add(header);
         }
     }
 
@@ -347,6 +584,7 @@ public final class HttpHeaderCollection {
      *     if the headers object is null.
      */
     public void addAll(Iterator<Header> headers) {
+        checkModifiable();
         Objects.requireNonNull(headers, "headers");
         while (headers.hasNext()) {
             add(headers.next());
@@ -361,8 +599,11 @@ public final class HttpHeaderCollection {
      *     to which the rendering should be printed.
      */
     public void printHttp(PrintWriter out) {
-        for (Header header : list) {
-            out.println(header.toHttpString());
+        materialize();
+        for (int i = 0; i < size; i++) {
+            out.print(names[i]);
+            out.print(": ");
+            out.println(values[i]);
         }
     }
 
@@ -374,16 +615,189 @@ public final class HttpHeaderCollection {
      *     to which the rendering should be printed.
      */
     public void printHttp(StringBuilder buff) {
-        for (Header header : list) {
-            buff.append(header.toHttpString()).append('\n');
+        materialize();
+        for (int i = 0; i < size; i++) {
+            buff.append(names[i]).append(": ").append(values[i]).append('\n');
+        }
+    }
+
+    /*
+     * Makes this instance reject any further modification with an UnsupportedOperationException, and returns it. This
+     * is used for collections that are shared by everything that examines a result, and must not be modified by any of
+     * them.
+     */
+    HttpHeaderCollection unmodifiable() {
+        unmodifiable = true;
+        return this;
+    }
+
+    private void checkModifiable() {
+        if (unmodifiable) {
+            throw new UnsupportedOperationException("unmodifiable HttpHeaderCollection");
+        }
+    }
+
+    /*
+     * Copies the headers from the source, if this instance has not yet been materialized. This may be invoked by
+     * several threads reading an otherwise unmodified instance, so the copy is made at most once, and the source is
+     * only cleared once the copy is complete.
+     */
+    private void materialize() {
+        if (source == null) {
+            return;
+        }
+        synchronized (this) {
+            HeaderSource useSource = source;
+            if (useSource == null) {
+                return;
+            }
+            initStorage(INITIAL_CAPACITY);
+            useSource.forEach((name, value) -> {
+                int hash = HttpHeaderNames.caseFoldedHash(name);
+                appendEntry(HttpHeaderNames.canonicalize(name, hash), hash, value, null);
+            });
+            source = null;
+        }
+    }
+
+    /*
+     * Returns an immutable snapshot of the headers by name, which backs the view returned by asMultimap(). The snapshot
+     * is built on demand, and rebuilt on the first access after this collection is next modified.
+     */
+    private ListMultimap<String,Header> multimapSnapshot() {
+        materialize();
+        if (multimap == null || multimapModCount != modCount) {
+            ImmutableListMultimap.Builder<String,Header> builder = ImmutableListMultimap.builder();
+            for (int i = 0; i < size; i++) {
+                builder.put(names[i].toLowerCase(Locale.ROOT), header(i));
+            }
+            multimap = builder.build();
+            multimapModCount = modCount;
+        }
+        return multimap;
+    }
+
+    /*
+     * Returns the Header for the entry at the given index, creating it if necessary.
+     */
+    private Header header(int index) {
+        Header header = headers[index];
+        if (header == null) {
+            header = new Header(names[index], hashes[index], values[index]);
+            headers[index] = header;
+        }
+        return header;
+    }
+
+    /*
+     * Appends a new entry and links it into the index. The name should already have been canonicalized, and the hash
+     * must be its case-folded hash. The given Header may be null, in which case one will be created on demand.
+     */
+    private void append(String name, int hash, String value, Header header) {
+        materialize();
+        appendEntry(name, hash, value, header);
+    }
+
+    /*
+     * Appends a new entry as for append(), but without first materializing this instance.
+     */
+    private void appendEntry(String name, int hash, String value, Header header) {
+        ensureCapacity(size + 1);
+        int index = size++;
+        names[index] = name;
+        values[index] = value;
+        hashes[index] = hash;
+        headers[index] = header;
+        nextSameName[index] = NONE;
+        modCount++;
+        if (link(index) && (distinctNames << 1) > slots.length) {
+            rebuildIndex(slots.length << 1);
+        }
+    }
+
+    /*
+     * Links the entry at the given index into the index, returning true if it was the first entry with its name.
+     */
+    private boolean link(int index) {
+        int hash = hashes[index];
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int first = slots[slot];
+            if (first == NONE) {
+                slots[slot] = index;
+                slotTails[slot] = index;
+                distinctNames++;
+                return true;
+            }
+            if (HttpHeaderNames.namesEqual(names[first], hashes[first], names[index], hash)) {
+                nextSameName[slotTails[slot]] = index;
+                slotTails[slot] = index;
+                return false;
+            }
+        }
+    }
+
+    /*
+     * Returns the index of the first entry with the given name (case-insensitive), or NONE.
+     */
+    private int firstIndexOf(String name) {
+        if (size == 0) {
+            return NONE;
+        }
+        int hash = HttpHeaderNames.caseFoldedHash(name);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int first = slots[slot];
+            if (first == NONE) {
+                return NONE;
+            }
+            if (HttpHeaderNames.namesEqual(names[first], hashes[first], name, hash)) {
+                return first;
+            }
         }
     }
 
+    private void ensureCapacity(int capacity) {
+        if (capacity <= names.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, names.length << 1);
+        names = Arrays.copyOf(names, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+        hashes = Arrays.copyOf(hashes, newCapacity);
+        headers = Arrays.copyOf(headers, newCapacity);
+        nextSameName = Arrays.copyOf(nextSameName, newCapacity);
+    }
+
+    private void rebuildIndex(int tableSize) {
+        slots = newSlots(tableSize);
+        slotTails = new int[tableSize];
+        distinctNames = 0;
+        for (int i = 0; i < size; i++) {
+            nextSameName[i] = NONE;
+            link(i);
+        }
+    }
+
+    private static int[] newSlots(int tableSize) {
+        int[] ret = new int[tableSize];
+        Arrays.fill(ret, NONE);
+        return ret;
+    }
+
+    /*
+     * Returns the smallest power of two that is at least twice the given capacity, so the index is never more than
+     * half full.
+     */
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity, 4) - 1) << 2;
+    }
+
     /*
      * Used in toString().
      */
     private Iterable<String> headerStrings() {
-        return () -> list.stream().map(Header::toString).iterator();
+        return () -> all().stream().map(Header::toString).iterator();
     }
 
 }
@@ -0,0 +1,144 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import com.google.common.net.HttpHeaders;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A static table of canonical, well-known HTTP header names, seeded from the constants in {@link HttpHeaders}. Names
+ * that are resolved against this table are replaced by a single shared String instance for each well-known header, so
+ * that equal names can usually be compared by reference, and so that the name Strings produced by an HTTP client are
+ * not retained for every response.
+ *
+ * @author Dave Shepperton
+ */
+public final class HttpHeaderNames {
+
+    // Not instantiable.
+    private HttpHeaderNames() {
+    }
+
+    /*
+     * An open-addressed table of the canonical names, with a parallel array of their case-folded hashes. The table is
+     * never more than half full.
+     */
+    private static final String[] NAMES;
+
+    private static final int[] HASHES;
+
+    static {
+        List<String> names = new ArrayList<>();
+        for (Field field : HttpHeaders.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                try {
+                    names.add((String) field.get(null));
+                }
+                catch (IllegalAccessException e) {
+                    throw new ExceptionInInitializerError(e);
+                }
+            }
+        }
+        int tableSize = Integer.highestOneBit(Math.max(names.size(), 2) - 1) << 2;
+        NAMES = new String[tableSize];
+        HASHES = new int[tableSize];
+        for (String name : names) {
+            int hash = caseFoldedHash(name);
+            int slot = find(name, hash);
+            if (NAMES[slot] == null) {
+                NAMES[slot] = name;
+                HASHES[slot] = hash;
+            }
+        }
+    }
+
+    /**
+     * Returns the canonical instance of the given header name, if it is a well-known name (case-insensitive);
+     * otherwise, returns the given name.
+     *
+     * @param name
+     *     the header name to resolve, which must not be null.
+     * @return the canonical instance of the given header name, if it is a well-known name; the given name otherwise.
+     * @throws NullPointerException
+     *     if the name is null.
+     */
+    public static String canonicalize(String name) {
+        Objects.requireNonNull(name, "name");
+        return canonicalize(name, caseFoldedHash(name));
+    }
+
+    /**
+     * Returns true if the given header name is a well-known name (case-insensitive).
+     *
+     * @param name
+     *     the header name to check.
+     * @return true if the given header name is a well-known name; false otherwise, including when the name is null.
+     */
+    public static boolean isWellKnown(String name) {
+        return name != null && NAMES[find(name, caseFoldedHash(name))] != null;
+    }
+
+    /*
+     * Returns the canonical instance of the given header name, which has the given case-folded hash, if it is a
+     * well-known name; otherwise, returns the given name.
+     */
+    static String canonicalize(String name, int hash) {
+        String canonical = NAMES[find(name, hash)];
+        return canonical == null ? name : canonical;
+    }
+
+    /*
+     * Returns true if the two names, which have the given case-folded hashes, are equal ignoring case. Canonical names
+     * will usually be equal by reference.
+     */
+    static boolean namesEqual(String name1, int hash1, String name2, int hash2) {
+        return name1 == name2 || (hash1 == hash2 && name1.equalsIgnoreCase(name2));
+    }
+
+    /*
+     * A hash of the given name that is consistent with String.equalsIgnoreCase(), spread so that the low bits used to
+     * select a slot are well distributed.
+     */
+    static int caseFoldedHash(String name) {
+        int h = 0;
+        for (int i = 0, n = name.length(); i < n; i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /*
+     * Returns the slot holding the given name, or the empty slot at which it would be inserted.
+     */
+    private static int find(String name, int hash) {
+        int mask = NAMES.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            String candidate = NAMES[slot];
+            if (candidate == null || namesEqual(candidate, HASHES[slot], name, hash)) {
+                return slot;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+/**
+ * An HTTP client that performs operations and represents their outcomes as {@link HttpOperationResult}s rather than by
+ * throwing exceptions. Implementations are provided for each supported backend, and are created from
+ * backend-neutral {@link HttpClientSettings}; their request-executing methods are necessarily backend-specific, since
+ * the request and response types are.
+ *
+ * <p>
+ * Implementations are thread-safe, and are intended to be long-lived and shared, since each owns a connection pool.
+ *
+ * @author Dave Shepperton
+ */
+public interface HttpOperationClient extends AutoCloseable {
+
+    /**
+     * Returns the settings with which this client was created.
+     *
+     * @return the settings with which this client was created.
+     */
+    HttpClientSettings getSettings();
+
+    /**
+     * Closes this client, and releases its pooled connections. Results that have already been created should still be
+     * closed as usual.
+     */
+    @Override
+    void close();
+
+}
@@ -0,0 +1,168 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult.OperationStatus;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult.RequestStatus;
+
+import java.util.Objects;
+
+/**
+ * A service provider interface for aggregating the outcomes of HTTP operations. When an implementation is
+ * {@link HttpOperationResult#setMetrics(HttpOperationMetrics) installed}, it is notified whenever an
+ * {@link HttpOperationResult} is created, and again when it is first closed, with a {@link Key} that classifies the
+ * result by host, method, status code class, {@link RequestStatus} and {@link OperationStatus}.
+ *
+ * <p>
+ * The host and method are determined from the request object by a describer
+ * {@link HttpOperationResult#registerRequestDescriber(Class, java.util.function.Function, java.util.function.Function)
+ * registered} for its type; the modules for each supported HTTP client register one for their request types.
+ *
+ * <p>
+ * The latency reported when a result is closed is measured from the start of the request if an
+ * {@link HttpOperationTiming} is {@link HttpOperationResult#setTiming(HttpOperationTiming) attached} to the result (as
+ * it is by the {@code JavaResults.sendAsync} variant that takes one). Otherwise, it falls back to the time from the
+ * creation of the result until it was closed, which excludes the time spent sending the request and waiting for the
+ * response. Latencies of the two kinds are not distinguished, so those of results without a timing should be compared
+ * only with each other.
+ *
+ * <p>
+ * Implementations are invoked on the threads that create and close results, so they must be thread-safe and should
+ * not block. {@link InMemoryHttpOperationMetrics} is a lock-free implementation with no dependencies, which may also
+ * serve as a model for bridging to a metrics library.
+ *
+ * @author Dave Shepperton
+ */
+public interface HttpOperationMetrics {
+
+    /**
+     * The host or method of a request that could not be determined.
+     */
+    String UNKNOWN = "unknown";
+
+    /**
+     * The status code class of a result with no response.
+     */
+    String NO_RESPONSE = "none";
+
+    /**
+     * Classifies an {@link HttpOperationResult} for aggregation.
+     *
+     * @param host
+     *     the host to which the request was sent, or {@link #UNKNOWN}.
+     * @param method
+     *     the method of the request, or {@link #UNKNOWN}.
+     * @param statusCodeClass
+     *     the class of the response status code (i.e., "1xx" to "5xx"), or {@link #NO_RESPONSE} if there is no
+     *     response.
+     * @param requestStatus
+     *     the {@link RequestStatus} of the result.
+     * @param operationStatus
+     *     the {@link OperationStatus} of the result.
+     */
+    record Key(
+        String host,
+        String method,
+        String statusCodeClass,
+        RequestStatus requestStatus,
+        OperationStatus operationStatus
+    ) {
+
+        private static final String[] STATUS_CODE_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+        /**
+         * Returns the class of the given response status code, i.e., "1xx" to "5xx", or {@link #NO_RESPONSE} if it is
+         * outside that range (e.g., -1 for no response).
+         *
+         * @param statusCode
+         *     the response status code.
+         * @return the class of the status code.
+         */
+        public static String getStatusCodeClass(int statusCode) {
+            return statusCode >= 100 && statusCode < 600 ? STATUS_CODE_CLASSES[statusCode / 100 - 1] : NO_RESPONSE;
+        }
+
+        /**
+         * Returns true if the result represents an error or failure, i.e., anything other than a successful request and
+         * an operation that succeeded or failed with only a warning.
+         *
+         * @return true if the result represents an error or failure.
+         */
+        public boolean isError() {
+            return requestStatus != RequestStatus.SUCCESS ||
+                   (operationStatus != OperationStatus.SUCCESS && operationStatus != OperationStatus.WARNING);
+        }
+
+    }
+
+    /**
+     * Returns an {@link HttpOperationMetrics} that notifies each of the given instances in turn, so that more than one
+     * can be installed, e.g., an {@link InMemoryHttpOperationMetrics} and a {@link CircuitBreakerRegistry}.
+     *
+     * @param metrics
+     *     the instances to notify.
+     * @return an {@link HttpOperationMetrics} that notifies each of the given instances.
+     * @throws NullPointerException
+     *     if any instance is null.
+     */
+    static HttpOperationMetrics combine(HttpOperationMetrics... metrics) {
+        HttpOperationMetrics[] delegates = metrics.clone();
+        for (HttpOperationMetrics delegate : delegates) {
+            Objects.requireNonNull(delegate, "metrics");
+        }
+        return new HttpOperationMetrics() {
+
+            @Override
+            public void resultCreated(Key key) {
+                for (HttpOperationMetrics delegate : delegates) {
+                    delegate.resultCreated(key);
+                }
+            }
+
+            @Override
+            public void resultClosed(Key key, long latencyNanos) {
+                for (HttpOperationMetrics delegate : delegates) {
+                    delegate.resultClosed(key, latencyNanos);
+                }
+            }
+
+        };
+    }
+
+    /**
+     * Invoked when an {@link HttpOperationResult} is created.
+     *
+     * @param key
+     *     the classification of the result.
+     */
+    void resultCreated(Key key);
+
+    /**
+     * Invoked when an {@link HttpOperationResult} is first closed.
+     *
+     * @param key
+     *     the classification of the result.
+     * @param latencyNanos
+     *     the latency of the operation in nanoseconds: the time from the start of the request until the result was
+     *     closed if an {@link HttpOperationTiming} is attached, and otherwise the time from the creation of the result
+     *     until it was closed.
+     */
+    void resultClosed(Key key, long latencyNanos);
+
+}
@@ -20,13 +20,22 @@ package com.tractionsoftware.http.client.wrappers;
 
 import com.google.common.base.Suppliers;
 import com.google.common.net.MediaType;
-import org.apache.commons.lang3.StringUtils;
 
 import java.io.*;
 import java.lang.ref.Cleaner;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -153,6 +162,37 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
 
     }
 
+    /**
+     * Determines how HttpOperationResult instances guard against being garbage collected without having been closed.
+     * The mode in effect when an instance is created applies to that instance.
+     *
+     * @see #setCleanupMode(CleanupMode)
+     */
+    public enum CleanupMode {
+
+        /**
+         * Every instance is registered with a shared {@link Cleaner}, which closes the response if the instance becomes
+         * phantom reachable without having been closed. This is the default.
+         */
+        CLEANER,
+
+        /**
+         * Instances are not registered with a {@link Cleaner}, so a response is only closed when
+         * {@link HttpOperationResult#close()} is invoked. This avoids the per-instance overhead of the Cleaner when
+         * instances are always closed, e.g., by try-with-resources.
+         */
+        NONE,
+
+        /**
+         * This is the same as {@link #CLEANER} except that a
+         * {@link HttpOperationResult#setLeakDetectionSampleRate(double) sampled} fraction of instances also records the
+         * stack at which they were created, and reports instances that were never closed, along with that stack, when
+         * they are cleaned up. This is intended for testing and debugging.
+         */
+        LEAK_DETECTION
+
+    }
+
     /**
      * Represents an adapter for an object that represents an HTTP response. This is required to bridge the gap between
      * an HTTP client API-specific implementation object and this HttpResult wrapper API.
@@ -169,6 +209,21 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
          */
         void close();
 
+        /**
+         * Cleans up and closes any resources associated with the response, consuming any unread part of the response
+         * body according to the given {@link DrainPolicy}. This default implementation simply invokes
+         * {@link #close()}, and always returns true.
+         *
+         * @param policy
+         *     the {@link DrainPolicy} that determines how much of any unread part of the response body is consumed.
+         * @return true if the response body was fully consumed, so that the underlying connection may be reused; false
+         *     if it was abandoned.
+         */
+        default boolean close(DrainPolicy policy) {
+            close();
+            return true;
+        }
+
         /**
          * Returns the response object.
          *
@@ -220,10 +275,18 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
             this.result = result;
         }
 
+        /**
+         * This implementation closes according to the {@link DrainPolicy#getDefault() default DrainPolicy}.
+         */
         @Override
         public void close() {
-            HttpOperationResult.consumeAndClose(result);
-            HttpOperationResult.consumeAndClose(response);
+            close(DrainPolicy.getDefault());
+        }
+
+        @Override
+        public boolean close(DrainPolicy policy) {
+            boolean drained = HttpOperationResult.consumeAndClose(result, policy);
+            return HttpOperationResult.consumeAndClose(response, policy) && drained;
         }
 
         @Override
@@ -244,23 +307,13 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
     }
 
     /**
-     * Used to map the "Content-Type" header value to a {@link MediaType}.
+     * Used to map the "Content-Type" header value to a {@link MediaType}, via the cache maintained by
+     * {@link ContentTypes}.
      */
     public static final Function<HttpHeaderCollection,MediaType> CONTENT_TYPE_PARSER =
-        (HttpHeaderCollection headers) -> {
-            String contentTypeStr = headers.getFirstValue(com.google.common.net.HttpHeaders.CONTENT_TYPE);
-            if (StringUtils.isBlank(contentTypeStr)) {
-                return null;
-            }
-            try {
-                return MediaType.parse(contentTypeStr);
-            }
-            catch (RuntimeException e) {
-                Logger.getLogger(HttpOperationResult.class.getName())
-                    .log(Level.WARNING, "Failed to parse content-type '" + contentTypeStr + "'", e);
-                return null;
-            }
-        };
+        (HttpHeaderCollection headers) -> ContentTypes.parse(
+            headers.getFirstValue(com.google.common.net.HttpHeaders.CONTENT_TYPE)
+        );
 
     /**
      * Represents a response/operation-status-specific wrapper for a response, taking into account whether a response
@@ -277,6 +330,11 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
      */
     private static abstract class ResponseWrapper<S, T, X extends Exception> implements AutoCloseable {
 
+        /*
+         * The DrainPolicy to use when closing, or null to use the default. This may be read by the cleaner thread.
+         */
+        volatile DrainPolicy drainPolicy;
+
         public String toString() {
             if (hasResponse()) {
                 return getResponseSafe().toString();
@@ -388,8 +446,7 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
                     return getResultImpl();
                 }
                 catch (Exception e) {
-                    Logger.getLogger(HttpOperationResult.class.getName())
-                        .log(Level.FINE, "No result was available for this operation", e);
+                    LOG.log(Level.FINE, "No result was available for this operation", e);
                 }
             }
             return null;
@@ -555,11 +612,13 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
         }
 
         /**
-         * This implementation closes the {@link ResponseAdapter}.
+         * This implementation closes the {@link ResponseAdapter} according to the applicable {@link DrainPolicy}, and
+         * records whether the response body was fully consumed, once that is known.
          */
         @Override
         public final void close() {
-            response.close();
+            DrainPolicy policy = drainPolicy;
+            DrainPolicy.close(() -> response.close(policy != null ? policy : DrainPolicy.getDefault()));
         }
 
         /**
@@ -1023,6 +1082,104 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
 
     }
 
+    /**
+     * A {@link ResponseWrapper} that presents the outcome of another, shared wrapper, without closing it: when closed,
+     * it runs a close hook instead, at most once. Each view has its own copy of the response headers, so that they may
+     * be modified independently.
+     *
+     * @param <S>
+     *     the type of response object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     */
+    private static final class ViewResponseWrapper<S, T, X extends Exception> extends ResponseWrapper<S,T,X> {
+
+        private final ResponseWrapper<S,T,X> shared;
+
+        /*
+         * The memoized headers of the shared result, which may be copied by several threads.
+         */
+        private final Supplier<HttpHeaderCollection> sharedHeaders;
+
+        private final Runnable closeHook;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private ViewResponseWrapper(
+            ResponseWrapper<S,T,X> shared,
+            Supplier<HttpHeaderCollection> sharedHeaders,
+            Runnable closeHook
+        ) {
+            this.shared = shared;
+            this.sharedHeaders = sharedHeaders;
+            this.closeHook = closeHook;
+        }
+
+        /**
+         * This implementation runs the close hook, if it has not already been run, but does not close the shared
+         * wrapper.
+         */
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                closeHook.run();
+            }
+        }
+
+        @Override
+        public boolean hasResponse() {
+            return shared.hasResponse();
+        }
+
+        @Override
+        public boolean hasResult() {
+            return shared.hasResult();
+        }
+
+        @Override
+        public S getResponse() throws IOException, InterruptedException, X {
+            return shared.getResponse();
+        }
+
+        @Override
+        public S getResponseSafe() {
+            return shared.getResponseSafe();
+        }
+
+        @Override
+        public RequestStatus getRequestStatus() {
+            return shared.getRequestStatus();
+        }
+
+        @Override
+        public OperationStatus getOperationStatus() {
+            return shared.getOperationStatus();
+        }
+
+        @Override
+        protected int getStatusCodeImpl() {
+            return shared.getStatusCodeImpl();
+        }
+
+        /**
+         * This implementation returns a copy of the shared headers.
+         */
+        @Override
+        protected HttpHeaderCollection getHeadersImpl() {
+            return HttpHeaderCollection.createInstance(sharedHeaders.get().all());
+        }
+
+        @Override
+        protected T getResultImpl() throws IOException, InterruptedException, X {
+            return shared.getResultImpl();
+        }
+
+    }
+
     /**
      * Creates an HttpOperationResult representing an error that was encountered while attempting to set up the
      * request.
@@ -1258,8 +1415,8 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
 
     /**
      * Creates an HttpOperationResult representing the case of the server encountering an internal error while
-     * attempting to perform the operation. An {@link IOException} will be created based on the response status code and
-     * any available message.
+     * attempting to perform the operation. A {@link HttpServerErrorException} will be created based on the response
+     * status code and headers.
      *
      * @param request
      *     the request object.
@@ -1313,6 +1470,159 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
         return new HttpOperationResult<>(request, new OperationServerErrorResponseWrapper<>(response, error));
     }
 
+    /**
+     * Creates a {@link CompletableFuture} that will be completed with an HttpOperationResult when the given
+     * {@link CompletionStage} for a response is completed, without blocking any thread in the meantime. If the response
+     * stage completes normally, the given result factory is invoked to create the result from the request and the
+     * response. If it completes exceptionally, or the result factory throws an Exception, the result is created by
+     * {@link #createInstanceForAsyncError(Object, Throwable, Function)}.
+     *
+     * <p>
+     * If the returned future is cancelled, the cancellation is propagated to the response stage, and any result that is
+     * created after the cancellation is closed.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the {@link CompletionStage} that will be completed with the response object, or with the error that prevented
+     *     one from being received.
+     * @param resultFactory
+     *     creates the HttpOperationResult for a response, e.g., by examining its status code.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error, which will be wrapped in a result created by
+     *     {@link #createInstanceForOtherError(Object, Exception)}.
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @param <V>
+     *     the type of object with which the response stage is completed.
+     * @return a {@link CompletableFuture} that will be completed with an HttpOperationResult, and never completed
+     *     exceptionally except by cancellation, with an Error thrown by the result factory (after the response has been
+     *     closed), or with the Exception thrown by the error factory if it fails.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static <R, S, T, X extends Exception, V> CompletableFuture<HttpOperationResult<R,S,T,X>> createResultAsync(
+        R request,
+        CompletionStage<V> response,
+        BiFunction<? super R,? super V,HttpOperationResult<R,S,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(response, "response");
+        Objects.requireNonNull(resultFactory, "resultFactory");
+        Objects.requireNonNull(otherErrorFactory, "otherErrorFactory");
+        CompletableFuture<HttpOperationResult<R,S,T,X>> ret = new CompletableFuture<>();
+        CompletableFuture<V> source = response.toCompletableFuture();
+        source.whenComplete((value, error) -> {
+            HttpOperationResult<R,S,T,X> result;
+            try {
+                if (error == null) {
+                    try {
+                        result = Objects.requireNonNull(resultFactory.apply(request, value), "result");
+                    }
+                    catch (Throwable t) {
+                        consumeAndCloseResponse(value);
+                        if (t instanceof Error e) {
+                            throw e;
+                        }
+                        result = createInstanceForAsyncError(request, t, otherErrorFactory);
+                    }
+                }
+                else {
+                    result = createInstanceForAsyncError(request, error, otherErrorFactory);
+                }
+            }
+            catch (RuntimeException | Error e) {
+                // The result factory threw an Error, or the error factory failed, so no result can be created.
+                ret.completeExceptionally(e);
+                return;
+            }
+            if (!ret.complete(result)) {
+                result.close();
+            }
+        });
+        ret.whenComplete((result, error) -> {
+            if (ret.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return ret;
+    }
+
+    /*
+     * Consumes and closes a response for which no result could be created. A java.net.http HttpResponse is not itself
+     * closeable, so its body is closed instead; otherwise, a streaming body would hold on to its connection.
+     */
+    private static void consumeAndCloseResponse(Object response) {
+        if (response instanceof HttpResponse<?> httpResponse) {
+            consumeAndClose(httpResponse.body());
+        }
+        else {
+            consumeAndClose(response);
+        }
+    }
+
+    /**
+     * Creates an HttpOperationResult representing an error with which an asynchronous request completed. Any
+     * {@link CompletionException} or {@link ExecutionException} wrappers are removed, and then:
+     *
+     * <ul>
+     * <li>an {@link IOException} is represented by {@link RequestStatus#ERROR_IO};</li>
+     * <li>an {@link InterruptedException} or {@link CancellationException} is represented by
+     * {@link RequestStatus#ERROR_INTERRUPTED};</li>
+     * <li>anything else is represented by {@link RequestStatus#ERROR_OTHER}, wrapping an Exception of type X created by
+     * the given factory.</li>
+     * </ul>
+     *
+     * @param request
+     *     the request object.
+     * @param error
+     *     the error with which the request completed.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new HttpOperationResult representing the given error.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static <R, S, T, X extends Exception> HttpOperationResult<R,S,T,X> createInstanceForAsyncError(R request, Throwable error, Function<? super Throwable,? extends X> otherErrorFactory) {
+        Objects.requireNonNull(error, "error");
+        Objects.requireNonNull(otherErrorFactory, "otherErrorFactory");
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IOException e) {
+            return createInstanceForIOFailure(request, e);
+        }
+        if (cause instanceof InterruptedException e) {
+            return createInstanceForRequestInterrupted(request, e);
+        }
+        if (cause instanceof CancellationException) {
+            InterruptedException e = new InterruptedException("Request was cancelled");
+            e.initCause(cause);
+            return createInstanceForRequestInterrupted(request, e);
+        }
+        return createInstanceForOtherError(request, otherErrorFactory.apply(cause));
+    }
+
     /**
      * Returns the {@link Charset} from the first Content-Type header that appears in the given
      * {@link HttpHeaderCollection}, if such a header is present and has a charset= parameter.
@@ -1344,30 +1654,41 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
      */
     public static Charset getCharset(HttpHeaderCollection headers, Charset defaultCharset) {
         Objects.requireNonNull(headers, "headers");
-        MediaType contentType = CONTENT_TYPE_PARSER.apply(headers);
-        if (contentType == null) {
-            return defaultCharset;
-        }
-        Charset charset = contentType.charset().orNull();
-        if (charset == null) {
-            return defaultCharset;
-        }
-        return charset;
+        return ContentTypes.getCharset(
+            headers.getFirstValue(com.google.common.net.HttpHeaders.CONTENT_TYPE),
+            defaultCharset
+        );
     }
 
     /**
-     * Attempts to consume the given {@link InputStream} -- i.e., reading it fully -- before closing it. This method
-     * will never throw an Exception, but will log a warning if one is encountered.
+     * Attempts to consume the given {@link InputStream} -- i.e., reading it fully, or as far as the
+     * {@link DrainPolicy#getDefault() default DrainPolicy} allows -- before closing it. This method will never throw an
+     * Exception, but will log a warning if one is encountered.
      *
      * @param input
      *     the {@link InputStream} to be consumed and closed.
      */
     public static void consumeAndClose(InputStream input) {
+        consumeAndClose(input, DrainPolicy.getDefault());
+    }
+
+    /**
+     * Attempts to consume the given {@link InputStream} as far as the given {@link DrainPolicy} allows before closing
+     * it. This method will never throw an Exception, but will log a warning if one is encountered.
+     *
+     * @param input
+     *     the {@link InputStream} to be consumed and closed.
+     * @param policy
+     *     the {@link DrainPolicy} that determines how much of the stream is consumed.
+     * @return true if the stream was fully consumed; false otherwise.
+     */
+    public static boolean consumeAndClose(InputStream input, DrainPolicy policy) {
         try {
-            input.transferTo(OutputStream.nullOutputStream());
+            return policy.drain(input);
         }
         catch (IOException e) {
-            Logger.getLogger(HttpOperationResult.class.getName()).log(Level.FINE, "Failed to consume " + input, e);
+            CONSUME_STREAM_FAILURE_LOG.log(e, () -> "Failed to consume " + input);
+            return false;
         }
         finally {
             close(input);
@@ -1375,24 +1696,109 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
     }
 
     /**
-     * Attempts to consume the given {@link Reader} -- i.e., reading it fully -- before closing it. This method will
-     * never throw an Exception, but will log a warning if one is encountered.
+     * Attempts to consume the given {@link Reader} -- i.e., reading it fully, or as far as the
+     * {@link DrainPolicy#getDefault() default DrainPolicy} allows -- before closing it. This method will never throw an
+     * Exception, but will log a warning if one is encountered.
      *
      * @param reader
      *     the {@link Reader} to be consumed and closed.
      */
     public static void consumeAndClose(Reader reader) {
+        consumeAndClose(reader, DrainPolicy.getDefault());
+    }
+
+    /**
+     * Attempts to consume the given {@link Reader} as far as the given {@link DrainPolicy} allows before closing it.
+     * This method will never throw an Exception, but will log a warning if one is encountered.
+     *
+     * @param reader
+     *     the {@link Reader} to be consumed and closed.
+     * @param policy
+     *     the {@link DrainPolicy} that determines how much of the reader is consumed.
+     * @return true if the reader was fully consumed; false otherwise.
+     */
+    public static boolean consumeAndClose(Reader reader, DrainPolicy policy) {
         try {
-            reader.transferTo(Writer.nullWriter());
+            return policy.drain(reader);
         }
         catch (IOException e) {
-            Logger.getLogger(HttpOperationResult.class.getName()).log(Level.FINE, "Failed to consume " + reader, e);
+            CONSUME_READER_FAILURE_LOG.log(e, () -> "Failed to consume " + reader);
+            return false;
         }
         finally {
             close(reader);
         }
     }
 
+    /**
+     * Attempts to consume the given {@link ReadableByteChannel} -- i.e., reading it fully, or as far as the
+     * {@link DrainPolicy#getDefault() default DrainPolicy} allows -- before closing it. This method will never throw an
+     * Exception, but will log a warning if one is encountered.
+     *
+     * @param channel
+     *     the {@link ReadableByteChannel} to be consumed and closed.
+     */
+    public static void consumeAndClose(ReadableByteChannel channel) {
+        consumeAndClose(channel, DrainPolicy.getDefault());
+    }
+
+    /**
+     * Attempts to consume the given {@link ReadableByteChannel} as far as the given {@link DrainPolicy} allows before
+     * closing it. This method will never throw an Exception, but will log a warning if one is encountered.
+     *
+     * @param channel
+     *     the {@link ReadableByteChannel} to be consumed and closed.
+     * @param policy
+     *     the {@link DrainPolicy} that determines how much of the channel is consumed.
+     * @return true if the channel was fully consumed; false otherwise.
+     */
+    public static boolean consumeAndClose(ReadableByteChannel channel, DrainPolicy policy) {
+        InputStream source = StreamingBodies.claimSourceStream(channel);
+        if (source != null) {
+            boolean ret = consumeAndClose(source, policy);
+            close(channel);
+            return ret;
+        }
+        try {
+            return policy.drain(channel);
+        }
+        catch (IOException e) {
+            CONSUME_CHANNEL_FAILURE_LOG.log(e, () -> "Failed to consume " + channel);
+            return false;
+        }
+        finally {
+            close(channel);
+        }
+    }
+
+    /**
+     * Attempts to consume the body published by the given {@link Flow.Publisher} as far as the given
+     * {@link DrainPolicy} allows, which for a publisher that has been subscribed to already is the responsibility of
+     * the existing subscriber. For a publisher created by {@link StreamingBodies} that has not been subscribed to, the
+     * underlying stream is consumed directly; otherwise, consumption is asynchronous, as described for
+     * {@link DrainPolicy#drain(Flow.Publisher)}. This method will never throw an Exception, but will log a warning if
+     * one is encountered.
+     *
+     * @param publisher
+     *     the {@link Flow.Publisher} to be consumed.
+     * @param policy
+     *     the {@link DrainPolicy} that determines how much of the body is consumed.
+     * @return false if the body is known not to have been fully consumed; true otherwise.
+     */
+    public static boolean consumeAndClose(Flow.Publisher<? extends List<ByteBuffer>> publisher, DrainPolicy policy) {
+        InputStream source = StreamingBodies.claimSourceStream(publisher);
+        if (source != null) {
+            return consumeAndClose(source, policy);
+        }
+        try {
+            return policy.drain(publisher);
+        }
+        catch (RuntimeException e) {
+            CONSUME_PUBLISHER_FAILURE_LOG.log(e, () -> "Failed to consume " + publisher);
+            return false;
+        }
+    }
+
     /**
      * Attempts to close the given {@link AutoCloseable}. This method will never throw an Exception, but will log a
      * warning if one is encountered.
@@ -1405,7 +1811,7 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
             c.close();
         }
         catch (Exception e) {
-            Logger.getLogger(HttpOperationResult.class.getName()).log(Level.FINE, "Failed to close " + c, e);
+            CLOSE_FAILURE_LOG.log(e, () -> "Failed to close " + c);
         }
     }
 
@@ -1417,6 +1823,10 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
      * <li>If the result cannot be retrieved or is null, no action is performed.</li>
      * <li>If the result is an {@link InputStream}, {@link #consumeAndClose(InputStream)} is invoked.</li>
      * <li>If the result is a {@link Reader}, {@link #consumeAndClose(Reader)} is invoked.</li>
+     * <li>If the result is a {@link ReadableByteChannel}, {@link #consumeAndClose(ReadableByteChannel)} is
+     * invoked.</li>
+     * <li>If the result is a {@link Flow.Publisher}, it is assumed to publish the buffers of a response body, and
+     * {@link #consumeAndClose(Flow.Publisher, DrainPolicy)} is invoked with the default policy.</li>
      * <li>If the result is an {@link AutoCloseable}, {@link #close(AutoCloseable)} is invoked.</li>
      * </ul>
      *
@@ -1424,22 +1834,46 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
      *     the object to consume and close, if possible.
      */
     public static void consumeAndClose(Object object) {
+        consumeAndClose(object, DrainPolicy.getDefault());
+    }
+
+    /**
+     * Attempts to consume -- by reading it as far as the given {@link DrainPolicy} allows, if applicable -- and close a
+     * result object. This method will never throw an Exception, but will log a warning if one is encountered.
+     *
+     * @param object
+     *     the object to consume and close, if possible.
+     * @param policy
+     *     the {@link DrainPolicy} that determines how much of a streaming result object is consumed.
+     * @return false if the object was a streaming result object (i.e., an {@link InputStream}, {@link Reader},
+     *     {@link ReadableByteChannel} or {@link Flow.Publisher}) that was not fully consumed; true otherwise.
+     * @see #consumeAndClose(Object)
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean consumeAndClose(Object object, DrainPolicy policy) {
         if (object instanceof InputStream i) {
-            consumeAndClose(i);
+            return consumeAndClose(i, policy);
         }
         else if (object instanceof Reader r) {
-            consumeAndClose(r);
+            return consumeAndClose(r, policy);
+        }
+        else if (object instanceof ReadableByteChannel c) {
+            return consumeAndClose(c, policy);
+        }
+        else if (object instanceof Flow.Publisher<?> p) {
+            return consumeAndClose((Flow.Publisher<? extends List<ByteBuffer>>) p, policy);
         }
         else if (object instanceof AutoCloseable c) {
             close(c);
         }
+        return true;
     }
 
     private static IOException createIOExceptionForHttpResponse(ResponseAdapter<?,?> response) {
-        return new IOException(getMessageForHttpStatusResponseCode(response.statusCode()));
+        return new HttpServerErrorException(response.statusCode(), response.headers());
     }
 
-    private static String getMessageForHttpStatusResponseCode(int statusCode) {
+    static String getMessageForHttpStatusResponseCode(int statusCode) {
         // TODO: i18n
         if (statusCode < 0) {
             return "Request Incomplete";
@@ -1447,11 +1881,346 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
         return "HTTP " + statusCode;
     }
 
+    private static final Logger LOG = Logger.getLogger(HttpOperationResult.class.getName());
+
+    /*
+     * Failures on these paths tend to come in bursts (e.g., during an outage of an upstream server), so they are rate
+     * limited.
+     */
+    private static final RateLimitedLog CONSUME_STREAM_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.FINE);
+
+    private static final RateLimitedLog CONSUME_READER_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.FINE);
+
+    private static final RateLimitedLog CONSUME_CHANNEL_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.FINE);
+
+    private static final RateLimitedLog CONSUME_PUBLISHER_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.FINE);
+
+    private static final RateLimitedLog CLOSE_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.FINE);
+
+    private static final RateLimitedLog METRICS_CREATED_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.WARNING);
+
+    private static final RateLimitedLog METRICS_CLOSED_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.WARNING);
+
     /*
      * Used to clean up all ResponseWrapper instances.
      */
     private static final Cleaner CLEANER = Cleaner.create();
 
+    /*
+     * The system properties that may be used to set the initial CleanupMode and leak detection sample rate.
+     */
+    private static final String CLEANUP_MODE_PROPERTY = HttpOperationResult.class.getName() + ".cleanupMode";
+
+    private static final String LEAK_DETECTION_SAMPLE_RATE_PROPERTY =
+        HttpOperationResult.class.getName() + ".leakDetectionSampleRate";
+
+    private static volatile CleanupMode cleanupMode = parseCleanupModeProperty();
+
+    private static volatile double leakDetectionSampleRate = parseLeakDetectionSampleRateProperty();
+
+    /*
+     * Returns the CleanupMode named by the system property, or CLEANER if it is not set or is invalid, since an invalid
+     * value should not make the class unusable.
+     */
+    private static CleanupMode parseCleanupModeProperty() {
+        String value = System.getProperty(CLEANUP_MODE_PROPERTY);
+        if (value != null) {
+            try {
+                return CleanupMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            }
+            catch (IllegalArgumentException e) {
+                LOG.warning(() -> "Ignoring invalid value of " + CLEANUP_MODE_PROPERTY + ": " + value);
+            }
+        }
+        return CleanupMode.CLEANER;
+    }
+
+    /*
+     * Returns the sample rate given by the system property, clamped to [0.0, 1.0], or 1.0 if it is not set or is not a
+     * number.
+     */
+    private static double parseLeakDetectionSampleRateProperty() {
+        String value = System.getProperty(LEAK_DETECTION_SAMPLE_RATE_PROPERTY);
+        if (value != null) {
+            try {
+                double ret = Double.parseDouble(value.trim());
+                if (!Double.isNaN(ret)) {
+                    if (ret < 0.0 || ret > 1.0) {
+                        LOG.warning(() -> "Clamping " + LEAK_DETECTION_SAMPLE_RATE_PROPERTY + " to [0.0, 1.0]: " + value);
+                    }
+                    return Math.min(Math.max(ret, 0.0), 1.0);
+                }
+            }
+            catch (NumberFormatException e) {
+                // Handled below.
+            }
+            LOG.warning(() -> "Ignoring invalid value of " + LEAK_DETECTION_SAMPLE_RATE_PROPERTY + ": " + value);
+        }
+        return 1.0;
+    }
+
+    /*
+     * The number of unclosed instances found by leak detection.
+     */
+    private static final LongAdder DETECTED_LEAKS = new LongAdder();
+
+    /**
+     * Sets the {@link CleanupMode} for instances created from now on. The initial mode is {@link CleanupMode#CLEANER}
+     * unless otherwise specified by the system property
+     * {@code com.tractionsoftware.http.client.wrappers.HttpOperationResult.cleanupMode}.
+     *
+     * @param mode
+     *     the {@link CleanupMode} to use, which must not be null.
+     * @throws NullPointerException
+     *     if the mode is null.
+     */
+    public static void setCleanupMode(CleanupMode mode) {
+        cleanupMode = Objects.requireNonNull(mode, "mode");
+    }
+
+    /**
+     * Returns the {@link CleanupMode} for instances created from now on.
+     *
+     * @return the {@link CleanupMode} for instances created from now on.
+     */
+    public static CleanupMode getCleanupMode() {
+        return cleanupMode;
+    }
+
+    /**
+     * Sets the fraction of instances that are tracked when the {@link CleanupMode} is
+     * {@link CleanupMode#LEAK_DETECTION}. The initial rate is 1.0 (i.e., every instance) unless otherwise specified by
+     * the system property {@code com.tractionsoftware.http.client.wrappers.HttpOperationResult.leakDetectionSampleRate}.
+     *
+     * @param sampleRate
+     *     the fraction of instances to track, from 0.0 to 1.0 inclusive.
+     * @throws IllegalArgumentException
+     *     if the sample rate is not within that range.
+     */
+    public static void setLeakDetectionSampleRate(double sampleRate) {
+        if (!(sampleRate >= 0.0 && sampleRate <= 1.0)) {
+            throw new IllegalArgumentException("sampleRate must be between 0.0 and 1.0: " + sampleRate);
+        }
+        leakDetectionSampleRate = sampleRate;
+    }
+
+    /**
+     * Returns the number of instances that leak detection has found to have been garbage collected without having been
+     * closed.
+     *
+     * @return the number of instances that leak detection has found to have been garbage collected without having been
+     *     closed.
+     */
+    public static long getDetectedLeakCount() {
+        return DETECTED_LEAKS.sum();
+    }
+
+    /*
+     * The metrics to which results are reported, or null if none are installed.
+     */
+    private static volatile HttpOperationMetrics metrics;
+
+    /*
+     * The describers that determine the host and method of request objects for metrics, in order of registration.
+     */
+    private static final List<RequestDescriber<?>> REQUEST_DESCRIBERS = new CopyOnWriteArrayList<>();
+
+    static {
+        registerRequestDescriber(
+            java.net.http.HttpRequest.class,
+            request -> request.uri().getHost(),
+            java.net.http.HttpRequest::method
+        );
+    }
+
+    /**
+     * Installs the {@link HttpOperationMetrics} to which instances created from now on are reported when they are
+     * created and closed. Initially, none is installed, and no metrics are recorded.
+     *
+     * @param metrics
+     *     the {@link HttpOperationMetrics} to install, or null to stop recording metrics.
+     */
+    public static void setMetrics(HttpOperationMetrics metrics) {
+        HttpOperationResult.metrics = metrics;
+    }
+
+    /**
+     * Returns the installed {@link HttpOperationMetrics}, if any.
+     *
+     * @return the installed {@link HttpOperationMetrics}, or null if none is installed.
+     */
+    public static HttpOperationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Registers functions that determine the host and method of request objects of the given type, for
+     * {@link HttpOperationMetrics}. A describer for {@link java.net.http.HttpRequest} is registered by default. The
+     * first describer registered for a supertype of a request object is used; if there is none, or a function returns
+     * null, the host or method is {@link HttpOperationMetrics#UNKNOWN}.
+     *
+     * @param type
+     *     the type of request object.
+     * @param hostFunction
+     *     returns the host to which a request is sent.
+     * @param methodFunction
+     *     returns the method of a request.
+     * @param <Q>
+     *     the type of request object.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static <Q> void registerRequestDescriber(Class<Q> type, Function<? super Q,String> hostFunction, Function<? super Q,String> methodFunction) {
+        REQUEST_DESCRIBERS.add(new RequestDescriber<>(
+            Objects.requireNonNull(type, "type"),
+            Objects.requireNonNull(hostFunction, "hostFunction"),
+            Objects.requireNonNull(methodFunction, "methodFunction")
+        ));
+    }
+
+    /*
+     * Returns the host of the given request object, as determined by the registered describers, or
+     * HttpOperationMetrics.UNKNOWN.
+     */
+    static String getRequestHost(Object request) {
+        return RequestDescriber.describe(request)[0];
+    }
+
+    /*
+     * Returns the method of the given request object, as determined by the registered describers, or
+     * HttpOperationMetrics.UNKNOWN.
+     */
+    static String getRequestMethod(Object request) {
+        return RequestDescriber.describe(request)[1];
+    }
+
+    /**
+     * Determines the host and method of request objects of a particular type.
+     */
+    private record RequestDescriber<Q>(Class<Q> type, Function<? super Q,String> hostFunction, Function<? super Q,String> methodFunction) {
+
+        private static final String[] UNKNOWN = {HttpOperationMetrics.UNKNOWN, HttpOperationMetrics.UNKNOWN};
+
+        /*
+         * Returns the host and method of the given request object.
+         */
+        private static String[] describe(Object request) {
+            if (request != null) {
+                for (RequestDescriber<?> describer : REQUEST_DESCRIBERS) {
+                    if (describer.type.isInstance(request)) {
+                        return describer.describeUnchecked(request);
+                    }
+                }
+            }
+            return UNKNOWN;
+        }
+
+        private String[] describeUnchecked(Object request) {
+            Q q = type.cast(request);
+            return new String[] {
+                Objects.requireNonNullElse(hostFunction.apply(q), HttpOperationMetrics.UNKNOWN),
+                Objects.requireNonNullElse(methodFunction.apply(q), HttpOperationMetrics.UNKNOWN)
+            };
+        }
+
+    }
+
+    /**
+     * Reports an instance to {@link HttpOperationMetrics} when it is created and when it is first closed.
+     */
+    private static final class MetricsRecord {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private final HttpOperationMetrics metrics;
+
+        private final HttpOperationMetrics.Key key;
+
+        private final long createdNanos;
+
+        private MetricsRecord(HttpOperationMetrics metrics, HttpOperationMetrics.Key key) {
+            this.metrics = metrics;
+            this.key = key;
+            this.createdNanos = System.nanoTime();
+        }
+
+        /*
+         * Reports the creation of an instance, and returns a MetricsRecord with which to report its closing, or null if
+         * it could not be reported.
+         */
+        private static MetricsRecord createInstance(HttpOperationMetrics metrics, Object request, ResponseWrapper<?,?,?> responseWrapper) {
+            try {
+                String[] description = RequestDescriber.describe(request);
+                MetricsRecord ret = new MetricsRecord(metrics, new HttpOperationMetrics.Key(
+                    description[0],
+                    description[1],
+                    HttpOperationMetrics.Key.getStatusCodeClass(responseWrapper.getStatusCode()),
+                    responseWrapper.getRequestStatus(),
+                    responseWrapper.getOperationStatus()
+                ));
+                metrics.resultCreated(ret.key);
+                return ret;
+            }
+            catch (RuntimeException e) {
+                METRICS_CREATED_FAILURE_LOG.log(e, () -> "Failed to record metrics for " + request);
+                return null;
+            }
+        }
+
+        /*
+         * Reports the closing of the instance, if it has not already been reported. Without an attached timing, the
+         * latency is measured from the creation of the instance, as documented by HttpOperationMetrics.
+         */
+        private void closed(HttpOperationTiming timing) {
+            if (closed.compareAndSet(false, true)) {
+                Duration timeToClose = timing == null ? null : timing.getTimeToClose();
+                long latencyNanos = timeToClose != null ? timeToClose.toNanos() : System.nanoTime() - createdNanos;
+                try {
+                    metrics.resultClosed(key, latencyNanos);
+                }
+                catch (RuntimeException e) {
+                    METRICS_CLOSED_FAILURE_LOG.log(e, () -> "Failed to record metrics for " + key);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * The cleanup action for an instance that is being tracked by leak detection, which reports the instance if it is
+     * cleaned up without having been closed.
+     */
+    private static final class LeakTrackingCloseAction implements Runnable {
+
+        private final ResponseWrapper<?,?,?> responseWrapper;
+
+        private final String description;
+
+        private final Throwable allocationStack;
+
+        private volatile boolean closed;
+
+        private LeakTrackingCloseAction(ResponseWrapper<?,?,?> responseWrapper, Object request) {
+            this.responseWrapper = responseWrapper;
+            this.description = request + ";" + responseWrapper;
+            this.allocationStack = new Throwable("HttpOperationResult created here");
+        }
+
+        @Override
+        public void run() {
+            if (!closed) {
+                DETECTED_LEAKS.increment();
+                LOG.log(
+                    Level.WARNING,
+                    "HttpOperationResult was not closed before being garbage collected: " + description,
+                    allocationStack
+                );
+            }
+            responseWrapper.close();
+        }
+
+    }
+
     /*
      * The request object, which may be null.
      */
@@ -1462,6 +2231,12 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
      */
     private final ResponseWrapper<S,T,X> responseWrapper;
 
+    /*
+     * Retrieves and memoizes the response headers, which are shared by everything that examines them, and so are made
+     * unmodifiable. A lazily-read collection stays lazy, and may safely be read by several threads.
+     */
+    private final Supplier<HttpHeaderCollection> responseHeaders;
+
     /*
      * Retrieves and memoizes the Content-Type response header.
      */
@@ -1469,14 +2244,83 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
 
     /*
      * The cleanup action to be invoked by the close method, which will have the effect of removing it from the cleaner
-     * queue.
+     * queue. This is null if the instance was not registered with the cleaner.
      */
     private final Cleaner.Cleanable closer;
 
+    /*
+     * The leak detection cleanup action, if this instance is being tracked.
+     */
+    private final LeakTrackingCloseAction leakTracker;
+
+    /*
+     * Whether close() has been invoked, which is only tracked if the instance was not registered with the cleaner.
+     */
+    private boolean closed;
+
+    /*
+     * The timing of the operation, if the client recorded one.
+     */
+    private volatile HttpOperationTiming timing;
+
+    /*
+     * The metrics for this instance, if metrics were being recorded when it was created.
+     */
+    private final MetricsRecord metricsRecord;
+
     private HttpOperationResult(R request, ResponseWrapper<S,T,X> responseWrapper) {
+        this(request, responseWrapper, true);
+    }
+
+    private HttpOperationResult(R request, ResponseWrapper<S,T,X> responseWrapper, boolean recordMetrics) {
         this.request = request;
         this.responseWrapper = responseWrapper;
-        this.closer = CLEANER.register(this, responseWrapper::close);
+        this.responseHeaders = Suppliers.memoize(() -> responseWrapper.getHeaders().unmodifiable());
+        switch (cleanupMode) {
+            case NONE -> {
+                this.leakTracker = null;
+                this.closer = null;
+            }
+            case LEAK_DETECTION -> {
+                if (ThreadLocalRandom.current().nextDouble() < leakDetectionSampleRate) {
+                    this.leakTracker = new LeakTrackingCloseAction(responseWrapper, request);
+                    this.closer = CLEANER.register(this, leakTracker);
+                }
+                else {
+                    this.leakTracker = null;
+                    this.closer = CLEANER.register(this, responseWrapper::close);
+                }
+            }
+            default -> {
+                this.leakTracker = null;
+                this.closer = CLEANER.register(this, responseWrapper::close);
+            }
+        }
+        HttpOperationMetrics metrics = recordMetrics ? HttpOperationResult.metrics : null;
+        this.metricsRecord = metrics == null ? null : MetricsRecord.createInstance(metrics, request, responseWrapper);
+    }
+
+    /*
+     * Creates an instance representing a successful operation whose response was served from a cache rather than
+     * received from the server. It does not record metrics, so that a cache hit is not reported (e.g., to a
+     * CircuitBreakerRegistry) as an upstream success. This is used by HttpResponseCache.
+     */
+    static <R, S, T, X extends Exception> HttpOperationResult<R,S,T,X> createResultForCacheHit(
+        R request,
+        ResponseAdapter<S,T> response
+    ) {
+        return new HttpOperationResult<>(request, new SuccessfulResultResponseWrapper<>(response), false);
+    }
+
+    /*
+     * Creates a new instance for the given request, with the same outcome, response and timing as this one, which
+     * runs the given close hook when it is closed (or collected), whatever the outcome, rather than closing the
+     * response. The new instance does not record metrics, since it does not represent a separate operation. This is
+     * used by RequestCoalescer to give each waiter its own view of a shared result.
+     */
+    HttpOperationResult<R,S,T,X> createView(R request, Runnable closeHook) {
+        ViewResponseWrapper<S,T,X> view = new ViewResponseWrapper<>(responseWrapper, responseHeaders, closeHook);
+        return new HttpOperationResult<>(request, view, false).setTiming(timing);
     }
 
     @Override
@@ -1504,7 +2348,66 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
      */
     @Override
     public void close() {
-        closer.clean();
+        if (leakTracker != null) {
+            leakTracker.closed = true;
+        }
+        if (closer != null) {
+            closer.clean();
+        }
+        else if (!closed) {
+            closed = true;
+            responseWrapper.close();
+        }
+        HttpOperationTiming timing = this.timing;
+        if (timing != null) {
+            timing.markClosed();
+        }
+        if (metricsRecord != null) {
+            metricsRecord.closed(timing);
+        }
+    }
+
+    /**
+     * Sets the {@link DrainPolicy} that determines how much of any unread part of the response body is consumed when
+     * this instance is closed, overriding the {@link DrainPolicy#getDefault() default DrainPolicy}.
+     *
+     * @param policy
+     *     the {@link DrainPolicy} to use, or null to use the default.
+     */
+    public void setDrainPolicy(DrainPolicy policy) {
+        responseWrapper.drainPolicy = policy;
+    }
+
+    /**
+     * Returns the {@link DrainPolicy} that will be used when this instance is closed.
+     *
+     * @return the {@link DrainPolicy} that will be used when this instance is closed.
+     */
+    public DrainPolicy getDrainPolicy() {
+        DrainPolicy policy = responseWrapper.drainPolicy;
+        return policy != null ? policy : DrainPolicy.getDefault();
+    }
+
+    /**
+     * Attaches an {@link HttpOperationTiming} to this instance, which will be marked closed when this instance is
+     * closed.
+     *
+     * @param timing
+     *     the {@link HttpOperationTiming} for the operation, or null to detach any existing one.
+     * @return this instance.
+     */
+    public HttpOperationResult<R,S,T,X> setTiming(HttpOperationTiming timing) {
+        this.timing = timing;
+        return this;
+    }
+
+    /**
+     * Returns the {@link HttpOperationTiming} attached to this instance, if any.
+     *
+     * @return the {@link HttpOperationTiming} attached to this instance, or null if there is none.
+     */
+    public HttpOperationTiming getTiming() {
+        return timing;
     }
 
     /**
@@ -1577,12 +2480,26 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
 
     /**
      * Returns the {@link HttpHeaderCollection} representing the response headers, if the request completed successfully
-     * and the response was received.
+     * and the response was received. The same instance is returned by every invocation, and is also used to determine
+     * the {@link #getResponseContentType() Content-Type} and {@link #getResponseCharset() charset}, so it is
+     * unmodifiable; use {@link #copyResponseHeaders()} to obtain a collection that may be modified.
      *
-     * @return the {@link HttpHeaderCollection} representing the response headers, if the request completed successfully
-     *     and the response was received; an empty HttpHeaders object otherwise.
+     * @return the unmodifiable {@link HttpHeaderCollection} representing the response headers, if the request
+     *     completed successfully and the response was received; an empty HttpHeaders object otherwise.
      */
     public HttpHeaderCollection getResponseHeaders() {
+        return responseHeaders.get();
+    }
+
+    /**
+     * Returns a new {@link HttpHeaderCollection} representing the response headers, if the request completed
+     * successfully and the response was received. Unlike {@link #getResponseHeaders()}, every invocation returns a new
+     * instance which the caller is free to modify.
+     *
+     * @return a new {@link HttpHeaderCollection} representing the response headers, if the request completed
+     *     successfully and the response was received; a new, empty HttpHeaders object otherwise.
+     */
+    public HttpHeaderCollection copyResponseHeaders() {
         return responseWrapper.getHeaders();
     }
 
@@ -1646,11 +2563,7 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
      *     charset= parameter; the given default Charset otherwise.
      */
     public Charset getResponseCharset(Charset defaultCharset) {
-        MediaType contentType = getResponseContentType();
-        if (contentType == null) {
-            return defaultCharset;
-        }
-        return contentType.charset().or(StandardCharsets.UTF_8);
+        return getCharset(getResponseHeaders(), defaultCharset);
     }
 
     /**
@@ -1731,7 +2644,7 @@ public final class HttpOperationResult<R, S, T, X extends Exception> implements
      *     determined; null otherwise.
      */
     private MediaType parseResponseContentTypeHeader() {
-        return CONTENT_TYPE_PARSER.apply(responseWrapper.getHeaders());
+        return CONTENT_TYPE_PARSER.apply(getResponseHeaders());
     }
 
 }
@@ -0,0 +1,179 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Records the timing of the phases of an HTTP operation: the start of the request, the first byte of the response, the
+ * reception of the response headers, the completion of the response body, and the closing of the
+ * {@link HttpOperationResult}. An instance is created immediately before the request is sent, is passed to the
+ * client-specific code that observes the other phases (e.g., a body handler created by {@code JavaResults}), and is
+ * then {@link HttpOperationResult#setTiming(HttpOperationTiming) attached} to the result, which marks it closed when
+ * it is closed.
+ *
+ * <p>
+ * Each phase is recorded only the first time it is marked, and all times are measured with {@link System#nanoTime()}
+ * relative to the start. Some clients do not expose the first byte separately from the headers, in which case both
+ * are marked at once. Instances are thread-safe.
+ *
+ * @author Dave Shepperton
+ */
+public final class HttpOperationTiming {
+
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final Instant startTime;
+
+    private final long startNanos;
+
+    private long firstByteNanos = UNSET;
+
+    private long headersNanos = UNSET;
+
+    private long bodyCompleteNanos = UNSET;
+
+    private long closeNanos = UNSET;
+
+    private HttpOperationTiming() {
+        this.startTime = Instant.now();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Creates an instance whose request start is now.
+     *
+     * @return a new instance.
+     */
+    public static HttpOperationTiming createInstance() {
+        return new HttpOperationTiming();
+    }
+
+    /**
+     * Marks the reception of the first byte of the response, if it has not already been marked.
+     */
+    public synchronized void markFirstByte() {
+        if (firstByteNanos == UNSET) {
+            firstByteNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the reception of the response headers, if it has not already been marked. This also marks the first byte,
+     * if it has not already been marked.
+     */
+    public synchronized void markHeadersReceived() {
+        if (headersNanos == UNSET) {
+            headersNanos = System.nanoTime();
+            if (firstByteNanos == UNSET) {
+                firstByteNanos = headersNanos;
+            }
+        }
+    }
+
+    /**
+     * Marks the completion of the response body, if it has not already been marked.
+     */
+    public synchronized void markBodyComplete() {
+        if (bodyCompleteNanos == UNSET) {
+            bodyCompleteNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the closing of the result, if it has not already been marked.
+     */
+    public synchronized void markClosed() {
+        if (closeNanos == UNSET) {
+            closeNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns the wall-clock time at which the request started.
+     *
+     * @return the wall-clock time at which the request started.
+     */
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the time from the start of the request until the first byte of the response was received.
+     *
+     * @return the time until the first byte of the response was received, or null if it has not been marked.
+     */
+    public synchronized Duration getTimeToFirstByte() {
+        return sinceStart(firstByteNanos);
+    }
+
+    /**
+     * Returns the time from the start of the request until the response headers were received.
+     *
+     * @return the time until the response headers were received, or null if it has not been marked.
+     */
+    public synchronized Duration getTimeToHeaders() {
+        return sinceStart(headersNanos);
+    }
+
+    /**
+     * Returns the time from the start of the request until the response body was completely received.
+     *
+     * @return the time until the response body was completely received, or null if it has not been marked.
+     */
+    public synchronized Duration getTimeToBodyComplete() {
+        return sinceStart(bodyCompleteNanos);
+    }
+
+    /**
+     * Returns the time from the start of the request until the result was closed.
+     *
+     * @return the time until the result was closed, or null if it has not been marked.
+     */
+    public synchronized Duration getTimeToClose() {
+        return sinceStart(closeNanos);
+    }
+
+    /**
+     * Returns the time spent receiving the response body, from the reception of the headers until its completion.
+     *
+     * @return the time spent receiving the response body, or null if either phase has not been marked.
+     */
+    public synchronized Duration getBodyTransferTime() {
+        if (headersNanos == UNSET || bodyCompleteNanos == UNSET) {
+            return null;
+        }
+        return Duration.ofNanos(bodyCompleteNanos - headersNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "HttpOperationTiming[start=" + startTime +
+               ", firstByte=" + sinceStart(firstByteNanos) +
+               ", headers=" + sinceStart(headersNanos) +
+               ", bodyComplete=" + sinceStart(bodyCompleteNanos) +
+               ", close=" + sinceStart(closeNanos) + "]";
+    }
+
+    private Duration sinceStart(long nanos) {
+        return nanos == UNSET ? null : Duration.ofNanos(nanos - startNanos);
+    }
+
+}
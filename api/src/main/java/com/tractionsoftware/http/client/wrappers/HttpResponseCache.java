@@ -0,0 +1,1411 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
+import com.google.common.net.HttpHeaders;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A private HTTP cache, following RFC 9111, for operations whose result object is the response body as a byte[]. The
+ * cache sits in front of any {@link HttpOperationClient}: requests are passed through a {@link Binding} for the
+ * client's request and response types, and are sent by a caller-supplied function only when the cache cannot answer
+ * them.
+ *
+ * <p>
+ * Only GET requests are answered from the cache. A stored response is used without contacting the server while it is
+ * fresh according to its Cache-Control max-age, its Expires header or, failing both, a heuristic lifetime of 10% of the
+ * time since its Last-Modified date, subject to the request's own Cache-Control directives (no-cache, max-age,
+ * min-fresh and max-stale). A stale response that has an ETag or Last-Modified validator is revalidated with
+ * If-None-Match or If-Modified-Since; if the server answers 304 (Not Modified), the stored headers are updated and the
+ * stored response is used. Responses with status 200, 203 or 204 are stored unless either message says no-store, or
+ * the response has "Vary: *"; the request header values named by any other Vary header are stored with the response,
+ * and must match for it to be used. A successful response to any other method invalidates the stored response for the
+ * same URI. Requests that carry their own conditional headers are not answered from the cache.
+ *
+ * <p>
+ * A response served from the cache is returned as an {@link HttpOperationResult} with the original request, a response
+ * object created by the {@link Binding}, an Age header, and its own copy of the body. It is not reported to
+ * {@link HttpOperationMetrics} (and so not to a {@link CircuitBreakerRegistry}), since the server was not contacted.
+ * Results obtained from the network are returned unchanged; they are stored, when they may be, by copying their headers
+ * and body.
+ *
+ * <pre>{@code
+ * HttpResponseCache<HttpRequest,HttpResponse<byte[]>> cache =
+ *     HttpResponseCache.createBuilder(JavaResults.createCacheBinding()).setMaxMemorySize(64 << 20).build();
+ * try (var result = cache.execute(request, r -> client.send(r, BodyHandlers.ofByteArray(), ...))) {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Stored responses are held in memory, in a cache bounded by the total size of their bodies and headers, and holding
+ * one response per URI. Optionally, responses evicted from memory for lack of space are written to a bounded directory
+ * on disk, from which they are moved back into memory when they are next requested. The writes are made via a
+ * separate {@link Builder#setDiskExecutor(Executor) executor}, so that the thread whose request caused an eviction does
+ * not wait for them; until its write completes, an evicted response is still found by lookups. Instances are
+ * thread-safe.
+ *
+ * @param <R>
+ *     the type of request object.
+ * @param <S>
+ *     the type of response object.
+ * @author Dave Shepperton
+ */
+public final class HttpResponseCache<R, S> {
+
+    /**
+     * The default maximum total size of the responses held in memory, in bytes.
+     */
+    public static final long DEFAULT_MAX_MEMORY_SIZE = 32L << 20;
+
+    /**
+     * The default maximum size of a single response, in bytes; larger responses are not stored.
+     */
+    public static final long DEFAULT_MAX_ENTRY_SIZE = 1L << 20;
+
+    /**
+     * The default maximum heuristic freshness lifetime, for responses that have a Last-Modified date but no explicit
+     * expiration time.
+     */
+    public static final Duration DEFAULT_MAX_HEURISTIC_LIFETIME = Duration.ofDays(1);
+
+    /**
+     * The response status codes that may be stored.
+     */
+    public static final Set<Integer> STORABLE_STATUS_CODES = ImmutableSet.of(200, 203, 204);
+
+    /*
+     * The request headers that make a request conditional; such requests are never answered from the cache.
+     */
+    private static final Set<String> CONDITIONAL_HEADERS = ImmutableSet.of(
+        HttpHeaders.IF_MATCH, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE,
+        HttpHeaders.IF_UNMODIFIED_SINCE, HttpHeaders.IF_RANGE
+    );
+
+    /*
+     * The methods that neither invalidate stored responses nor have their responses stored.
+     */
+    private static final Set<String> SAFE_METHODS = ImmutableSet.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    /*
+     * Runs each write to the disk store on a new virtual thread by default, so that blocking writes do not occupy a
+     * pooled thread.
+     */
+    private static final Executor VIRTUAL_THREAD_EXECUTOR = Thread::startVirtualThread;
+
+    private static final Logger LOG = Logger.getLogger(HttpResponseCache.class.getName());
+
+    private static final RateLimitedLog STORE_FAILURE_LOG = RateLimitedLog.createInstance(LOG, Level.WARNING);
+
+    private final Binding<R,S> binding;
+
+    private final Clock clock;
+
+    private final long maxEntrySize;
+
+    private final long maxHeuristicLifetimeMillis;
+
+    private final DiskStore diskStore;
+
+    private final Cache<String,Entry> memory;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder revalidatedCount = new LongAdder();
+
+    private HttpResponseCache(Builder<R,S> builder, DiskStore diskStore) {
+        this.binding = builder.binding;
+        this.clock = builder.clock;
+        this.maxEntrySize = builder.maxEntrySize;
+        this.maxHeuristicLifetimeMillis = builder.maxHeuristicLifetime.toMillis();
+        this.diskStore = diskStore;
+        CacheBuilder<Object,Object> cacheBuilder = CacheBuilder.newBuilder()
+            .maximumWeight(builder.maxMemorySize);
+        if (diskStore == null) {
+            this.memory = cacheBuilder.<String,Entry>weigher((key, entry) -> entry.weight).build();
+        }
+        else {
+            this.memory = cacheBuilder.<String,Entry>weigher((key, entry) -> entry.weight)
+                .removalListener(notification -> {
+                    if (notification.getCause() == RemovalCause.SIZE) {
+                        diskStore.spill(notification.getValue());
+                    }
+                })
+                .build();
+        }
+    }
+
+    /**
+     * Creates a new {@link Builder}, initialized with the defaults.
+     *
+     * @param binding
+     *     the {@link Binding} for the request and response types of the client in front of which the cache will sit.
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     * @return a new {@link Builder}.
+     * @throws NullPointerException
+     *     if the binding is null.
+     */
+    public static <R, S> Builder<R,S> createBuilder(Binding<R,S> binding) {
+        return new Builder<>(Objects.requireNonNull(binding, "binding"));
+    }
+
+    /**
+     * Answers the request from the cache if possible, and otherwise sends it, or a conditional version of it, via the
+     * given function, storing or invalidating responses as described {@link HttpResponseCache above}.
+     *
+     * @param request
+     *     the request object.
+     * @param send
+     *     sends a request, e.g., via an {@link HttpOperationClient}; it is not invoked if the request is answered from
+     *     the cache.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     * @return the result, which the caller must close.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public <X extends Exception> HttpOperationResult<R,S,byte[],X> execute(
+        R request,
+        Function<? super R, ? extends HttpOperationResult<R,S,byte[],X>> send
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(send, "send");
+        Lookup<R> lookup = lookup(request);
+        if (lookup.fresh != null) {
+            hitCount.increment();
+            return createHit(request, lookup.fresh, lookup.requestTime);
+        }
+        return complete(lookup, send.apply(lookup.sendRequest));
+    }
+
+    /**
+     * Answers the request from the cache if possible, and otherwise sends it, or a conditional version of it,
+     * asynchronously via the given function, storing or invalidating responses as described
+     * {@link HttpResponseCache above}. If the returned future is cancelled, the result of any request in progress is
+     * closed when it completes. If the request completes exceptionally, the returned future is completed with the same
+     * Exception.
+     *
+     * @param request
+     *     the request object.
+     * @param send
+     *     sends a request asynchronously, e.g., via an {@link HttpOperationClient}; it is not invoked if the request is
+     *     answered from the cache.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     * @return a {@link CompletableFuture} that will be completed with the result, which the caller must close.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public <X extends Exception> CompletableFuture<HttpOperationResult<R,S,byte[],X>> executeAsync(
+        R request,
+        Function<? super R, ? extends CompletionStage<HttpOperationResult<R,S,byte[],X>>> send
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(send, "send");
+        Lookup<R> lookup = lookup(request);
+        if (lookup.fresh != null) {
+            hitCount.increment();
+            return CompletableFuture.completedFuture(createHit(request, lookup.fresh, lookup.requestTime));
+        }
+        CompletableFuture<HttpOperationResult<R,S,byte[],X>> ret = new CompletableFuture<>();
+        CompletionStage<HttpOperationResult<R,S,byte[],X>> stage;
+        try {
+            stage = send.apply(lookup.sendRequest);
+        }
+        catch (RuntimeException e) {
+            ret.completeExceptionally(e);
+            return ret;
+        }
+        stage.whenComplete((result, error) -> {
+            if (error != null) {
+                ret.completeExceptionally(error);
+                return;
+            }
+            HttpOperationResult<R,S,byte[],X> completed = complete(lookup, result);
+            if (!ret.complete(completed)) {
+                completed.close();
+            }
+        });
+        return ret;
+    }
+
+    /**
+     * Removes any stored response for the given URI.
+     *
+     * @param uri
+     *     the URI.
+     */
+    public void invalidate(URI uri) {
+        invalidate(getKey(uri));
+    }
+
+    /**
+     * Removes all stored responses, including those on disk.
+     */
+    public void invalidateAll() {
+        memory.invalidateAll();
+        if (diskStore != null) {
+            diskStore.clear();
+        }
+    }
+
+    /**
+     * Returns the number of requests answered from the cache without contacting the server.
+     *
+     * @return the number of requests answered from the cache without contacting the server.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of GET requests sent to the server that were not answered by a 304 (Not Modified) response.
+     *
+     * @return the number of GET requests that missed the cache.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of requests answered from the cache after being revalidated by a 304 (Not Modified) response.
+     *
+     * @return the number of requests answered from the cache after revalidation.
+     */
+    public long getRevalidatedCount() {
+        return revalidatedCount.sum();
+    }
+
+    /**
+     * Returns the number of responses currently held in memory.
+     *
+     * @return the approximate number of responses currently held in memory.
+     */
+    public long getMemoryEntryCount() {
+        return memory.size();
+    }
+
+    /**
+     * Returns the total size of the responses currently held on disk.
+     *
+     * @return the approximate total size of the responses currently held on disk, in bytes, or zero if there is no
+     *     disk store.
+     */
+    public long getDiskSize() {
+        return diskStore == null ? 0 : diskStore.size.get();
+    }
+
+    /*
+     * Determines whether the request can be answered from the cache, and if not, which request should be sent.
+     */
+    private Lookup<R> lookup(R request) {
+        long now = clock.millis();
+        String method = binding.getMethod(request);
+        String key;
+        try {
+            key = getKey(binding.getURI(request));
+        }
+        catch (IllegalArgumentException e) {
+            return new Lookup<>(request, request, null, false, false, now, null, null);
+        }
+        if (!"GET".equals(method)) {
+            boolean unsafe = !SAFE_METHODS.contains(method);
+            return new Lookup<>(request, request, unsafe ? key : null, unsafe, false, now, null, null);
+        }
+        List<String> requestCacheControl = binding.getHeaderValues(request, HttpHeaders.CACHE_CONTROL);
+        Directives directives = Directives.parse(requestCacheControl);
+        if (requestCacheControl.isEmpty()) {
+            directives.noCache = Directives.parse(binding.getHeaderValues(request, HttpHeaders.PRAGMA)).noCache;
+        }
+        boolean storable = !directives.noStore;
+        for (String name : CONDITIONAL_HEADERS) {
+            if (!binding.getHeaderValues(request, name).isEmpty()) {
+                return new Lookup<>(request, request, key, false, storable, now, null, null);
+            }
+        }
+        Entry entry = get(key);
+        if (entry == null || !entry.matchesVary(binding, request)) {
+            return new Lookup<>(request, request, key, false, storable, now, null, null);
+        }
+        if (isFresh(entry, directives, now)) {
+            return new Lookup<>(request, request, key, false, storable, now, entry, null);
+        }
+        if (entry.etag == null && entry.lastModified == null) {
+            return new Lookup<>(request, request, key, false, storable, now, null, null);
+        }
+        HttpHeaderCollection validators = HttpHeaderCollection.createEmptyInstance();
+        if (entry.etag != null) {
+            validators.set(HttpHeaders.IF_NONE_MATCH, entry.etag);
+        }
+        if (entry.lastModified != null) {
+            validators.set(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+        }
+        R conditional = binding.createConditionalRequest(request, validators);
+        return new Lookup<>(request, conditional, key, false, storable, now, null, entry);
+    }
+
+    /*
+     * Updates the cache with the result of a request that could not be answered from it, and returns the result for
+     * the caller, which is either the given result or, if the stored response was revalidated, a result served from the
+     * cache. Failures to update the cache are logged, and the given result is returned.
+     */
+    private <X extends Exception> HttpOperationResult<R,S,byte[],X> complete(
+        Lookup<R> lookup,
+        HttpOperationResult<R,S,byte[],X> result
+    ) {
+        if (lookup.key == null) {
+            return result;
+        }
+        try {
+            if (lookup.invalidate) {
+                if (result.requestCompleted() && result.getResponseStatusCode() < 400) {
+                    invalidate(lookup.key);
+                }
+                return result;
+            }
+            long responseTime = clock.millis();
+            if (lookup.stale != null && result.requestCompleted()
+                && result.getResponseStatusCode() == 304) {
+                Entry refreshed = lookup.stale.refresh(result.getResponseHeaders(), lookup.requestTime, responseTime);
+                result.close();
+                revalidatedCount.increment();
+                if (lookup.storable && !refreshed.directives.noStore) {
+                    memory.put(refreshed.key, refreshed);
+                }
+                return createHit(lookup.request, refreshed, responseTime);
+            }
+            missCount.increment();
+            if (lookup.storable) {
+                Entry entry = createEntry(lookup, result, responseTime);
+                if (entry != null) {
+                    memory.put(entry.key, entry);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            STORE_FAILURE_LOG.log(e, () -> "Failed to update HTTP response cache for " + lookup.key);
+        }
+        return result;
+    }
+
+    /*
+     * Returns a new entry for the given result, or null if it may not be stored.
+     */
+    private Entry createEntry(Lookup<R> lookup, HttpOperationResult<R,S,byte[],?> result, long responseTime) {
+        int statusCode = result.getResponseStatusCode();
+        if (!result.operationSucceeded() || !STORABLE_STATUS_CODES.contains(statusCode)) {
+            return null;
+        }
+        HttpHeaderCollection headers = result.getResponseHeaders();
+        Directives directives = Directives.parse(headers.getValues(HttpHeaders.CACHE_CONTROL));
+        if (directives.noStore) {
+            return null;
+        }
+        if (directives.maxAge < 0 && headers.getFirstValue(HttpHeaders.EXPIRES) == null
+            && headers.getFirstValue(HttpHeaders.ETAG) == null
+            && headers.getFirstValue(HttpHeaders.LAST_MODIFIED) == null) {
+            // It could never be used without first being replaced.
+            return null;
+        }
+        ImmutableMap.Builder<String,List<String>> vary = ImmutableMap.builder();
+        for (String value : headers.getValues(HttpHeaders.VARY)) {
+            for (String name : value.split(",")) {
+                name = name.trim().toLowerCase(Locale.ROOT);
+                if (name.equals("*")) {
+                    return null;
+                }
+                if (!name.isEmpty()) {
+                    vary.put(name, ImmutableList.copyOf(binding.getHeaderValues(lookup.request, name)));
+                }
+            }
+        }
+        byte[] body = result.getResultSafe();
+        if (body == null) {
+            if (statusCode != 204) {
+                return null;
+            }
+            body = new byte[0];
+        }
+        Entry entry = new Entry(
+            lookup.key, statusCode, ImmutableList.copyOf(headers.all()), vary.buildKeepingLast(), body.clone(),
+            lookup.requestTime, responseTime
+        );
+        return entry.weight <= maxEntrySize ? entry : null;
+    }
+
+    private <X extends Exception> HttpOperationResult<R,S,byte[],X> createHit(R request, Entry entry, long now) {
+        CachedResponse cached = new CachedResponse(entry, Duration.ofMillis(entry.getCurrentAge(now)));
+        return HttpOperationResult.createResultForCacheHit(
+            request, new CachedResponseAdapter<>(binding.createResponse(request, cached), cached)
+        );
+    }
+
+    /*
+     * Returns true if the entry may be used to answer a request with the given Cache-Control directives without
+     * revalidation.
+     */
+    private boolean isFresh(Entry entry, Directives request, long now) {
+        if (request.noCache || entry.directives.noCache) {
+            return false;
+        }
+        long age = entry.getCurrentAge(now);
+        long lifetime = getFreshnessLifetime(entry);
+        if (request.maxAge >= 0 && age > request.maxAge) {
+            return false;
+        }
+        if (request.minFresh >= 0 && lifetime - age < request.minFresh) {
+            return false;
+        }
+        if (age < lifetime) {
+            return true;
+        }
+        return request.maxStale >= 0 && !entry.directives.mustRevalidate && age - lifetime <= request.maxStale;
+    }
+
+    private long getFreshnessLifetime(Entry entry) {
+        if (entry.explicitLifetime >= 0) {
+            return entry.explicitLifetime;
+        }
+        if (entry.heuristicBase > 0) {
+            return Math.min(entry.heuristicBase / 10, maxHeuristicLifetimeMillis);
+        }
+        return 0;
+    }
+
+    private Entry get(String key) {
+        Entry entry = memory.getIfPresent(key);
+        if (entry == null && diskStore != null) {
+            entry = diskStore.take(key);
+            if (entry != null) {
+                memory.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    private void invalidate(String key) {
+        memory.invalidate(key);
+        if (diskStore != null) {
+            diskStore.delete(key);
+        }
+    }
+
+    /*
+     * Responses are stored by their URI, without any fragment.
+     */
+    private static String getKey(URI uri) {
+        String key = uri.normalize().toString();
+        int hash = key.indexOf('#');
+        return hash < 0 ? key : key.substring(0, hash);
+    }
+
+    /*
+     * Parses an HTTP-date, returning its time in milliseconds, or Long.MIN_VALUE if it is missing or invalid.
+     */
+    private static long parseDate(String value) {
+        if (value != null) {
+            try {
+                return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+                    .toEpochMilli();
+            }
+            catch (DateTimeParseException | ArithmeticException e) {
+                // Treated as missing.
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /*
+     * Parses a number of seconds, returning it in milliseconds, saturated at Long.MAX_VALUE, or -1 if it is invalid.
+     */
+    private static long parseSeconds(String value) {
+        if (value == null || value.isEmpty() || !value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return -1;
+        }
+        return value.length() > 15 ? Long.MAX_VALUE : Long.parseLong(value) * 1000;
+    }
+
+    /**
+     * Adapts the cache to the request and response types of a particular HTTP client. Implementations are provided by
+     * the client-specific modules.
+     *
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     */
+    public interface Binding<R, S> {
+
+        /**
+         * Returns the method of the request.
+         *
+         * @param request
+         *     the request object.
+         * @return the method of the request, e.g., "GET".
+         */
+        String getMethod(R request);
+
+        /**
+         * Returns the URI of the request.
+         *
+         * @param request
+         *     the request object.
+         * @return the URI of the request.
+         * @throws IllegalArgumentException
+         *     if the request does not have a valid URI, in which case it bypasses the cache.
+         */
+        URI getURI(R request);
+
+        /**
+         * Returns the values of the named header of the request.
+         *
+         * @param request
+         *     the request object.
+         * @param name
+         *     the header name, which is not case-sensitive.
+         * @return the values of the named header, which may be empty but must not be null.
+         */
+        List<String> getHeaderValues(R request, String name);
+
+        /**
+         * Returns a request equivalent to the given request, but with the given headers set, replacing any existing
+         * headers with the same names. Implementations must not modify the given request, which the caller may reuse;
+         * if its type is mutable, they should set the headers on a copy.
+         *
+         * @param request
+         *     the request object.
+         * @param headers
+         *     the conditional headers to set.
+         * @return the conditional request.
+         */
+        R createConditionalRequest(R request, HttpHeaderCollection headers);
+
+        /**
+         * Creates a response object representing a response served from the cache.
+         *
+         * @param request
+         *     the request being answered.
+         * @param response
+         *     the cached response.
+         * @return a new response object.
+         */
+        S createResponse(R request, CachedResponse response);
+
+    }
+
+    /**
+     * A response served from an {@link HttpResponseCache}, from which a {@link Binding} creates a response object.
+     */
+    public static final class CachedResponse {
+
+        private final Entry entry;
+
+        private final Duration age;
+
+        private final byte[] body;
+
+        private CachedResponse(Entry entry, Duration age) {
+            this.entry = entry;
+            this.age = age;
+            this.body = entry.body.clone();
+        }
+
+        /**
+         * Returns the URI of the request that produced the response, without any fragment.
+         *
+         * @return the URI of the request that produced the response.
+         */
+        public URI getURI() {
+            return URI.create(entry.key);
+        }
+
+        /**
+         * Returns the HTTP response status code.
+         *
+         * @return the HTTP response status code.
+         */
+        public int getStatusCode() {
+            return entry.statusCode;
+        }
+
+        /**
+         * Returns a new {@link HttpHeaderCollection} containing the stored response headers, with an Age header giving
+         * the age of the response.
+         *
+         * @return a new {@link HttpHeaderCollection} containing the response headers.
+         */
+        public HttpHeaderCollection getHeaders() {
+            HttpHeaderCollection ret = HttpHeaderCollection.createInstance(entry.headers);
+            ret.set(HttpHeaders.AGE, Long.toString(age.toSeconds()));
+            return ret;
+        }
+
+        /**
+         * Returns the response body. Every invocation on the same instance returns the same array, which belongs to
+         * that instance, and is also the result object of the {@link HttpOperationResult}.
+         *
+         * @return the response body.
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * Returns the age of the response, i.e., the estimated time since it was generated or validated by the server.
+         *
+         * @return the age of the response.
+         */
+        public Duration getAge() {
+            return age;
+        }
+
+    }
+
+    private static final class CachedResponseAdapter<S> implements HttpOperationResult.ResponseAdapter<S,byte[]> {
+
+        private final S response;
+
+        private final CachedResponse cached;
+
+        private CachedResponseAdapter(S response, CachedResponse cached) {
+            this.response = response;
+            this.cached = cached;
+        }
+
+        @Override
+        public void close() {
+            // There is nothing to release.
+        }
+
+        @Override
+        public S response() {
+            return response;
+        }
+
+        @Override
+        public int statusCode() {
+            return cached.getStatusCode();
+        }
+
+        @Override
+        public HttpHeaderCollection headers() {
+            return cached.getHeaders();
+        }
+
+        @Override
+        public boolean hasResult() {
+            return true;
+        }
+
+        @Override
+        public byte[] result() {
+            return cached.getBody();
+        }
+
+    }
+
+    /*
+     * The outcome of looking up a request: a fresh entry with which to answer it, or the request to send, and how to
+     * treat its response.
+     */
+    private static final class Lookup<R> {
+
+        private final R request;
+
+        private final R sendRequest;
+
+        private final String key;
+
+        private final boolean invalidate;
+
+        private final boolean storable;
+
+        private final long requestTime;
+
+        private final Entry fresh;
+
+        private final Entry stale;
+
+        private Lookup(
+            R request,
+            R sendRequest,
+            String key,
+            boolean invalidate,
+            boolean storable,
+            long requestTime,
+            Entry fresh,
+            Entry stale
+        ) {
+            this.request = request;
+            this.sendRequest = sendRequest;
+            this.key = key;
+            this.invalidate = invalidate;
+            this.storable = storable;
+            this.requestTime = requestTime;
+            this.fresh = fresh;
+            this.stale = stale;
+        }
+
+    }
+
+    /*
+     * A stored response. Instances are immutable, apart from the body array, which is never exposed.
+     */
+    private static final class Entry {
+
+        private final String key;
+
+        private final int statusCode;
+
+        private final ImmutableList<HttpHeaderCollection.Header> headers;
+
+        private final ImmutableMap<String,List<String>> vary;
+
+        private final byte[] body;
+
+        private final long requestTime;
+
+        private final long responseTime;
+
+        private final Directives directives;
+
+        private final String etag;
+
+        private final String lastModified;
+
+        /*
+         * The freshness lifetime given by max-age or Expires, or -1 if there is none.
+         */
+        private final long explicitLifetime;
+
+        /*
+         * The time between the Last-Modified date and the Date of the response, or -1 if there is none.
+         */
+        private final long heuristicBase;
+
+        private final long correctedInitialAge;
+
+        private final int weight;
+
+        private Entry(
+            String key,
+            int statusCode,
+            ImmutableList<HttpHeaderCollection.Header> headers,
+            ImmutableMap<String,List<String>> vary,
+            byte[] body,
+            long requestTime,
+            long responseTime
+        ) {
+            this.key = key;
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.vary = vary;
+            this.body = body;
+            this.requestTime = requestTime;
+            this.responseTime = responseTime;
+            HttpHeaderCollection collection = HttpHeaderCollection.createInstance(headers);
+            this.directives = Directives.parse(collection.getValues(HttpHeaders.CACHE_CONTROL));
+            this.etag = collection.getFirstValue(HttpHeaders.ETAG);
+            this.lastModified = collection.getFirstValue(HttpHeaders.LAST_MODIFIED);
+            long date = parseDate(collection.getFirstValue(HttpHeaders.DATE));
+            if (date == Long.MIN_VALUE) {
+                date = responseTime;
+            }
+            if (directives.maxAge >= 0) {
+                this.explicitLifetime = directives.maxAge;
+            }
+            else if (collection.getFirstValue(HttpHeaders.EXPIRES) != null) {
+                // An invalid Expires date means that the response has already expired.
+                long expires = parseDate(collection.getFirstValue(HttpHeaders.EXPIRES));
+                this.explicitLifetime = expires == Long.MIN_VALUE ? 0 : Math.max(0, expires - date);
+            }
+            else {
+                this.explicitLifetime = -1;
+            }
+            long modified = parseDate(lastModified);
+            this.heuristicBase = modified == Long.MIN_VALUE ? -1 : Math.max(0, date - modified);
+            // RFC 9111 section 4.2.3.
+            long apparentAge = Math.max(0, responseTime - date);
+            long ageValue = Math.max(0, parseSeconds(Objects.toString(collection.getFirstValue(HttpHeaders.AGE), "")));
+            long correctedAgeValue = ageValue == Long.MAX_VALUE ? ageValue : ageValue + (responseTime - requestTime);
+            this.correctedInitialAge = Math.max(apparentAge, correctedAgeValue);
+            long size = body.length + 256;
+            for (HttpHeaderCollection.Header header : headers) {
+                size += 2L * (header.getName().length() + header.getValue().length());
+            }
+            this.weight = (int) Math.min(Integer.MAX_VALUE, size);
+        }
+
+        private long getCurrentAge(long now) {
+            long residentTime = Math.max(0, now - responseTime);
+            return correctedInitialAge > Long.MAX_VALUE - residentTime ? Long.MAX_VALUE
+                : correctedInitialAge + residentTime;
+        }
+
+        private <R> boolean matchesVary(Binding<R,?> binding, R request) {
+            for (Map.Entry<String,List<String>> entry : vary.entrySet()) {
+                if (!entry.getValue().equals(binding.getHeaderValues(request, entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /*
+         * Returns a copy of this entry, with its headers updated from those of a 304 (Not Modified) response, as
+         * described by RFC 9111 section 3.2.
+         */
+        private Entry refresh(HttpHeaderCollection update, long requestTime, long responseTime) {
+            HttpHeaderCollection merged = HttpHeaderCollection.createInstance(headers);
+            Set<String> replaced = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (HttpHeaderCollection.Header header : update.all()) {
+                if (header.hasName(HttpHeaders.CONTENT_LENGTH)) {
+                    continue;
+                }
+                if (replaced.add(header.getName())) {
+                    merged.clear(header.getName());
+                }
+                merged.add(header);
+            }
+            return new Entry(
+                key, statusCode, ImmutableList.copyOf(merged.all()), vary, body, requestTime, responseTime
+            );
+        }
+
+    }
+
+    /*
+     * The Cache-Control directives of a request or response that are relevant to a private cache. Durations are in
+     * milliseconds, and are -1 if the directive is absent.
+     */
+    private static final class Directives {
+
+        private boolean noStore;
+
+        private boolean noCache;
+
+        private boolean mustRevalidate;
+
+        private long maxAge = -1;
+
+        private long maxStale = -1;
+
+        private long minFresh = -1;
+
+        private static Directives parse(List<String> values) {
+            Directives ret = new Directives();
+            for (String value : values) {
+                int start = 0;
+                boolean quoted = false;
+                for (int i = 0, n = value.length(); i <= n; i++) {
+                    char c = i < n ? value.charAt(i) : ',';
+                    if (c == '"') {
+                        quoted = !quoted;
+                    }
+                    else if (c == ',' && !quoted) {
+                        ret.apply(value.substring(start, i));
+                        start = i + 1;
+                    }
+                }
+            }
+            return ret;
+        }
+
+        private void apply(String directive) {
+            int equals = directive.indexOf('=');
+            String name = (equals < 0 ? directive : directive.substring(0, equals)).trim().toLowerCase(Locale.ROOT);
+            String argument = equals < 0 ? null : directive.substring(equals + 1).trim();
+            if (argument != null && argument.length() >= 2 && argument.startsWith("\"") && argument.endsWith("\"")) {
+                argument = argument.substring(1, argument.length() - 1);
+            }
+            switch (name) {
+                case "no-store" -> noStore = true;
+                // A no-cache directive that names fields still allows the rest of the response to be used; this
+                // cache conservatively revalidates the whole response.
+                case "no-cache" -> noCache = true;
+                case "must-revalidate", "proxy-revalidate" -> mustRevalidate = true;
+                // An invalid max-age makes the response stale.
+                case "max-age" -> maxAge = Math.max(0, parseSeconds(argument));
+                case "max-stale" -> maxStale = argument == null ? Long.MAX_VALUE : parseSeconds(argument);
+                case "min-fresh" -> minFresh = parseSeconds(argument);
+                default -> {
+                }
+            }
+        }
+
+    }
+
+    /*
+     * Holds responses evicted from memory in a directory, one file per response, named by the SHA-256 hash of its key.
+     * Each file also records the key, so that a hash collision can never return the wrong response. The total size is
+     * bounded by deleting the least recently written files.
+     */
+    private static final class DiskStore {
+
+        private static final int MAGIC = 0x48524331;
+
+        private static final String SUFFIX = ".entry";
+
+        private final Path directory;
+
+        private final long maxSize;
+
+        private final Executor executor;
+
+        private final AtomicLong size = new AtomicLong();
+
+        /*
+         * The entries that have been spilled but not yet written, by key. Until an entry is written, take() returns it
+         * from here, and delete() and clear() remove it, so that a write which completes after its entry was taken or
+         * invalidated never leaves a stale file behind.
+         */
+        private final ConcurrentMap<String,Entry> pending = new ConcurrentHashMap<>();
+
+        private DiskStore(Path directory, long maxSize, Executor executor) throws IOException {
+            this.directory = Files.createDirectories(directory);
+            this.maxSize = maxSize;
+            this.executor = executor;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    if (file.getFileName().toString().endsWith(SUFFIX)) {
+                        size.addAndGet(Files.size(file));
+                    }
+                    else if (file.getFileName().toString().endsWith(".part")) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+
+        private Path getPath(String key) {
+            return directory.resolve(Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + SUFFIX);
+        }
+
+        /*
+         * Writes the given entry via the executor. This is invoked on the thread that caused the entry to be evicted
+         * from memory, which should not have to wait for the write.
+         */
+        private void spill(Entry entry) {
+            pending.put(entry.key, entry);
+            try {
+                executor.execute(() -> write(entry));
+            }
+            catch (RejectedExecutionException e) {
+                pending.remove(entry.key, entry);
+                STORE_FAILURE_LOG.log(e, () -> "Failed to schedule writing HTTP response cache entry " + entry.key);
+            }
+        }
+
+        private void write(Entry entry) {
+            if (pending.get(entry.key) != entry) {
+                // It has since been taken, invalidated or spilled again.
+                return;
+            }
+            put(entry);
+            if (!pending.remove(entry.key, entry)) {
+                // It was taken, invalidated or spilled again while being written, so the file may be stale.
+                deleteFile(entry.key);
+            }
+        }
+
+        private void put(Entry entry) {
+            Path target = getPath(entry.key);
+            Path temp = null;
+            try {
+                temp = Files.createTempFile(directory, "entry", ".part");
+                try (DataOutputStream out =
+                         new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeUTF(entry.key);
+                    out.writeInt(entry.statusCode);
+                    out.writeLong(entry.requestTime);
+                    out.writeLong(entry.responseTime);
+                    out.writeInt(entry.headers.size());
+                    for (HttpHeaderCollection.Header header : entry.headers) {
+                        out.writeUTF(header.getName());
+                        out.writeUTF(header.getValue());
+                    }
+                    out.writeInt(entry.vary.size());
+                    for (Map.Entry<String,List<String>> vary : entry.vary.entrySet()) {
+                        out.writeUTF(vary.getKey());
+                        out.writeInt(vary.getValue().size());
+                        for (String value : vary.getValue()) {
+                            out.writeUTF(value);
+                        }
+                    }
+                    out.writeInt(entry.body.length);
+                    out.write(entry.body);
+                }
+                long written = Files.size(temp);
+                long replaced = Files.exists(target) ? Files.size(target) : 0;
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                temp = null;
+                if (size.addAndGet(written - replaced) > maxSize) {
+                    trim();
+                }
+            }
+            catch (IOException | RuntimeException e) {
+                STORE_FAILURE_LOG.log(e, () -> "Failed to write HTTP response cache entry to " + target);
+            }
+            finally {
+                if (temp != null) {
+                    try {
+                        Files.deleteIfExists(temp);
+                    }
+                    catch (IOException e) {
+                        LOG.log(Level.FINE, e, () -> "Failed to delete temporary file");
+                    }
+                }
+            }
+        }
+
+        /*
+         * Removes and returns the entry with the given key, whether or not it has been written yet, or returns null if
+         * there is none. A file that cannot be read as an entry is deleted, so that it is not read again on every
+         * lookup.
+         */
+        private Entry take(String key) {
+            Entry pendingEntry = pending.remove(key);
+            if (pendingEntry != null) {
+                return pendingEntry;
+            }
+            Path file = getPath(key);
+            Entry ret = null;
+            boolean unreadable = false;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC) {
+                    unreadable = true;
+                }
+                else if (in.readUTF().equals(key)) {
+                    int statusCode = in.readInt();
+                    long requestTime = in.readLong();
+                    long responseTime = in.readLong();
+                    ImmutableList.Builder<HttpHeaderCollection.Header> headers = ImmutableList.builder();
+                    for (int i = in.readInt(); i > 0; i--) {
+                        headers.add(HttpHeaderCollection.Header.createInstance(in.readUTF(), in.readUTF()));
+                    }
+                    ImmutableMap.Builder<String,List<String>> vary = ImmutableMap.builder();
+                    for (int i = in.readInt(); i > 0; i--) {
+                        String name = in.readUTF();
+                        List<String> values = new ArrayList<>();
+                        for (int j = in.readInt(); j > 0; j--) {
+                            values.add(in.readUTF());
+                        }
+                        vary.put(name, ImmutableList.copyOf(values));
+                    }
+                    byte[] body = new byte[in.readInt()];
+                    in.readFully(body);
+                    ret = new Entry(
+                        key, statusCode, headers.build(), vary.buildKeepingLast(), body, requestTime, responseTime
+                    );
+                }
+            }
+            catch (NoSuchFileException e) {
+                return null;
+            }
+            catch (IOException | RuntimeException e) {
+                STORE_FAILURE_LOG.log(e, () -> "Failed to read HTTP response cache entry from " + file);
+                unreadable = true;
+            }
+            // A file that holds a different key would be overwritten by the next put for this key anyway.
+            if (ret != null || unreadable) {
+                deleteFile(key);
+            }
+            return ret;
+        }
+
+        private void delete(String key) {
+            pending.remove(key);
+            deleteFile(key);
+        }
+
+        private void deleteFile(String key) {
+            Path file = getPath(key);
+            try {
+                long length = Files.size(file);
+                if (Files.deleteIfExists(file)) {
+                    size.addAndGet(-length);
+                }
+            }
+            catch (NoSuchFileException e) {
+                // Nothing to delete.
+            }
+            catch (IOException e) {
+                STORE_FAILURE_LOG.log(e, () -> "Failed to delete HTTP response cache entry " + file);
+            }
+        }
+
+        private synchronized void clear() {
+            pending.clear();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            catch (IOException e) {
+                STORE_FAILURE_LOG.log(e, () -> "Failed to clear HTTP response cache directory " + directory);
+            }
+            size.set(0);
+        }
+
+        /*
+         * Deletes the oldest files until the total size is below 90% of the maximum, so that not every subsequent
+         * write has to trim. The total is recomputed from the directory, correcting any drift caused by concurrent
+         * writes of the same key.
+         */
+        private synchronized void trim() {
+            if (size.get() <= maxSize) {
+                return;
+            }
+            List<Map.Entry<Path,BasicFileAttributes>> files = new ArrayList<>();
+            long total = 0;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path file : stream) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    files.add(Map.entry(file, attributes));
+                    total += attributes.size();
+                }
+                files.sort(Comparator.comparing(file -> file.getValue().lastModifiedTime()));
+                long target = maxSize / 10 * 9;
+                for (int i = 0; i < files.size() && total > target; i++) {
+                    if (Files.deleteIfExists(files.get(i).getKey())) {
+                        total -= files.get(i).getValue().size();
+                    }
+                }
+            }
+            catch (IOException e) {
+                STORE_FAILURE_LOG.log(e, () -> "Failed to trim HTTP response cache directory " + directory);
+            }
+            size.set(total);
+        }
+
+    }
+
+    /**
+     * Builds {@link HttpResponseCache} instances.
+     *
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     */
+    public static final class Builder<R, S> {
+
+        private final Binding<R,S> binding;
+
+        private long maxMemorySize = DEFAULT_MAX_MEMORY_SIZE;
+
+        private long maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+
+        private Duration maxHeuristicLifetime = DEFAULT_MAX_HEURISTIC_LIFETIME;
+
+        private Path diskDirectory;
+
+        private long maxDiskSize;
+
+        private Executor diskExecutor = VIRTUAL_THREAD_EXECUTOR;
+
+        private Clock clock = Clock.systemUTC();
+
+        private Builder(Binding<R,S> binding) {
+            this.binding = binding;
+        }
+
+        /**
+         * Sets the maximum total size of the responses held in memory. The size of a response is estimated from the
+         * length of its body and headers.
+         *
+         * @param maxMemorySize
+         *     the maximum size, in bytes, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder<R,S> setMaxMemorySize(long maxMemorySize) {
+            if (maxMemorySize <= 0) {
+                throw new IllegalArgumentException("maxMemorySize must be positive: " + maxMemorySize);
+            }
+            this.maxMemorySize = maxMemorySize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of a single response; larger responses are not stored.
+         *
+         * @param maxEntrySize
+         *     the maximum size, in bytes, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder<R,S> setMaxEntrySize(long maxEntrySize) {
+            if (maxEntrySize <= 0) {
+                throw new IllegalArgumentException("maxEntrySize must be positive: " + maxEntrySize);
+            }
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum heuristic freshness lifetime, for responses that have a Last-Modified date but no explicit
+         * expiration time.
+         *
+         * @param maxHeuristicLifetime
+         *     the maximum heuristic lifetime, which may be zero to disable heuristic freshness, but must not be
+         *     negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is negative.
+         */
+        public Builder<R,S> setMaxHeuristicLifetime(Duration maxHeuristicLifetime) {
+            if (maxHeuristicLifetime.isNegative()) {
+                throw new IllegalArgumentException(
+                    "maxHeuristicLifetime must not be negative: " + maxHeuristicLifetime
+                );
+            }
+            this.maxHeuristicLifetime = maxHeuristicLifetime;
+            return this;
+        }
+
+        /**
+         * Enables the disk store, to which responses evicted from memory for lack of space are written. The directory
+         * should be used by only one instance at a time; responses already in it are reused.
+         *
+         * @param directory
+         *     the directory, which is created if necessary, or null to disable the disk store.
+         * @param maxDiskSize
+         *     the maximum total size of the files in the directory, in bytes, which must be positive if the directory
+         *     is not null.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the directory is not null and the size is not positive.
+         */
+        public Builder<R,S> setDiskStore(Path directory, long maxDiskSize) {
+            if (directory != null && maxDiskSize <= 0) {
+                throw new IllegalArgumentException("maxDiskSize must be positive: " + maxDiskSize);
+            }
+            this.diskDirectory = directory;
+            this.maxDiskSize = maxDiskSize;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Executor} via which responses evicted from memory are written to the disk store, so that the
+         * thread whose request caused an eviction does not wait for the write. Since the writes block, the executor
+         * should not be one whose threads are needed for other work. By default, each write runs on a new virtual
+         * thread.
+         *
+         * @param diskExecutor
+         *     the {@link Executor}.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the executor is null.
+         */
+        public Builder<R,S> setDiskExecutor(Executor diskExecutor) {
+            this.diskExecutor = Objects.requireNonNull(diskExecutor, "diskExecutor");
+            return this;
+        }
+
+        /**
+         * Sets the {@link Clock} used to determine the age of responses.
+         *
+         * @param clock
+         *     the {@link Clock}.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the clock is null.
+         */
+        public Builder<R,S> setClock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock");
+            return this;
+        }
+
+        /**
+         * Creates a new {@link HttpResponseCache} from the current state of this builder.
+         *
+         * @return a new {@link HttpResponseCache}.
+         * @throws UncheckedIOException
+         *     if the disk store is enabled, and its directory cannot be created or read.
+         */
+        public HttpResponseCache<R,S> build() {
+            DiskStore diskStore = null;
+            if (diskDirectory != null) {
+                try {
+                    diskStore = new DiskStore(diskDirectory, maxDiskSize, diskExecutor);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return new HttpResponseCache<>(this, diskStore);
+        }
+
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * An {@link IOException} representing an internal error reported by a server, which carries the response status code
+ * and headers. Instances are created by {@link HttpOperationResult#createResultForServerError(Object,
+ * HttpOperationResult.ResponseAdapter)} for every server error response, so by default they do not capture a stack
+ * trace, which would otherwise dominate the cost of creating results during an outage of an upstream server. Stack
+ * traces can be enabled for debugging via {@link #setStackTraceCaptureEnabled(boolean)}.
+ *
+ * @author Dave Shepperton
+ */
+public class HttpServerErrorException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /*
+     * The system property that may be used to enable stack trace capture initially.
+     */
+    private static final String CAPTURE_STACK_TRACE_PROPERTY = HttpServerErrorException.class.getName() + ".captureStackTrace";
+
+    private static volatile boolean stackTraceCaptureEnabled = Boolean.getBoolean(CAPTURE_STACK_TRACE_PROPERTY);
+
+    private final int statusCode;
+
+    private final transient HttpHeaderCollection headers;
+
+    /**
+     * Creates a new instance with a message derived from the status code. The message is only created if it is
+     * requested, which it usually is not.
+     *
+     * @param statusCode
+     *     the response status code.
+     * @param headers
+     *     the response headers, or null if they are not available.
+     */
+    public HttpServerErrorException(int statusCode, HttpHeaderCollection headers) {
+        this(null, statusCode, headers);
+    }
+
+    /**
+     * Creates a new instance with the given message.
+     *
+     * @param message
+     *     the detail message, or null to derive one from the status code.
+     * @param statusCode
+     *     the response status code.
+     * @param headers
+     *     the response headers, or null if they are not available.
+     */
+    public HttpServerErrorException(String message, int statusCode, HttpHeaderCollection headers) {
+        super(message);
+        this.statusCode = statusCode;
+        this.headers = headers;
+    }
+
+    /**
+     * Enables or disables capturing a stack trace for instances created from now on. Capture is initially disabled
+     * unless otherwise specified by the system property
+     * {@code com.tractionsoftware.http.client.wrappers.HttpServerErrorException.captureStackTrace}.
+     *
+     * @param enabled
+     *     true to capture stack traces; false otherwise.
+     */
+    public static void setStackTraceCaptureEnabled(boolean enabled) {
+        stackTraceCaptureEnabled = enabled;
+    }
+
+    /**
+     * Returns true if a stack trace is captured for instances created from now on.
+     *
+     * @return true if a stack trace is captured for instances created from now on; false otherwise.
+     */
+    public static boolean isStackTraceCaptureEnabled() {
+        return stackTraceCaptureEnabled;
+    }
+
+    /**
+     * Returns the response status code.
+     *
+     * @return the response status code.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns the response headers. The returned collection may read directly from the response, and so should not be
+     * retained beyond the life of the {@link HttpOperationResult} the exception was created for.
+     *
+     * @return the response headers, or an empty collection if they are not available.
+     */
+    public HttpHeaderCollection getHeaders() {
+        return headers != null ? headers : HttpHeaderCollection.createEmptyInstance();
+    }
+
+    /**
+     * This implementation returns the message given to the constructor, if any, or else one derived from the status
+     * code.
+     */
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message : HttpOperationResult.getMessageForHttpStatusResponseCode(statusCode);
+    }
+
+    /**
+     * This implementation only fills in the stack trace if {@link #isStackTraceCaptureEnabled() enabled}.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return stackTraceCaptureEnabled ? super.fillInStackTrace() : this;
+    }
+
+}
@@ -0,0 +1,300 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, in-memory {@link HttpOperationMetrics} that keeps a count of created and closed results and a latency
+ * histogram for each {@link HttpOperationMetrics.Key}. Counts are kept in {@link LongAdder}s, and latencies in
+ * log-linear buckets in the style of HdrHistogram, with 8 sub-buckets per power of two, so that percentiles are
+ * accurate to within 12.5%.
+ *
+ * @author Dave Shepperton
+ */
+public final class InMemoryHttpOperationMetrics implements HttpOperationMetrics {
+
+    private final Map<Key,Stats> stats = new ConcurrentHashMap<>();
+
+    private InMemoryHttpOperationMetrics() {
+    }
+
+    /**
+     * Creates a new, empty instance.
+     *
+     * @return a new instance.
+     */
+    public static InMemoryHttpOperationMetrics createInstance() {
+        return new InMemoryHttpOperationMetrics();
+    }
+
+    @Override
+    public void resultCreated(Key key) {
+        getStats(key).created.increment();
+    }
+
+    @Override
+    public void resultClosed(Key key, long latencyNanos) {
+        Stats stats = getStats(key);
+        stats.closed.increment();
+        stats.latency.record(latencyNanos);
+    }
+
+    /**
+     * Returns a snapshot of the statistics for each {@link HttpOperationMetrics.Key} recorded so far. Statistics that
+     * are recorded while the snapshot is being taken may or may not be included.
+     *
+     * @return an immutable map of {@link HttpOperationMetrics.Key}s to {@link Snapshot}s.
+     */
+    public Map<Key,Snapshot> getSnapshot() {
+        ImmutableMap.Builder<Key,Snapshot> ret = ImmutableMap.builderWithExpectedSize(stats.size());
+        stats.forEach((key, value) -> ret.put(key, value.snapshot()));
+        return ret.build();
+    }
+
+    /**
+     * Returns the fraction of the results created for requests to the given host that represent
+     * {@link HttpOperationMetrics.Key#isError() errors or failures}.
+     *
+     * @param host
+     *     the host.
+     * @return the fraction of results that represent errors or failures, from 0.0 to 1.0, or 0.0 if there are none.
+     */
+    public double getErrorRate(String host) {
+        long total = 0;
+        long errors = 0;
+        for (Map.Entry<Key,Stats> entry : stats.entrySet()) {
+            if (entry.getKey().host().equals(host)) {
+                long created = entry.getValue().created.sum();
+                total += created;
+                if (entry.getKey().isError()) {
+                    errors += created;
+                }
+            }
+        }
+        return total == 0 ? 0.0 : (double) errors / total;
+    }
+
+    /**
+     * Discards all the statistics recorded so far.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    private Stats getStats(Key key) {
+        Stats ret = stats.get(key);
+        return ret != null ? ret : stats.computeIfAbsent(key, k -> new Stats());
+    }
+
+    /**
+     * An immutable snapshot of the statistics for a {@link HttpOperationMetrics.Key}.
+     */
+    public static final class Snapshot {
+
+        private final long createdCount;
+
+        private final long closedCount;
+
+        private final long latencySumNanos;
+
+        private final long maxLatencyNanos;
+
+        private final long[] latencyCounts;
+
+        private final long latencyCount;
+
+        private Snapshot(long createdCount, long closedCount, long latencySumNanos, long maxLatencyNanos, long[] latencyCounts) {
+            this.createdCount = createdCount;
+            this.closedCount = closedCount;
+            this.latencySumNanos = latencySumNanos;
+            this.maxLatencyNanos = maxLatencyNanos;
+            this.latencyCounts = latencyCounts;
+            long count = 0;
+            for (long c : latencyCounts) {
+                count += c;
+            }
+            this.latencyCount = count;
+        }
+
+        /**
+         * Returns the number of results that were created.
+         *
+         * @return the number of results that were created.
+         */
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        /**
+         * Returns the number of results that were closed.
+         *
+         * @return the number of results that were closed.
+         */
+        public long getClosedCount() {
+            return closedCount;
+        }
+
+        /**
+         * Returns the mean latency of the closed results.
+         *
+         * @return the mean latency, or {@link Duration#ZERO} if no results were closed.
+         */
+        public Duration getMeanLatency() {
+            return latencyCount == 0 ? Duration.ZERO : Duration.ofNanos(latencySumNanos / latencyCount);
+        }
+
+        /**
+         * Returns the maximum latency of the closed results.
+         *
+         * @return the maximum latency, or {@link Duration#ZERO} if no results were closed.
+         */
+        public Duration getMaxLatency() {
+            return Duration.ofNanos(maxLatencyNanos);
+        }
+
+        /**
+         * Returns the given percentile of the latency of the closed results, which is accurate to within 12.5%.
+         *
+         * @param percentile
+         *     the percentile, from 0.0 to 100.0 inclusive.
+         * @return the latency at the given percentile, or {@link Duration#ZERO} if no results were closed.
+         * @throws IllegalArgumentException
+         *     if the percentile is not within that range.
+         */
+        public Duration getLatencyPercentile(double percentile) {
+            if (!(percentile >= 0.0 && percentile <= 100.0)) {
+                throw new IllegalArgumentException("percentile must be between 0.0 and 100.0: " + percentile);
+            }
+            if (latencyCount == 0) {
+                return Duration.ZERO;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * latencyCount));
+            long cumulative = 0;
+            for (int i = 0; i < latencyCounts.length; i++) {
+                cumulative += latencyCounts[i];
+                if (cumulative >= target) {
+                    return Duration.ofNanos(Math.min(LatencyHistogram.upperBound(i), maxLatencyNanos));
+                }
+            }
+            return Duration.ofNanos(maxLatencyNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot[created=" + createdCount +
+                   ", closed=" + closedCount +
+                   ", mean=" + getMeanLatency() +
+                   ", p50=" + getLatencyPercentile(50) +
+                   ", p99=" + getLatencyPercentile(99) +
+                   ", max=" + getMaxLatency() + "]";
+        }
+
+    }
+
+    /*
+     * The mutable statistics for a key.
+     */
+    private static final class Stats {
+
+        private final LongAdder created = new LongAdder();
+
+        private final LongAdder closed = new LongAdder();
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private Snapshot snapshot() {
+            return new Snapshot(
+                created.sum(),
+                closed.sum(),
+                latency.sum.sum(),
+                latency.max.get(),
+                latency.snapshotCounts()
+            );
+        }
+
+    }
+
+    /*
+     * A log-linear histogram of non-negative values. Values below SUB_BUCKETS each have their own bucket; above that,
+     * each power of two is divided into SUB_BUCKETS equal buckets.
+     */
+    private static final class LatencyHistogram {
+
+        private static final int SUB_BUCKET_BITS = 3;
+
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        private final LongAdder sum = new LongAdder();
+
+        private final AtomicLong max = new AtomicLong();
+
+        private void record(long value) {
+            long v = Math.max(value, 0);
+            counts.incrementAndGet(bucketIndex(v));
+            sum.add(v);
+            long current = max.get();
+            while (v > current && !max.compareAndSet(current, v)) {
+                current = max.get();
+            }
+        }
+
+        private long[] snapshotCounts() {
+            long[] ret = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                ret[i] = counts.get(i);
+            }
+            return ret;
+        }
+
+        private static int bucketIndex(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BUCKET_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        /*
+         * Returns the largest value that falls into the bucket with the given index.
+         */
+        private static long upperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int shift = index / SUB_BUCKETS - 1;
+            long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+            return lower + (1L << shift) - 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,279 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A result object representing a response body collected into direct {@link ByteBuffer}s acquired from a
+ * {@link ByteBufferPool}. Closing it releases the buffers back to the pool, which normally happens when the
+ * {@link HttpOperationResult} holding it is closed. The content must not be accessed after it has been closed,
+ * including via any buffers returned by {@link #getBuffers()}.
+ *
+ * <p>
+ * Instances are assembled by the client-specific body handlers via {@link #createBuilder(ByteBufferPool, long)}.
+ *
+ * @author Dave Shepperton
+ */
+public final class PooledBody implements AutoCloseable {
+
+    private final ByteBufferPool pool;
+
+    private final List<ByteBuffer> buffers;
+
+    private final long length;
+
+    private boolean closed;
+
+    private PooledBody(ByteBufferPool pool, List<ByteBuffer> buffers, long length) {
+        this.pool = pool;
+        this.buffers = buffers;
+        this.length = length;
+    }
+
+    /**
+     * Creates a {@link Builder} that collects content into buffers acquired from the given pool.
+     *
+     * @param pool
+     *     the pool from which to acquire buffers.
+     * @param expectedLength
+     *     the expected length of the content, e.g., from a Content-Length header, or -1 if it is unknown.
+     * @return a new {@link Builder}.
+     * @throws NullPointerException
+     *     if the pool is null.
+     */
+    public static Builder createBuilder(ByteBufferPool pool, long expectedLength) {
+        return new Builder(Objects.requireNonNull(pool, "pool"), expectedLength);
+    }
+
+    /**
+     * Returns the length of the content.
+     *
+     * @return the length of the content, in bytes.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns read-only views of the buffers holding the content, in order. Each view's position and limit delimit its
+     * part of the content.
+     *
+     * @return read-only views of the buffers holding the content.
+     * @throws IllegalStateException
+     *     if this instance has been closed.
+     */
+    public synchronized List<ByteBuffer> getBuffers() {
+        checkOpen();
+        List<ByteBuffer> ret = new ArrayList<>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            ret.add(buffer.asReadOnlyBuffer());
+        }
+        return ret;
+    }
+
+    /**
+     * Writes the content to the given channel, without copying it to the heap.
+     *
+     * @param channel
+     *     the channel to write to.
+     * @throws IOException
+     *     if one is raised by the channel.
+     * @throws IllegalStateException
+     *     if this instance has been closed.
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        for (ByteBuffer buffer : getBuffers()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Writes the content to the given stream.
+     *
+     * @param output
+     *     the stream to write to.
+     * @throws IOException
+     *     if one is raised by the stream.
+     * @throws IllegalStateException
+     *     if this instance has been closed.
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        byte[] chunk = new byte[(int) Math.min(Math.max(length, 1), 8192)];
+        for (ByteBuffer buffer : getBuffers()) {
+            while (buffer.hasRemaining()) {
+                int n = Math.min(chunk.length, buffer.remaining());
+                buffer.get(chunk, 0, n);
+                output.write(chunk, 0, n);
+            }
+        }
+    }
+
+    /**
+     * Copies the content to a new array.
+     *
+     * @return a new array holding the content.
+     * @throws IllegalStateException
+     *     if this instance has been closed, or if the content is too large for an array.
+     */
+    public byte[] toByteArray() {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Content too large for an array: " + length);
+        }
+        byte[] ret = new byte[(int) length];
+        int offset = 0;
+        for (ByteBuffer buffer : getBuffers()) {
+            int n = buffer.remaining();
+            buffer.get(ret, offset, n);
+            offset += n;
+        }
+        return ret;
+    }
+
+    /**
+     * Releases the buffers back to the pool. Subsequent invocations have no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            for (ByteBuffer buffer : buffers) {
+                pool.release(buffer);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PooledBody[" + length + " bytes in " + buffers.size() + " buffers]";
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Closed");
+        }
+    }
+
+    /**
+     * Collects content into buffers acquired from a {@link ByteBufferPool}. If the expected length is known and no
+     * larger than the pool's largest size class, the content is collected into a single buffer. Builders are not
+     * thread-safe.
+     */
+    public static final class Builder {
+
+        /*
+         * The size of the buffers acquired when the remaining length is unknown.
+         */
+        private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+        private final ByteBufferPool pool;
+
+        private final List<ByteBuffer> buffers = new ArrayList<>();
+
+        private long expectedRemaining;
+
+        private long length;
+
+        private ByteBuffer current;
+
+        private boolean finished;
+
+        private Builder(ByteBufferPool pool, long expectedLength) {
+            this.pool = pool;
+            this.expectedRemaining = expectedLength;
+        }
+
+        /**
+         * Copies the remaining content of the given buffer.
+         *
+         * @param source
+         *     the buffer to copy, whose position is advanced to its limit.
+         * @throws IllegalStateException
+         *     if the builder has already been finished.
+         */
+        public void append(ByteBuffer source) {
+            if (finished) {
+                throw new IllegalStateException("Already finished");
+            }
+            while (source.hasRemaining()) {
+                if (current == null || !current.hasRemaining()) {
+                    current = pool.acquire(getNextBufferSize(source.remaining()));
+                    buffers.add(current);
+                }
+                int n = Math.min(current.remaining(), source.remaining());
+                int limit = source.limit();
+                source.limit(source.position() + n);
+                current.put(source);
+                source.limit(limit);
+                length += n;
+                expectedRemaining -= n;
+            }
+        }
+
+        /**
+         * Finishes collecting content.
+         *
+         * @return a new {@link PooledBody} holding the content.
+         * @throws IllegalStateException
+         *     if the builder has already been finished.
+         */
+        public PooledBody build() {
+            if (finished) {
+                throw new IllegalStateException("Already finished");
+            }
+            finished = true;
+            for (ByteBuffer buffer : buffers) {
+                buffer.flip();
+            }
+            return new PooledBody(pool, List.copyOf(buffers), length);
+        }
+
+        /**
+         * Abandons collecting content, and releases any buffers already acquired. Subsequent invocations have no
+         * effect.
+         */
+        public void discard() {
+            if (!finished) {
+                finished = true;
+                for (ByteBuffer buffer : buffers) {
+                    pool.release(buffer);
+                }
+                buffers.clear();
+            }
+        }
+
+        private int getNextBufferSize(int available) {
+            int max = pool.getMaxBufferSize();
+            if (expectedRemaining > 0) {
+                return (int) Math.min(expectedRemaining, max);
+            }
+            return Math.min(Math.max(available, DEFAULT_CHUNK_SIZE), max);
+        }
+
+    }
+
+}
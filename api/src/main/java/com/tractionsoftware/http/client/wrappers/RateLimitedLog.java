@@ -0,0 +1,141 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A rate-limited logging call site, for messages that may be logged at a very high rate when something goes wrong,
+ * e.g., failures to consume or close responses during an outage of an upstream server. At most one message is logged
+ * per interval; the others are counted, and the count is appended to the next message that is logged. Messages are
+ * supplied lazily, so nothing is formatted unless a message is actually logged, and nothing at all is done if the level
+ * is not loggable.
+ *
+ * <p>
+ * Each call site should have its own instance, held in a static field.
+ *
+ * @author Dave Shepperton
+ */
+public final class RateLimitedLog {
+
+    /**
+     * The default interval between logged messages.
+     */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+
+    private final Logger logger;
+
+    private final Level level;
+
+    private final long intervalNanos;
+
+    private final AtomicLong nextLogNanos = new AtomicLong(System.nanoTime());
+
+    private final LongAdder suppressed = new LongAdder();
+
+    private RateLimitedLog(Logger logger, Level level, Duration interval) {
+        this.logger = logger;
+        this.level = level;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Creates a new instance that logs to the given {@link Logger} at the given level at most once per
+     * {@link #DEFAULT_INTERVAL default interval}.
+     *
+     * @param logger
+     *     the {@link Logger} to log to.
+     * @param level
+     *     the level at which to log.
+     * @return a new instance.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public static RateLimitedLog createInstance(Logger logger, Level level) {
+        return createInstance(logger, level, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Creates a new instance that logs to the given {@link Logger} at the given level at most once per the given
+     * interval.
+     *
+     * @param logger
+     *     the {@link Logger} to log to.
+     * @param level
+     *     the level at which to log.
+     * @param interval
+     *     the minimum interval between logged messages, which may be zero to disable rate limiting.
+     * @return a new instance.
+     * @throws NullPointerException
+     *     if any argument is null.
+     * @throws IllegalArgumentException
+     *     if the interval is negative.
+     */
+    public static RateLimitedLog createInstance(Logger logger, Level level, Duration interval) {
+        Objects.requireNonNull(logger, "logger");
+        Objects.requireNonNull(level, "level");
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("interval must not be negative: " + interval);
+        }
+        return new RateLimitedLog(logger, level, interval);
+    }
+
+    /**
+     * Logs the supplied message and the given {@link Throwable}, unless the level is not loggable, or a message has
+     * already been logged by this instance within the interval, in which case the message is counted as suppressed.
+     *
+     * @param thrown
+     *     the {@link Throwable} to log, which may be null.
+     * @param message
+     *     supplies the message, if it is to be logged.
+     */
+    public void log(Throwable thrown, Supplier<String> message) {
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+        long now = System.nanoTime();
+        long next = nextLogNanos.get();
+        if (now - next < 0 || !nextLogNanos.compareAndSet(next, now + intervalNanos)) {
+            suppressed.increment();
+            return;
+        }
+        long count = suppressed.sumThenReset();
+        String text = message.get();
+        if (count > 0) {
+            text += " (" + count + " similar " + (count == 1 ? "message" : "messages") + " suppressed)";
+        }
+        logger.log(level, text, thrown);
+    }
+
+    /**
+     * Returns the number of messages suppressed since a message was last logged.
+     *
+     * @return the number of messages suppressed since a message was last logged.
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+}
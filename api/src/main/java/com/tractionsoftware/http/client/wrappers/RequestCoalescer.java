@@ -0,0 +1,475 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.net.HttpHeaders;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces identical concurrent requests ("single-flight"), so that when many threads issue the same request at the
+ * same moment, e.g., when a popular resource expires from a cache, only one of them is actually sent. Requests are
+ * identical if they have the same method, the same URI, and the same values of the configured key headers (by default,
+ * Accept, Accept-Encoding, Accept-Language, Authorization and Cookie); only requests with one of the configured
+ * methods (by default, GET and HEAD) are coalesced.
+ *
+ * <p>
+ * The first caller sends the request; callers that arrive while it is in flight wait for its result instead of sending
+ * their own. When the result arrives, each caller gets its own {@link HttpOperationResult}, for its own request object,
+ * with the same outcome, headers and result object as the shared result. The shared result is closed only when the last
+ * of these results is closed. If no other caller arrived, the first caller gets the shared result itself.
+ *
+ * <p>
+ * Since the result object is shared, it must be safe to share: e.g., a byte[] or String that is not modified, or an
+ * object parsed from the body. If the result object is a stream that can only be read once (an {@link InputStream},
+ * {@link Reader}, {@link ReadableByteChannel} or {@link Flow.Publisher}), the first caller gets the shared result, and
+ * each waiting caller sends its own request instead.
+ *
+ * <pre>{@code
+ * RequestCoalescer<HttpRequest,HttpResponse<byte[]>,byte[],IOException> coalescer =
+ *     RequestCoalescer.createBuilder(JavaResults.createCacheBinding()).build();
+ * try (var result = coalescer.execute(request, r -> client.send(r, BodyHandlers.ofByteArray(), ...))) {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Instances are thread-safe, and should be shared by all callers that may issue the same requests. A coalescer may be
+ * placed in front of an {@link HttpResponseCache}, so that concurrent misses for the same resource are sent once.
+ *
+ * @param <R>
+ *     the type of request object.
+ * @param <S>
+ *     the type of response object.
+ * @param <T>
+ *     the type of result object.
+ * @param <X>
+ *     the context-specific type of Exception for the type of operation being attempted.
+ * @author Dave Shepperton
+ */
+public final class RequestCoalescer<R, S, T, X extends Exception> {
+
+    /**
+     * The methods of the requests that are coalesced by default.
+     */
+    public static final Set<String> DEFAULT_METHODS = ImmutableSet.of("GET", "HEAD");
+
+    /**
+     * The request headers whose values must match for requests to be coalesced by default.
+     */
+    public static final Set<String> DEFAULT_KEY_HEADERS = ImmutableSet.of(
+        HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.AUTHORIZATION,
+        HttpHeaders.COOKIE
+    );
+
+    private final HttpResponseCache.Binding<R,?> binding;
+
+    private final Set<String> methods;
+
+    private final Set<String> keyHeaders;
+
+    private final ConcurrentHashMap<Object,Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private RequestCoalescer(Builder<R> builder) {
+        this.binding = builder.binding;
+        this.methods = builder.methods;
+        this.keyHeaders = builder.keyHeaders;
+    }
+
+    /**
+     * Creates a new {@link Builder}, initialized with the defaults.
+     *
+     * @param binding
+     *     the {@link HttpResponseCache.Binding} for the request type, which is used only to determine the method, URI
+     *     and headers of requests.
+     * @param <R>
+     *     the type of request object.
+     * @return a new {@link Builder}.
+     * @throws NullPointerException
+     *     if the binding is null.
+     */
+    public static <R> Builder<R> createBuilder(HttpResponseCache.Binding<R,?> binding) {
+        return new Builder<>(Objects.requireNonNull(binding, "binding"));
+    }
+
+    /**
+     * Sends the request via the given function, unless an identical request is already in flight, in which case this
+     * waits for the result of that request, as described {@link RequestCoalescer above}. If the thread is interrupted
+     * while waiting, the interrupt status is restored, and a result representing the interruption is returned.
+     *
+     * @param request
+     *     the request object.
+     * @param send
+     *     sends a request, e.g., via an {@link HttpOperationClient}.
+     * @return the result, which the caller must close.
+     * @throws NullPointerException
+     *     if either argument is null.
+     * @throws CompletionException
+     *     if the identical request in flight completed exceptionally with a checked Exception; unchecked Exceptions
+     *     are rethrown as they are.
+     */
+    public HttpOperationResult<R,S,T,X> execute(
+        R request,
+        Function<? super R, ? extends HttpOperationResult<R,S,T,X>> send
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(send, "send");
+        Object key = getKey(request);
+        if (key == null) {
+            return send.apply(request);
+        }
+        Flight candidate = new Flight();
+        Flight flight = join(key, candidate);
+        if (flight == candidate) {
+            HttpOperationResult<R,S,T,X> result;
+            try {
+                result = send.apply(request);
+            }
+            catch (RuntimeException | Error e) {
+                inFlight.remove(key, flight);
+                flight.future.completeExceptionally(e);
+                throw e;
+            }
+            return flight.finish(key, request, result);
+        }
+        HttpOperationResult<R,S,T,X> shared;
+        try {
+            shared = flight.future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flight.future.whenComplete((result, error) -> flight.release());
+            return HttpOperationResult.createInstanceForRequestInterrupted(request, e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException r) {
+                throw r;
+            }
+            if (cause instanceof Error r) {
+                throw r;
+            }
+            throw new CompletionException(cause);
+        }
+        if (!flight.shareable) {
+            return send.apply(request);
+        }
+        coalescedCount.increment();
+        return flight.createView(request, shared);
+    }
+
+    /**
+     * Sends the request asynchronously via the given function, unless an identical request is already in flight, in
+     * which case the returned future is completed with the result of that request, as described
+     * {@link RequestCoalescer above}. If the returned future is cancelled, its result is closed when it completes. If
+     * the request completes exceptionally, the returned future is completed with the same Exception.
+     *
+     * @param request
+     *     the request object.
+     * @param send
+     *     sends a request asynchronously, e.g., via an {@link HttpOperationClient}.
+     * @return a {@link CompletableFuture} that will be completed with the result, which the caller must close.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public CompletableFuture<HttpOperationResult<R,S,T,X>> executeAsync(
+        R request,
+        Function<? super R, ? extends CompletionStage<HttpOperationResult<R,S,T,X>>> send
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(send, "send");
+        Object key = getKey(request);
+        if (key == null) {
+            return send.apply(request).toCompletableFuture();
+        }
+        CompletableFuture<HttpOperationResult<R,S,T,X>> ret = new CompletableFuture<>();
+        Flight candidate = new Flight();
+        Flight flight = join(key, candidate);
+        if (flight == candidate) {
+            CompletionStage<HttpOperationResult<R,S,T,X>> stage;
+            try {
+                stage = send.apply(request);
+            }
+            catch (RuntimeException e) {
+                inFlight.remove(key, flight);
+                flight.future.completeExceptionally(e);
+                ret.completeExceptionally(e);
+                return ret;
+            }
+            stage.whenComplete((result, error) -> {
+                if (error != null) {
+                    inFlight.remove(key, flight);
+                    flight.future.completeExceptionally(error);
+                    ret.completeExceptionally(error);
+                    return;
+                }
+                HttpOperationResult<R,S,T,X> own = flight.finish(key, request, result);
+                if (!ret.complete(own)) {
+                    own.close();
+                }
+            });
+            return ret;
+        }
+        flight.future.whenComplete((shared, error) -> {
+            if (error != null) {
+                ret.completeExceptionally(error);
+            }
+            else if (flight.shareable) {
+                coalescedCount.increment();
+                HttpOperationResult<R,S,T,X> view = flight.createView(request, shared);
+                if (!ret.complete(view)) {
+                    view.close();
+                }
+            }
+            else if (!ret.isDone()) {
+                CompletionStage<HttpOperationResult<R,S,T,X>> stage;
+                try {
+                    stage = send.apply(request);
+                }
+                catch (RuntimeException e) {
+                    ret.completeExceptionally(e);
+                    return;
+                }
+                stage.whenComplete((result, sendError) -> {
+                    if (sendError != null) {
+                        ret.completeExceptionally(sendError);
+                    }
+                    else if (!ret.complete(result)) {
+                        result.close();
+                    }
+                });
+            }
+        });
+        return ret;
+    }
+
+    /**
+     * Returns the number of requests that were answered with the result of an identical request, rather than being
+     * sent.
+     *
+     * @return the number of requests that were coalesced.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Returns the number of distinct requests currently in flight.
+     *
+     * @return the number of distinct requests currently in flight.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /*
+     * Returns the key identifying identical requests, or null if the request is not to be coalesced.
+     */
+    private Object getKey(R request) {
+        String method = binding.getMethod(request);
+        if (!methods.contains(method)) {
+            return null;
+        }
+        ImmutableList.Builder<Object> ret = ImmutableList.builder();
+        try {
+            ret.add(method).add(binding.getURI(request).normalize());
+        }
+        catch (IllegalArgumentException e) {
+            return null;
+        }
+        for (String name : keyHeaders) {
+            ret.add(binding.getHeaderValues(request, name));
+        }
+        return ret.build();
+    }
+
+    /*
+     * Returns the flight in progress for the given key, having joined it, or the given candidate, which is now in
+     * progress. A flight that has already finished is no longer joinable, and is removed from the map almost
+     * immediately, so this retries until one of the two succeeds.
+     */
+    private Flight join(Object key, Flight candidate) {
+        while (true) {
+            Flight existing = inFlight.putIfAbsent(key, candidate);
+            if (existing == null) {
+                return candidate;
+            }
+            if (existing.tryJoin()) {
+                return existing;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /*
+     * A request in flight, and the callers waiting for its result. Each caller holds a reference to the shared result,
+     * which is closed when the last reference is released.
+     */
+    private final class Flight {
+
+        private final CompletableFuture<HttpOperationResult<R,S,T,X>> future = new CompletableFuture<>();
+
+        /*
+         * The number of unreleased references, including that of the caller that sent the request. Guarded by this.
+         */
+        private int references = 1;
+
+        /*
+         * Whether other callers may still join. Guarded by this.
+         */
+        private boolean joinable = true;
+
+        /*
+         * Whether the shared result may be shared with other callers; set before the future is completed.
+         */
+        private volatile boolean shareable;
+
+        private synchronized boolean tryJoin() {
+            if (!joinable) {
+                return false;
+            }
+            references++;
+            return true;
+        }
+
+        /*
+         * Completes this flight with the given result, and returns the result for the caller that sent the request.
+         */
+        private HttpOperationResult<R,S,T,X> finish(Object key, R request, HttpOperationResult<R,S,T,X> result) {
+            inFlight.remove(key, this);
+            boolean waiters;
+            synchronized (this) {
+                joinable = false;
+                waiters = references > 1;
+            }
+            shareable = waiters && !isStream(result.getResultSafe());
+            future.complete(result);
+            return shareable ? createView(request, result) : result;
+        }
+
+        private HttpOperationResult<R,S,T,X> createView(R request, HttpOperationResult<R,S,T,X> shared) {
+            return shared.createView(request, this::release);
+        }
+
+        /*
+         * Releases a reference, closing the shared result when the last reference is released.
+         */
+        private void release() {
+            boolean last;
+            synchronized (this) {
+                last = --references == 0;
+            }
+            if (last && shareable) {
+                future.join().close();
+            }
+        }
+
+    }
+
+    private static boolean isStream(Object result) {
+        return result instanceof InputStream || result instanceof Reader || result instanceof ReadableByteChannel
+            || result instanceof Flow.Publisher;
+    }
+
+    /**
+     * Builds {@link RequestCoalescer} instances.
+     *
+     * @param <R>
+     *     the type of request object.
+     */
+    public static final class Builder<R> {
+
+        private final HttpResponseCache.Binding<R,?> binding;
+
+        private Set<String> methods = DEFAULT_METHODS;
+
+        private Set<String> keyHeaders = DEFAULT_KEY_HEADERS;
+
+        private Builder(HttpResponseCache.Binding<R,?> binding) {
+            this.binding = binding;
+        }
+
+        /**
+         * Sets the methods of the requests that are coalesced. Only idempotent methods should be included.
+         *
+         * @param methods
+         *     the methods, which are case-sensitive.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the set is null.
+         */
+        public Builder<R> setMethods(Set<String> methods) {
+            this.methods = ImmutableSet.copyOf(methods);
+            return this;
+        }
+
+        /**
+         * Sets the request headers whose values must match for requests to be coalesced. Any header that may change
+         * the response, or whose value must not be disclosed to another caller, should be included.
+         *
+         * @param keyHeaders
+         *     the header names, which are not case-sensitive.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the set is null.
+         */
+        public Builder<R> setKeyHeaders(Set<String> keyHeaders) {
+            ImmutableSet.Builder<String> names = ImmutableSet.builder();
+            for (String name : keyHeaders) {
+                names.add(name.toLowerCase(Locale.ROOT));
+            }
+            this.keyHeaders = names.build();
+            return this;
+        }
+
+        /**
+         * Creates a new {@link RequestCoalescer} from the current state of this builder.
+         *
+         * @param <S>
+         *     the type of response object.
+         * @param <T>
+         *     the type of result object.
+         * @param <X>
+         *     the context-specific type of Exception for the type of operation being attempted.
+         * @return a new {@link RequestCoalescer}.
+         */
+        public <S, T, X extends Exception> RequestCoalescer<R,S,T,X> build() {
+            return new RequestCoalescer<>(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,624 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.net.HttpHeaders;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult.OperationStatus;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult.RequestStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Retries HTTP operations according to the classification of their {@link HttpOperationResult}s. An attempt is retried
+ * if:
+ * <ul>
+ *     <li>the attempt's {@link OperationStatus} is one of the retryable operation statuses (by default,
+ *     {@link OperationStatus#FAILURE_SERVER_ERROR}), or it is {@link OperationStatus#NO_RESPONSE} and its
+ *     {@link RequestStatus} is one of the retryable request statuses (by default, {@link RequestStatus#ERROR_IO});</li>
+ *     <li>the request is idempotent according to the configured rule (by default, if its method is one of
+ *     {@link #DEFAULT_IDEMPOTENT_METHODS}, as determined by the describers registered via
+ *     {@link HttpOperationResult#registerRequestDescriber});</li>
+ *     <li>any Retry-After header does not ask for a longer delay than the configured maximum;</li>
+ *     <li>the maximum number of attempts has not been reached; and</li>
+ *     <li>the {@link RetryBudget} allows it.</li>
+ * </ul>
+ * Otherwise, the result of the last attempt is returned. Before each retry, the failed result is closed, so that its
+ * response is consumed according to its {@link DrainPolicy} and the connection can be reused. Retries are delayed by
+ * an exponential backoff with "full jitter" (i.e., a uniformly random delay up to the backoff), or by the Retry-After
+ * delay if that is longer.
+ *
+ * <pre>{@code
+ * RetryExecutor retries = RetryExecutor.createBuilder().setMaxAttempts(4).build();
+ * try (var result = retries.execute(request, r -> client.send(r, handler, resultFactory, errorFactory))) {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Instances are immutable and thread-safe, and should be shared by all requests to the same service, so that they
+ * share a {@link RetryBudget}.
+ *
+ * @author Dave Shepperton
+ */
+public final class RetryExecutor {
+
+    /**
+     * The methods that are treated as idempotent by default (RFC 9110 section 9.2.2).
+     */
+    public static final Set<String> DEFAULT_IDEMPOTENT_METHODS =
+        ImmutableSet.of("GET", "HEAD", "OPTIONS", "TRACE", "PUT", "DELETE");
+
+    /**
+     * The {@link OperationStatus}es of received responses that are retried by default.
+     */
+    public static final Set<OperationStatus> DEFAULT_RETRYABLE_OPERATION_STATUSES =
+        Sets.immutableEnumSet(OperationStatus.FAILURE_SERVER_ERROR);
+
+    /**
+     * The {@link RequestStatus}es of attempts that received no response that are retried by default.
+     */
+    public static final Set<RequestStatus> DEFAULT_RETRYABLE_REQUEST_STATUSES =
+        Sets.immutableEnumSet(RequestStatus.ERROR_IO);
+
+    /**
+     * The default maximum number of attempts, including the first.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * The default backoff before the first retry.
+     */
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(100);
+
+    /**
+     * The default maximum backoff.
+     */
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(10);
+
+    /**
+     * The default maximum delay requested by a Retry-After header that will be honoured.
+     */
+    public static final Duration DEFAULT_MAX_RETRY_AFTER = Duration.ofSeconds(30);
+
+    /*
+     * The delay used for Retry-After values too large to parse.
+     */
+    private static final Duration FOREVER = Duration.ofSeconds(Long.MAX_VALUE);
+
+    private static final Predicate<Object> DEFAULT_IDEMPOTENCY_RULE =
+        request -> DEFAULT_IDEMPOTENT_METHODS.contains(HttpOperationResult.getRequestMethod(request));
+
+    private final int maxAttempts;
+
+    private final long initialBackoffNanos;
+
+    private final long maxBackoffNanos;
+
+    private final double backoffMultiplier;
+
+    private final Duration maxRetryAfter;
+
+    private final Set<OperationStatus> retryableOperationStatuses;
+
+    private final Set<RequestStatus> retryableRequestStatuses;
+
+    private final Predicate<Object> idempotencyRule;
+
+    private final RetryBudget retryBudget;
+
+    private RetryExecutor(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.maxRetryAfter = builder.maxRetryAfter;
+        this.retryableOperationStatuses = builder.retryableOperationStatuses;
+        this.retryableRequestStatuses = builder.retryableRequestStatuses;
+        this.idempotencyRule = builder.idempotencyRule;
+        this.retryBudget = builder.retryBudget != null ? builder.retryBudget : RetryBudget.createInstance();
+    }
+
+    /**
+     * Creates a new {@link Builder}, initialized with the defaults.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder createBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the {@link RetryBudget} shared by the operations executed by this instance.
+     *
+     * @return the {@link RetryBudget}.
+     */
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Performs the given attempt, retrying it as described {@link RetryExecutor above}, and blocking the current
+     * thread during backoff. If the thread is interrupted during backoff, the interrupt status is restored, and a
+     * result representing the interruption is returned.
+     *
+     * @param request
+     *     the request object, which is passed to each attempt.
+     * @param attempt
+     *     performs an attempt, e.g., by sending the request via an {@link HttpOperationClient}.
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     * @return the result of the last attempt, which the caller must close.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public <R, S, T, X extends Exception> HttpOperationResult<R,S,T,X> execute(
+        R request,
+        Function<? super R, ? extends HttpOperationResult<R,S,T,X>> attempt
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(attempt, "attempt");
+        retryBudget.recordRequest();
+        for (int retries = 0; ; retries++) {
+            HttpOperationResult<R,S,T,X> result = attempt.apply(request);
+            long delayNanos;
+            try {
+                delayNanos = getRetryDelayNanos(request, result, retries);
+            }
+            catch (RuntimeException | Error e) {
+                result.close();
+                throw e;
+            }
+            if (delayNanos < 0) {
+                return result;
+            }
+            result.close();
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return HttpOperationResult.createInstanceForRequestInterrupted(request, e);
+            }
+        }
+    }
+
+    /**
+     * Performs the given asynchronous attempt, retrying it as described {@link RetryExecutor above} without blocking
+     * any thread during backoff. If the returned future is cancelled, no further attempts are made, and the result of
+     * any attempt in progress is closed when it completes. If an attempt completes exceptionally, the returned future
+     * is completed with the same Exception; if the attempt or the retry decision otherwise fails, the returned future
+     * is completed exceptionally, and the attempt's result, if any, is closed.
+     *
+     * @param request
+     *     the request object, which is passed to each attempt.
+     * @param attempt
+     *     starts an attempt, e.g., by sending the request asynchronously via an {@link HttpOperationClient}.
+     * @param <R>
+     *     the type of request object.
+     * @param <S>
+     *     the type of response object.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     * @return a {@link CompletableFuture} that will be completed with the result of the last attempt, which the caller
+     *     must close.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public <R, S, T, X extends Exception> CompletableFuture<HttpOperationResult<R,S,T,X>> executeAsync(
+        R request,
+        Function<? super R, ? extends CompletionStage<HttpOperationResult<R,S,T,X>>> attempt
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(attempt, "attempt");
+        retryBudget.recordRequest();
+        CompletableFuture<HttpOperationResult<R,S,T,X>> ret = new CompletableFuture<>();
+        attemptAsync(request, attempt, 0, ret);
+        return ret;
+    }
+
+    private <R, S, T, X extends Exception> void attemptAsync(
+        R request,
+        Function<? super R, ? extends CompletionStage<HttpOperationResult<R,S,T,X>>> attempt,
+        int retries,
+        CompletableFuture<HttpOperationResult<R,S,T,X>> ret
+    ) {
+        if (ret.isDone()) {
+            return;
+        }
+        CompletionStage<HttpOperationResult<R,S,T,X>> stage;
+        try {
+            stage = Objects.requireNonNull(attempt.apply(request), "stage");
+        }
+        catch (RuntimeException e) {
+            ret.completeExceptionally(e);
+            return;
+        }
+        stage.whenComplete((result, error) -> {
+            if (error != null) {
+                ret.completeExceptionally(error);
+                return;
+            }
+            if (result == null) {
+                ret.completeExceptionally(new NullPointerException("The attempt completed with a null result"));
+                return;
+            }
+            long delayNanos;
+            try {
+                delayNanos = ret.isDone() ? -1 : getRetryDelayNanos(request, result, retries);
+            }
+            catch (Throwable t) {
+                // Otherwise, this would be lost in the attempt's stage, and the returned future would never complete.
+                result.close();
+                ret.completeExceptionally(t);
+                return;
+            }
+            if (delayNanos < 0) {
+                if (!ret.complete(result)) {
+                    result.close();
+                }
+                return;
+            }
+            result.close();
+            CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS)
+                .execute(() -> attemptAsync(request, attempt, retries + 1, ret));
+        });
+    }
+
+    /**
+     * Returns the delay requested by the Retry-After header in the given headers, which may be either a number of
+     * seconds or an HTTP-date.
+     *
+     * @param headers
+     *     the response headers.
+     * @return the requested delay, which is zero if the date has passed, or null if there is no valid Retry-After
+     *     header.
+     * @throws NullPointerException
+     *     if the headers object is null.
+     */
+    public static Duration getRetryAfter(HttpHeaderCollection headers) {
+        String value = headers.getFirstValue(HttpHeaders.RETRY_AFTER);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        if (!value.isEmpty() && value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            // Anything too large to parse is far too long to wait.
+            return value.length() > 18 ? FOREVER : Duration.ofSeconds(Long.parseLong(value));
+        }
+        try {
+            Instant date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration ret = Duration.between(Instant.now(), date);
+            return ret.isNegative() ? Duration.ZERO : ret;
+        }
+        catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Returns the delay before retrying the request that produced the given result, or -1 if it should not be retried.
+     */
+    private long getRetryDelayNanos(Object request, HttpOperationResult<?,?,?,?> result, int retries) {
+        if (retries + 1 >= maxAttempts) {
+            return -1;
+        }
+        Duration retryAfter = null;
+        OperationStatus status = result.getOperationStatus();
+        if (status == OperationStatus.NO_RESPONSE) {
+            if (!retryableRequestStatuses.contains(result.getRequestStatus())) {
+                return -1;
+            }
+        }
+        else {
+            if (!retryableOperationStatuses.contains(status)) {
+                return -1;
+            }
+            retryAfter = getRetryAfter(result.getResponseHeaders());
+            if (retryAfter != null && retryAfter.compareTo(maxRetryAfter) > 0) {
+                return -1;
+            }
+        }
+        if (!idempotencyRule.test(request) || !retryBudget.tryAcquire()) {
+            return -1;
+        }
+        double backoff = initialBackoffNanos * Math.pow(backoffMultiplier, retries);
+        long delayNanos = ThreadLocalRandom.current().nextLong((long) Math.min(backoff, maxBackoffNanos) + 1);
+        return retryAfter == null ? delayNanos : Math.max(delayNanos, retryAfter.toNanos());
+    }
+
+    /**
+     * Limits retries to a fraction of requests, so that retries cannot multiply the load on a service that is failing.
+     * The budget is a token bucket: each request deposits the retry ratio (e.g., 0.1), each retry withdraws one token,
+     * and the balance is capped, which allows a burst of retries after a quiet period but limits sustained retries to
+     * the given fraction of requests. The bucket starts full, so that a client that has made few requests can still
+     * retry. A budget may be shared by several {@link RetryExecutor}s.
+     */
+    public static final class RetryBudget {
+
+        /**
+         * The default fraction of requests that may be retried.
+         */
+        public static final double DEFAULT_RETRY_RATIO = 0.1;
+
+        /**
+         * The default maximum number of retries that may be banked.
+         */
+        public static final int DEFAULT_MAX_BALANCE = 10;
+
+        /*
+         * Tokens are counted in thousandths, so that fractional deposits can be made atomically.
+         */
+        private static final long SCALE = 1000;
+
+        private final long deposit;
+
+        private final long maxBalance;
+
+        private final AtomicLong balance;
+
+        private RetryBudget(double retryRatio, int maxBalance) {
+            this.deposit = Math.round(retryRatio * SCALE);
+            this.maxBalance = maxBalance * SCALE;
+            this.balance = new AtomicLong(this.maxBalance);
+        }
+
+        /**
+         * Creates a new budget with the {@link #DEFAULT_RETRY_RATIO default ratio} and
+         * {@link #DEFAULT_MAX_BALANCE default maximum balance}.
+         *
+         * @return a new budget.
+         */
+        public static RetryBudget createInstance() {
+            return createInstance(DEFAULT_RETRY_RATIO, DEFAULT_MAX_BALANCE);
+        }
+
+        /**
+         * Creates a new budget.
+         *
+         * @param retryRatio
+         *     the fraction of requests that may be retried, which must be non-negative; it may exceed 1 if requests
+         *     may be retried more than once.
+         * @param maxBalance
+         *     the maximum number of retries that may be banked, which must be non-negative.
+         * @return a new budget.
+         * @throws IllegalArgumentException
+         *     if either argument is invalid.
+         */
+        public static RetryBudget createInstance(double retryRatio, int maxBalance) {
+            if (!(retryRatio >= 0 && retryRatio <= 1000)) {
+                throw new IllegalArgumentException("retryRatio must be between 0 and 1000: " + retryRatio);
+            }
+            if (maxBalance < 0) {
+                throw new IllegalArgumentException("maxBalance must not be negative: " + maxBalance);
+            }
+            return new RetryBudget(retryRatio, maxBalance);
+        }
+
+        /**
+         * Returns the number of retries currently available.
+         *
+         * @return the number of retries currently available, which may be fractional.
+         */
+        public double getBalance() {
+            return (double) balance.get() / SCALE;
+        }
+
+        /*
+         * Deposits the retry ratio for a new request.
+         */
+        void recordRequest() {
+            balance.accumulateAndGet(deposit, (current, d) -> Math.min(maxBalance, current + d));
+        }
+
+        /*
+         * Withdraws a token for a retry, if one is available.
+         */
+        boolean tryAcquire() {
+            long current;
+            do {
+                current = balance.get();
+                if (current < SCALE) {
+                    return false;
+                }
+            } while (!balance.compareAndSet(current, current - SCALE));
+            return true;
+        }
+
+    }
+
+    /**
+     * Builds {@link RetryExecutor} instances.
+     */
+    public static final class Builder {
+
+        private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+        private Duration initialBackoff = DEFAULT_INITIAL_BACKOFF;
+
+        private Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+
+        private double backoffMultiplier = 2.0;
+
+        private Duration maxRetryAfter = DEFAULT_MAX_RETRY_AFTER;
+
+        private Set<OperationStatus> retryableOperationStatuses = DEFAULT_RETRYABLE_OPERATION_STATUSES;
+
+        private Set<RequestStatus> retryableRequestStatuses = DEFAULT_RETRYABLE_REQUEST_STATUSES;
+
+        private Predicate<Object> idempotencyRule = DEFAULT_IDEMPOTENCY_RULE;
+
+        private RetryBudget retryBudget;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of attempts, including the first.
+         *
+         * @param maxAttempts
+         *     the maximum number of attempts, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setMaxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the exponential backoff: the maximum delay before the nth retry is
+         * {@code min(maxBackoff, initialBackoff * multiplier^(n - 1))}.
+         *
+         * @param initialBackoff
+         *     the maximum delay before the first retry, which must not be negative.
+         * @param maxBackoff
+         *     the maximum delay before any retry, which must not be less than the initial backoff.
+         * @param multiplier
+         *     the factor by which the backoff grows for each retry, which must be at least 1.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if any value is invalid.
+         */
+        public Builder setBackoff(Duration initialBackoff, Duration maxBackoff, double multiplier) {
+            if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0 || !(multiplier >= 1)) {
+                throw new IllegalArgumentException(
+                    "Invalid backoff: " + initialBackoff + ", " + maxBackoff + ", " + multiplier
+                );
+            }
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+            this.backoffMultiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Sets the maximum delay requested by a Retry-After header that will be honoured. A response that asks for a
+         * longer delay is not retried.
+         *
+         * @param maxRetryAfter
+         *     the maximum delay, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is negative.
+         */
+        public Builder setMaxRetryAfter(Duration maxRetryAfter) {
+            if (maxRetryAfter.isNegative()) {
+                throw new IllegalArgumentException("maxRetryAfter must not be negative: " + maxRetryAfter);
+            }
+            this.maxRetryAfter = maxRetryAfter;
+            return this;
+        }
+
+        /**
+         * Sets the {@link OperationStatus}es of received responses that are retried. For example, adding
+         * {@link OperationStatus#FAILURE} retries responses that the context-specific client code treated as errors,
+         * such as 429 (Too Many Requests). {@link OperationStatus#NO_RESPONSE} is ignored here, since such attempts are
+         * governed by the {@link #setRetryableRequestStatuses retryable request statuses}.
+         *
+         * @param retryableOperationStatuses
+         *     the operation statuses that are retried.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the set is null.
+         */
+        public Builder setRetryableOperationStatuses(Set<OperationStatus> retryableOperationStatuses) {
+            this.retryableOperationStatuses = Sets.immutableEnumSet(retryableOperationStatuses);
+            return this;
+        }
+
+        /**
+         * Sets the {@link RequestStatus}es of attempts that received no response that are retried.
+         *
+         * @param retryableRequestStatuses
+         *     the request statuses that are retried.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the set is null.
+         */
+        public Builder setRetryableRequestStatuses(Set<RequestStatus> retryableRequestStatuses) {
+            this.retryableRequestStatuses = Sets.immutableEnumSet(retryableRequestStatuses);
+            return this;
+        }
+
+        /**
+         * Sets the rule that determines whether a request object is idempotent, and so may be retried.
+         *
+         * @param idempotencyRule
+         *     returns true if the given request object may be retried.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the rule is null.
+         */
+        public Builder setIdempotencyRule(Predicate<Object> idempotencyRule) {
+            this.idempotencyRule = Objects.requireNonNull(idempotencyRule, "idempotencyRule");
+            return this;
+        }
+
+        /**
+         * Sets the {@link RetryBudget}, which may be shared with other instances. By default, each instance built gets
+         * a new budget with the default settings.
+         *
+         * @param retryBudget
+         *     the {@link RetryBudget}, or null to create a new one with the default settings.
+         * @return this builder.
+         */
+        public Builder setRetryBudget(RetryBudget retryBudget) {
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        /**
+         * Creates a new {@link RetryExecutor} from the current state of this builder.
+         *
+         * @return a new {@link RetryExecutor}.
+         */
+        public RetryExecutor build() {
+            return new RetryExecutor(this);
+        }
+
+    }
+
+}
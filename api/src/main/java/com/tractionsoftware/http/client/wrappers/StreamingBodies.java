@@ -0,0 +1,353 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates streaming result objects, i.e., {@link ReadableByteChannel}s and {@link Flow.Publisher}s of
+ * {@link ByteBuffer}s, over the {@link InputStream} of a response body, so that a body can be processed as it arrives
+ * rather than being materialized on the heap. {@link InputStream}s are themselves also supported as streaming result
+ * objects.
+ *
+ * <p>
+ * When an {@link HttpOperationResult} whose result object is one of these is closed, any unread part of the body is
+ * consumed according to the applicable {@link DrainPolicy}. For a {@link Flow.Publisher} that has not been subscribed
+ * to, the underlying stream is consumed directly; once it has been subscribed to, the stream belongs to the
+ * subscriber, and is closed when the subscription is cancelled or completes.
+ *
+ * @author Dave Shepperton
+ */
+public final class StreamingBodies {
+
+    // Not instantiable.
+    private StreamingBodies() {
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /*
+     * Runs each publisher's reads on a new virtual thread, so that blocking reads do not occupy a pooled thread.
+     */
+    private static final Executor VIRTUAL_THREAD_EXECUTOR = Thread::startVirtualThread;
+
+    /**
+     * Creates a {@link ReadableByteChannel} that reads from the given {@link InputStream}, and closes it when it is
+     * closed.
+     *
+     * @param input
+     *     the {@link InputStream} to read from.
+     * @return a new {@link ReadableByteChannel}.
+     * @throws NullPointerException
+     *     if the input is null.
+     */
+    public static ReadableByteChannel createChannel(InputStream input) {
+        return new InputStreamChannel(Objects.requireNonNull(input, "input"));
+    }
+
+    /**
+     * Creates a {@link Flow.Publisher} that publishes the content of the given {@link InputStream} to a single
+     * subscriber, reading on a new virtual thread as demand arrives.
+     *
+     * @param input
+     *     the {@link InputStream} to read from.
+     * @return a new {@link Flow.Publisher}.
+     * @throws NullPointerException
+     *     if the input is null.
+     */
+    public static Flow.Publisher<List<ByteBuffer>> createPublisher(InputStream input) {
+        return createPublisher(input, VIRTUAL_THREAD_EXECUTOR);
+    }
+
+    /**
+     * Creates a {@link Flow.Publisher} that publishes the content of the given {@link InputStream} to a single
+     * subscriber, reading via the given {@link Executor} as demand arrives. Since the reads block, the executor should
+     * not be one whose threads are shared with non-blocking work.
+     *
+     * @param input
+     *     the {@link InputStream} to read from.
+     * @param executor
+     *     the {@link Executor} via which to read.
+     * @return a new {@link Flow.Publisher}.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public static Flow.Publisher<List<ByteBuffer>> createPublisher(InputStream input, Executor executor) {
+        return new InputStreamPublisher(
+            Objects.requireNonNull(input, "input"),
+            Objects.requireNonNull(executor, "executor")
+        );
+    }
+
+    /**
+     * If the given result object is a {@link ReadableByteChannel} or {@link Flow.Publisher} created by this class,
+     * whose underlying {@link InputStream} is not owned by a subscriber, claims and returns that stream, so that it can
+     * be consumed or abandoned directly. A claimed publisher can no longer be subscribed to.
+     *
+     * @param body
+     *     the result object.
+     * @return the underlying {@link InputStream}, or null if there is none that can be claimed.
+     */
+    public static InputStream claimSourceStream(Object body) {
+        if (body instanceof InputStreamChannel channel) {
+            return channel.input;
+        }
+        if (body instanceof InputStreamPublisher publisher && publisher.subscribed.compareAndSet(false, true)) {
+            return publisher.input;
+        }
+        return null;
+    }
+
+    /**
+     * A {@link ReadableByteChannel} over an {@link InputStream}.
+     */
+    private static final class InputStreamChannel implements ReadableByteChannel {
+
+        private final InputStream input;
+
+        private final Object lock = new Object();
+
+        private byte[] buffer;
+
+        private volatile boolean open = true;
+
+        private InputStreamChannel(InputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            synchronized (lock) {
+                if (!open) {
+                    throw new ClosedChannelException();
+                }
+                int len = Math.min(dst.remaining(), BUFFER_SIZE);
+                if (len == 0) {
+                    return 0;
+                }
+                if (dst.hasArray()) {
+                    int n = input.read(dst.array(), dst.arrayOffset() + dst.position(), len);
+                    if (n > 0) {
+                        dst.position(dst.position() + n);
+                    }
+                    return n;
+                }
+                if (buffer == null) {
+                    buffer = new byte[BUFFER_SIZE];
+                }
+                int n = input.read(buffer, 0, len);
+                if (n > 0) {
+                    dst.put(buffer, 0, n);
+                }
+                return n;
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            open = false;
+            input.close();
+        }
+
+    }
+
+    /**
+     * A single-subscriber {@link Flow.Publisher} over an {@link InputStream}.
+     */
+    private static final class InputStreamPublisher implements Flow.Publisher<List<ByteBuffer>> {
+
+        private final InputStream input;
+
+        private final Executor executor;
+
+        /*
+         * Whether the stream has been claimed, either by a subscriber or via claimSourceStream().
+         */
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+
+        private InputStreamPublisher(InputStream input, Executor executor) {
+            this.input = input;
+            this.executor = executor;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super List<ByteBuffer>> subscriber) {
+            Objects.requireNonNull(subscriber, "subscriber");
+            if (subscribed.compareAndSet(false, true)) {
+                ReadingSubscription subscription = new ReadingSubscription(subscriber);
+                subscriber.onSubscribe(subscription);
+            }
+            else {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("Already subscribed or consumed: " + input));
+            }
+        }
+
+        /**
+         * Reads from the stream as demand arrives, with at most one read loop running at a time.
+         */
+        private final class ReadingSubscription implements Flow.Subscription, Runnable {
+
+            private final Flow.Subscriber<? super List<ByteBuffer>> subscriber;
+
+            private final AtomicLong demand = new AtomicLong();
+
+            /*
+             * The number of signals (requests or cancellation) that the read loop has yet to observe; the loop runs
+             * while this is non-zero.
+             */
+            private final AtomicInteger pending = new AtomicInteger();
+
+            private volatile boolean cancelled;
+
+            /*
+             * The error caused by a non-positive request, which is delivered by the read loop, so that it is not
+             * signalled concurrently with onNext.
+             */
+            private volatile Throwable requestError;
+
+            private boolean done;
+
+            private ReadingSubscription(Flow.Subscriber<? super List<ByteBuffer>> subscriber) {
+                this.subscriber = subscriber;
+            }
+
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    if (requestError == null) {
+                        requestError = new IllegalArgumentException("non-positive request: " + n);
+                    }
+                }
+                else {
+                    demand.getAndAccumulate(n, (current, added) -> {
+                        long sum = current + added;
+                        return sum < 0 ? Long.MAX_VALUE : sum;
+                    });
+                }
+                signal();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                signal();
+            }
+
+            private void signal() {
+                if (pending.getAndIncrement() == 0) {
+                    try {
+                        executor.execute(this);
+                    }
+                    catch (RuntimeException e) {
+                        cancelled = true;
+                        closeInput();
+                        subscriber.onError(e);
+                    }
+                }
+            }
+
+            @Override
+            public void run() {
+                int missed = 1;
+                while (!done) {
+                    Throwable error = requestError;
+                    if (error != null) {
+                        done = true;
+                        closeInput();
+                        subscriber.onError(error);
+                        return;
+                    }
+                    if (cancelled) {
+                        done = true;
+                        closeInput();
+                        return;
+                    }
+                    if (demand.get() > 0) {
+                        if (readNext()) {
+                            continue;
+                        }
+                        return;
+                    }
+                    missed = pending.addAndGet(-missed);
+                    if (missed == 0) {
+                        return;
+                    }
+                }
+            }
+
+            /*
+             * Reads and publishes the next buffer, returning false if the stream has ended or failed.
+             */
+            private boolean readNext() {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                try {
+                    n = input.read(buffer);
+                }
+                catch (IOException e) {
+                    done = true;
+                    closeInput();
+                    subscriber.onError(e);
+                    return false;
+                }
+                if (n < 0) {
+                    done = true;
+                    closeInput();
+                    subscriber.onComplete();
+                    return false;
+                }
+                demand.decrementAndGet();
+                subscriber.onNext(List.of(ByteBuffer.wrap(buffer, 0, n)));
+                return true;
+            }
+
+            private void closeInput() {
+                HttpOperationResult.close(input);
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.benchmarks;
+
+import com.google.common.net.HttpHeaders;
+import com.tractionsoftware.http.client.wrappers.HttpHeaderCollection;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import com.tractionsoftware.http.client.wrappers.apachehc5.ApacheHC5Results;
+import com.tractionsoftware.http.client.wrappers.javahc.JavaResults;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of wrapping a response from each supported HTTP client API in an {@link HttpOperationResult}, and
+ * converting its headers to an {@link HttpHeaderCollection}, both for the common case of reading a couple of headers
+ * and for the case of enumerating all of them.
+ *
+ * @author Dave Shepperton
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AdapterHeadersBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int headerCount;
+
+    private HttpResponse<String> javaResponse;
+
+    private HttpGet apacheRequest;
+
+    private ClassicHttpResponse apacheResponse;
+
+    @Setup
+    public void setUp() {
+        javaResponse = new BenchmarkFixtures.FixedJavaResponse<>(200, BenchmarkFixtures.headerMap(headerCount), "body");
+        apacheRequest = new HttpGet(BenchmarkFixtures.URI);
+        apacheResponse = new BasicClassicHttpResponse(200);
+        for (String[] header : BenchmarkFixtures.headers(headerCount)) {
+            apacheResponse.addHeader(header[0], header[1]);
+        }
+    }
+
+    @Benchmark
+    public void javaReadContentTypeAndETag(Blackhole bh) {
+        try (HttpOperationResult<HttpRequest,HttpResponse<String>,String,Exception> result =
+                 JavaResults.createResultForSuccessfulOperation(BenchmarkFixtures.JAVA_REQUEST, javaResponse)) {
+            readContentTypeAndETag(result.getResponseHeaders(), bh);
+        }
+    }
+
+    @Benchmark
+    public int javaReadAll() {
+        try (HttpOperationResult<HttpRequest,HttpResponse<String>,String,Exception> result =
+                 JavaResults.createResultForSuccessfulOperation(BenchmarkFixtures.JAVA_REQUEST, javaResponse)) {
+            return result.getResponseHeaders().all().size();
+        }
+    }
+
+    @Benchmark
+    public void apacheReadContentTypeAndETag(Blackhole bh) {
+        try (HttpOperationResult<org.apache.hc.core5.http.HttpRequest,ClassicHttpResponse,String,Exception> result =
+                 ApacheHC5Results.createResultForSuccessfulOperation(apacheRequest, apacheResponse, "body")) {
+            readContentTypeAndETag(result.getResponseHeaders(), bh);
+        }
+    }
+
+    @Benchmark
+    public int apacheReadAll() {
+        try (HttpOperationResult<org.apache.hc.core5.http.HttpRequest,ClassicHttpResponse,String,Exception> result =
+                 ApacheHC5Results.createResultForSuccessfulOperation(apacheRequest, apacheResponse, "body")) {
+            return result.getResponseHeaders().all().size();
+        }
+    }
+
+    private static void readContentTypeAndETag(HttpHeaderCollection headers, Blackhole bh) {
+        bh.consume(headers.getFirstValue(HttpHeaders.CONTENT_TYPE));
+        bh.consume(headers.getFirstValue(HttpHeaders.ETAG));
+    }
+
+}
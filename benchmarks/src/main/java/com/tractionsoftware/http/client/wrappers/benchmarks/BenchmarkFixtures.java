@@ -0,0 +1,187 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.benchmarks;
+
+import com.google.common.net.HttpHeaders;
+import com.tractionsoftware.http.client.wrappers.HttpHeaderCollection;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+
+/**
+ * Shared fixtures for the benchmarks: realistic header names and values, and minimal response objects that do not
+ * require any network I/O.
+ *
+ * @author Dave Shepperton
+ */
+final class BenchmarkFixtures {
+
+    // Not instantiable.
+    private BenchmarkFixtures() {
+    }
+
+    /*
+     * Well-known headers that commonly appear in responses; any remaining headers are given custom names.
+     */
+    private static final String[][] COMMON_HEADERS = {
+        {HttpHeaders.CONTENT_TYPE, "application/json; charset=utf-8"},
+        {HttpHeaders.CONTENT_LENGTH, "48213"},
+        {HttpHeaders.DATE, "Thu, 15 Oct 2026 10:00:00 GMT"},
+        {HttpHeaders.CACHE_CONTROL, "private, max-age=60"},
+        {HttpHeaders.ETAG, "\"5d8c72a5edda8d6a\""},
+        {HttpHeaders.LAST_MODIFIED, "Wed, 14 Oct 2026 09:00:00 GMT"},
+        {HttpHeaders.VARY, "Accept-Encoding"},
+        {HttpHeaders.SERVER, "nginx"},
+        {HttpHeaders.CONNECTION, "keep-alive"},
+        {HttpHeaders.STRICT_TRANSPORT_SECURITY, "max-age=31536000"},
+        {HttpHeaders.X_CONTENT_TYPE_OPTIONS, "nosniff"},
+        {HttpHeaders.SET_COOKIE, "session=abc123; Path=/; HttpOnly"},
+        {HttpHeaders.SET_COOKIE, "tracking=xyz789; Path=/"},
+    };
+
+    static final URI URI = java.net.URI.create("https://example.com/api/items");
+
+    static final HttpRequest JAVA_REQUEST = HttpRequest.newBuilder(URI).GET().build();
+
+    /**
+     * Returns the given number of header name/value pairs, starting with common well-known headers, and continuing
+     * with custom headers, some of which repeat.
+     */
+    static List<String[]> headers(int count) {
+        List<String[]> ret = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (i < COMMON_HEADERS.length) {
+                ret.add(COMMON_HEADERS[i]);
+            }
+            else {
+                ret.add(new String[] {"X-Custom-Header-" + (i % 50), "value-" + i});
+            }
+        }
+        return ret;
+    }
+
+    static HttpHeaderCollection headerCollection(int count) {
+        HttpHeaderCollection ret = HttpHeaderCollection.createEmptyInstance();
+        for (String[] header : headers(count)) {
+            ret.add(header[0], header[1]);
+        }
+        return ret;
+    }
+
+    static Map<String,List<String>> headerMap(int count) {
+        Map<String,List<String>> ret = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String[] header : headers(count)) {
+            ret.computeIfAbsent(header[0], k -> new ArrayList<>(1)).add(header[1]);
+        }
+        return ret;
+    }
+
+    /**
+     * A {@link HttpOperationResult.ResponseAdapter} with a fixed status code and headers, independent of any HTTP
+     * client API.
+     */
+    static final class FixedResponseAdapter extends HttpOperationResult.AbstractResponseAdapter<Object,String> {
+
+        private final int statusCode;
+
+        private final HttpHeaderCollection headers;
+
+        FixedResponseAdapter(int statusCode, HttpHeaderCollection headers, String result) {
+            super(statusCode, result);
+            this.statusCode = statusCode;
+            this.headers = headers;
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpHeaderCollection headers() {
+            return headers;
+        }
+
+    }
+
+    /**
+     * A {@link HttpResponse} from Java's built-in HTTP client API with a fixed status code, headers and body.
+     */
+    static final class FixedJavaResponse<T> implements HttpResponse<T> {
+
+        private final int statusCode;
+
+        private final java.net.http.HttpHeaders headers;
+
+        private final T body;
+
+        FixedJavaResponse(int statusCode, Map<String,List<String>> headers, T body) {
+            this.statusCode = statusCode;
+            this.headers = java.net.http.HttpHeaders.of(headers, (name, value) -> true);
+            this.body = body;
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return JAVA_REQUEST;
+        }
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public java.net.http.HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public T body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return URI;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.benchmarks;
+
+import com.google.common.net.MediaType;
+import com.tractionsoftware.http.client.wrappers.ContentTypes;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ContentTypes} with {@link MediaType#parse(String)} for parsing a Content-Type header value and
+ * resolving its charset, as is done for each result.
+ *
+ * @author Dave Shepperton
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ContentTypesBenchmark {
+
+    @Param({"application/json; charset=utf-8", "text/html", "multipart/form-data; boundary=\"----abc\""})
+    public String contentType;
+
+    @Benchmark
+    public Charset guavaCharset() {
+        return MediaType.parse(contentType).charset().or(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Charset cachedCharset() {
+        return ContentTypes.getCharset(contentType, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public MediaType guavaParse() {
+        return MediaType.parse(contentType);
+    }
+
+    @Benchmark
+    public MediaType cachedParse() {
+        return ContentTypes.parse(contentType);
+    }
+
+}
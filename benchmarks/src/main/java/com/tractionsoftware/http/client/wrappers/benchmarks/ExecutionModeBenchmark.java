@@ -0,0 +1,148 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tractionsoftware.http.client.wrappers.HttpClientSettings;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import com.tractionsoftware.http.client.wrappers.javahc.JavaHttpOperationClient;
+import com.tractionsoftware.http.client.wrappers.javahc.JavaResults;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JavaHttpOperationClient.ExecutionMode#PLATFORM_THREADS} with
+ * {@link JavaHttpOperationClient.ExecutionMode#VIRTUAL_THREADS} by submitting a large number of concurrent blocking
+ * requests to a local server that responds after a fixed delay, and waiting for all of their results. Each operation
+ * is one full batch of requests.
+ *
+ * <p>
+ * With 10,000 concurrent requests over HTTP/1.1, the client opens up to as many connections, so the open file limit
+ * may need to be raised (e.g., {@code ulimit -n 65536}) before running this benchmark.
+ *
+ * @author Dave Shepperton
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+
+    private static final byte[] RESPONSE_BODY = "ok".getBytes(StandardCharsets.US_ASCII);
+
+    @Param({"PLATFORM_THREADS", "VIRTUAL_THREADS"})
+    public JavaHttpOperationClient.ExecutionMode executionMode;
+
+    @Param({"10000"})
+    public int concurrency;
+
+    @Param({"20"})
+    public int serverLatencyMillis;
+
+    private ExecutorService serverExecutor;
+
+    private HttpServer server;
+
+    private JavaHttpOperationClient client;
+
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), concurrency);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(serverLatencyMillis);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, RESPONSE_BODY.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(RESPONSE_BODY);
+            }
+        });
+        server.start();
+        client = JavaHttpOperationClient.createInstance(
+            HttpClientSettings.createBuilder()
+                .setMaxConnectionsPerRoute(concurrency)
+                .setMaxConnectionsTotal(concurrency)
+                .setConnectTimeout(Duration.ofSeconds(30))
+                .setReadTimeout(Duration.ofSeconds(60))
+                .setPreferHttp2(false)
+                .build(),
+            executionMode
+        );
+        request = HttpRequest.newBuilder(
+            URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/")
+        ).GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+        serverExecutor.close();
+    }
+
+    @Benchmark
+    public int sendConcurrently() {
+        List<CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse<byte[]>,byte[],Exception>>> futures =
+            new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(client.submit(
+                request,
+                HttpResponse.BodyHandlers.ofByteArray(),
+                (request, response) -> response.statusCode() == 200
+                    ? JavaResults.createResultForSuccessfulOperation(request, response)
+                    : JavaResults.createResultForServerError(request, response),
+                Exception::new
+            ));
+        }
+        int succeeded = 0;
+        for (CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse<byte[]>,byte[],Exception>> future : futures) {
+            try (HttpOperationResult<HttpRequest,HttpResponse<byte[]>,byte[],Exception> result = future.join()) {
+                if (result.operationSucceeded()) {
+                    succeeded++;
+                }
+            }
+        }
+        return succeeded;
+    }
+
+}
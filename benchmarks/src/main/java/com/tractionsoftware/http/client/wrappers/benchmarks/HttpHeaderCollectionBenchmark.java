@@ -0,0 +1,93 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.benchmarks;
+
+import com.google.common.net.HttpHeaders;
+import com.tractionsoftware.http.client.wrappers.HttpHeaderCollection;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of populating, querying and modifying an {@link HttpHeaderCollection} at realistic sizes.
+ *
+ * @author Dave Shepperton
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HttpHeaderCollectionBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int headerCount;
+
+    private List<String[]> headers;
+
+    private HttpHeaderCollection populated;
+
+    @Setup
+    public void setUp() {
+        headers = BenchmarkFixtures.headers(headerCount);
+        populated = BenchmarkFixtures.headerCollection(headerCount);
+    }
+
+    @Benchmark
+    public HttpHeaderCollection add() {
+        HttpHeaderCollection ret = HttpHeaderCollection.createEmptyInstance();
+        for (String[] header : headers) {
+            ret.add(header[0], header[1]);
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public void getFirstValue(Blackhole bh) {
+        bh.consume(populated.getFirstValue(HttpHeaders.CONTENT_TYPE));
+        bh.consume(populated.getFirstValue("etag"));
+        bh.consume(populated.getFirstValue("X-Not-Present"));
+    }
+
+    @Benchmark
+    public void getValues(Blackhole bh) {
+        bh.consume(populated.getValues(HttpHeaders.SET_COOKIE));
+        bh.consume(populated.getValues("x-custom-header-20"));
+    }
+
+    @Benchmark
+    public HttpHeaderCollection set() {
+        HttpHeaderCollection ret = BenchmarkFixtures.headerCollection(headerCount);
+        ret.set(HttpHeaders.CONTENT_TYPE, "text/plain");
+        ret.set("X-Custom-Header-20", "replaced");
+        return ret;
+    }
+
+    @Benchmark
+    public HttpHeaderCollection clear() {
+        HttpHeaderCollection ret = BenchmarkFixtures.headerCollection(headerCount);
+        ret.clear(HttpHeaders.SET_COOKIE);
+        ret.clear("X-Custom-Header-20");
+        return ret;
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.benchmarks;
+
+import com.tractionsoftware.http.client.wrappers.HttpHeaderCollection;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of creating and closing an {@link HttpOperationResult} with each of its factory constructor
+ * methods, using a {@link HttpOperationResult.ResponseAdapter} that is independent of any HTTP client API.
+ *
+ * @author Dave Shepperton
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HttpOperationResultBenchmark {
+
+    private static final String REQUEST = "GET " + BenchmarkFixtures.URI;
+
+    private HttpHeaderCollection headers;
+
+    private IOException ioError;
+
+    private InterruptedException interruptedError;
+
+    private Exception error;
+
+    @Setup
+    public void setUp() {
+        headers = BenchmarkFixtures.headerCollection(20);
+        ioError = new IOException("connection reset");
+        interruptedError = new InterruptedException("interrupted");
+        error = new Exception("failed");
+    }
+
+    @Benchmark
+    public int successfulOperation() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createResultForSuccessfulOperation(REQUEST, adapter(200))) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    @Benchmark
+    public int operationFailureWarning() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createResultForOperationFailureWarning(REQUEST, adapter(404), error)) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    @Benchmark
+    public int operationFailure() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createResultForOperationFailure(REQUEST, adapter(400), error)) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    @Benchmark
+    public int responseProcessingError() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createInstanceForResponseProcessingError(REQUEST, adapter(200), error)) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    @Benchmark
+    public int serverError() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createResultForServerError(REQUEST, adapter(503))) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    @Benchmark
+    public int serverErrorWithException() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createResultForServerError(REQUEST, adapter(503), ioError)) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    @Benchmark
+    public int requestSetupError() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createInstanceForRequestSetupError(error)) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    @Benchmark
+    public int ioFailure() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createInstanceForIOFailure(REQUEST, ioError)) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    @Benchmark
+    public int requestInterrupted() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createInstanceForRequestInterrupted(REQUEST, interruptedError)) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    @Benchmark
+    public int otherError() {
+        try (HttpOperationResult<String,Object,String,Exception> result =
+                 HttpOperationResult.createInstanceForOtherError(REQUEST, error)) {
+            return result.getResponseStatusCode();
+        }
+    }
+
+    private HttpOperationResult.ResponseAdapter<Object,String> adapter(int statusCode) {
+        return new BenchmarkFixtures.FixedResponseAdapter(statusCode, headers, "body");
+    }
+
+}
@@ -0,0 +1,380 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.javahc;
+
+import com.tractionsoftware.http.client.wrappers.HttpClientSettings;
+import com.tractionsoftware.http.client.wrappers.HttpOperationClient;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * An {@link HttpOperationClient} backed by Java's built-in {@link HttpClient}.
+ *
+ * <p>
+ * The built-in client manages its connection pool internally, and only allows it to be tuned JVM-wide via the
+ * {@code jdk.httpclient.connectionPoolSize} and {@code jdk.httpclient.keepalive.timeout} system properties, so the
+ * pool sizes and keep-alive in the {@link HttpClientSettings} are ignored. The read timeout is applied as the
+ * {@link HttpRequest#timeout() request timeout} of any request that does not have one, which limits the time until
+ * the response headers are received. The executor, if any, is used for the client's asynchronous tasks and
+ * dependent actions, and for the blocking operations run by
+ * {@link #submit(HttpRequest, HttpResponse.BodyHandler, BiFunction, Function)}.
+ *
+ * <p>
+ * In the {@link ExecutionMode#VIRTUAL_THREADS} mode, the client instead uses an executor that runs each task on a new
+ * virtual thread, so that blocking-style code can be run at the scale of asynchronous code: each operation submitted
+ * via {@link #submit(HttpRequest, HttpResponse.BodyHandler, BiFunction, Function)} blocks only its own virtual thread,
+ * and its {@link HttpOperationResult} is created on that thread.
+ *
+ * @author Dave Shepperton
+ */
+public final class JavaHttpOperationClient implements HttpOperationClient {
+
+    /**
+     * Determines the threads on which a client runs its blocking operations and asynchronous tasks.
+     */
+    public enum ExecutionMode {
+
+        /**
+         * Uses the executor from the {@link HttpClientSettings}, if any. Otherwise, the {@link HttpClient} uses its
+         * default executor, and blocking operations are run on a cached pool of platform threads.
+         */
+        PLATFORM_THREADS,
+
+        /**
+         * Runs each blocking operation and asynchronous task on a new virtual thread. Any executor in the
+         * {@link HttpClientSettings} is ignored.
+         */
+        VIRTUAL_THREADS
+
+    }
+
+    private final HttpClientSettings settings;
+
+    private final ExecutionMode executionMode;
+
+    private final HttpClient client;
+
+    private final Executor executor;
+
+    /*
+     * The executor created by this client, if any, which is shut down when this client is closed.
+     */
+    private final ExecutorService ownedExecutor;
+
+    private JavaHttpOperationClient(HttpClientSettings settings, ExecutionMode executionMode, HttpClient.Builder builder) {
+        this.settings = settings;
+        this.executionMode = executionMode;
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+            this.ownedExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            this.executor = ownedExecutor;
+            builder.executor(executor);
+        }
+        else if (settings.getExecutor() != null) {
+            this.ownedExecutor = null;
+            this.executor = settings.getExecutor();
+            builder.executor(executor);
+        }
+        else {
+            this.ownedExecutor = Executors.newCachedThreadPool();
+            this.executor = ownedExecutor;
+        }
+        this.client = builder.build();
+    }
+
+    /**
+     * Creates a client with the given settings.
+     *
+     * @param settings
+     *     the settings for the client.
+     * @return a new client.
+     * @throws NullPointerException
+     *     if the settings are null.
+     */
+    public static JavaHttpOperationClient createInstance(HttpClientSettings settings) {
+        return createInstance(settings, ExecutionMode.PLATFORM_THREADS, HttpClient.newBuilder());
+    }
+
+    /**
+     * Creates a client with the given settings and execution mode.
+     *
+     * @param settings
+     *     the settings for the client.
+     * @param executionMode
+     *     the execution mode for the client.
+     * @return a new client.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public static JavaHttpOperationClient createInstance(HttpClientSettings settings, ExecutionMode executionMode) {
+        return createInstance(settings, executionMode, HttpClient.newBuilder());
+    }
+
+    /**
+     * Creates a client with the given settings and execution mode, using the given {@link HttpClient.Builder}, which
+     * may already have been configured with other settings (e.g., an authenticator or SSL context). The builder's
+     * connect timeout and version will be overwritten, as will its executor unless the mode is
+     * {@link ExecutionMode#PLATFORM_THREADS} and the settings have no executor.
+     *
+     * @param settings
+     *     the settings for the client.
+     * @param executionMode
+     *     the execution mode for the client.
+     * @param builder
+     *     the builder for the underlying {@link HttpClient}.
+     * @return a new client.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static JavaHttpOperationClient createInstance(HttpClientSettings settings, ExecutionMode executionMode, HttpClient.Builder builder) {
+        Objects.requireNonNull(settings, "settings");
+        Objects.requireNonNull(executionMode, "executionMode");
+        builder.connectTimeout(settings.getConnectTimeout())
+            .version(settings.isPreferHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1);
+        return new JavaHttpOperationClient(settings, executionMode, builder);
+    }
+
+    @Override
+    public HttpClientSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Returns the execution mode of this client.
+     *
+     * @return the execution mode of this client.
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Returns the underlying {@link HttpClient}.
+     *
+     * @return the underlying {@link HttpClient}.
+     */
+    public HttpClient getHttpClient() {
+        return client;
+    }
+
+    /**
+     * Sends the given request, blocking until the response is received, and returns an {@link HttpOperationResult}
+     * created by the given factory, e.g., by examining the response status code and passing the response to
+     * {@link JavaResults#createResultForSuccessfulOperation(HttpRequest, HttpResponse)} or
+     * {@link JavaResults#createResultForServerError(HttpRequest, HttpResponse)}. An {@link IOException} is represented
+     * by {@link HttpOperationResult.RequestStatus#ERROR_IO}, an {@link InterruptedException} by
+     * {@link HttpOperationResult.RequestStatus#ERROR_INTERRUPTED} (and the thread's interrupt status is restored), and
+     * anything else, including an exception thrown by the result factory, by
+     * {@link HttpOperationResult.RequestStatus#ERROR_OTHER}.
+     *
+     * @param request
+     *     the request object.
+     * @param bodyHandler
+     *     the {@link HttpResponse.BodyHandler} for the response body.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for a received response.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a new {@link HttpOperationResult}.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public <T, X extends Exception> HttpOperationResult<HttpRequest,HttpResponse<T>,T,X> send(
+        HttpRequest request,
+        HttpResponse.BodyHandler<T> bodyHandler,
+        BiFunction<? super HttpRequest,? super HttpResponse<T>,HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        Objects.requireNonNull(bodyHandler, "bodyHandler");
+        Objects.requireNonNull(resultFactory, "resultFactory");
+        Objects.requireNonNull(otherErrorFactory, "otherErrorFactory");
+        HttpRequest effectiveRequest = applyReadTimeout(request);
+        HttpResponse<T> response;
+        try {
+            response = client.send(effectiveRequest, bodyHandler);
+        }
+        catch (IOException e) {
+            return JavaResults.createInstanceForRequestIOFailure(effectiveRequest, e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return JavaResults.createInstanceForRequestInterrupted(effectiveRequest, e);
+        }
+        catch (RuntimeException e) {
+            return JavaResults.createInstanceForOtherError(effectiveRequest, otherErrorFactory.apply(e));
+        }
+        try {
+            return Objects.requireNonNull(resultFactory.apply(effectiveRequest, response), "result");
+        }
+        catch (RuntimeException e) {
+            HttpOperationResult.consumeAndClose(response.body());
+            return JavaResults.createInstanceForOtherError(effectiveRequest, otherErrorFactory.apply(e));
+        }
+    }
+
+    /**
+     * Sends the given request asynchronously, and returns a {@link CompletableFuture} that will be completed with an
+     * {@link HttpOperationResult} without blocking any thread while waiting for the response. Errors are represented
+     * as described for {@link #send(HttpRequest, HttpResponse.BodyHandler, BiFunction, Function)}.
+     *
+     * @param request
+     *     the request object.
+     * @param bodyHandler
+     *     the {@link HttpResponse.BodyHandler} for the response body.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for a received response.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult}; cancelling it
+     *     cancels the request.
+     * @throws NullPointerException
+     *     if any argument is null.
+     * @see JavaResults#sendAsync(HttpClient, HttpRequest, HttpResponse.BodyHandler, BiFunction, Function)
+     */
+    public <T, X extends Exception> CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> sendAsync(
+        HttpRequest request,
+        HttpResponse.BodyHandler<T> bodyHandler,
+        BiFunction<? super HttpRequest,? super HttpResponse<T>,HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        return JavaResults.sendAsync(client, applyReadTimeout(request), bodyHandler, resultFactory, otherErrorFactory);
+    }
+
+    /**
+     * Runs {@link #send(HttpRequest, HttpResponse.BodyHandler, BiFunction, Function)} on this client's executor, i.e.,
+     * on a new virtual thread in the {@link ExecutionMode#VIRTUAL_THREADS} mode, and returns a
+     * {@link CompletableFuture} that will be completed with the {@link HttpOperationResult} created on that thread.
+     * If the returned future is cancelled, that thread is interrupted, so the result will represent
+     * {@link HttpOperationResult.RequestStatus#ERROR_INTERRUPTED} via
+     * {@link JavaResults#createInstanceForRequestInterrupted(HttpRequest, InterruptedException)}, and will be closed.
+     *
+     * @param request
+     *     the request object.
+     * @param bodyHandler
+     *     the {@link HttpResponse.BodyHandler} for the response body.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for a received response.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult}, or completed
+     *     exceptionally with anything else thrown on that thread.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public <T, X extends Exception> CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> submit(
+        HttpRequest request,
+        HttpResponse.BodyHandler<T> bodyHandler,
+        BiFunction<? super HttpRequest,? super HttpResponse<T>,HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(bodyHandler, "bodyHandler");
+        Objects.requireNonNull(resultFactory, "resultFactory");
+        Objects.requireNonNull(otherErrorFactory, "otherErrorFactory");
+        CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> ret = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(
+            () -> {
+                try {
+                    HttpOperationResult<HttpRequest,HttpResponse<T>,T,X> result =
+                        send(request, bodyHandler, resultFactory, otherErrorFactory);
+                    if (!ret.complete(result)) {
+                        result.close();
+                    }
+                }
+                catch (Throwable t) {
+                    // The FutureTask would otherwise capture this, and nothing reads the task's own outcome.
+                    ret.completeExceptionally(t);
+                }
+            },
+            null
+        );
+        ret.whenComplete((result, error) -> {
+            if (ret.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        try {
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            ret.complete(JavaResults.createInstanceForOtherError(request, otherErrorFactory.apply(e)));
+        }
+        return ret;
+    }
+
+    /**
+     * Closes the underlying {@link HttpClient}, waiting for any requests in progress to complete, and shuts down the
+     * executor created by this client, if any.
+     */
+    @Override
+    public void close() {
+        client.close();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JavaHttpOperationClient[" + executionMode + ", " + settings + "]";
+    }
+
+    /*
+     * Returns the given request, or a copy of it with the read timeout from the settings if it does not have a
+     * timeout.
+     */
+    private HttpRequest applyReadTimeout(HttpRequest request) {
+        Objects.requireNonNull(request, "request");
+        if (request.timeout().isPresent()) {
+            return request;
+        }
+        return HttpRequest.newBuilder(request, (name, value) -> true).timeout(settings.getReadTimeout()).build();
+    }
+
+}
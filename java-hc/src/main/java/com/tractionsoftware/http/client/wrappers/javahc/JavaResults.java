@@ -18,13 +18,38 @@
 
 package com.tractionsoftware.http.client.wrappers.javahc;
 
+import com.tractionsoftware.http.client.wrappers.ByteBufferPool;
+import com.tractionsoftware.http.client.wrappers.DownloadedFile;
 import com.tractionsoftware.http.client.wrappers.HttpHeaderCollection;
 import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import com.tractionsoftware.http.client.wrappers.HttpOperationTiming;
+import com.tractionsoftware.http.client.wrappers.HttpResponseCache;
+import com.tractionsoftware.http.client.wrappers.PooledBody;
+import com.tractionsoftware.http.client.wrappers.StreamingBodies;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.net.ssl.SSLSession;
 
 /**
  * Provides {@link HttpOperationResult}s for {@link HttpRequest}s and {@link HttpResponse}s from Java's built-in HTTP
@@ -57,11 +82,50 @@ public final class JavaResults {
         /**
          * @implNote The Java HTTP client implementation does not support accessing response headers in the order in
          *     which they were encountered, so the headers encapsulated by the returned {@link HttpHeaderCollection}
-         *     will not reflect that order, either.
+         *     will not reflect that order, either. The returned collection reads directly from the response's
+         *     {@link HttpHeaders} until it is modified.
          */
         @Override
         public HttpHeaderCollection headers() {
-            return HttpHeaderCollection.createInstance(response.headers().map());
+            return HttpHeaderCollection.createLazyInstance(new JavaHeaderSource(response.headers()));
+        }
+
+    }
+
+    /**
+     * A {@link HttpHeaderCollection.HeaderSource} that reads from {@link HttpHeaders}, which already handles names in a
+     * case-insensitive manner.
+     */
+    private static final class JavaHeaderSource implements HttpHeaderCollection.HeaderSource {
+
+        private final HttpHeaders headers;
+
+        private JavaHeaderSource(HttpHeaders headers) {
+            this.headers = headers;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return headers.map().isEmpty();
+        }
+
+        @Override
+        public List<String> values(String name) {
+            return headers.allValues(name);
+        }
+
+        @Override
+        public String firstValue(String name) {
+            return headers.firstValue(name).orElse(null);
+        }
+
+        @Override
+        public void forEach(BiConsumer<String,String> action) {
+            for (Map.Entry<String,List<String>> e : headers.map().entrySet()) {
+                for (String value : e.getValue()) {
+                    action.accept(e.getKey(), value);
+                }
+            }
         }
 
     }
@@ -310,4 +374,565 @@ public final class JavaResults {
         return HttpOperationResult.createResultForServerError(request, new JavaResponseAdapter<>(response), error);
     }
 
+    /**
+     * Sends the given request asynchronously via the given client, and returns a {@link CompletableFuture} that will be
+     * completed with an {@link HttpOperationResult} without blocking any thread while waiting for the response. If the
+     * response is received, the given result factory is invoked to create the result, e.g., by examining its status
+     * code and passing it to {@link #createResultForSuccessfulOperation(HttpRequest, HttpResponse)} or
+     * {@link #createResultForServerError(HttpRequest, HttpResponse)}. Otherwise, the error is represented as described
+     * for {@link #createResultAsync(HttpRequest, CompletionStage, BiFunction, Function)}.
+     *
+     * <p>
+     * If {@link HttpClient#sendAsync(HttpRequest, HttpResponse.BodyHandler)} throws an unchecked exception (e.g., an
+     * {@link IllegalArgumentException} for an unsupported request), the returned future is already completed with a
+     * result representing {@link HttpOperationResult.RequestStatus#ERROR_OTHER}.
+     *
+     * @param client
+     *     the client via which to send the request.
+     * @param request
+     *     the request object.
+     * @param bodyHandler
+     *     the {@link HttpResponse.BodyHandler} for the response body.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for a received response.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult}; cancelling it
+     *     cancels the request.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static <T, X extends Exception> CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> sendAsync(
+        HttpClient client,
+        HttpRequest request,
+        HttpResponse.BodyHandler<T> bodyHandler,
+        BiFunction<? super HttpRequest,? super HttpResponse<T>,HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        Objects.requireNonNull(client, "client");
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(bodyHandler, "bodyHandler");
+        CompletableFuture<HttpResponse<T>> response;
+        try {
+            response = client.sendAsync(request, bodyHandler);
+        }
+        catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return createResultAsync(request, response, resultFactory, otherErrorFactory);
+    }
+
+    /**
+     * Returns a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult} when the given
+     * {@link CompletionStage} for a response is completed, without blocking any thread in the meantime. The exceptions
+     * with which {@link HttpClient#sendAsync(HttpRequest, HttpResponse.BodyHandler)} may complete are represented as
+     * follows, after removing any {@link java.util.concurrent.CompletionException} wrapper:
+     *
+     * <ul>
+     * <li>an {@link IOException} (including {@link java.net.http.HttpTimeoutException} and
+     * {@link java.net.ConnectException}) by {@link HttpOperationResult.RequestStatus#ERROR_IO};</li>
+     * <li>an {@link InterruptedException} or {@link java.util.concurrent.CancellationException} by
+     * {@link HttpOperationResult.RequestStatus#ERROR_INTERRUPTED};</li>
+     * <li>anything else by {@link HttpOperationResult.RequestStatus#ERROR_OTHER}, wrapping an Exception of type X
+     * created by the given factory.</li>
+     * </ul>
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the {@link CompletionStage} that will be completed with the response.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for a received response.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult}; cancelling it
+     *     cancels the response stage.
+     * @throws NullPointerException
+     *     if any argument is null.
+     * @see HttpOperationResult#createResultAsync(Object, CompletionStage, BiFunction, Function)
+     */
+    public static <T, X extends Exception> CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> createResultAsync(
+        HttpRequest request,
+        CompletionStage<HttpResponse<T>> response,
+        BiFunction<? super HttpRequest,? super HttpResponse<T>,HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory
+    ) {
+        return HttpOperationResult.createResultAsync(request, response, resultFactory, otherErrorFactory);
+    }
+
+    /**
+     * Sends the given request asynchronously as described for
+     * {@link #sendAsync(HttpClient, HttpRequest, HttpResponse.BodyHandler, BiFunction, Function)}, recording its timing
+     * in the given {@link HttpOperationTiming}, which should have been created immediately beforehand. The headers
+     * (and first byte) are marked when the body handler is invoked, the body is marked complete when the body
+     * subscriber completes, and the timing is attached to any result created by the result factory.
+     *
+     * @param client
+     *     the client via which to send the request.
+     * @param request
+     *     the request object.
+     * @param bodyHandler
+     *     the {@link HttpResponse.BodyHandler} for the response body.
+     * @param resultFactory
+     *     creates the {@link HttpOperationResult} for a received response.
+     * @param otherErrorFactory
+     *     creates an Exception of type X for an unexpected error.
+     * @param timing
+     *     the {@link HttpOperationTiming} in which to record the timing of the operation.
+     * @param <T>
+     *     the type of result object.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted. It may be produced when
+     *     attempting to set up the request, when creating the result from the response, or in rare cases of other
+     *     unexpected errors (e.g., otherwise unhandled RuntimeExceptions).
+     * @return a {@link CompletableFuture} that will be completed with an {@link HttpOperationResult}; cancelling it
+     *     cancels the request.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static <T, X extends Exception> CompletableFuture<HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> sendAsync(
+        HttpClient client,
+        HttpRequest request,
+        HttpResponse.BodyHandler<T> bodyHandler,
+        BiFunction<? super HttpRequest,? super HttpResponse<T>,HttpOperationResult<HttpRequest,HttpResponse<T>,T,X>> resultFactory,
+        Function<? super Throwable,? extends X> otherErrorFactory,
+        HttpOperationTiming timing
+    ) {
+        Objects.requireNonNull(resultFactory, "resultFactory");
+        return sendAsync(
+            client,
+            request,
+            createTimedBodyHandler(bodyHandler, timing),
+            (r, response) -> resultFactory.apply(r, response).setTiming(timing),
+            otherErrorFactory
+        );
+    }
+
+    /**
+     * Returns a {@link HttpResponse.BodyHandler} that provides the response body as a {@link ReadableByteChannel}, so
+     * that it can be processed as it arrives rather than being materialized on the heap. Like the built-in
+     * {@link HttpResponse.BodyHandlers#ofInputStream()} and {@link HttpResponse.BodyHandlers#ofPublisher()}, which are
+     * also supported as streaming result objects, any unread part of the body is consumed according to the applicable
+     * {@link com.tractionsoftware.http.client.wrappers.DrainPolicy} when the {@link HttpOperationResult} is closed.
+     *
+     * @return a {@link HttpResponse.BodyHandler} that provides the response body as a {@link ReadableByteChannel}.
+     */
+    public static HttpResponse.BodyHandler<ReadableByteChannel> createChannelBodyHandler() {
+        return responseInfo -> HttpResponse.BodySubscribers.mapping(
+            HttpResponse.BodySubscribers.ofInputStream(),
+            StreamingBodies::createChannel
+        );
+    }
+
+    /**
+     * Returns a {@link HttpResponse.BodyHandler} that collects the response body into direct buffers acquired from the
+     * {@link ByteBufferPool#getDefault() default pool}.
+     *
+     * @return a {@link HttpResponse.BodyHandler} that collects the response body into pooled buffers.
+     * @see #createPooledBodyHandler(ByteBufferPool)
+     */
+    public static HttpResponse.BodyHandler<PooledBody> createPooledBodyHandler() {
+        return createPooledBodyHandler(ByteBufferPool.getDefault());
+    }
+
+    /**
+     * Returns a {@link HttpResponse.BodyHandler} that collects the response body into direct buffers acquired from the
+     * given pool, sized from the Content-Length header when it is present, as an alternative to
+     * {@link HttpResponse.BodyHandlers#ofByteArray()} that does not allocate a new array for each response. The
+     * buffers are released back to the pool when the {@link HttpOperationResult} holding the {@link PooledBody} is
+     * closed, or if the body cannot be completely received.
+     *
+     * @param pool
+     *     the pool from which to acquire buffers.
+     * @return a {@link HttpResponse.BodyHandler} that collects the response body into pooled buffers.
+     * @throws NullPointerException
+     *     if the pool is null.
+     */
+    public static HttpResponse.BodyHandler<PooledBody> createPooledBodyHandler(ByteBufferPool pool) {
+        Objects.requireNonNull(pool, "pool");
+        return responseInfo -> new PooledBodySubscriber(
+            PooledBody.createBuilder(pool, responseInfo.headers().firstValueAsLong("Content-Length").orElse(-1))
+        );
+    }
+
+    /**
+     * A {@link HttpResponse.BodySubscriber} that collects the body via a {@link PooledBody.Builder}.
+     */
+    private static final class PooledBodySubscriber implements HttpResponse.BodySubscriber<PooledBody> {
+
+        private final PooledBody.Builder builder;
+
+        private final CompletableFuture<PooledBody> body = new CompletableFuture<>();
+
+        private Flow.Subscription subscription;
+
+        private PooledBodySubscriber(PooledBody.Builder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public CompletionStage<PooledBody> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            for (ByteBuffer buffer : item) {
+                builder.append(buffer);
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            builder.discard();
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            PooledBody ret = builder.build();
+            if (!body.complete(ret)) {
+                ret.close();
+            }
+        }
+
+    }
+
+    /**
+     * Returns a {@link HttpResponse.BodyHandler} that streams a successful (2xx) response body to the given target path
+     * via a {@link DownloadedFile.Writer}, which writes the received buffers directly to a temporary file's
+     * {@link java.nio.channels.FileChannel}, as {@link HttpResponse.BodyHandlers#ofFile(Path)} does, and atomically
+     * renames it to the target once the body is complete. Unlike {@link HttpResponse.BodyHandlers#ofFile(Path)}, a
+     * failure to receive or write the entire body does not fail the response; the body is instead an incomplete
+     * {@link DownloadedFile}, so that it can be reported via
+     * {@link #createResultForDownload(HttpRequest, HttpResponse, Function)}. The body of any other response is
+     * discarded, and is null.
+     *
+     * @param target
+     *     the path of the file, whose parent directory must exist.
+     * @return a {@link HttpResponse.BodyHandler} that streams the response body to the given target path.
+     * @throws NullPointerException
+     *     if the target is null.
+     */
+    public static HttpResponse.BodyHandler<DownloadedFile> createDownloadBodyHandler(Path target) {
+        Objects.requireNonNull(target, "target");
+        return responseInfo -> isSuccessful(responseInfo.statusCode())
+            ? new DownloadBodySubscriber(target)
+            : HttpResponse.BodySubscribers.replacing(null);
+    }
+
+    /**
+     * Creates an {@link HttpOperationResult} for a response whose body was handled by
+     * {@link #createDownloadBodyHandler(Path)}. A complete download is a successful operation; an incomplete one is a
+     * {@link HttpOperationResult.OperationStatus#FAILURE_RESPONSE_PROCESS} error, whose Exception is created from the
+     * {@link DownloadedFile#getError() error} by the given factory. Server errors (5xx) are reported as such, and any
+     * other status is an operation failure.
+     *
+     * @param request
+     *     the request object.
+     * @param response
+     *     the response object.
+     * @param errorFactory
+     *     a function that creates an Exception of type X from the IOException that prevented the download from
+     *     completing, or from one describing an unsuccessful status.
+     * @param <X>
+     *     the context-specific type of Exception for the type of operation being attempted.
+     * @return a new {@link HttpOperationResult} for the download.
+     * @throws NullPointerException
+     *     if any argument is null.
+     */
+    public static <X extends Exception> HttpOperationResult<HttpRequest,HttpResponse<DownloadedFile>,DownloadedFile,X> createResultForDownload(
+        HttpRequest request,
+        HttpResponse<DownloadedFile> response,
+        Function<? super IOException, ? extends X> errorFactory
+    ) {
+        Objects.requireNonNull(errorFactory, "errorFactory");
+        int statusCode = response.statusCode();
+        DownloadedFile file = response.body();
+        if (!isSuccessful(statusCode) || file == null) {
+            if (statusCode >= 500) {
+                return createResultForServerError(request, response);
+            }
+            return createResultForOperationFailure(
+                request,
+                response,
+                errorFactory.apply(new IOException("Download failed with status " + statusCode + ": " + request.uri()))
+            );
+        }
+        if (!file.isComplete()) {
+            return createInstanceForResponseProcessingError(request, response, errorFactory.apply(file.getError()));
+        }
+        return createResultForSuccessfulOperation(request, response);
+    }
+
+    private static boolean isSuccessful(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * A {@link HttpResponse.BodySubscriber} that writes the body to a {@link DownloadedFile.Writer}. Errors complete
+     * the body with an incomplete {@link DownloadedFile}, rather than exceptionally.
+     */
+    private static final class DownloadBodySubscriber implements HttpResponse.BodySubscriber<DownloadedFile> {
+
+        private final Path target;
+
+        private final CompletableFuture<DownloadedFile> body = new CompletableFuture<>();
+
+        private DownloadedFile.Writer writer;
+
+        private Flow.Subscription subscription;
+
+        private DownloadBodySubscriber(Path target) {
+            this.target = target;
+        }
+
+        @Override
+        public CompletionStage<DownloadedFile> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            try {
+                writer = DownloadedFile.createWriter(target);
+            }
+            catch (IOException e) {
+                subscription.cancel();
+                body.complete(DownloadedFile.createIncompleteInstance(target, e));
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            if (body.isDone()) {
+                return;
+            }
+            try {
+                writer.write(item.toArray(ByteBuffer[]::new));
+            }
+            catch (IOException e) {
+                subscription.cancel();
+                body.complete(writer.fail(e));
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!body.isDone()) {
+                body.complete(writer.fail(throwable));
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!body.isDone()) {
+                body.complete(writer.commit());
+            }
+        }
+
+    }
+
+    /**
+     * Wraps the given {@link HttpResponse.BodyHandler} so that it records the timing of the response in the given
+     * {@link HttpOperationTiming}. The built-in client does not expose the first byte separately from the headers, so
+     * both are marked when the handler is invoked; the body is marked complete when the body subscriber completes,
+     * which for streaming handlers (e.g., {@link HttpResponse.BodyHandlers#ofInputStream()}) is when the body has been
+     * read to the end.
+     *
+     * @param bodyHandler
+     *     the {@link HttpResponse.BodyHandler} to wrap.
+     * @param timing
+     *     the {@link HttpOperationTiming} in which to record the timing of the response.
+     * @param <T>
+     *     the type of response body.
+     * @return a {@link HttpResponse.BodyHandler} that records the timing of the response.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public static <T> HttpResponse.BodyHandler<T> createTimedBodyHandler(HttpResponse.BodyHandler<T> bodyHandler, HttpOperationTiming timing) {
+        Objects.requireNonNull(bodyHandler, "bodyHandler");
+        Objects.requireNonNull(timing, "timing");
+        return responseInfo -> {
+            timing.markHeadersReceived();
+            return new TimedBodySubscriber<>(bodyHandler.apply(responseInfo), timing);
+        };
+    }
+
+    /**
+     * A {@link HttpResponse.BodySubscriber} that marks the body complete in an {@link HttpOperationTiming} when the
+     * body it delegates to is complete.
+     */
+    private static final class TimedBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+        private final HttpResponse.BodySubscriber<T> delegate;
+
+        private final HttpOperationTiming timing;
+
+        private TimedBodySubscriber(HttpResponse.BodySubscriber<T> delegate, HttpOperationTiming timing) {
+            this.delegate = delegate;
+            this.timing = timing;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            timing.markBodyComplete();
+            delegate.onComplete();
+        }
+
+    }
+
+    /**
+     * Creates an {@link HttpResponseCache.Binding} for {@link HttpRequest}s whose responses are read with
+     * {@link HttpResponse.BodyHandlers#ofByteArray()}. Conditional requests are created as copies of the original
+     * requests, and responses served from the cache are represented by {@link HttpResponse}s whose
+     * {@link HttpResponse#body() body} is the cached body.
+     *
+     * @return an {@link HttpResponseCache.Binding} for {@link HttpRequest}s.
+     */
+    public static HttpResponseCache.Binding<HttpRequest,HttpResponse<byte[]>> createCacheBinding() {
+        return CACHE_BINDING;
+    }
+
+    private static final HttpResponseCache.Binding<HttpRequest,HttpResponse<byte[]>> CACHE_BINDING =
+        new HttpResponseCache.Binding<>() {
+
+            @Override
+            public String getMethod(HttpRequest request) {
+                return request.method();
+            }
+
+            @Override
+            public URI getURI(HttpRequest request) {
+                return request.uri();
+            }
+
+            @Override
+            public List<String> getHeaderValues(HttpRequest request, String name) {
+                return request.headers().allValues(name);
+            }
+
+            @Override
+            public HttpRequest createConditionalRequest(HttpRequest request, HttpHeaderCollection headers) {
+                HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+                for (HttpHeaderCollection.Header header : headers.all()) {
+                    builder.setHeader(header.getName(), header.getValue());
+                }
+                return builder.build();
+            }
+
+            @Override
+            public HttpResponse<byte[]> createResponse(HttpRequest request, HttpResponseCache.CachedResponse response) {
+                return new CachedHttpResponse(request, response);
+            }
+
+        };
+
+    /**
+     * An {@link HttpResponse} served from an {@link HttpResponseCache}.
+     */
+    private static final class CachedHttpResponse implements HttpResponse<byte[]> {
+
+        private final HttpRequest request;
+
+        private final HttpResponseCache.CachedResponse response;
+
+        private final HttpHeaders headers;
+
+        private CachedHttpResponse(HttpRequest request, HttpResponseCache.CachedResponse response) {
+            this.request = request;
+            this.response = response;
+            Map<String,List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (HttpHeaderCollection.Header header : response.getHeaders().all()) {
+                map.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+            }
+            this.headers = HttpHeaders.of(map, (name, value) -> true);
+        }
+
+        @Override
+        public int statusCode() {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public HttpRequest request() {
+            return request;
+        }
+
+        @Override
+        public Optional<HttpResponse<byte[]>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public byte[] body() {
+            return response.getBody();
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return request.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return request.version().orElse(HttpClient.Version.HTTP_1_1);
+        }
+
+    }
+
 }
@@ -0,0 +1,282 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import com.tractionsoftware.http.client.wrappers.ByteBufferPool;
+import com.tractionsoftware.http.client.wrappers.DownloadedFile;
+import com.tractionsoftware.http.client.wrappers.HttpClientSettings;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import com.tractionsoftware.http.client.wrappers.HttpOperationTiming;
+import com.tractionsoftware.http.client.wrappers.PooledBody;
+import com.tractionsoftware.http.client.wrappers.apachehc5.ApacheHC5OperationClient;
+import com.tractionsoftware.http.client.wrappers.apachehc5.ApacheHC5Results;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * A {@link ClientBackend} for the Apache HttpClient 5 classic client, via {@link ApacheHC5OperationClient} and
+ * {@link ApacheHC5Results}. Requests are always sent over HTTP/1.1.
+ *
+ * @author Dave Shepperton
+ */
+public final class ApacheHC5ClientBackend implements ClientBackend {
+
+    private final ApacheHC5OperationClient client;
+
+    private ApacheHC5ClientBackend(ApacheHC5OperationClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Creates a backend with a new client.
+     *
+     * @param settings
+     *     the settings for the client.
+     * @return a new {@link ApacheHC5ClientBackend}.
+     */
+    public static ApacheHC5ClientBackend createInstance(HttpClientSettings settings) {
+        return new ApacheHC5ClientBackend(ApacheHC5OperationClient.createInstance(settings));
+    }
+
+    @Override
+    public ClientBackend createIsolatedInstance() {
+        return createInstance(client.getSettings());
+    }
+
+    @Override
+    public String getName() {
+        return "apache-hc5/HTTP/1.1";
+    }
+
+    @Override
+    public boolean isHttp2() {
+        return false;
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> getBytes(URI uri, ResultKind kind) {
+        return client.execute(
+            new HttpGet(uri),
+            (request, response) -> createResult(request, response, readBody(response), kind),
+            IOException::new
+        );
+    }
+
+    @Override
+    public CompletableFuture<? extends HttpOperationResult<?,?,byte[],IOException>> getBytesAsync(
+        URI uri,
+        ResultKind kind,
+        HttpOperationTiming timing
+    ) {
+        return client.executeAsync(
+            new HttpGet(uri),
+            (request, response) -> {
+                ApacheHC5Results.recordTiming(response, timing);
+                return createResult(request, response, readBody(response), kind).setTiming(timing);
+            },
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,InputStream,IOException> getStream(URI uri) {
+        return client.execute(
+            new HttpGet(uri),
+            (request, response) -> createResult(
+                request,
+                response,
+                ApacheHC5Results.getContentStream(response),
+                ResultKind.AUTO
+            ),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,ReadableByteChannel,IOException> getChannel(URI uri) {
+        return client.execute(
+            new HttpGet(uri),
+            (request, response) -> createResult(
+                request,
+                response,
+                ApacheHC5Results.getContentChannel(response),
+                ResultKind.AUTO
+            ),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,Flow.Publisher<List<ByteBuffer>>,IOException> getPublisher(URI uri) {
+        return client.execute(
+            new HttpGet(uri),
+            (request, response) -> createResult(
+                request,
+                response,
+                ApacheHC5Results.getContentPublisher(response),
+                ResultKind.AUTO
+            ),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,PooledBody,IOException> getPooledBody(URI uri) {
+        return client.execute(
+            new HttpGet(uri),
+            (request, response) -> createResult(request, response, readPooledBody(response), ResultKind.AUTO),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,DownloadedFile,IOException> download(URI uri, Path target) {
+        return client.execute(
+            new HttpGet(uri),
+            (request, response) -> ApacheHC5Results.createResultForDownload(request, response, target, e -> e),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> createRequestSetupError(IOException error) {
+        return ApacheHC5Results.createInstanceForRequestSetupError(error);
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> createRequestIOFailure(URI uri, IOException error) {
+        return ApacheHC5Results.createInstanceForRequestIOFailure(new HttpGet(uri), error);
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> createRequestInterrupted(URI uri, InterruptedException error) {
+        return ApacheHC5Results.createInstanceForRequestInterrupted(new HttpGet(uri), error);
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> createOtherError(URI uri, IOException error) {
+        return ApacheHC5Results.createInstanceForOtherError(new HttpGet(uri), error);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    @Override
+    public String toString() {
+        return "ApacheHC5ClientBackend[" + getName() + "]";
+    }
+
+    private static byte[] readBody(ClassicHttpResponse response) throws IOException {
+        try (InputStream content = ApacheHC5Results.getContentStream(response)) {
+            return content.readAllBytes();
+        }
+    }
+
+    /*
+     * Reads the content of the given response into a PooledBody, like JavaResults.createPooledBodyHandler().
+     */
+    private static PooledBody readPooledBody(ClassicHttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        PooledBody.Builder builder = PooledBody.createBuilder(
+            ByteBufferPool.getDefault(),
+            entity == null ? 0 : entity.getContentLength()
+        );
+        try (ReadableByteChannel content = ApacheHC5Results.getContentChannel(response)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            while (content.read(buffer) >= 0) {
+                builder.append(buffer.flip());
+                buffer.clear();
+            }
+            return builder.build();
+        }
+        catch (IOException | RuntimeException e) {
+            builder.discard();
+            throw e;
+        }
+    }
+
+    /*
+     * Creates a result of the given kind.
+     */
+    private static <T> HttpOperationResult<HttpRequest,ClassicHttpResponse,T,IOException> createResult(
+        HttpRequest request,
+        ClassicHttpResponse response,
+        T body,
+        ResultKind kind
+    ) {
+        int statusCode = response.getCode();
+        return switch (kind) {
+            case AUTO -> {
+                if (statusCode >= 200 && statusCode < 300) {
+                    yield ApacheHC5Results.createResultForSuccessfulOperation(request, response, body);
+                }
+                if (statusCode >= 500) {
+                    yield ApacheHC5Results.createResultForServerError(request, response, body);
+                }
+                yield ApacheHC5Results.createResultForOperationFailure(
+                    request,
+                    response,
+                    body,
+                    kind.createError(statusCode)
+                );
+            }
+            case SUCCESS -> ApacheHC5Results.createResultForSuccessfulOperation(request, response, body);
+            case WARNING -> ApacheHC5Results.createResultForOperationFailureWarning(
+                request,
+                response,
+                body,
+                kind.createError(statusCode)
+            );
+            case RESPONSE_PROCESSING_ERROR -> ApacheHC5Results.createInstanceForResponseProcessingError(
+                request,
+                response,
+                body,
+                kind.createError(statusCode)
+            );
+            case FAILURE -> ApacheHC5Results.createResultForOperationFailure(
+                request,
+                response,
+                body,
+                kind.createError(statusCode)
+            );
+            case SERVER_ERROR -> ApacheHC5Results.createResultForServerError(request, response, body);
+            case SERVER_ERROR_WITH_EXCEPTION -> ApacheHC5Results.createResultForServerError(
+                request,
+                response,
+                body,
+                kind.createError(statusCode)
+            );
+        };
+    }
+
+}
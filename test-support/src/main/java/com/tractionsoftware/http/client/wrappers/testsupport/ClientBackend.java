@@ -0,0 +1,246 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import com.tractionsoftware.http.client.wrappers.DownloadedFile;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import com.tractionsoftware.http.client.wrappers.HttpOperationTiming;
+import com.tractionsoftware.http.client.wrappers.PooledBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Sends GET requests through one of the HTTP client wrappers, creating each result with the wrapper's own result
+ * factories, so that the {@link ConformanceSuite} and {@link LoadRunner} can exercise every backend in the same way.
+ * The context-specific Exception type of every result is {@link IOException}.
+ *
+ * @author Dave Shepperton
+ */
+public interface ClientBackend extends AutoCloseable {
+
+    /**
+     * Selects the result factory with which a result is created for a response.
+     */
+    enum ResultKind {
+
+        /**
+         * Chooses the factory according to the status code: a successful operation for 2xx, a server error for 5xx,
+         * and an operation failure otherwise.
+         */
+        AUTO,
+
+        /**
+         * A successful operation.
+         */
+        SUCCESS,
+
+        /**
+         * A successful request with an operation failure warning.
+         */
+        WARNING,
+
+        /**
+         * A response processing error.
+         */
+        RESPONSE_PROCESSING_ERROR,
+
+        /**
+         * An operation failure.
+         */
+        FAILURE,
+
+        /**
+         * A server error, with the default Exception for the response.
+         */
+        SERVER_ERROR,
+
+        /**
+         * A server error, with a given Exception.
+         */
+        SERVER_ERROR_WITH_EXCEPTION;
+
+        /**
+         * Creates the Exception given to the result factory for a response with the given status code. Its message is
+         * the name of this kind, or for {@link #AUTO}, {@code "HTTP "} followed by the status code.
+         *
+         * @param statusCode
+         *     the status code of the response.
+         * @return a new IOException.
+         */
+        public IOException createError(int statusCode) {
+            return new IOException(this == AUTO ? "HTTP " + statusCode : name());
+        }
+
+    }
+
+    /**
+     * Returns the name of this backend, including its protocol version.
+     *
+     * @return the name of this backend.
+     */
+    String getName();
+
+    /**
+     * Returns true if this backend sends requests over HTTP/2.
+     *
+     * @return true if this backend sends requests over HTTP/2; false if it uses HTTP/1.1.
+     */
+    boolean isHttp2();
+
+    /**
+     * Creates a new backend of the same kind, with the same settings but its own client, for checks that may leave
+     * the client's connections in a state that would affect other checks (e.g., responses cut off by a reset).
+     *
+     * @return a new backend, which the caller must close.
+     */
+    ClientBackend createIsolatedInstance();
+
+    /**
+     * Sends a request, reading the response body into a byte array.
+     *
+     * @param uri
+     *     the request URI.
+     * @param kind
+     *     selects the result factory.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,byte[],IOException> getBytes(URI uri, ResultKind kind);
+
+    /**
+     * Sends a request asynchronously, reading the response body into a byte array, and recording the timing of the
+     * response in the given {@link HttpOperationTiming}, which is attached to the result.
+     *
+     * @param uri
+     *     the request URI.
+     * @param kind
+     *     selects the result factory.
+     * @param timing
+     *     the {@link HttpOperationTiming} in which to record the timing of the response.
+     * @return a {@link CompletableFuture} that will be completed with the result.
+     */
+    CompletableFuture<? extends HttpOperationResult<?,?,byte[],IOException>> getBytesAsync(
+        URI uri,
+        ResultKind kind,
+        HttpOperationTiming timing
+    );
+
+    /**
+     * Sends a request, providing the response body as an {@link InputStream}.
+     *
+     * @param uri
+     *     the request URI.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,InputStream,IOException> getStream(URI uri);
+
+    /**
+     * Sends a request, providing the response body as a {@link ReadableByteChannel}.
+     *
+     * @param uri
+     *     the request URI.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,ReadableByteChannel,IOException> getChannel(URI uri);
+
+    /**
+     * Sends a request, providing the response body as a {@link Flow.Publisher}.
+     *
+     * @param uri
+     *     the request URI.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,Flow.Publisher<List<ByteBuffer>>,IOException> getPublisher(URI uri);
+
+    /**
+     * Sends a request, reading the response body into a {@link PooledBody}.
+     *
+     * @param uri
+     *     the request URI.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,PooledBody,IOException> getPooledBody(URI uri);
+
+    /**
+     * Sends a request, downloading the response body to the given file.
+     *
+     * @param uri
+     *     the request URI.
+     * @param target
+     *     the file to which to download the body.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,DownloadedFile,IOException> download(URI uri, Path target);
+
+    /**
+     * Creates a result for an error setting up a request, with this backend's factory.
+     *
+     * @param error
+     *     the error.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,byte[],IOException> createRequestSetupError(IOException error);
+
+    /**
+     * Creates a result for an IO error sending a request, with this backend's factory.
+     *
+     * @param uri
+     *     the request URI.
+     * @param error
+     *     the error.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,byte[],IOException> createRequestIOFailure(URI uri, IOException error);
+
+    /**
+     * Creates a result for an interrupted request, with this backend's factory.
+     *
+     * @param uri
+     *     the request URI.
+     * @param error
+     *     the error.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,byte[],IOException> createRequestInterrupted(URI uri, InterruptedException error);
+
+    /**
+     * Creates a result for some other error, with this backend's factory.
+     *
+     * @param uri
+     *     the request URI.
+     * @param error
+     *     the error.
+     * @return the result.
+     */
+    HttpOperationResult<?,?,byte[],IOException> createOtherError(URI uri, IOException error);
+
+    /**
+     * Closes the underlying client.
+     */
+    @Override
+    void close();
+
+}
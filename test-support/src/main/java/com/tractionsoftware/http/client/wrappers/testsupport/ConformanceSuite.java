@@ -0,0 +1,592 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import com.tractionsoftware.http.client.wrappers.DownloadedFile;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult.OperationStatus;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult.RequestStatus;
+import com.tractionsoftware.http.client.wrappers.HttpOperationTiming;
+import com.tractionsoftware.http.client.wrappers.HttpServerErrorException;
+import com.tractionsoftware.http.client.wrappers.PooledBody;
+import com.tractionsoftware.http.client.wrappers.testsupport.ClientBackend.ResultKind;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs the same set of checks against each {@link ClientBackend}, using responses scripted on a
+ * {@link StandInServer}, so that every result factory of each HTTP client wrapper is exercised in the same way:
+ * status codes and each kind of result created for a response; large, chunked and slowly dripped bodies, and bodies
+ * cut off by a reset; duplicate and mixed-case headers and charsets; each kind of streaming, pooled and downloaded
+ * body; asynchronous requests with timing; and each kind of error for which no response is received.
+ *
+ * <p>
+ * Each check is reported on the given {@link PrintStream} as it completes.
+ *
+ * @author Dave Shepperton
+ */
+public final class ConformanceSuite {
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private static final int[] STATUS_CODES = {200, 201, 204, 400, 404, 429, 500, 503};
+
+    private static final ScriptedResponse TEXT = ScriptedResponse.createTextInstance(200, "Hello, world!");
+
+    private static final ScriptedResponse LARGE = ScriptedResponse.createBuilder(200)
+        .addHeader("Content-Type", "application/octet-stream")
+        .setGeneratedBody(8 << 20)
+        .build();
+
+    private static final ScriptedResponse CHUNKED = ScriptedResponse.createBuilder(200)
+        .addHeader("Content-Type", "application/octet-stream")
+        .setGeneratedBody(1 << 20)
+        .setChunked(8000)
+        .build();
+
+    private static final ScriptedResponse DRIP = ScriptedResponse.createBuilder(200)
+        .setGeneratedBody(4096)
+        .setDrip(256, Duration.ofMillis(2))
+        .build();
+
+    private static final ScriptedResponse RESET = ScriptedResponse.createBuilder(200)
+        .setGeneratedBody(1 << 20)
+        .setResetAfter(100_000)
+        .build();
+
+    private static final ScriptedResponse RESET_CHUNKED = ScriptedResponse.createBuilder(200)
+        .setGeneratedBody(1 << 20)
+        .setChunked(8000)
+        .setResetAfter(100_000)
+        .build();
+
+    private static final ScriptedResponse HEADERS = ScriptedResponse.createBuilder(200)
+        .addHeader("X-Duplicate", "first")
+        .addHeader("X-MiXeD-CaSe", "value")
+        .addHeader("x-duplicate", "second")
+        .addHeader("X-DUPLICATE", "third")
+        .setBody("headers", StandardCharsets.US_ASCII)
+        .build();
+
+    private static final ScriptedResponse CHARSET = ScriptedResponse.createBuilder(200)
+        .addHeader("Content-Type", "text/plain; charset=ISO-8859-1")
+        .setBody("café", StandardCharsets.ISO_8859_1)
+        .build();
+
+    private final StandInServer server;
+
+    private final PrintStream out;
+
+    private final Map<String,Check> checks = new LinkedHashMap<>();
+
+    private int passedCount;
+
+    private int failedCount;
+
+    private ConformanceSuite(StandInServer server, PrintStream out) {
+        this.server = server;
+        this.out = out;
+        server.setResponse("/text", TEXT);
+        server.setResponse("/large", LARGE);
+        server.setResponse("/chunked", CHUNKED);
+        server.setResponse("/drip", DRIP);
+        server.setResponse("/reset", RESET);
+        server.setResponse("/reset-chunked", RESET_CHUNKED);
+        server.setResponse("/headers", HEADERS);
+        server.setResponse("/charset", CHARSET);
+        for (int statusCode : STATUS_CODES) {
+            ScriptedResponse response = ScriptedResponse.createTextInstance(statusCode, "Status " + statusCode);
+            server.setResponse("/status/" + statusCode, response);
+        }
+        addChecks();
+    }
+
+    /**
+     * Creates a suite that uses the given server, scripting the responses it needs, and reports to the given stream.
+     *
+     * @param server
+     *     the server.
+     * @param out
+     *     the stream to which to report the result of each check.
+     * @return a new {@link ConformanceSuite}.
+     * @throws NullPointerException
+     *     if either argument is null.
+     */
+    public static ConformanceSuite createInstance(StandInServer server, PrintStream out) {
+        return new ConformanceSuite(Objects.requireNonNull(server, "server"), Objects.requireNonNull(out, "out"));
+    }
+
+    /**
+     * Runs every check against the given backend.
+     *
+     * @param backend
+     *     the backend.
+     * @return true if every check passed; false otherwise.
+     */
+    public boolean run(ClientBackend backend) {
+        int failedBefore = failedCount;
+        for (Map.Entry<String,Check> check : checks.entrySet()) {
+            try {
+                check.getValue().run(backend);
+                passedCount++;
+                out.println("PASS  " + backend.getName() + "  " + check.getKey());
+            }
+            catch (Exception | AssertionError e) {
+                failedCount++;
+                out.println("FAIL  " + backend.getName() + "  " + check.getKey() + ": " + e);
+            }
+        }
+        return failedCount == failedBefore;
+    }
+
+    /**
+     * Returns the number of checks that have passed.
+     *
+     * @return the number of checks that have passed.
+     */
+    public int getPassedCount() {
+        return passedCount;
+    }
+
+    /**
+     * Returns the number of checks that have failed.
+     *
+     * @return the number of checks that have failed.
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ConformanceSuite[passed=" + passedCount + ", failed=" + failedCount + "]";
+    }
+
+    /**
+     * A check run against a backend, which fails by throwing an Exception or AssertionError.
+     */
+    @FunctionalInterface
+    private interface Check {
+
+        void run(ClientBackend backend) throws Exception;
+
+    }
+
+    /*
+     * Returns a check that runs the given check against its own instance of the backend, so that connections left in
+     * an unusual state (e.g., by a reset) cannot affect other checks.
+     */
+    private static Check isolated(Check check) {
+        return backend -> {
+            try (ClientBackend own = backend.createIsolatedInstance()) {
+                check.run(own);
+            }
+        };
+    }
+
+    private void addChecks() {
+        checks.put("protocol", backend -> {
+            long http2Before = server.getHttp2RequestCount();
+            try (var result = backend.getBytes(uri("/text"), ResultKind.AUTO)) {
+                expectSuccess(result);
+            }
+            boolean usedHttp2 = server.getHttp2RequestCount() > http2Before;
+            expect(usedHttp2 == backend.isHttp2(), "request used HTTP/2: " + usedHttp2);
+        });
+        for (int statusCode : STATUS_CODES) {
+            checks.put("status-" + statusCode, backend -> checkStatus(backend, statusCode));
+        }
+        for (ResultKind kind : ResultKind.values()) {
+            String name = "factory-" + kind.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            checks.put(name, backend -> checkResultKind(backend, kind));
+        }
+        checks.put("large-body", backend -> checkBytes(backend, "/large", LARGE));
+        checks.put("chunked-body", backend -> checkBytes(backend, "/chunked", CHUNKED));
+        checks.put("drip-body", backend -> checkBytes(backend, "/drip", DRIP));
+        checks.put("reset-body", isolated(backend -> checkResetBytes(backend, "/reset")));
+        checks.put("reset-chunked-body", isolated(backend -> checkResetBytes(backend, "/reset-chunked")));
+        checks.put("reset-stream", isolated(backend -> {
+            try (var result = backend.getStream(uri("/reset"))) {
+                expectSuccess(result);
+                try (InputStream body = result.getResult()) {
+                    body.readAllBytes();
+                    throw new AssertionError("reading the body did not fail");
+                }
+                catch (IOException e) {
+                    // Expected.
+                }
+            }
+        }));
+        checks.put("reset-download", isolated(backend -> {
+            Path target = createTempDirectory().resolve("reset.bin");
+            try (var result = backend.download(uri("/reset"), target)) {
+                expectStatus(result, RequestStatus.SUCCESS, OperationStatus.FAILURE_RESPONSE_PROCESS);
+                DownloadedFile file = result.getResultSafe();
+                expect(file == null || !file.isComplete(), "download is complete: " + file);
+                expect(!Files.exists(target), "target exists");
+            }
+            finally {
+                deleteRecursively(target.getParent());
+            }
+        }));
+        checks.put("duplicate-headers", backend -> {
+            try (var result = backend.getBytes(uri("/headers"), ResultKind.AUTO)) {
+                expectSuccess(result);
+                List<String> values = result.getResponseHeaders().getValues("x-duplicate");
+                expect(values.equals(List.of("first", "second", "third")), "duplicate header values: " + values);
+            }
+        });
+        checks.put("mixed-case-headers", backend -> {
+            try (var result = backend.getBytes(uri("/headers"), ResultKind.AUTO)) {
+                expectSuccess(result);
+                String value = result.getResponseHeaders().getFirstValue("X-MIXED-CASE");
+                expect("value".equals(value), "mixed-case header value: " + value);
+            }
+        });
+        checks.put("charset", backend -> {
+            try (var result = backend.getBytes(uri("/charset"), ResultKind.AUTO)) {
+                expectSuccess(result);
+                expect(
+                    result.getResponseCharset(StandardCharsets.UTF_8).equals(StandardCharsets.ISO_8859_1),
+                    "charset: " + result.getResponseCharset(StandardCharsets.UTF_8)
+                );
+                String text = new String(result.getResult(), result.getResponseCharset(StandardCharsets.UTF_8));
+                expect(text.equals("café"), "text: " + text);
+            }
+        });
+        checks.put("stream-body", backend -> {
+            try (var result = backend.getStream(uri("/large"))) {
+                expectSuccess(result);
+                try (InputStream body = result.getResult()) {
+                    expectBody(LARGE, body.readAllBytes());
+                }
+            }
+        });
+        checks.put("stream-unread", backend -> {
+            for (int i = 0; i < 3; i++) {
+                try (var result = backend.getStream(uri("/chunked"))) {
+                    expectSuccess(result);
+                }
+            }
+            try (var result = backend.getBytes(uri("/text"), ResultKind.AUTO)) {
+                expectSuccess(result);
+                expectBody(TEXT, result.getResult());
+            }
+        });
+        checks.put("channel-body", backend -> {
+            try (var result = backend.getChannel(uri("/chunked"))) {
+                expectSuccess(result);
+                try (ReadableByteChannel body = result.getResult()) {
+                    expectBody(CHUNKED, Channels.newInputStream(body).readAllBytes());
+                }
+            }
+        });
+        checks.put("publisher-body", backend -> {
+            try (var result = backend.getPublisher(uri("/chunked"))) {
+                expectSuccess(result);
+                expectBody(CHUNKED, collect(result.getResult()));
+            }
+        });
+        checks.put("pooled-body", backend -> {
+            try (var result = backend.getPooledBody(uri("/large"))) {
+                expectSuccess(result);
+                PooledBody body = result.getResult();
+                expect(body.getLength() == LARGE.getBodyLength(), "pooled body length: " + body.getLength());
+                expectBody(LARGE, body.toByteArray());
+            }
+        });
+        checks.put("download", backend -> {
+            Path target = createTempDirectory().resolve("large.bin");
+            try (var result = backend.download(uri("/large"), target)) {
+                expectSuccess(result);
+                DownloadedFile file = result.getResult();
+                expect(file.isComplete(), "download is incomplete: " + file);
+                expect(file.getByteCount() == LARGE.getBodyLength(), "download byte count: " + file.getByteCount());
+                expectBody(LARGE, Files.readAllBytes(target));
+            }
+            finally {
+                deleteRecursively(target.getParent());
+            }
+        });
+        checks.put("download-failure", backend -> {
+            Path target = createTempDirectory().resolve("missing.bin");
+            try (var result = backend.download(uri("/status/404"), target)) {
+                expectStatus(result, RequestStatus.SUCCESS, OperationStatus.FAILURE);
+                expect(!Files.exists(target), "target exists");
+            }
+            finally {
+                deleteRecursively(target.getParent());
+            }
+        });
+        checks.put("async-timing", backend -> {
+            HttpOperationTiming timing = HttpOperationTiming.createInstance();
+            try (var result = backend.getBytesAsync(uri("/large"), ResultKind.AUTO, timing)
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                expectSuccess(result);
+                expectBody(LARGE, result.getResult());
+                expect(result.getTiming() == timing, "timing was not attached");
+                expect(timing.getTimeToHeaders() != null, "headers were not timed");
+                expect(timing.getTimeToBodyComplete() != null, "body was not timed");
+            }
+        });
+        checks.put("connection-refused", backend -> {
+            int port;
+            // A port that was just released is very unlikely to be reused immediately.
+            try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                port = socket.getLocalPort();
+            }
+            URI uri = URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + port + "/");
+            try (var result = backend.getBytes(uri, ResultKind.AUTO)) {
+                expectStatus(result, RequestStatus.ERROR_IO, OperationStatus.NO_RESPONSE);
+                expectThrows(IOException.class, result::getResult);
+            }
+        });
+        checks.put("request-setup-error", backend -> {
+            IOException error = new IOException("setup");
+            try (var result = backend.createRequestSetupError(error)) {
+                expectStatus(result, RequestStatus.ERROR_REQUEST_SETUP, OperationStatus.NO_RESPONSE);
+                expect(expectThrows(IOException.class, result::getResult) == error, "unexpected error");
+            }
+        });
+        checks.put("request-io-failure", backend -> {
+            IOException error = new IOException("io");
+            try (var result = backend.createRequestIOFailure(uri("/text"), error)) {
+                expectStatus(result, RequestStatus.ERROR_IO, OperationStatus.NO_RESPONSE);
+                expect(expectThrows(IOException.class, result::getResult) == error, "unexpected error");
+            }
+        });
+        checks.put("request-interrupted", backend -> {
+            InterruptedException error = new InterruptedException("interrupted");
+            try (var result = backend.createRequestInterrupted(uri("/text"), error)) {
+                expectStatus(result, RequestStatus.ERROR_INTERRUPTED, OperationStatus.NO_RESPONSE);
+                expect(expectThrows(InterruptedException.class, result::getResult) == error, "unexpected error");
+            }
+        });
+        checks.put("other-error", backend -> {
+            IOException error = new IOException("other");
+            try (var result = backend.createOtherError(uri("/text"), error)) {
+                expectStatus(result, RequestStatus.ERROR_OTHER, OperationStatus.NO_RESPONSE);
+                expect(expectThrows(IOException.class, result::getResult) == error, "unexpected error");
+            }
+        });
+    }
+
+    private void checkStatus(ClientBackend backend, int statusCode) throws Exception {
+        try (var result = backend.getBytes(uri("/status/" + statusCode), ResultKind.AUTO)) {
+            expect(result.getResponseStatusCode() == statusCode, "status code: " + result.getResponseStatusCode());
+            if (statusCode < 300) {
+                expectSuccess(result);
+                byte[] body = result.getResult();
+                expect(
+                    statusCode == 204 ? body == null || body.length == 0 : body.length > 0,
+                    "body length: " + (body == null ? null : body.length)
+                );
+            }
+            else if (statusCode < 500) {
+                expectStatus(result, RequestStatus.SUCCESS, OperationStatus.FAILURE);
+                IOException e = expectThrows(IOException.class, result::getResult);
+                expect(e.getMessage().equals("HTTP " + statusCode), "error: " + e);
+            }
+            else {
+                expectStatus(result, RequestStatus.SUCCESS, OperationStatus.FAILURE_SERVER_ERROR);
+                HttpServerErrorException e = expectThrows(HttpServerErrorException.class, result::getResult);
+                expect(e.getStatusCode() == statusCode, "error status code: " + e.getStatusCode());
+            }
+        }
+    }
+
+    private void checkResultKind(ClientBackend backend, ResultKind kind) throws Exception {
+        try (var result = backend.getBytes(uri("/text"), kind)) {
+            switch (kind) {
+                case AUTO, SUCCESS -> {
+                    expectSuccess(result);
+                    expectBody(TEXT, result.getResult());
+                }
+                case WARNING -> {
+                    expectStatus(result, RequestStatus.SUCCESS, OperationStatus.WARNING);
+                    expectBody(TEXT, result.getResultSafe());
+                    expectKindError(kind, result);
+                }
+                case RESPONSE_PROCESSING_ERROR -> {
+                    expectStatus(result, RequestStatus.SUCCESS, OperationStatus.FAILURE_RESPONSE_PROCESS);
+                    expectKindError(kind, result);
+                }
+                case FAILURE -> {
+                    expectStatus(result, RequestStatus.SUCCESS, OperationStatus.FAILURE);
+                    expectKindError(kind, result);
+                }
+                case SERVER_ERROR -> {
+                    expectStatus(result, RequestStatus.SUCCESS, OperationStatus.FAILURE_SERVER_ERROR);
+                    HttpServerErrorException e = expectThrows(HttpServerErrorException.class, result::getResult);
+                    expect(e.getStatusCode() == 200, "error status code: " + e.getStatusCode());
+                }
+                case SERVER_ERROR_WITH_EXCEPTION -> {
+                    expectStatus(result, RequestStatus.SUCCESS, OperationStatus.FAILURE_SERVER_ERROR);
+                    expectKindError(kind, result);
+                }
+            }
+        }
+    }
+
+    private void checkBytes(ClientBackend backend, String path, ScriptedResponse response) {
+        try (var result = backend.getBytes(uri(path), ResultKind.AUTO)) {
+            expectSuccess(result);
+            expectBody(response, result.getResultSafe());
+        }
+    }
+
+    private void checkResetBytes(ClientBackend backend, String path) {
+        try (var result = backend.getBytes(uri(path), ResultKind.AUTO)) {
+            expectStatus(result, RequestStatus.ERROR_IO, OperationStatus.NO_RESPONSE);
+        }
+    }
+
+    private URI uri(String path) {
+        return server.getURI(path);
+    }
+
+    private static void expectSuccess(HttpOperationResult<?,?,?,?> result) {
+        expectStatus(result, RequestStatus.SUCCESS, OperationStatus.SUCCESS);
+    }
+
+    private static void expectStatus(
+        HttpOperationResult<?,?,?,?> result,
+        RequestStatus requestStatus,
+        OperationStatus operationStatus
+    ) {
+        expect(
+            result.getRequestStatus() == requestStatus && result.getOperationStatus() == operationStatus,
+            "expected " + requestStatus + "/" + operationStatus + " but was " + result
+        );
+    }
+
+    private static void expectKindError(ResultKind kind, HttpOperationResult<?,?,?,?> result) {
+        IOException e = expectThrows(IOException.class, result::getResult);
+        expect(e.getMessage().equals(kind.name()), "error: " + e);
+    }
+
+    private static void expectBody(ScriptedResponse response, byte[] body) {
+        expect(
+            response.isBody(body),
+            "body does not match: expected " + response.getBodyLength() + " bytes, received " +
+            (body == null ? null : body.length)
+        );
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * An action that is expected to throw.
+     */
+    @FunctionalInterface
+    private interface Action {
+
+        void run() throws Exception;
+
+    }
+
+    private static <E extends Exception> E expectThrows(Class<E> type, Action action) {
+        try {
+            action.run();
+        }
+        catch (Exception e) {
+            if (type.isInstance(e)) {
+                return type.cast(e);
+            }
+            throw new AssertionError("expected " + type.getSimpleName() + " but was " + e, e);
+        }
+        throw new AssertionError("expected " + type.getSimpleName() + " but nothing was thrown");
+    }
+
+    /*
+     * Reads the body published by the given publisher.
+     */
+    private static byte[] collect(Flow.Publisher<List<ByteBuffer>> publisher) throws Exception {
+        CompletableFuture<byte[]> body = new CompletableFuture<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        publisher.subscribe(new Flow.Subscriber<>() {
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> buffers) {
+                for (ByteBuffer buffer : buffers) {
+                    byte[] chunk = new byte[buffer.remaining()];
+                    buffer.get(chunk);
+                    bytes.writeBytes(chunk);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                body.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                body.complete(bytes.toByteArray());
+            }
+
+        });
+        return body.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static Path createTempDirectory() throws IOException {
+        return Files.createTempDirectory("conformance");
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,365 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal implementation of HPACK (RFC 7541) for the {@link StandInServer}: a {@link Decoder} for request header
+ * blocks, which supports the full representation (including the dynamic table and Huffman-coded strings), and an
+ * encoder for response header blocks, which uses only literal representations without indexing.
+ *
+ * @author Dave Shepperton
+ */
+final class Hpack {
+
+    // Not instantiable.
+    private Hpack() {
+    }
+
+    private static final String[][] STATIC_TABLE = {
+        {":authority", ""}, {":method", "GET"}, {":method", "POST"}, {":path", "/"}, {":path", "/index.html"},
+        {":scheme", "http"}, {":scheme", "https"}, {":status", "200"}, {":status", "204"}, {":status", "206"},
+        {":status", "304"}, {":status", "400"}, {":status", "404"}, {":status", "500"}, {"accept-charset", ""},
+        {"accept-encoding", "gzip, deflate"}, {"accept-language", ""}, {"accept-ranges", ""}, {"accept", ""},
+        {"access-control-allow-origin", ""}, {"age", ""}, {"allow", ""}, {"authorization", ""},
+        {"cache-control", ""}, {"content-disposition", ""}, {"content-encoding", ""}, {"content-language", ""},
+        {"content-length", ""}, {"content-location", ""}, {"content-range", ""}, {"content-type", ""},
+        {"cookie", ""}, {"date", ""}, {"etag", ""}, {"expect", ""}, {"expires", ""}, {"from", ""}, {"host", ""},
+        {"if-match", ""}, {"if-modified-since", ""}, {"if-none-match", ""}, {"if-range", ""},
+        {"if-unmodified-since", ""}, {"last-modified", ""}, {"link", ""}, {"location", ""}, {"max-forwards", ""},
+        {"proxy-authenticate", ""}, {"proxy-authorization", ""}, {"range", ""}, {"referer", ""}, {"refresh", ""},
+        {"retry-after", ""}, {"server", ""}, {"set-cookie", ""}, {"strict-transport-security", ""},
+        {"transfer-encoding", ""}, {"user-agent", ""}, {"vary", ""}, {"via", ""}, {"www-authenticate", ""}
+    };
+
+    /*
+     * The Huffman code (RFC 7541, Appendix B) for each octet, right-aligned, and its length in bits.
+     */
+    private static final int[] HUFFMAN_CODES = {
+        0x1ff8, 0x7fffd8, 0xfffffe2, 0xfffffe3, 0xfffffe4, 0xfffffe5, 0xfffffe6, 0xfffffe7,
+        0xfffffe8, 0xffffea, 0x3ffffffc, 0xfffffe9, 0xfffffea, 0x3ffffffd, 0xfffffeb, 0xfffffec,
+        0xfffffed, 0xfffffee, 0xfffffef, 0xffffff0, 0xffffff1, 0xffffff2, 0x3ffffffe, 0xffffff3,
+        0xffffff4, 0xffffff5, 0xffffff6, 0xffffff7, 0xffffff8, 0xffffff9, 0xffffffa, 0xffffffb,
+        0x14, 0x3f8, 0x3f9, 0xffa, 0x1ff9, 0x15, 0xf8, 0x7fa,
+        0x3fa, 0x3fb, 0xf9, 0x7fb, 0xfa, 0x16, 0x17, 0x18,
+        0x0, 0x1, 0x2, 0x19, 0x1a, 0x1b, 0x1c, 0x1d,
+        0x1e, 0x1f, 0x5c, 0xfb, 0x7ffc, 0x20, 0xffb, 0x3fc,
+        0x1ffa, 0x21, 0x5d, 0x5e, 0x5f, 0x60, 0x61, 0x62,
+        0x63, 0x64, 0x65, 0x66, 0x67, 0x68, 0x69, 0x6a,
+        0x6b, 0x6c, 0x6d, 0x6e, 0x6f, 0x70, 0x71, 0x72,
+        0xfc, 0x73, 0xfd, 0x1ffb, 0x7fff0, 0x1ffc, 0x3ffc, 0x22,
+        0x7ffd, 0x3, 0x23, 0x4, 0x24, 0x5, 0x25, 0x26,
+        0x27, 0x6, 0x74, 0x75, 0x28, 0x29, 0x2a, 0x7,
+        0x2b, 0x76, 0x2c, 0x8, 0x9, 0x2d, 0x77, 0x78,
+        0x79, 0x7a, 0x7b, 0x7ffe, 0x7fc, 0x3ffd, 0x1ffd, 0xffffffc,
+        0xfffe6, 0x3fffd2, 0xfffe7, 0xfffe8, 0x3fffd3, 0x3fffd4, 0x3fffd5, 0x7fffd9,
+        0x3fffd6, 0x7fffda, 0x7fffdb, 0x7fffdc, 0x7fffdd, 0x7fffde, 0xffffeb, 0x7fffdf,
+        0xffffec, 0xffffed, 0x3fffd7, 0x7fffe0, 0xffffee, 0x7fffe1, 0x7fffe2, 0x7fffe3,
+        0x7fffe4, 0x1fffdc, 0x3fffd8, 0x7fffe5, 0x3fffd9, 0x7fffe6, 0x7fffe7, 0xffffef,
+        0x3fffda, 0x1fffdd, 0xfffe9, 0x3fffdb, 0x3fffdc, 0x7fffe8, 0x7fffe9, 0x1fffde,
+        0x7fffea, 0x3fffdd, 0x3fffde, 0xfffff0, 0x1fffdf, 0x3fffdf, 0x7fffeb, 0x7fffec,
+        0x1fffe0, 0x1fffe1, 0x3fffe0, 0x1fffe2, 0x7fffed, 0x3fffe1, 0x7fffee, 0x7fffef,
+        0xfffea, 0x3fffe2, 0x3fffe3, 0x3fffe4, 0x7ffff0, 0x3fffe5, 0x3fffe6, 0x7ffff1,
+        0x3ffffe0, 0x3ffffe1, 0xfffeb, 0x7fff1, 0x3fffe7, 0x7ffff2, 0x3fffe8, 0x1ffffec,
+        0x3ffffe2, 0x3ffffe3, 0x3ffffe4, 0x7ffffde, 0x7ffffdf, 0x3ffffe5, 0xfffff1, 0x1ffffed,
+        0x7fff2, 0x1fffe3, 0x3ffffe6, 0x7ffffe0, 0x7ffffe1, 0x3ffffe7, 0x7ffffe2, 0xfffff2,
+        0x1fffe4, 0x1fffe5, 0x3ffffe8, 0x3ffffe9, 0xffffffd, 0x7ffffe3, 0x7ffffe4, 0x7ffffe5,
+        0xfffec, 0xfffff3, 0xfffed, 0x1fffe6, 0x3fffe9, 0x1fffe7, 0x1fffe8, 0x7ffff3,
+        0x3fffea, 0x3fffeb, 0x1ffffee, 0x1ffffef, 0xfffff4, 0xfffff5, 0x3ffffea, 0x7ffff4,
+        0x3ffffeb, 0x7ffffe6, 0x3ffffec, 0x3ffffed, 0x7ffffe7, 0x7ffffe8, 0x7ffffe9, 0x7ffffea,
+        0x7ffffeb, 0xffffffe, 0x7ffffec, 0x7ffffed, 0x7ffffee, 0x7ffffef, 0x7fffff0, 0x3ffffee
+    };
+
+    private static final byte[] HUFFMAN_LENGTHS = {
+        13, 23, 28, 28, 28, 28, 28, 28, 28, 24, 30, 28, 28, 30, 28, 28,
+        28, 28, 28, 28, 28, 28, 30, 28, 28, 28, 28, 28, 28, 28, 28, 28,
+        6, 10, 10, 12, 13, 6, 8, 11, 10, 10, 8, 11, 8, 6, 6, 6,
+        5, 5, 5, 6, 6, 6, 6, 6, 6, 6, 7, 8, 15, 6, 12, 10,
+        13, 6, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7,
+        7, 7, 7, 7, 7, 7, 7, 7, 8, 7, 8, 13, 19, 13, 14, 6,
+        15, 5, 6, 5, 6, 5, 6, 6, 6, 5, 7, 7, 6, 6, 6, 5,
+        6, 7, 6, 5, 5, 6, 7, 7, 7, 7, 7, 15, 11, 14, 13, 28,
+        20, 22, 20, 20, 22, 22, 22, 23, 22, 23, 23, 23, 23, 23, 24, 23,
+        24, 24, 22, 23, 24, 23, 23, 23, 23, 21, 22, 23, 22, 23, 23, 24,
+        22, 21, 20, 22, 22, 23, 23, 21, 23, 22, 22, 24, 21, 22, 23, 23,
+        21, 21, 22, 21, 23, 22, 23, 23, 20, 22, 22, 22, 23, 22, 22, 23,
+        26, 26, 20, 19, 22, 23, 22, 25, 26, 26, 26, 27, 27, 26, 24, 25,
+        19, 21, 26, 27, 27, 26, 27, 24, 21, 21, 26, 26, 28, 27, 27, 27,
+        20, 24, 20, 21, 22, 21, 21, 23, 22, 22, 25, 25, 24, 24, 26, 23,
+        26, 27, 26, 26, 27, 27, 27, 27, 27, 28, 27, 27, 27, 27, 27, 26
+    };
+
+    /*
+     * The Huffman decoding tree, as parallel arrays of child node indexes for 0 and 1 bits, in which a negative value
+     * is a leaf holding the bitwise complement of its symbol. Node 0 is the root.
+     */
+    private static final int[] ZERO_CHILDREN;
+
+    private static final int[] ONE_CHILDREN;
+
+    static {
+        int[] zeros = new int[512];
+        int[] ones = new int[512];
+        int nodeCount = 1;
+        for (int symbol = 0; symbol < HUFFMAN_CODES.length; symbol++) {
+            int code = HUFFMAN_CODES[symbol];
+            int node = 0;
+            for (int bit = HUFFMAN_LENGTHS[symbol] - 1; bit >= 0; bit--) {
+                int[] children = ((code >>> bit) & 1) == 0 ? zeros : ones;
+                if (bit == 0) {
+                    children[node] = ~symbol;
+                }
+                else {
+                    if (children[node] == 0) {
+                        children[node] = nodeCount++;
+                    }
+                    node = children[node];
+                }
+            }
+        }
+        ZERO_CHILDREN = zeros;
+        ONE_CHILDREN = ones;
+    }
+
+    /**
+     * Appends a header block fragment for the given header, as a literal header field without indexing, with a
+     * literal name, to the given output.
+     *
+     * @param out
+     *     the output.
+     * @param name
+     *     the header name, which should be in lower case.
+     * @param value
+     *     the header value.
+     */
+    static void encodeLiteral(ByteArrayOutputStream out, String name, String value) {
+        out.write(0);
+        encodeString(out, name);
+        encodeString(out, value);
+    }
+
+    private static void encodeString(ByteArrayOutputStream out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.ISO_8859_1);
+        encodeInteger(out, 0, 7, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void encodeInteger(ByteArrayOutputStream out, int flags, int prefixBits, int value) {
+        int max = (1 << prefixBits) - 1;
+        if (value < max) {
+            out.write(flags | value);
+            return;
+        }
+        out.write(flags | max);
+        value -= max;
+        while (value >= 0x80) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Decodes request header blocks on one HTTP/2 connection, maintaining the dynamic table between blocks. Decoders
+     * are not thread-safe.
+     */
+    static final class Decoder {
+
+        private static final int ENTRY_OVERHEAD = 32;
+
+        private final int maxTableSize;
+
+        private final ArrayDeque<String[]> dynamicTable = new ArrayDeque<>();
+
+        private int tableCapacity;
+
+        private int tableSize;
+
+        private byte[] block;
+
+        private int position;
+
+        /**
+         * Creates a decoder with the given maximum dynamic table size, i.e., the SETTINGS_HEADER_TABLE_SIZE that was
+         * sent to the peer.
+         *
+         * @param maxTableSize
+         *     the maximum dynamic table size.
+         */
+        Decoder(int maxTableSize) {
+            this.maxTableSize = maxTableSize;
+            this.tableCapacity = maxTableSize;
+        }
+
+        /**
+         * Decodes a complete header block.
+         *
+         * @param block
+         *     the header block.
+         * @return the decoded headers, in order.
+         * @throws IOException
+         *     if the block is malformed; the connection must then be closed with a COMPRESSION_ERROR.
+         */
+        List<Map.Entry<String,String>> decode(byte[] block) throws IOException {
+            this.block = block;
+            this.position = 0;
+            List<Map.Entry<String,String>> headers = new ArrayList<>();
+            while (position < block.length) {
+                int b = block[position] & 0xff;
+                if ((b & 0x80) != 0) {
+                    String[] field = getField(decodeInteger(7));
+                    headers.add(Map.entry(field[0], field[1]));
+                }
+                else if ((b & 0x40) != 0) {
+                    String[] field = decodeLiteral(6);
+                    headers.add(Map.entry(field[0], field[1]));
+                    add(field);
+                }
+                else if ((b & 0x20) != 0) {
+                    int capacity = decodeInteger(5);
+                    if (capacity > maxTableSize) {
+                        throw new IOException("Dynamic table size update exceeds the maximum: " + capacity);
+                    }
+                    tableCapacity = capacity;
+                    evict(0);
+                }
+                else {
+                    String[] field = decodeLiteral(4);
+                    headers.add(Map.entry(field[0], field[1]));
+                }
+            }
+            this.block = null;
+            return headers;
+        }
+
+        private String[] decodeLiteral(int prefixBits) throws IOException {
+            int index = decodeInteger(prefixBits);
+            String name = index == 0 ? decodeString() : getField(index)[0];
+            return new String[] {name, decodeString()};
+        }
+
+        private String[] getField(int index) throws IOException {
+            if (index >= 1 && index <= STATIC_TABLE.length) {
+                return STATIC_TABLE[index - 1];
+            }
+            int dynamicIndex = index - STATIC_TABLE.length - 1;
+            if (index < 1 || dynamicIndex >= dynamicTable.size()) {
+                throw new IOException("Invalid header table index: " + index);
+            }
+            Iterator<String[]> it = dynamicTable.iterator();
+            for (int i = 0; i < dynamicIndex; i++) {
+                it.next();
+            }
+            return it.next();
+        }
+
+        private void add(String[] field) {
+            int size = entrySize(field);
+            evict(size);
+            if (size <= tableCapacity) {
+                dynamicTable.addFirst(field);
+                tableSize += size;
+            }
+        }
+
+        private void evict(int required) {
+            while (!dynamicTable.isEmpty() && tableSize + required > tableCapacity) {
+                tableSize -= entrySize(dynamicTable.removeLast());
+            }
+        }
+
+        private static int entrySize(String[] field) {
+            // Names and values are decoded as ISO-8859-1, so each char is one octet.
+            return field[0].length() + field[1].length() + ENTRY_OVERHEAD;
+        }
+
+        private int decodeInteger(int prefixBits) throws IOException {
+            int max = (1 << prefixBits) - 1;
+            int value = next() & max;
+            if (value < max) {
+                return value;
+            }
+            for (int shift = 0; ; shift += 7) {
+                if (shift > 21) {
+                    throw new IOException("Integer overflow in header block");
+                }
+                int b = next();
+                value += (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private String decodeString() throws IOException {
+            boolean huffman = position < block.length && (block[position] & 0x80) != 0;
+            int length = decodeInteger(7);
+            if (length > block.length - position) {
+                throw new IOException("String length exceeds header block: " + length);
+            }
+            int start = position;
+            position += length;
+            if (!huffman) {
+                return new String(block, start, length, StandardCharsets.ISO_8859_1);
+            }
+            StringBuilder buff = new StringBuilder(length + (length >> 1));
+            int node = 0;
+            int depth = 0;
+            for (int i = start; i < start + length; i++) {
+                int b = block[i] & 0xff;
+                for (int bit = 7; bit >= 0; bit--) {
+                    int child = ((b >>> bit) & 1) == 0 ? ZERO_CHILDREN[node] : ONE_CHILDREN[node];
+                    if (child < 0) {
+                        buff.append((char) ~child);
+                        node = 0;
+                        depth = 0;
+                    }
+                    else if (child == 0) {
+                        throw new IOException("Invalid Huffman code in header block");
+                    }
+                    else {
+                        node = child;
+                        depth++;
+                    }
+                }
+            }
+            if (depth > 7) {
+                throw new IOException("Invalid Huffman padding in header block");
+            }
+            return buff.toString();
+        }
+
+        private int next() throws IOException {
+            if (position >= block.length) {
+                throw new IOException("Truncated header block");
+            }
+            return block[position++] & 0xff;
+        }
+
+    }
+
+}
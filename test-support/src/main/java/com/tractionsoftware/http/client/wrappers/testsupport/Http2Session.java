@@ -0,0 +1,611 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves {@link ScriptedResponse}s over one HTTP/2 connection (RFC 9113) for a {@link StandInServer}. Frames are read
+ * on the connection's thread, and each stream's response is written on its own virtual thread, subject to the
+ * connection and stream flow-control windows granted by the client. Request bodies are discarded, and their flow
+ * control credit is returned immediately. Server push and priorities are not supported.
+ *
+ * @author Dave Shepperton
+ */
+final class Http2Session {
+
+    private static final Logger LOG = Logger.getLogger(Http2Session.class.getName());
+
+    private static final int DATA = 0x0;
+
+    private static final int HEADERS = 0x1;
+
+    private static final int RST_STREAM = 0x3;
+
+    private static final int SETTINGS = 0x4;
+
+    private static final int PUSH_PROMISE = 0x5;
+
+    private static final int PING = 0x6;
+
+    private static final int GOAWAY = 0x7;
+
+    private static final int WINDOW_UPDATE = 0x8;
+
+    private static final int CONTINUATION = 0x9;
+
+    private static final int FLAG_END_STREAM = 0x1;
+
+    private static final int FLAG_ACK = 0x1;
+
+    private static final int FLAG_END_HEADERS = 0x4;
+
+    private static final int FLAG_PADDED = 0x8;
+
+    private static final int FLAG_PRIORITY = 0x20;
+
+    private static final int SETTINGS_INITIAL_WINDOW_SIZE = 0x4;
+
+    private static final int SETTINGS_MAX_FRAME_SIZE = 0x5;
+
+    private static final int ERROR_PROTOCOL = 0x1;
+
+    private static final int ERROR_INTERNAL = 0x2;
+
+    private static final int ERROR_FRAME_SIZE = 0x6;
+
+    private static final int ERROR_COMPRESSION = 0x9;
+
+    private static final int DEFAULT_WINDOW_SIZE = 65535;
+
+    private static final int DEFAULT_FRAME_SIZE = 16384;
+
+    private static final int HEADER_TABLE_SIZE = 4096;
+
+    /*
+     * Headers that are specific to HTTP/1.1 connections, which must not be sent over HTTP/2.
+     */
+    private static final Set<String> CONNECTION_HEADERS =
+        Set.of("connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade");
+
+    private final StandInServer server;
+
+    private final InputStream in;
+
+    private final OutputStream out;
+
+    private final Hpack.Decoder decoder = new Hpack.Decoder(HEADER_TABLE_SIZE);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition windowAvailable = lock.newCondition();
+
+    // The following fields are guarded by the lock.
+
+    private final Map<Integer,Stream> streams = new HashMap<>();
+
+    private long connectionWindow = DEFAULT_WINDOW_SIZE;
+
+    private int initialWindowSize = DEFAULT_WINDOW_SIZE;
+
+    private int maxFrameSize = DEFAULT_FRAME_SIZE;
+
+    private boolean closed;
+
+    // The following fields are only used on the connection's thread.
+
+    private ByteArrayOutputStream headerBlock;
+
+    private int headerBlockStreamId;
+
+    private boolean headerBlockEndsStream;
+
+    Http2Session(StandInServer server, InputStream in, OutputStream out) {
+        this.server = server;
+        this.in = in;
+        this.out = out;
+    }
+
+    /*
+     * Serves the connection until it is closed, after the client's connection preface has been read. If the
+     * connection was upgraded, the given request is served on stream 1.
+     */
+    void run(StandInServer.Http1Request upgradedRequest) throws IOException {
+        if (upgradedRequest != null) {
+            String settings = upgradedRequest.getHeader("HTTP2-Settings");
+            try {
+                applySettings(ByteBuffer.wrap(Base64.getUrlDecoder().decode(settings.trim())));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException("Invalid HTTP2-Settings header: " + settings, e);
+            }
+        }
+        writeFrame(SETTINGS, 0, 0, new byte[0], 0, 0);
+        if (upgradedRequest != null) {
+            dispatch(openStream(1), upgradedRequest.method(), upgradedRequest.target());
+        }
+        try {
+            readFrames();
+        }
+        finally {
+            lock.lock();
+            try {
+                closed = true;
+                windowAvailable.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void readFrames() throws IOException {
+        byte[] header = new byte[9];
+        for (;;) {
+            if (in.readNBytes(header, 0, 9) < 9) {
+                return;
+            }
+            int length = ((header[0] & 0xff) << 16) | ((header[1] & 0xff) << 8) | (header[2] & 0xff);
+            int type = header[3] & 0xff;
+            int flags = header[4] & 0xff;
+            int streamId = ByteBuffer.wrap(header, 5, 4).getInt() & 0x7fffffff;
+            if (length > DEFAULT_FRAME_SIZE) {
+                goAway(ERROR_FRAME_SIZE);
+                return;
+            }
+            byte[] payload = in.readNBytes(length);
+            if (payload.length < length) {
+                return;
+            }
+            if (headerBlock != null && type != CONTINUATION) {
+                goAway(ERROR_PROTOCOL);
+                return;
+            }
+            switch (type) {
+                case DATA -> {
+                    if (length > 0) {
+                        // The body is discarded, so its flow control credit can be returned immediately.
+                        writeWindowUpdate(0, length);
+                        if ((flags & FLAG_END_STREAM) == 0) {
+                            writeWindowUpdate(streamId, length);
+                        }
+                    }
+                    if ((flags & FLAG_END_STREAM) != 0) {
+                        Stream stream = getStream(streamId);
+                        if (stream != null) {
+                            dispatch(stream, stream.method, stream.path);
+                        }
+                    }
+                }
+                case HEADERS -> {
+                    int offset = 0;
+                    int padding = 0;
+                    if ((flags & FLAG_PADDED) != 0) {
+                        padding = payload[0] & 0xff;
+                        offset = 1;
+                    }
+                    if ((flags & FLAG_PRIORITY) != 0) {
+                        offset += 5;
+                    }
+                    if (offset + padding > length) {
+                        goAway(ERROR_PROTOCOL);
+                        return;
+                    }
+                    headerBlock = new ByteArrayOutputStream(length);
+                    headerBlock.write(payload, offset, length - offset - padding);
+                    headerBlockStreamId = streamId;
+                    headerBlockEndsStream = (flags & FLAG_END_STREAM) != 0;
+                    if ((flags & FLAG_END_HEADERS) != 0 && !endHeaders()) {
+                        return;
+                    }
+                }
+                case CONTINUATION -> {
+                    if (headerBlock == null || streamId != headerBlockStreamId) {
+                        goAway(ERROR_PROTOCOL);
+                        return;
+                    }
+                    headerBlock.write(payload, 0, length);
+                    if ((flags & FLAG_END_HEADERS) != 0 && !endHeaders()) {
+                        return;
+                    }
+                }
+                case RST_STREAM -> {
+                    lock.lock();
+                    try {
+                        Stream stream = streams.remove(streamId);
+                        if (stream != null) {
+                            stream.cancelled = true;
+                            windowAvailable.signalAll();
+                        }
+                    }
+                    finally {
+                        lock.unlock();
+                    }
+                }
+                case SETTINGS -> {
+                    if ((flags & FLAG_ACK) == 0) {
+                        applySettings(ByteBuffer.wrap(payload));
+                        writeFrame(SETTINGS, FLAG_ACK, 0, new byte[0], 0, 0);
+                    }
+                }
+                case PING -> {
+                    if ((flags & FLAG_ACK) == 0) {
+                        writeFrame(PING, FLAG_ACK, 0, payload, 0, length);
+                    }
+                }
+                case GOAWAY -> {
+                    return;
+                }
+                case WINDOW_UPDATE -> {
+                    int increment = ByteBuffer.wrap(payload).getInt() & 0x7fffffff;
+                    lock.lock();
+                    try {
+                        if (streamId == 0) {
+                            connectionWindow += increment;
+                        }
+                        else {
+                            Stream stream = streams.get(streamId);
+                            if (stream != null) {
+                                stream.window += increment;
+                            }
+                        }
+                        windowAvailable.signalAll();
+                    }
+                    finally {
+                        lock.unlock();
+                    }
+                }
+                case PUSH_PROMISE -> {
+                    goAway(ERROR_PROTOCOL);
+                    return;
+                }
+                default -> {
+                    // PRIORITY and unknown frame types are ignored.
+                }
+            }
+        }
+    }
+
+    /*
+     * Decodes a complete header block, and opens its stream, returning false if the connection must be closed.
+     */
+    private boolean endHeaders() throws IOException {
+        byte[] block = headerBlock.toByteArray();
+        headerBlock = null;
+        List<Map.Entry<String,String>> headers;
+        try {
+            headers = decoder.decode(block);
+        }
+        catch (IOException e) {
+            LOG.log(Level.FINE, "Failed to decode header block", e);
+            goAway(ERROR_COMPRESSION);
+            return false;
+        }
+        if (getStream(headerBlockStreamId) != null) {
+            // Trailers, which are ignored; the stream is dispatched at its end.
+            if (headerBlockEndsStream) {
+                Stream stream = getStream(headerBlockStreamId);
+                dispatch(stream, stream.method, stream.path);
+            }
+            return true;
+        }
+        Stream stream = openStream(headerBlockStreamId);
+        for (Map.Entry<String,String> header : headers) {
+            switch (header.getKey()) {
+                case ":method" -> stream.method = header.getValue();
+                case ":path" -> stream.path = header.getValue();
+                default -> {
+                }
+            }
+        }
+        if (stream.method == null || stream.path == null) {
+            writeFrame(RST_STREAM, 0, stream.id, ByteBuffer.allocate(4).putInt(ERROR_PROTOCOL).array(), 0, 4);
+            removeStream(stream);
+            return true;
+        }
+        if (headerBlockEndsStream) {
+            dispatch(stream, stream.method, stream.path);
+        }
+        return true;
+    }
+
+    private Stream openStream(int id) {
+        lock.lock();
+        try {
+            Stream stream = new Stream(id, initialWindowSize);
+            streams.put(id, stream);
+            return stream;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private Stream getStream(int id) {
+        lock.lock();
+        try {
+            return streams.get(id);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeStream(Stream stream) {
+        lock.lock();
+        try {
+            streams.remove(stream.id, stream);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch(Stream stream, String method, String path) {
+        if (stream.dispatched) {
+            return;
+        }
+        stream.dispatched = true;
+        server.recordHttp2Request();
+        try {
+            server.execute(() -> respond(stream, method, path));
+        }
+        catch (RejectedExecutionException e) {
+            removeStream(stream);
+        }
+    }
+
+    private void respond(Stream stream, String method, String path) {
+        ScriptedResponse response = server.getResponse(path);
+        try {
+            if (response.getDelay().isPositive()) {
+                Thread.sleep(response.getDelay());
+            }
+            boolean hasBody = StandInServer.hasBody(response.getStatusCode()) && !method.equals("HEAD");
+            ByteArrayOutputStream block = new ByteArrayOutputStream(256);
+            Hpack.encodeLiteral(block, ":status", Integer.toString(response.getStatusCode()));
+            for (Map.Entry<String,String> header : response.getHeaders()) {
+                String name = header.getKey().toLowerCase(Locale.ROOT);
+                if (!CONNECTION_HEADERS.contains(name)) {
+                    Hpack.encodeLiteral(block, name, header.getValue());
+                }
+            }
+            if (StandInServer.hasBody(response.getStatusCode()) && !response.isChunked()) {
+                Hpack.encodeLiteral(block, "content-length", Long.toString(response.getBodyLength()));
+            }
+            writeHeaders(stream.id, block.toByteArray(), !hasBody);
+            if (hasBody) {
+                StandInServer.sendBody(response, new StandInServer.BodySink() {
+
+                    @Override
+                    public void write(byte[] buffer, int length) throws IOException {
+                        writeData(stream, buffer, length);
+                    }
+
+                    @Override
+                    public void flush() {
+                        // Every frame is flushed as it is written.
+                    }
+
+                    @Override
+                    public void reset() throws IOException {
+                        byte[] errorCode = ByteBuffer.allocate(4).putInt(ERROR_INTERNAL).array();
+                        writeFrame(RST_STREAM, 0, stream.id, errorCode, 0, 4);
+                    }
+
+                    @Override
+                    public void finish() throws IOException {
+                        writeFrame(DATA, FLAG_END_STREAM, stream.id, new byte[0], 0, 0);
+                    }
+
+                });
+            }
+        }
+        catch (IOException e) {
+            if (!stream.cancelled) {
+                LOG.log(Level.FINE, e, () -> "Failed to send response on stream " + stream.id);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            removeStream(stream);
+        }
+    }
+
+    private void writeHeaders(int streamId, byte[] block, boolean endStream) throws IOException {
+        int frameSize;
+        lock.lock();
+        try {
+            frameSize = maxFrameSize;
+        }
+        finally {
+            lock.unlock();
+        }
+        int endStreamFlag = endStream ? FLAG_END_STREAM : 0;
+        synchronized (out) {
+            // A header block must not be interleaved with other frames, so its frames are written together.
+            int length = Math.min(block.length, frameSize);
+            writeFrameUnlocked(
+                HEADERS,
+                endStreamFlag | (length == block.length ? FLAG_END_HEADERS : 0),
+                streamId,
+                block,
+                0,
+                length
+            );
+            for (int offset = length; offset < block.length; offset += length) {
+                length = Math.min(block.length - offset, frameSize);
+                writeFrameUnlocked(
+                    CONTINUATION,
+                    offset + length == block.length ? FLAG_END_HEADERS : 0,
+                    streamId,
+                    block,
+                    offset,
+                    length
+                );
+            }
+            out.flush();
+        }
+    }
+
+    /*
+     * Writes part of the body of the given stream in DATA frames, waiting for the flow control windows as needed.
+     */
+    private void writeData(Stream stream, byte[] buffer, int length) throws IOException {
+        for (int offset = 0; offset < length; ) {
+            int n;
+            lock.lock();
+            try {
+                while (!closed && !stream.cancelled && (connectionWindow <= 0 || stream.window <= 0)) {
+                    windowAvailable.await();
+                }
+                if (closed || stream.cancelled) {
+                    throw new IOException("Stream " + stream.id + " was closed");
+                }
+                n = (int) Math.min(length - offset, Math.min(maxFrameSize, Math.min(connectionWindow, stream.window)));
+                connectionWindow -= n;
+                stream.window -= n;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the flow control window");
+            }
+            finally {
+                lock.unlock();
+            }
+            writeFrame(DATA, 0, stream.id, buffer, offset, n);
+            offset += n;
+        }
+    }
+
+    private void applySettings(ByteBuffer settings) throws IOException {
+        if (settings.remaining() % 6 != 0) {
+            throw new IOException("Invalid SETTINGS payload length: " + settings.remaining());
+        }
+        lock.lock();
+        try {
+            while (settings.hasRemaining()) {
+                int id = settings.getShort() & 0xffff;
+                int value = settings.getInt();
+                switch (id) {
+                    case SETTINGS_INITIAL_WINDOW_SIZE -> {
+                        int delta = value - initialWindowSize;
+                        initialWindowSize = value;
+                        for (Stream stream : streams.values()) {
+                            stream.window += delta;
+                        }
+                        windowAvailable.signalAll();
+                    }
+                    case SETTINGS_MAX_FRAME_SIZE -> maxFrameSize = value;
+                    default -> {
+                        // SETTINGS_HEADER_TABLE_SIZE only limits the encoder's dynamic table, which is not used.
+                    }
+                }
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeWindowUpdate(int streamId, int increment) throws IOException {
+        writeFrame(WINDOW_UPDATE, 0, streamId, ByteBuffer.allocate(4).putInt(increment).array(), 0, 4);
+    }
+
+    private void goAway(int errorCode) throws IOException {
+        int lastStreamId;
+        lock.lock();
+        try {
+            lastStreamId = streams.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+        finally {
+            lock.unlock();
+        }
+        writeFrame(GOAWAY, 0, 0, ByteBuffer.allocate(8).putInt(lastStreamId).putInt(errorCode).array(), 0, 8);
+    }
+
+    private void writeFrame(int type, int flags, int streamId, byte[] payload, int offset, int length)
+        throws IOException
+    {
+        synchronized (out) {
+            writeFrameUnlocked(type, flags, streamId, payload, offset, length);
+            out.flush();
+        }
+    }
+
+    private void writeFrameUnlocked(int type, int flags, int streamId, byte[] payload, int offset, int length)
+        throws IOException
+    {
+        out.write(length >>> 16);
+        out.write(length >>> 8);
+        out.write(length);
+        out.write(type);
+        out.write(flags);
+        out.write(streamId >>> 24);
+        out.write(streamId >>> 16);
+        out.write(streamId >>> 8);
+        out.write(streamId);
+        out.write(payload, offset, length);
+    }
+
+    /**
+     * The state of one stream.
+     */
+    private static final class Stream {
+
+        private final int id;
+
+        // Guarded by the session's lock.
+        private long window;
+
+        private volatile boolean cancelled;
+
+        // Only used on the connection's thread.
+        private boolean dispatched;
+
+        private String method;
+
+        private String path;
+
+        private Stream(int id, int window) {
+            this.id = id;
+            this.window = window;
+        }
+
+    }
+
+}
@@ -0,0 +1,262 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import com.tractionsoftware.http.client.wrappers.DownloadedFile;
+import com.tractionsoftware.http.client.wrappers.HttpClientSettings;
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import com.tractionsoftware.http.client.wrappers.HttpOperationTiming;
+import com.tractionsoftware.http.client.wrappers.PooledBody;
+import com.tractionsoftware.http.client.wrappers.javahc.JavaHttpOperationClient;
+import com.tractionsoftware.http.client.wrappers.javahc.JavaResults;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.BiFunction;
+
+/**
+ * A {@link ClientBackend} for the built-in Java HTTP client, via {@link JavaHttpOperationClient} and
+ * {@link JavaResults}.
+ *
+ * @author Dave Shepperton
+ */
+public final class JavaClientBackend implements ClientBackend {
+
+    /**
+     * The maximum time for which {@link #close()} waits for requests in progress to complete, before aborting them.
+     */
+    public static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final JavaHttpOperationClient client;
+
+    private JavaClientBackend(JavaHttpOperationClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Creates a backend with a new client, which uses HTTP/2 (upgrading from HTTP/1.1) or HTTP/1.1 as requested.
+     *
+     * @param settings
+     *     the settings for the client, whose {@link HttpClientSettings#isPreferHttp2()} determines the protocol.
+     * @return a new {@link JavaClientBackend}.
+     */
+    public static JavaClientBackend createInstance(HttpClientSettings settings) {
+        return new JavaClientBackend(JavaHttpOperationClient.createInstance(settings));
+    }
+
+    @Override
+    public ClientBackend createIsolatedInstance() {
+        return createInstance(client.getSettings());
+    }
+
+    @Override
+    public String getName() {
+        return "java-hc/" + (isHttp2() ? "HTTP/2" : "HTTP/1.1");
+    }
+
+    @Override
+    public boolean isHttp2() {
+        return client.getSettings().isPreferHttp2();
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> getBytes(URI uri, ResultKind kind) {
+        return client.send(
+            createRequest(uri),
+            HttpResponse.BodyHandlers.ofByteArray(),
+            createResultFactory(kind),
+            IOException::new
+        );
+    }
+
+    @Override
+    public CompletableFuture<? extends HttpOperationResult<?,?,byte[],IOException>> getBytesAsync(
+        URI uri,
+        ResultKind kind,
+        HttpOperationTiming timing
+    ) {
+        return JavaResults.sendAsync(
+            client.getHttpClient(),
+            createRequest(uri),
+            HttpResponse.BodyHandlers.ofByteArray(),
+            createResultFactory(kind),
+            IOException::new,
+            timing
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,InputStream,IOException> getStream(URI uri) {
+        return client.send(
+            createRequest(uri),
+            HttpResponse.BodyHandlers.ofInputStream(),
+            createResultFactory(ResultKind.AUTO),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,ReadableByteChannel,IOException> getChannel(URI uri) {
+        return client.send(
+            createRequest(uri),
+            JavaResults.createChannelBodyHandler(),
+            createResultFactory(ResultKind.AUTO),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,Flow.Publisher<List<ByteBuffer>>,IOException> getPublisher(URI uri) {
+        return client.send(
+            createRequest(uri),
+            HttpResponse.BodyHandlers.ofPublisher(),
+            createResultFactory(ResultKind.AUTO),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,PooledBody,IOException> getPooledBody(URI uri) {
+        return client.send(
+            createRequest(uri),
+            JavaResults.createPooledBodyHandler(),
+            createResultFactory(ResultKind.AUTO),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,DownloadedFile,IOException> download(URI uri, Path target) {
+        return client.send(
+            createRequest(uri),
+            JavaResults.createDownloadBodyHandler(target),
+            (request, response) -> JavaResults.createResultForDownload(request, response, e -> e),
+            IOException::new
+        );
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> createRequestSetupError(IOException error) {
+        return JavaResults.createInstanceForRequestSetupError(error);
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> createRequestIOFailure(URI uri, IOException error) {
+        return JavaResults.createInstanceForRequestIOFailure(createRequest(uri), error);
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> createRequestInterrupted(URI uri, InterruptedException error) {
+        return JavaResults.createInstanceForRequestInterrupted(createRequest(uri), error);
+    }
+
+    @Override
+    public HttpOperationResult<?,?,byte[],IOException> createOtherError(URI uri, IOException error) {
+        return JavaResults.createInstanceForOtherError(createRequest(uri), error);
+    }
+
+    /**
+     * Closes the client, waiting at most {@link #CLOSE_TIMEOUT} for requests in progress to complete. The built-in
+     * client's own close() can wait indefinitely for an HTTP/2 connection on which a stream was reset, so it is only
+     * invoked once the client has terminated.
+     */
+    @Override
+    public void close() {
+        HttpClient httpClient = client.getHttpClient();
+        httpClient.shutdown();
+        try {
+            if (!httpClient.awaitTermination(CLOSE_TIMEOUT)) {
+                httpClient.shutdownNow();
+                httpClient.awaitTermination(CLOSE_TIMEOUT);
+            }
+        }
+        catch (InterruptedException e) {
+            httpClient.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (httpClient.isTerminated()) {
+            client.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JavaClientBackend[" + getName() + "]";
+    }
+
+    private static HttpRequest createRequest(URI uri) {
+        return HttpRequest.newBuilder(uri).GET().build();
+    }
+
+    /*
+     * Returns a result factory that creates results of the given kind.
+     */
+    private static <T> BiFunction<HttpRequest,HttpResponse<T>,HttpOperationResult<HttpRequest,HttpResponse<T>,T,IOException>> createResultFactory(
+        ResultKind kind
+    ) {
+        return (request, response) -> {
+            int statusCode = response.statusCode();
+            return switch (kind) {
+                case AUTO -> {
+                    if (statusCode >= 200 && statusCode < 300) {
+                        yield JavaResults.createResultForSuccessfulOperation(request, response);
+                    }
+                    if (statusCode >= 500) {
+                        yield JavaResults.createResultForServerError(request, response);
+                    }
+                    yield JavaResults.createResultForOperationFailure(request, response, kind.createError(statusCode));
+                }
+                case SUCCESS -> JavaResults.createResultForSuccessfulOperation(request, response);
+                case WARNING -> JavaResults.createResultForOperationFailureWarning(
+                    request,
+                    response,
+                    kind.createError(statusCode)
+                );
+                case RESPONSE_PROCESSING_ERROR -> JavaResults.createInstanceForResponseProcessingError(
+                    request,
+                    response,
+                    kind.createError(statusCode)
+                );
+                case FAILURE -> JavaResults.createResultForOperationFailure(
+                    request,
+                    response,
+                    kind.createError(statusCode)
+                );
+                case SERVER_ERROR -> JavaResults.createResultForServerError(request, response);
+                case SERVER_ERROR_WITH_EXCEPTION -> JavaResults.createResultForServerError(
+                    request,
+                    response,
+                    kind.createError(statusCode)
+                );
+            };
+        };
+    }
+
+}
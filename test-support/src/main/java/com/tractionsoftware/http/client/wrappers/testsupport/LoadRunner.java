@@ -0,0 +1,379 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import com.tractionsoftware.http.client.wrappers.HttpOperationResult;
+import com.tractionsoftware.http.client.wrappers.testsupport.ClientBackend.ResultKind;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends a fixed number of requests for a scripted response through a {@link ClientBackend}, from a fixed number of
+ * concurrent virtual threads, and reports the throughput and latency percentiles. Each request's body is read into a
+ * byte array, and any request that does not succeed with the complete body counts as a failure.
+ *
+ * @author Dave Shepperton
+ */
+public final class LoadRunner {
+
+    private static final String PATH = "/load";
+
+    private final int requestCount;
+
+    private final int warmupRequestCount;
+
+    private final int concurrency;
+
+    private final ScriptedResponse response;
+
+    private LoadRunner(Builder builder) {
+        this.requestCount = builder.requestCount;
+        this.warmupRequestCount = builder.warmupRequestCount;
+        this.concurrency = builder.concurrency;
+        ScriptedResponse.Builder response = ScriptedResponse.createBuilder(200)
+            .addHeader("Content-Type", "application/octet-stream")
+            .setGeneratedBody(builder.bodySize)
+            .setDelay(builder.latency);
+        if (builder.chunkSize > 0) {
+            response.setChunked(builder.chunkSize);
+        }
+        this.response = response.build();
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder createBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Runs the warmup requests, and then the measured requests, against the given server through the given backend.
+     *
+     * @param server
+     *     the server, on which the response is scripted.
+     * @param backend
+     *     the backend.
+     * @return the {@link Report} of the measured requests.
+     * @throws InterruptedException
+     *     if interrupted while waiting for the requests to complete.
+     */
+    public Report run(StandInServer server, ClientBackend backend) throws InterruptedException {
+        URI uri = server.setResponse(PATH, response);
+        send(backend, uri, new long[warmupRequestCount]);
+        long[] latencies = new long[requestCount];
+        long start = System.nanoTime();
+        long failures = send(backend, uri, latencies);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Arrays.sort(latencies);
+        return new Report(backend.getName(), requestCount, failures, elapsed, latencies);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadRunner[requestCount=" + requestCount +
+               ", warmupRequestCount=" + warmupRequestCount +
+               ", concurrency=" + concurrency +
+               ", response=" + response + "]";
+    }
+
+    /*
+     * Sends as many requests as there are latencies to record, returning the number of failures.
+     */
+    private long send(ClientBackend backend, URI uri, long[] latencies) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong failures = new AtomicLong();
+        List<Thread> threads = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int index = next.getAndIncrement(); index < latencies.length; index = next.getAndIncrement()) {
+                    long start = System.nanoTime();
+                    try (HttpOperationResult<?,?,byte[],?> result = backend.getBytes(uri, ResultKind.AUTO)) {
+                        byte[] body = result.getResultSafe();
+                        if (!result.operationSucceeded() || body == null || body.length != response.getBodyLength()) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    latencies[index] = System.nanoTime() - start;
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return failures.get();
+    }
+
+    /**
+     * The throughput and latency of a run of requests.
+     */
+    public static final class Report {
+
+        private final String backendName;
+
+        private final int requestCount;
+
+        private final long failureCount;
+
+        private final Duration elapsed;
+
+        private final long[] sortedLatencies;
+
+        private Report(
+            String backendName,
+            int requestCount,
+            long failureCount,
+            Duration elapsed,
+            long[] sortedLatencies
+        ) {
+            this.backendName = backendName;
+            this.requestCount = requestCount;
+            this.failureCount = failureCount;
+            this.elapsed = elapsed;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        /**
+         * Returns the name of the backend.
+         *
+         * @return the name of the backend.
+         */
+        public String getBackendName() {
+            return backendName;
+        }
+
+        /**
+         * Returns the number of measured requests.
+         *
+         * @return the number of measured requests.
+         */
+        public int getRequestCount() {
+            return requestCount;
+        }
+
+        /**
+         * Returns the number of measured requests that failed.
+         *
+         * @return the number of measured requests that failed.
+         */
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        /**
+         * Returns the time taken by the measured requests.
+         *
+         * @return the time taken by the measured requests.
+         */
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        /**
+         * Returns the number of measured requests completed per second.
+         *
+         * @return the number of measured requests completed per second.
+         */
+        public double getThroughput() {
+            return requestCount / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+
+        /**
+         * Returns the given percentile of the latency of the measured requests, by the nearest-rank method.
+         *
+         * @param percentile
+         *     the percentile, between 0 (exclusive) and 100 (inclusive).
+         * @return the given percentile of the latency, or {@link Duration#ZERO} if there were no requests.
+         * @throws IllegalArgumentException
+         *     if the percentile is out of range.
+         */
+        public Duration getLatencyPercentile(double percentile) {
+            if (!(percentile > 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("percentile must be in (0, 100]: " + percentile);
+            }
+            if (sortedLatencies.length == 0) {
+                return Duration.ZERO;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+            return Duration.ofNanos(sortedLatencies[Math.max(rank, 1) - 1]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%-22s requests=%d failures=%d elapsed=%.3fs throughput=%.1f/s p50=%.3fms p99=%.3fms max=%.3fms",
+                backendName,
+                requestCount,
+                failureCount,
+                elapsed.toNanos() / 1e9,
+                getThroughput(),
+                getLatencyPercentile(50).toNanos() / 1e6,
+                getLatencyPercentile(99).toNanos() / 1e6,
+                getLatencyPercentile(100).toNanos() / 1e6
+            );
+        }
+
+    }
+
+    /**
+     * Builds a {@link LoadRunner}. Builders are not thread-safe.
+     */
+    public static final class Builder {
+
+        private int requestCount = 100_000;
+
+        private int warmupRequestCount = 10_000;
+
+        private int concurrency = 64;
+
+        private long bodySize = 1024;
+
+        private int chunkSize;
+
+        private Duration latency = Duration.ZERO;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the number of measured requests. The default is 100,000.
+         *
+         * @param requestCount
+         *     the number of measured requests, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setRequestCount(int requestCount) {
+            if (requestCount <= 0) {
+                throw new IllegalArgumentException("requestCount must be positive: " + requestCount);
+            }
+            this.requestCount = requestCount;
+            return this;
+        }
+
+        /**
+         * Sets the number of requests sent before the measured requests. The default is 10,000.
+         *
+         * @param warmupRequestCount
+         *     the number of warmup requests, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is negative.
+         */
+        public Builder setWarmupRequestCount(int warmupRequestCount) {
+            if (warmupRequestCount < 0) {
+                throw new IllegalArgumentException("warmupRequestCount must not be negative: " + warmupRequestCount);
+            }
+            this.warmupRequestCount = warmupRequestCount;
+            return this;
+        }
+
+        /**
+         * Sets the number of concurrent threads sending requests. The default is 64.
+         *
+         * @param concurrency
+         *     the number of concurrent threads, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is not positive.
+         */
+        public Builder setConcurrency(int concurrency) {
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Sets the size of each response body. The default is 1 KiB.
+         *
+         * @param bodySize
+         *     the size of each response body, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is negative.
+         */
+        public Builder setBodySize(long bodySize) {
+            if (bodySize < 0) {
+                throw new IllegalArgumentException("bodySize must not be negative: " + bodySize);
+            }
+            this.bodySize = bodySize;
+            return this;
+        }
+
+        /**
+         * Sets the chunk size with which each response body is sent, or 0 (the default) to send it with a
+         * Content-Length.
+         *
+         * @param chunkSize
+         *     the chunk size, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is negative.
+         */
+        public Builder setChunkSize(int chunkSize) {
+            if (chunkSize < 0) {
+                throw new IllegalArgumentException("chunkSize must not be negative: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Sets the simulated server latency before each response. The default is zero.
+         *
+         * @param latency
+         *     the latency, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the latency is negative.
+         * @throws NullPointerException
+         *     if the latency is null.
+         */
+        public Builder setLatency(Duration latency) {
+            if (Objects.requireNonNull(latency, "latency").isNegative()) {
+                throw new IllegalArgumentException("latency must not be negative: " + latency);
+            }
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Builds the {@link LoadRunner}.
+         *
+         * @return a new {@link LoadRunner}.
+         */
+        public LoadRunner build() {
+            return new LoadRunner(this);
+        }
+
+    }
+
+}
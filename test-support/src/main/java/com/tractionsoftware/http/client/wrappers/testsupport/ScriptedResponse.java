@@ -0,0 +1,449 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import com.google.common.collect.ImmutableList;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable script for a response served by a {@link StandInServer}: its status code, its headers, which are sent
+ * in the given order and case and may be repeated, and its body, which may be sent all at once, in chunks, in a slow
+ * drip, or cut off by a connection (or stream) reset part way through.
+ *
+ * <p>
+ * A body is either a given array of bytes, or a generated body of a given length, whose content is determined by
+ * {@link #getBodyByte(long)}, so that bodies of any size can be served and verified without holding them in memory.
+ *
+ * @author Dave Shepperton
+ */
+public final class ScriptedResponse {
+
+    private final int statusCode;
+
+    private final ImmutableList<Map.Entry<String,String>> headers;
+
+    private final byte[] body;
+
+    private final long bodyLength;
+
+    private final int chunkSize;
+
+    private final int dripSize;
+
+    private final Duration dripInterval;
+
+    private final long resetAfter;
+
+    private final Duration delay;
+
+    private ScriptedResponse(Builder builder) {
+        this.statusCode = builder.statusCode;
+        this.headers = builder.headers.build();
+        this.body = builder.body;
+        this.bodyLength = builder.body == null ? builder.bodyLength : builder.body.length;
+        this.chunkSize = builder.chunkSize;
+        this.dripSize = builder.dripSize;
+        this.dripInterval = builder.dripInterval;
+        this.resetAfter = builder.resetAfter;
+        this.delay = builder.delay;
+    }
+
+    /**
+     * Returns a new {@link Builder} for a response with the given status code.
+     *
+     * @param statusCode
+     *     the status code, which must be between 200 and 599.
+     * @return a new {@link Builder}.
+     * @throws IllegalArgumentException
+     *     if the status code is out of range.
+     */
+    public static Builder createBuilder(int statusCode) {
+        return new Builder(statusCode);
+    }
+
+    /**
+     * Returns a response with the given status code and text body, which is sent with a Content-Type of
+     * {@code text/plain; charset=UTF-8}.
+     *
+     * @param statusCode
+     *     the status code, which must be between 200 and 599.
+     * @param body
+     *     the body text.
+     * @return a new {@link ScriptedResponse}.
+     * @throws IllegalArgumentException
+     *     if the status code is out of range.
+     */
+    public static ScriptedResponse createTextInstance(int statusCode, String body) {
+        return createBuilder(statusCode)
+            .addHeader("Content-Type", "text/plain; charset=UTF-8")
+            .setBody(body.getBytes(StandardCharsets.UTF_8))
+            .build();
+    }
+
+    /**
+     * Returns the byte at the given offset of every generated body.
+     *
+     * @param offset
+     *     the offset within the body.
+     * @return the byte at the given offset of a generated body.
+     */
+    public static byte getGeneratedByte(long offset) {
+        // A run of printable characters whose period (61) is coprime to any buffer size likely to be used.
+        return (byte) ('A' + offset % 61);
+    }
+
+    /**
+     * Returns the status code.
+     *
+     * @return the status code.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns the headers, in the order in which they are sent.
+     *
+     * @return the headers, as an immutable list of name-value pairs.
+     */
+    public ImmutableList<Map.Entry<String,String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the length of the body.
+     *
+     * @return the length of the body.
+     */
+    public long getBodyLength() {
+        return bodyLength;
+    }
+
+    /**
+     * Returns the byte at the given offset of the body.
+     *
+     * @param offset
+     *     the offset within the body, which must be less than its {@link #getBodyLength() length}.
+     * @return the byte at the given offset of the body.
+     */
+    public byte getBodyByte(long offset) {
+        return body == null ? getGeneratedByte(offset) : body[(int) offset];
+    }
+
+    /**
+     * Copies part of the body into the given array.
+     *
+     * @param offset
+     *     the offset within the body at which to start.
+     * @param buffer
+     *     the array into which the bytes are copied.
+     * @param length
+     *     the number of bytes to copy, which must not extend past the end of the body.
+     */
+    public void copyBody(long offset, byte[] buffer, int length) {
+        if (body != null) {
+            System.arraycopy(body, (int) offset, buffer, 0, length);
+        }
+        else {
+            for (int i = 0; i < length; i++) {
+                buffer[i] = getGeneratedByte(offset + i);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the given bytes are the complete body of this response.
+     *
+     * @param bytes
+     *     the bytes to compare.
+     * @return true if the given bytes are the complete body of this response; false otherwise.
+     */
+    public boolean isBody(byte[] bytes) {
+        if (bytes == null || bytes.length != bodyLength) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != getBodyByte(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the body is sent with chunked transfer coding (or, over HTTP/2, without a Content-Length).
+     *
+     * @return true if the body is chunked.
+     */
+    public boolean isChunked() {
+        return chunkSize > 0;
+    }
+
+    /**
+     * Returns the size of each chunk (or HTTP/2 DATA frame) of a chunked body.
+     *
+     * @return the size of each chunk, or 0 if the body is not chunked.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns the number of bytes written at a time when the body is sent in a slow drip.
+     *
+     * @return the number of bytes written at a time, or 0 if the body is not dripped.
+     */
+    public int getDripSize() {
+        return dripSize;
+    }
+
+    /**
+     * Returns the interval between writes when the body is sent in a slow drip.
+     *
+     * @return the interval between writes.
+     */
+    public Duration getDripInterval() {
+        return dripInterval;
+    }
+
+    /**
+     * Returns the number of bytes of the body after which the connection (or HTTP/2 stream) is reset.
+     *
+     * @return the number of bytes of the body after which the connection is reset, or -1 if it is not reset.
+     */
+    public long getResetAfter() {
+        return resetAfter;
+    }
+
+    /**
+     * Returns the delay before the response headers are sent.
+     *
+     * @return the delay before the response headers are sent.
+     */
+    public Duration getDelay() {
+        return delay;
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptedResponse[statusCode=" + statusCode +
+               ", headers=" + headers +
+               ", bodyLength=" + bodyLength +
+               ", chunkSize=" + chunkSize +
+               ", dripSize=" + dripSize +
+               ", dripInterval=" + dripInterval +
+               ", resetAfter=" + resetAfter +
+               ", delay=" + delay + "]";
+    }
+
+    /**
+     * Builds a {@link ScriptedResponse}. Builders are not thread-safe.
+     */
+    public static final class Builder {
+
+        private final int statusCode;
+
+        private final ImmutableList.Builder<Map.Entry<String,String>> headers = ImmutableList.builder();
+
+        private byte[] body;
+
+        private long bodyLength;
+
+        private int chunkSize;
+
+        private int dripSize;
+
+        private Duration dripInterval = Duration.ZERO;
+
+        private long resetAfter = -1;
+
+        private Duration delay = Duration.ZERO;
+
+        private Builder(int statusCode) {
+            if (statusCode < 200 || statusCode > 599) {
+                throw new IllegalArgumentException("statusCode must be between 200 and 599: " + statusCode);
+            }
+            this.statusCode = statusCode;
+        }
+
+        /**
+         * Adds a header, which is sent after any previously added headers. The name is sent in the given case over
+         * HTTP/1.1, and in lower case over HTTP/2, as that protocol requires. A header with the same name may be added
+         * more than once. Content-Length and Transfer-Encoding headers are added automatically, and should not be
+         * added here.
+         *
+         * @param name
+         *     the header name.
+         * @param value
+         *     the header value.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the name or value is null.
+         */
+        public Builder addHeader(String name, String value) {
+            headers.add(Map.entry(Objects.requireNonNull(name, "name"), Objects.requireNonNull(value, "value")));
+            return this;
+        }
+
+        /**
+         * Sets the body to the given bytes.
+         *
+         * @param body
+         *     the body, which is not copied.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if the body is null.
+         */
+        public Builder setBody(byte[] body) {
+            this.body = Objects.requireNonNull(body, "body");
+            return this;
+        }
+
+        /**
+         * Sets the body to the given text.
+         *
+         * @param body
+         *     the body text.
+         * @param charset
+         *     the charset with which the text is encoded.
+         * @return this builder.
+         * @throws NullPointerException
+         *     if either argument is null.
+         */
+        public Builder setBody(String body, Charset charset) {
+            return setBody(body.getBytes(Objects.requireNonNull(charset, "charset")));
+        }
+
+        /**
+         * Sets the body to a generated body of the given length, whose content is determined by
+         * {@link ScriptedResponse#getGeneratedByte(long)}.
+         *
+         * @param length
+         *     the length of the body, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the length is negative.
+         */
+        public Builder setGeneratedBody(long length) {
+            if (length < 0) {
+                throw new IllegalArgumentException("length must not be negative: " + length);
+            }
+            this.body = null;
+            this.bodyLength = length;
+            return this;
+        }
+
+        /**
+         * Sends the body with chunked transfer coding over HTTP/1.1, or without a Content-Length over HTTP/2, in chunks
+         * (or DATA frames) of at most the given size.
+         *
+         * @param chunkSize
+         *     the maximum size of each chunk, which must be positive.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the chunk size is not positive.
+         */
+        public Builder setChunked(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Sends the body in a slow drip, writing and flushing the given number of bytes at a time, and waiting for the
+         * given interval between writes.
+         *
+         * @param dripSize
+         *     the number of bytes written at a time, which must be positive.
+         * @param dripInterval
+         *     the interval between writes, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the size is not positive or the interval is negative.
+         * @throws NullPointerException
+         *     if the interval is null.
+         */
+        public Builder setDrip(int dripSize, Duration dripInterval) {
+            if (dripSize <= 0) {
+                throw new IllegalArgumentException("dripSize must be positive: " + dripSize);
+            }
+            if (dripInterval.isNegative()) {
+                throw new IllegalArgumentException("dripInterval must not be negative: " + dripInterval);
+            }
+            this.dripSize = dripSize;
+            this.dripInterval = dripInterval;
+            return this;
+        }
+
+        /**
+         * Resets the connection (over HTTP/1.1) or the stream (over HTTP/2) after the given number of bytes of the
+         * body have been sent. The headers always describe the complete body.
+         *
+         * @param resetAfter
+         *     the number of bytes of the body to send before resetting, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the value is negative.
+         */
+        public Builder setResetAfter(long resetAfter) {
+            if (resetAfter < 0) {
+                throw new IllegalArgumentException("resetAfter must not be negative: " + resetAfter);
+            }
+            this.resetAfter = resetAfter;
+            return this;
+        }
+
+        /**
+         * Sets a delay before the response headers are sent, e.g., to simulate server latency.
+         *
+         * @param delay
+         *     the delay, which must not be negative.
+         * @return this builder.
+         * @throws IllegalArgumentException
+         *     if the delay is negative.
+         * @throws NullPointerException
+         *     if the delay is null.
+         */
+        public Builder setDelay(Duration delay) {
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("delay must not be negative: " + delay);
+            }
+            this.delay = delay;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ScriptedResponse}.
+         *
+         * @return a new {@link ScriptedResponse}.
+         */
+        public ScriptedResponse build() {
+            return new ScriptedResponse(this);
+        }
+
+    }
+
+}
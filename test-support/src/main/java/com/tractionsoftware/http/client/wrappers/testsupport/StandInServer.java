@@ -0,0 +1,666 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A loopback HTTP server that serves {@link ScriptedResponse}s, for exercising the HTTP client wrappers without any
+ * network access. Each connection is served on its own virtual thread. Requests are served over HTTP/1.1 with
+ * keep-alive, or over HTTP/2 after an {@code h2c} upgrade or with prior knowledge, in which case streams are served
+ * concurrently on their own virtual threads with flow control. The response for a request is chosen by the path of its
+ * request target, ignoring any query; paths without a response are served the {@link #setDefaultResponse default
+ * response}. Request bodies are read and discarded.
+ *
+ * <p>
+ * This server is intended only for tests and benchmarks; it implements just enough of each protocol to serve scripted
+ * responses to well-behaved clients.
+ *
+ * @author Dave Shepperton
+ */
+public final class StandInServer implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(StandInServer.class.getName());
+
+    /**
+     * The default response for paths without a response: a 404 with a short text body.
+     */
+    public static final ScriptedResponse NOT_FOUND = ScriptedResponse.createTextInstance(404, "Not Found");
+
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    private static final int MAX_HEADER_COUNT = 100;
+
+    private static final int DEFAULT_WRITE_SIZE = 16384;
+
+    /*
+     * The maximum time for which an HTTP/1.1 connection is half-closed before it is reset.
+     */
+    private static final Duration RESET_LINGER = Duration.ofSeconds(1);
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] PRIOR_KNOWLEDGE_PREFACE_REMAINDER = "SM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ServerSocket serverSocket;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    private final Map<String,ScriptedResponse> responses = new ConcurrentHashMap<>();
+
+    private final LongAdder connectionCount = new LongAdder();
+
+    private final LongAdder http1RequestCount = new LongAdder();
+
+    private final LongAdder http2RequestCount = new LongAdder();
+
+    private volatile ScriptedResponse defaultResponse = NOT_FOUND;
+
+    private volatile boolean closed;
+
+    private StandInServer(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+    }
+
+    /**
+     * Creates and starts a server listening on an ephemeral port of the loopback address.
+     *
+     * @return a new, running {@link StandInServer}.
+     * @throws IOException
+     *     if the server socket cannot be opened.
+     */
+    public static StandInServer createInstance() throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        StandInServer server = new StandInServer(serverSocket);
+        server.executor.execute(server::acceptConnections);
+        return server;
+    }
+
+    /**
+     * Returns the port on which this server is listening.
+     *
+     * @return the port on which this server is listening.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns an {@code http} URI for the given path on this server.
+     *
+     * @param path
+     *     the path, which must start with a slash, and may include a query.
+     * @return an {@code http} URI for the given path on this server.
+     * @throws IllegalArgumentException
+     *     if the path does not start with a slash.
+     */
+    public URI getURI(String path) {
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("path must start with a slash: " + path);
+        }
+        return URI.create("http://" + serverSocket.getInetAddress().getHostAddress() + ":" + getPort() + path);
+    }
+
+    /**
+     * Sets the response for the given path.
+     *
+     * @param path
+     *     the path, without any query.
+     * @param response
+     *     the response, or null to remove any response for the path.
+     * @return the {@code http} URI for the path on this server.
+     * @throws IllegalArgumentException
+     *     if the path does not start with a slash.
+     */
+    public URI setResponse(String path, ScriptedResponse response) {
+        URI uri = getURI(path);
+        if (response == null) {
+            responses.remove(path);
+        }
+        else {
+            responses.put(path, response);
+        }
+        return uri;
+    }
+
+    /**
+     * Sets the response for paths without a response. The default is {@link #NOT_FOUND}.
+     *
+     * @param response
+     *     the default response.
+     * @throws NullPointerException
+     *     if the response is null.
+     */
+    public void setDefaultResponse(ScriptedResponse response) {
+        this.defaultResponse = Objects.requireNonNull(response, "response");
+    }
+
+    /**
+     * Returns the number of connections this server has accepted.
+     *
+     * @return the number of connections this server has accepted.
+     */
+    public long getConnectionCount() {
+        return connectionCount.sum();
+    }
+
+    /**
+     * Returns the number of requests this server has received over HTTP/1.1, not including requests that were
+     * upgraded to HTTP/2.
+     *
+     * @return the number of requests this server has received over HTTP/1.1.
+     */
+    public long getHttp1RequestCount() {
+        return http1RequestCount.sum();
+    }
+
+    /**
+     * Returns the number of requests this server has received over HTTP/2, including requests that were upgraded.
+     *
+     * @return the number of requests this server has received over HTTP/2.
+     */
+    public long getHttp2RequestCount() {
+        return http2RequestCount.sum();
+    }
+
+    /**
+     * Stops this server, closing all of its connections.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(serverSocket);
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StandInServer[port=" + getPort() +
+               ", connections=" + getConnectionCount() +
+               ", http1Requests=" + getHttp1RequestCount() +
+               ", http2Requests=" + getHttp2RequestCount() + "]";
+    }
+
+    /*
+     * Returns the response for the given request target.
+     */
+    ScriptedResponse getResponse(String target) {
+        int query = target.indexOf('?');
+        String path = query < 0 ? target : target.substring(0, query);
+        return responses.getOrDefault(path, defaultResponse);
+    }
+
+    /*
+     * Runs the given task for an HTTP/2 stream.
+     */
+    void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    void recordHttp2Request() {
+        http2RequestCount.increment();
+    }
+
+    private void acceptConnections() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            }
+            catch (IOException e) {
+                if (!closed) {
+                    LOG.log(Level.WARNING, "Failed to accept connection", e);
+                }
+                return;
+            }
+            connectionCount.increment();
+            connections.add(socket);
+            try {
+                executor.execute(() -> serve(socket));
+            }
+            catch (RejectedExecutionException e) {
+                connections.remove(socket);
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream(), DEFAULT_WRITE_SIZE);
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), DEFAULT_WRITE_SIZE);
+            while (!closed) {
+                Http1Request request = readRequest(in);
+                if (request == null) {
+                    return;
+                }
+                if (request.method.equals("PRI") && request.version.equals("HTTP/2.0")) {
+                    readPreface(in, PRIOR_KNOWLEDGE_PREFACE_REMAINDER);
+                    new Http2Session(this, in, out).run(null);
+                    return;
+                }
+                if ("100-continue".equalsIgnoreCase(request.getHeader("Expect"))) {
+                    out.write("HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                }
+                discardBody(in, request);
+                if (isUpgradeToHttp2(request)) {
+                    out.write(
+                        "HTTP/1.1 101 Switching Protocols\r\nConnection: Upgrade\r\nUpgrade: h2c\r\n\r\n"
+                            .getBytes(StandardCharsets.US_ASCII)
+                    );
+                    out.flush();
+                    readPreface(in, PREFACE);
+                    new Http2Session(this, in, out).run(request);
+                    return;
+                }
+                http1RequestCount.increment();
+                if (!respond(socket, out, request, getResponse(request.target))) {
+                    return;
+                }
+            }
+        }
+        catch (IOException e) {
+            if (!closed) {
+                LOG.log(Level.FINE, e, () -> "Connection failed: " + socket);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            connections.remove(socket);
+        }
+    }
+
+    /*
+     * Writes an HTTP/1.1 response, and returns true if the connection may be kept alive.
+     */
+    private boolean respond(Socket socket, OutputStream out, Http1Request request, ScriptedResponse response)
+        throws IOException, InterruptedException
+    {
+        sleep(response.getDelay());
+        boolean keepAlive = request.version.equals("HTTP/1.1")
+            && !"close".equalsIgnoreCase(request.getHeader("Connection"));
+        StringBuilder head = new StringBuilder(256);
+        head.append("HTTP/1.1 ").append(response.getStatusCode()).append(' ')
+            .append(getReasonPhrase(response.getStatusCode())).append("\r\n");
+        for (Map.Entry<String,String> header : response.getHeaders()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        boolean hasBody = hasBody(response.getStatusCode());
+        if (hasBody) {
+            if (response.isChunked()) {
+                head.append("Transfer-Encoding: chunked\r\n");
+            }
+            else {
+                head.append("Content-Length: ").append(response.getBodyLength()).append("\r\n");
+            }
+        }
+        if (!keepAlive) {
+            head.append("Connection: close\r\n");
+        }
+        head.append("\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        if (!hasBody || request.method.equals("HEAD")) {
+            out.flush();
+            return keepAlive;
+        }
+        boolean chunked = response.isChunked();
+        boolean complete = sendBody(response, new BodySink() {
+
+            @Override
+            public void write(byte[] buffer, int length) throws IOException {
+                if (chunked) {
+                    out.write(Integer.toHexString(length).getBytes(StandardCharsets.US_ASCII));
+                    out.write(CRLF);
+                    out.write(buffer, 0, length);
+                    out.write(CRLF);
+                }
+                else {
+                    out.write(buffer, 0, length);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void reset() throws IOException {
+                out.flush();
+                // A client discards any data it has not yet read when a TCP RST arrives, which could include the
+                // headers, so the output is half-closed first, and the connection is only aborted once the client
+                // has seen the body end early and closed its side, or after a short wait.
+                socket.shutdownOutput();
+                socket.setSoTimeout((int) RESET_LINGER.toMillis());
+                try {
+                    InputStream in = socket.getInputStream();
+                    byte[] discard = new byte[1024];
+                    while (in.read(discard) >= 0) {
+                        // Discard anything else the client sends.
+                    }
+                }
+                catch (IOException e) {
+                    // The client has gone, or the wait is over.
+                }
+                // Closing with a zero linger time sends a TCP RST rather than a FIN.
+                socket.setSoLinger(true, 0);
+                socket.close();
+            }
+
+            @Override
+            public void finish() throws IOException {
+                if (chunked) {
+                    out.write(LAST_CHUNK);
+                }
+                out.flush();
+            }
+
+        });
+        return complete && keepAlive;
+    }
+
+    /**
+     * Receives the body of a response as it is sent.
+     */
+    interface BodySink {
+
+        /**
+         * Writes the given part of the body.
+         *
+         * @param buffer
+         *     the buffer holding the part of the body.
+         * @param length
+         *     the length of the part of the body, starting at the beginning of the buffer.
+         * @throws IOException
+         *     if the part of the body cannot be written.
+         */
+        void write(byte[] buffer, int length) throws IOException;
+
+        /**
+         * Flushes any buffered parts of the body.
+         *
+         * @throws IOException
+         *     if the body cannot be flushed.
+         */
+        void flush() throws IOException;
+
+        /**
+         * Resets the connection or stream, abandoning the rest of the body.
+         *
+         * @throws IOException
+         *     if the connection or stream cannot be reset.
+         */
+        void reset() throws IOException;
+
+        /**
+         * Ends the body.
+         *
+         * @throws IOException
+         *     if the body cannot be ended.
+         */
+        void finish() throws IOException;
+
+    }
+
+    /*
+     * Sends the body of the given response to the given sink, as scripted, and returns true if it was sent completely,
+     * or false if it was reset.
+     */
+    static boolean sendBody(ScriptedResponse response, BodySink sink) throws IOException, InterruptedException {
+        long length = response.getBodyLength();
+        long resetAfter = response.getResetAfter();
+        boolean reset = resetAfter >= 0 && resetAfter < length;
+        long limit = reset ? resetAfter : length;
+        int writeSize = response.getDripSize() > 0
+            ? response.getDripSize()
+            : response.isChunked() ? response.getChunkSize() : DEFAULT_WRITE_SIZE;
+        byte[] buffer = new byte[(int) Math.max(1, Math.min(writeSize, limit))];
+        for (long offset = 0; offset < limit; ) {
+            int n = (int) Math.min(buffer.length, limit - offset);
+            response.copyBody(offset, buffer, n);
+            sink.write(buffer, n);
+            offset += n;
+            if (response.getDripSize() > 0) {
+                sink.flush();
+                sleep(response.getDripInterval());
+            }
+        }
+        if (reset) {
+            sink.flush();
+            sink.reset();
+            return false;
+        }
+        sink.finish();
+        return true;
+    }
+
+    /*
+     * Returns true if a response with the given status code has a body.
+     */
+    static boolean hasBody(int statusCode) {
+        return statusCode != 204 && statusCode != 304;
+    }
+
+    private static void sleep(Duration duration) throws InterruptedException {
+        if (duration.isPositive()) {
+            Thread.sleep(duration);
+        }
+    }
+
+    private static boolean isUpgradeToHttp2(Http1Request request) {
+        return "h2c".equalsIgnoreCase(request.getHeader("Upgrade")) && request.getHeader("HTTP2-Settings") != null;
+    }
+
+    private static void readPreface(InputStream in, byte[] expected) throws IOException {
+        byte[] preface = in.readNBytes(expected.length);
+        if (!Arrays.equals(preface, expected)) {
+            throw new IOException("Invalid HTTP/2 connection preface");
+        }
+    }
+
+    private static String getReasonPhrase(int statusCode) {
+        return switch (statusCode) {
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 202 -> "Accepted";
+            case 204 -> "No Content";
+            case 206 -> "Partial Content";
+            case 304 -> "Not Modified";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 403 -> "Forbidden";
+            case 404 -> "Not Found";
+            case 409 -> "Conflict";
+            case 429 -> "Too Many Requests";
+            case 500 -> "Internal Server Error";
+            case 502 -> "Bad Gateway";
+            case 503 -> "Service Unavailable";
+            case 504 -> "Gateway Timeout";
+            default -> "Unknown";
+        };
+    }
+
+    /*
+     * Reads a request line and headers, returning null at the end of the stream before a request.
+     */
+    private static Http1Request readRequest(InputStream in) throws IOException {
+        String requestLine = readLine(in);
+        if (requestLine == null) {
+            return null;
+        }
+        String[] parts = requestLine.split(" ");
+        if (parts.length != 3) {
+            throw new IOException("Invalid request line: " + requestLine);
+        }
+        List<Map.Entry<String,String>> headers = new ArrayList<>();
+        for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+            int colon = line.indexOf(':');
+            if (colon <= 0 || headers.size() >= MAX_HEADER_COUNT) {
+                throw new IOException("Invalid header: " + line);
+            }
+            headers.add(Map.entry(line.substring(0, colon).trim(), line.substring(colon + 1).trim()));
+        }
+        return new Http1Request(parts[0], parts[1], parts[2], headers);
+    }
+
+    private static void discardBody(InputStream in, Http1Request request) throws IOException {
+        if ("chunked".equalsIgnoreCase(request.getHeader("Transfer-Encoding"))) {
+            for (;;) {
+                String sizeLine = readLine(in);
+                int extension = sizeLine.indexOf(';');
+                long size;
+                try {
+                    size = Long.parseLong((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(), 16);
+                }
+                catch (NumberFormatException e) {
+                    throw new IOException("Invalid chunk size: " + sizeLine);
+                }
+                if (size == 0) {
+                    // Skip any trailers.
+                    while (!readLine(in).isEmpty()) {
+                    }
+                    return;
+                }
+                in.skipNBytes(size);
+                readLine(in);
+            }
+        }
+        String contentLength = request.getHeader("Content-Length");
+        if (contentLength != null) {
+            try {
+                in.skipNBytes(Long.parseLong(contentLength));
+            }
+            catch (NumberFormatException e) {
+                throw new IOException("Invalid Content-Length: " + contentLength);
+            }
+        }
+    }
+
+    /*
+     * Reads a line terminated by LF (with any preceding CR removed), or returns null at the end of the stream before
+     * any characters.
+     */
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        for (;;) {
+            int b = in.read();
+            if (b < 0) {
+                if (line.isEmpty()) {
+                    return null;
+                }
+                throw new EOFException("Unexpected end of stream");
+            }
+            if (b == '\n') {
+                int end = line.length();
+                if (end > 0 && line.charAt(end - 1) == '\r') {
+                    line.setLength(end - 1);
+                }
+                return line.toString();
+            }
+            if (line.length() >= MAX_LINE_LENGTH) {
+                throw new IOException("Line too long");
+            }
+            line.append((char) b);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable c) {
+        try {
+            c.close();
+        }
+        catch (Exception e) {
+            LOG.log(Level.FINE, e, () -> "Failed to close " + c);
+        }
+    }
+
+    /**
+     * An HTTP/1.1 request line and headers.
+     *
+     * @param method
+     *     the request method.
+     * @param target
+     *     the request target.
+     * @param version
+     *     the protocol version.
+     * @param headers
+     *     the headers, in order.
+     */
+    record Http1Request(String method, String target, String version, List<Map.Entry<String,String>> headers) {
+
+        /*
+         * Returns the value of the first header with the given name (case-insensitive), or null.
+         */
+        String getHeader(String name) {
+            for (Map.Entry<String,String> header : headers) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue();
+                }
+            }
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ *
+ *    Copyright 2026 Traction Software, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.tractionsoftware.http.client.wrappers.testsupport;
+
+import com.tractionsoftware.http.client.wrappers.HttpClientSettings;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the {@link ConformanceSuite} or the {@link LoadRunner} against a {@link StandInServer}, for each backend:
+ *
+ * <pre>
+ * java -jar test-support.jar conformance [--backends=java-h1,java-h2,apache-hc5]
+ * java -jar test-support.jar load [--backends=...] [--requests=N] [--warmup=N] [--concurrency=N]
+ *     [--body-size=BYTES] [--chunk-size=BYTES] [--latency-ms=N]
+ * </pre>
+ *
+ * The conformance command exits with status 1 if any check fails, and the load command if any request fails.
+ *
+ * @author Dave Shepperton
+ */
+public final class TestSupportMain {
+
+    private static final List<String> ALL_BACKENDS = List.of("java-h1", "java-h2", "apache-hc5");
+
+    // Not instantiable.
+    private TestSupportMain() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0 || !(args[0].equals("conformance") || args[0].equals("load"))) {
+            usage("A command is required.");
+            return;
+        }
+        List<String> backends = ALL_BACKENDS;
+        LoadRunner.Builder load = LoadRunner.createBuilder();
+        for (String arg : Arrays.copyOfRange(args, 1, args.length)) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                usage("Invalid option: " + arg);
+                return;
+            }
+            String value = arg.substring(equals + 1);
+            try {
+                switch (arg.substring(2, equals)) {
+                    case "backends" -> backends = List.of(value.split(","));
+                    case "requests" -> load.setRequestCount(Integer.parseInt(value));
+                    case "warmup" -> load.setWarmupRequestCount(Integer.parseInt(value));
+                    case "concurrency" -> load.setConcurrency(Integer.parseInt(value));
+                    case "body-size" -> load.setBodySize(Long.parseLong(value));
+                    case "chunk-size" -> load.setChunkSize(Integer.parseInt(value));
+                    case "latency-ms" -> load.setLatency(Duration.ofMillis(Long.parseLong(value)));
+                    default -> {
+                        usage("Unknown option: " + arg);
+                        return;
+                    }
+                }
+            }
+            catch (IllegalArgumentException e) {
+                usage("Invalid option: " + arg + " (" + e.getMessage() + ")");
+                return;
+            }
+        }
+        if (!ALL_BACKENDS.containsAll(backends)) {
+            usage("Unknown backend in: " + backends);
+            return;
+        }
+        boolean success = true;
+        try (StandInServer server = StandInServer.createInstance()) {
+            if (args[0].equals("conformance")) {
+                ConformanceSuite suite = ConformanceSuite.createInstance(server, System.out);
+                for (String name : backends) {
+                    try (ClientBackend backend = createBackend(name, 20)) {
+                        suite.run(backend);
+                    }
+                }
+                System.out.println(suite);
+                success = suite.getFailedCount() == 0;
+            }
+            else {
+                LoadRunner runner = load.build();
+                System.out.println(runner);
+                for (String name : backends) {
+                    try (ClientBackend backend = createBackend(name, 1000)) {
+                        LoadRunner.Report report = runner.run(server, backend);
+                        System.out.println(report);
+                        success &= report.getFailureCount() == 0;
+                    }
+                }
+            }
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+
+    private static ClientBackend createBackend(String name, int maxConnections) {
+        HttpClientSettings.Builder settings = HttpClientSettings.createBuilder()
+            .setMaxConnectionsPerRoute(maxConnections)
+            .setMaxConnectionsTotal(maxConnections);
+        return switch (name) {
+            case "java-h1" -> JavaClientBackend.createInstance(settings.setPreferHttp2(false).build());
+            case "java-h2" -> JavaClientBackend.createInstance(settings.setPreferHttp2(true).build());
+            default -> ApacheHC5ClientBackend.createInstance(settings.setPreferHttp2(false).build());
+        };
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: java -jar test-support.jar conformance [--backends=java-h1,java-h2,apache-hc5]");
+        System.err.println("       java -jar test-support.jar load [--backends=...] [--requests=N] [--warmup=N]");
+        System.err.println("           [--concurrency=N] [--body-size=BYTES] [--chunk-size=BYTES] [--latency-ms=N]");
+        System.exit(2);
+    }
+
+}